@@ -0,0 +1,168 @@
+package org.pranid.kafka.admission;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.pranid.kafka.config.AdmissionProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.PathContainer;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Admission control for the produce endpoints.
+ * A request must get a token from its endpoint bucket and from its client's bucket for that
+ * endpoint, and is then shed with the probability reported by {@link PipelinePressureMonitor}.
+ * Rejected requests get an immediate 429 with a {@code Retry-After} header.
+ * <p>
+ * Clients are identified by their remote address, or by {@code X-Forwarded-For} when the request comes from one
+ * of {@code admission.trusted-proxies}. Client buckets are kept in an LRU map bounded by
+ * {@code admission.max-tracked-clients}.
+ */
+@Component
+public class AdmissionControlFilter implements WebFilter {
+
+    private final Logger logger = LoggerFactory.getLogger(AdmissionControlFilter.class);
+    private final AdmissionProperties properties;
+    private final PipelinePressureMonitor pressureMonitor;
+    private final Map<PathPattern, TokenBucket> endpointBuckets = new LinkedHashMap<>();
+    private final Map<String, TokenBucket> clientBuckets;
+    private final Set<String> trustedProxies;
+    private final Counter clientRejections;
+    private final Counter endpointRejections;
+    private final Counter shedRejections;
+
+    public AdmissionControlFilter(AdmissionProperties properties,
+                                  PipelinePressureMonitor pressureMonitor,
+                                  MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.pressureMonitor = pressureMonitor;
+        this.clientBuckets = Collections.synchronizedMap(lru(properties.getMaxTrackedClients()));
+        this.trustedProxies = Set.copyOf(properties.getTrustedProxies());
+        for (String path : properties.getPaths()) {
+            endpointBuckets.put(PathPatternParser.defaultInstance.parse(path), new TokenBucket(
+                    properties.getEndpoint().getPermitsPerSecond(), properties.getEndpoint().getBurst()));
+        }
+        this.clientRejections = rejections(meterRegistry, "client-rate");
+        this.endpointRejections = rejections(meterRegistry, "endpoint-rate");
+        this.shedRejections = rejections(meterRegistry, "shed");
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        if (!properties.isEnabled()) {
+            return chain.filter(exchange);
+        }
+        PathContainer path = exchange.getRequest().getPath().pathWithinApplication();
+        for (Map.Entry<PathPattern, TokenBucket> endpoint : endpointBuckets.entrySet()) {
+            if (endpoint.getKey().matches(path)) {
+                return admit(exchange, chain, endpoint.getKey(), endpoint.getValue());
+            }
+        }
+        return chain.filter(exchange);
+    }
+
+    private Mono<Void> admit(ServerWebExchange exchange, WebFilterChain chain,
+                             PathPattern pattern, TokenBucket endpointBucket) {
+        long waitNanos = clientBucket(pattern, clientId(exchange.getRequest())).tryAcquire();
+        if (waitNanos > 0) {
+            clientRejections.increment();
+            return reject(exchange.getResponse(), waitNanos, "Client rate limit exceeded");
+        }
+
+        waitNanos = endpointBucket.tryAcquire();
+        if (waitNanos > 0) {
+            endpointRejections.increment();
+            return reject(exchange.getResponse(), waitNanos, "Endpoint rate limit exceeded");
+        }
+
+        double shedProbability = pressureMonitor.shedProbability();
+        if (shedProbability > 0 && ThreadLocalRandom.current().nextDouble() < shedProbability) {
+            shedRejections.increment();
+            return reject(exchange.getResponse(), properties.getShedding().getRetryAfter().toNanos(),
+                    "Pipeline overloaded, request shed");
+        }
+
+        return chain.filter(exchange);
+    }
+
+    int trackedClients() {
+        return clientBuckets.size();
+    }
+
+    private TokenBucket clientBucket(PathPattern pattern, String clientId) {
+        return clientBuckets.computeIfAbsent(pattern.getPatternString() + "|" + clientId, key -> new TokenBucket(
+                properties.getClient().getPermitsPerSecond(), properties.getClient().getBurst()));
+    }
+
+    /**
+     * The remote address, or behind trusted proxies the nearest {@code X-Forwarded-For} hop that is not one of
+     * them. Hops left of that were supplied by the client and are not trusted.
+     */
+    String clientId(ServerHttpRequest request) {
+        InetSocketAddress remoteAddress = request.getRemoteAddress();
+        String client = remoteAddress == null ? "unknown" : remoteAddress.getHostString();
+        String forwardedFor = request.getHeaders().getFirst("X-Forwarded-For");
+        if (forwardedFor == null || !trustedProxies.contains(client)) {
+            return client;
+        }
+        String[] hops = forwardedFor.split(",");
+        for (int i = hops.length - 1; i >= 0; i--) {
+            String hop = hops[i].trim();
+            if (hop.isEmpty()) {
+                continue;
+            }
+            client = hop;
+            if (!trustedProxies.contains(hop)) {
+                break;
+            }
+        }
+        return client;
+    }
+
+    private static Map<String, TokenBucket> lru(int maxEntries) {
+        return new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, TokenBucket> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    private Mono<Void> reject(ServerHttpResponse response, long retryAfterNanos, String message) {
+        long retryAfterSeconds = Math.max(1, (long) Math.ceil(retryAfterNanos / (double) TimeUnit.SECONDS.toNanos(1)));
+        logger.debug("Rejecting request: {} (retry after {}s)", message, retryAfterSeconds);
+
+        response.setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+        response.getHeaders().set(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        byte[] body = ("{\"message\": \"" + message + "\", \"status\": \"rejected\"}").getBytes(StandardCharsets.UTF_8);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+    }
+
+    private static Counter rejections(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("admission.rejected")
+                .tag("reason", reason)
+                .description("Requests rejected by admission control")
+                .register(meterRegistry);
+    }
+}
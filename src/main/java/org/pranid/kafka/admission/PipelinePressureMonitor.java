@@ -0,0 +1,113 @@
+package org.pranid.kafka.admission;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.common.Metric;
+import org.apache.kafka.common.MetricName;
+import org.pranid.kafka.config.AdmissionProperties;
+import org.pranid.kafka.config.ReactiveProducerProperties;
+import org.pranid.kafka.producer.ReactiveKafkaProducer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Samples how loaded the Kafka pipeline is and turns it into a shed probability.
+ * Signals are the producer's average record queue time, waiting sends in
+ * {@link ReactiveKafkaProducer} and the worst consumer lag of this service's listener containers.
+ * Samples are cached for {@code admission.shedding.sample-interval} so requests only read a field.
+ */
+@Component
+public class PipelinePressureMonitor {
+
+    private final Logger logger = LoggerFactory.getLogger(PipelinePressureMonitor.class);
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final KafkaListenerEndpointRegistry listenerRegistry;
+    private final ReactiveKafkaProducer reactiveKafkaProducer;
+    private final ReactiveProducerProperties producerProperties;
+    private final AdmissionProperties.Shedding shedding;
+
+    private volatile double shedProbability;
+    private volatile long nextSampleAt;
+
+    public PipelinePressureMonitor(KafkaTemplate<String, Object> kafkaTemplate,
+                                   KafkaListenerEndpointRegistry listenerRegistry,
+                                   ReactiveKafkaProducer reactiveKafkaProducer,
+                                   ReactiveProducerProperties producerProperties,
+                                   AdmissionProperties admissionProperties,
+                                   MeterRegistry meterRegistry) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.listenerRegistry = listenerRegistry;
+        this.reactiveKafkaProducer = reactiveKafkaProducer;
+        this.producerProperties = producerProperties;
+        this.shedding = admissionProperties.getShedding();
+        this.nextSampleAt = System.nanoTime();
+
+        Gauge.builder("admission.shed.probability", this, PipelinePressureMonitor::shedProbability)
+                .description("Probability that a guarded request is shed")
+                .register(meterRegistry);
+    }
+
+    public double shedProbability() {
+        long now = System.nanoTime();
+        if (now - nextSampleAt >= 0) {
+            nextSampleAt = now + shedding.getSampleInterval().toNanos();
+            shedProbability = sample();
+        }
+        return shedProbability;
+    }
+
+    private double sample() {
+        try {
+            double queueTime = ratio(producerQueueTimeMs(),
+                    shedding.getQueueTimeSoft().toMillis(), shedding.getQueueTimeHard().toMillis());
+            double lag = ratio(maxConsumerLag(), shedding.getConsumerLagSoft(), shedding.getConsumerLagHard());
+            double waiting = Math.min(1.0, (double) reactiveKafkaProducer.waiting() / producerProperties.getMaxInFlight());
+            return Math.max(queueTime, Math.max(lag, waiting));
+        } catch (RuntimeException e) {
+            logger.debug("Could not sample pipeline pressure", e);
+            return 0.0;
+        }
+    }
+
+    private double producerQueueTimeMs() {
+        return metricValue(kafkaTemplate.metrics(), "record-queue-time-avg");
+    }
+
+    private double maxConsumerLag() {
+        double max = 0;
+        for (MessageListenerContainer container : listenerRegistry.getListenerContainers()) {
+            for (Map<MetricName, ? extends Metric> metrics : container.metrics().values()) {
+                max = Math.max(max, metricValue(metrics, "records-lag-max"));
+            }
+        }
+        return max;
+    }
+
+    private static double metricValue(Map<MetricName, ? extends Metric> metrics, String name) {
+        double max = 0;
+        for (Map.Entry<MetricName, ? extends Metric> entry : metrics.entrySet()) {
+            if (entry.getKey().name().equals(name)
+                    && entry.getValue().metricValue() instanceof Number number
+                    && !Double.isNaN(number.doubleValue())) {
+                max = Math.max(max, number.doubleValue());
+            }
+        }
+        return max;
+    }
+
+    private static double ratio(double value, double soft, double hard) {
+        if (value <= soft) {
+            return 0.0;
+        }
+        if (value >= hard || hard <= soft) {
+            return 1.0;
+        }
+        return (value - soft) / (hard - soft);
+    }
+}
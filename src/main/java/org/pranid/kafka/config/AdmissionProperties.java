@@ -0,0 +1,64 @@
+package org.pranid.kafka.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Rate limits and load-shedding thresholds for the produce endpoints.
+ */
+@Data
+@ConfigurationProperties(prefix = "admission")
+public class AdmissionProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Path patterns guarded by admission control. Each pattern gets its own endpoint bucket.
+     */
+    private List<String> paths = new ArrayList<>(List.of("/person/create-person/**", "/alien/send/**"));
+
+    private Limit endpoint = new Limit(500, 1000);
+
+    private Limit client = new Limit(50, 100);
+
+    /**
+     * Upper bound on per-client buckets kept in memory; the least recently used bucket is evicted beyond it.
+     */
+    private int maxTrackedClients = 10_000;
+
+    /**
+     * Addresses of the reverse proxies whose {@code X-Forwarded-For} is trusted. Clients are otherwise identified
+     * by their remote address, so they cannot pick a fresh bucket by sending the header themselves.
+     */
+    private List<String> trustedProxies = new ArrayList<>();
+
+    private Shedding shedding = new Shedding();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Limit {
+        private double permitsPerSecond;
+        private int burst;
+    }
+
+    /**
+     * Requests are shed with a probability that rises linearly from 0 at the soft
+     * threshold to 1 at the hard threshold of the most pressured signal.
+     */
+    @Data
+    public static class Shedding {
+        private Duration queueTimeSoft = Duration.ofMillis(50);
+        private Duration queueTimeHard = Duration.ofMillis(500);
+        private long consumerLagSoft = 10_000;
+        private long consumerLagHard = 100_000;
+        private Duration retryAfter = Duration.ofSeconds(1);
+        private Duration sampleInterval = Duration.ofSeconds(1);
+    }
+}
@@ -0,0 +1,26 @@
+package org.pranid.kafka.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Coalescing of concurrent by-id lookups into batched {@code $in} queries.
+ */
+@Data
+@ConfigurationProperties(prefix = "loaders")
+public class BatchLoaderProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * How long the first id of a batch waits for others to join it.
+     */
+    private Duration tick = Duration.ofMillis(2);
+
+    /**
+     * A batch is dispatched immediately once it holds this many distinct ids.
+     */
+    private int maxBatchSize = 100;
+}
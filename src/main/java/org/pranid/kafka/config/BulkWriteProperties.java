@@ -0,0 +1,40 @@
+package org.pranid.kafka.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Chunking and retry of repository bulk writes.
+ */
+@Data
+@ConfigurationProperties(prefix = "mongo.bulk")
+public class BulkWriteProperties {
+
+    /**
+     * Operations sent per {@code bulkWrite} command.
+     */
+    private int chunkSize = 1000;
+
+    /**
+     * Chunks written concurrently in unordered mode; ordered writes always go one chunk at a time.
+     */
+    private int concurrency = 4;
+
+    /**
+     * Retries of the transiently failed operations of a chunk before they are reported as failed.
+     */
+    private int maxRetries = 3;
+
+    /**
+     * Delay before the first retry, doubled on each further retry.
+     */
+    private Duration retryBackoff = Duration.ofMillis(100);
+
+    /**
+     * Write concern of bulk writes, e.g. {@code majority} or {@code w1}. It overrides the connection string's,
+     * which may be unacknowledged, because failures can only be reported and retried when writes are acknowledged.
+     */
+    private String writeConcern = "majority";
+}
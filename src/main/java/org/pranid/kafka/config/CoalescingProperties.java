@@ -0,0 +1,37 @@
+package org.pranid.kafka.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Producer-side coalescing of repeated updates to one key, and the compacted topic that goes with it.
+ */
+@Data
+@ConfigurationProperties(prefix = "kafka.coalescing")
+public class CoalescingProperties {
+
+    private boolean enabled = false;
+
+    /**
+     * How long the first update of a key waits for newer ones; only the latest within the window is sent.
+     */
+    private Duration window = Duration.ofMillis(100);
+
+    /**
+     * Keys held at once. Beyond this, updates of new keys are sent right away instead of waiting.
+     */
+    private int maxPendingKeys = 10000;
+
+    /**
+     * With {@link #enabled}, declare {@code person.created} with {@code cleanup.policy=compact}, keeping the latest
+     * event per key. Only safe when the person key is a unique identity.
+     */
+    private boolean compactTopic = true;
+
+    /**
+     * Minimum time a record stays uncompacted, so consumers that are only slightly behind still see every update.
+     */
+    private Duration minCompactionLag = Duration.ofMinutes(1);
+}
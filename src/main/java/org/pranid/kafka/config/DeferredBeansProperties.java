@@ -0,0 +1,26 @@
+package org.pranid.kafka.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Beans created on first use instead of during startup, see {@code LazyPackagesBeanFactoryPostProcessor}.
+ */
+@Data
+@ConfigurationProperties(prefix = "startup.defer")
+public class DeferredBeansProperties {
+
+    /**
+     * Mark the beans under {@link #packages} lazy.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Package prefixes of beans that are not needed to consume records, e.g. the OpenAPI docs and Swagger UI.
+     * A bean matches by its class, or for {@code @Bean} methods by the configuration class declaring them.
+     */
+    private List<String> packages = new ArrayList<>(List.of("org.springdoc"));
+}
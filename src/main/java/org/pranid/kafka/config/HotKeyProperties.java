@@ -0,0 +1,40 @@
+package org.pranid.kafka.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Hot-key tracking on the consume and produce paths.
+ */
+@Data
+@ConfigurationProperties(prefix = "hotkeys")
+public class HotKeyProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Keys and names reported per topic and per partition.
+     */
+    private int topK = 10;
+
+    private int sketchWidth = 2048;
+
+    private int sketchDepth = 4;
+
+    /**
+     * Width of the smaller sketches kept per partition.
+     */
+    private int partitionSketchWidth = 256;
+
+    /**
+     * Partitions above this number are counted for the topic only.
+     */
+    private int maxPartitions = 64;
+
+    /**
+     * All counts are halved this often, so keys that are no longer hot fall out of the top.
+     */
+    private Duration decayInterval = Duration.ofMinutes(1);
+}
@@ -0,0 +1,14 @@
+package org.pranid.kafka.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Startup provisioning of the indexes declared on the MongoDB models.
+ */
+@Data
+@ConfigurationProperties(prefix = "mongo.indexes")
+public class IndexProperties {
+
+    private boolean provision = true;
+}
@@ -2,19 +2,29 @@ package org.pranid.kafka.config;
 
 import org.apache.kafka.clients.admin.NewTopic;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.CooperativeStickyAssignor;
+import org.apache.kafka.common.config.TopicConfig;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
 import org.apache.kafka.common.serialization.StringDeserializer;
+import org.pranid.kafka.consumer.DrainingRebalanceListener;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.annotation.EnableKafka;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.config.ContainerPostProcessor;
+import org.springframework.kafka.config.TopicBuilder;
 import org.springframework.kafka.core.ConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
 import org.springframework.kafka.core.KafkaOperations;
+import org.springframework.kafka.listener.AbstractMessageListenerContainer;
 import org.springframework.kafka.listener.CommonErrorHandler;
+import org.springframework.kafka.listener.ContainerProperties;
 import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
 import org.springframework.kafka.listener.DefaultErrorHandler;
 import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.util.StringUtils;
 import org.springframework.util.backoff.FixedBackOff;
 
 import java.util.HashMap;
@@ -29,6 +39,8 @@ public class KafkaConfig {
 
     private static final String GROUP_ID = "multi-topic-group";
 
+    private static final String PASSTHROUGH_GROUP_ID = "passthrough-group";
+
     /**
      * Configures error handling for Kafka consumers with Dead Letter Queue (DLQ).
      * Failed messages are sent to DLQ after 2 retries with 1 second delay.
@@ -56,12 +68,69 @@ public class KafkaConfig {
         return new NewTopic("alien", 1, (short) 1);
     }
 
+    /**
+     * Compacted, so a consumer starting from the beginning reads the latest event per key rather than every save.
+     * Declared only with coalescing enabled, which already treats one key as one person; compaction is only safe
+     * when {@code kafka.keys.person} is a unique identity, otherwise different people sharing a key are dropped.
+     * Only applies when the topic is created; an existing topic keeps its cleanup policy.
+     */
+    @Bean
+    @ConditionalOnExpression("${kafka.coalescing.enabled:false} and ${kafka.coalescing.compact-topic:true}")
+    public NewTopic personCreated(CoalescingProperties coalescing) {
+        return TopicBuilder.name("person.created")
+                .partitions(1)
+                .replicas(1)
+                .compact()
+                .config(TopicConfig.MIN_COMPACTION_LAG_MS_CONFIG, String.valueOf(coalescing.getMinCompactionLag().toMillis()))
+                .build();
+    }
+
     /**
      * Configures consumer factory for multi-type message handling.
      * Supports Person, Pet, and Alien message types using type headers.
      */
     @Bean
     public ConsumerFactory<String, Object> multiTypeConsumerFactory() {
+        return multiTypeConsumerFactory(Map.of());
+    }
+
+    /**
+     * Configures Kafka listener container factory for multi-type consumers.
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, Object> multiTypeKafkaListenerContainerFactory(
+            ConsumerFactory<String, Object> multiTypeConsumerFactory) {
+        ConcurrentKafkaListenerContainerFactory<String, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(multiTypeConsumerFactory);
+        return factory;
+    }
+
+    /**
+     * Multi-type factory for the {@code multi-topic} listener, set up for rolling deploys.
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, Object> multiTopicKafkaListenerContainerFactory(
+            DrainingRebalanceListener rebalanceListener, RebalanceProperties rebalance) {
+        return rollingDeployFactory(rebalanceConfigs(rebalance), rebalanceListener, rebalance);
+    }
+
+    /**
+     * Multi-type factory for {@code alienConsumer}, set up for rolling deploys. Like Boot's factory it used before,
+     * it starts a new group from the earliest offset and dead-letters records that keep failing.
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, Object> alienKafkaListenerContainerFactory(
+            DrainingRebalanceListener rebalanceListener, RebalanceProperties rebalance,
+            CommonErrorHandler errorHandler) {
+        Map<String, Object> config = rebalanceConfigs(rebalance);
+        config.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        ConcurrentKafkaListenerContainerFactory<String, Object> factory =
+                rollingDeployFactory(config, rebalanceListener, rebalance);
+        factory.setCommonErrorHandler(errorHandler);
+        return factory;
+    }
+
+    private ConsumerFactory<String, Object> multiTypeConsumerFactory(Map<String, Object> overrides) {
         Map<String, Object> config = new HashMap<>();
         config.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         config.put(ConsumerConfig.GROUP_ID_CONFIG, GROUP_ID);
@@ -76,6 +145,7 @@ public class KafkaConfig {
                 "pet:org.pranid.kafka.model.Pet," +
                 "alien:org.pranid.kafka.model.Alien"
         );
+        config.putAll(overrides);
 
         return new DefaultKafkaConsumerFactory<>(
                 config,
@@ -85,12 +155,71 @@ public class KafkaConfig {
     }
 
     /**
-     * Configures Kafka listener container factory for multi-type consumers.
+     * The draining rebalance listener and static membership are kept off the other multi-type containers: the
+     * replay consumers join throwaway groups, where a shared {@code group.instance.id} is pointless, and have
+     * nothing queued to drain.
      */
-    @Bean
-    public ConcurrentKafkaListenerContainerFactory<String, Object> multiTypeKafkaListenerContainerFactory() {
+    private ConcurrentKafkaListenerContainerFactory<String, Object> rollingDeployFactory(
+            Map<String, Object> config, DrainingRebalanceListener rebalanceListener, RebalanceProperties rebalance) {
         ConcurrentKafkaListenerContainerFactory<String, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
-        factory.setConsumerFactory(multiTypeConsumerFactory());
+        factory.setConsumerFactory(multiTypeConsumerFactory(config));
+        factory.getContainerProperties().setConsumerRebalanceListener(rebalanceListener);
+        // Leave room for the drain on stop before the container gives up on its consumer thread
+        factory.getContainerProperties().setShutdownTimeout(rebalance.getDrainTimeout().plusSeconds(5).toMillis());
+        return factory;
+    }
+
+    /**
+     * Cooperative-sticky assignment and, when this instance has a stable identity, static group membership:
+     * a restarted member rejoins with its old partitions and no rebalance if it is back within the session timeout.
+     */
+    private static Map<String, Object> rebalanceConfigs(RebalanceProperties rebalance) {
+        Map<String, Object> config = new HashMap<>();
+        if (rebalance.isCooperative()) {
+            config.put(ConsumerConfig.PARTITION_ASSIGNMENT_STRATEGY_CONFIG, CooperativeStickyAssignor.class.getName());
+        }
+        if (StringUtils.hasText(rebalance.getInstanceId())) {
+            config.put(ConsumerConfig.GROUP_INSTANCE_ID_CONFIG, rebalance.getInstanceId());
+            config.put(ConsumerConfig.SESSION_TIMEOUT_MS_CONFIG, (int) rebalance.getSessionTimeout().toMillis());
+        }
+        return config;
+    }
+
+    /**
+     * Lets {@code MultiTopicKafkaConsumer} acknowledge records once they are handled, which with lanes is after
+     * the listener has returned.
+     */
+    @Bean
+    public ContainerPostProcessor<String, Object, AbstractMessageListenerContainer<String, Object>>
+            manualAckContainerPostProcessor() {
+        return container -> container.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+    }
+
+    /**
+     * Configures consumer factory for the raw BSON passthrough path.
+     * Values are left as bytes so they can be piped directly into BSON.
+     */
+    @Bean
+    public ConsumerFactory<String, byte[]> passthroughConsumerFactory() {
+        Map<String, Object> config = new HashMap<>();
+        config.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        config.put(ConsumerConfig.GROUP_ID_CONFIG, PASSTHROUGH_GROUP_ID);
+
+        return new DefaultKafkaConsumerFactory<>(
+                config,
+                new StringDeserializer(),
+                new ByteArrayDeserializer()
+        );
+    }
+
+    /**
+     * Configures batch listener container factory for passthrough consumers.
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, byte[]> passthroughKafkaListenerContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, byte[]> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(passthroughConsumerFactory());
+        factory.setBatchListener(true);
         return factory;
     }
 
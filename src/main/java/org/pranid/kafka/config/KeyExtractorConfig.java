@@ -0,0 +1,22 @@
+package org.pranid.kafka.config;
+
+import org.pranid.kafka.model.Alien;
+import org.pranid.kafka.model.Person;
+import org.pranid.kafka.producer.KeyExtractor;
+import org.pranid.kafka.producer.PropertyKeyExtractor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class KeyExtractorConfig {
+
+    @Bean
+    public KeyExtractor<Person> personKeyExtractor(KeyProperties properties) {
+        return new PropertyKeyExtractor<>(Person.class, properties.getPerson());
+    }
+
+    @Bean
+    public KeyExtractor<Alien> alienKeyExtractor(KeyProperties properties) {
+        return new PropertyKeyExtractor<>(Alien.class, properties.getAlien());
+    }
+}
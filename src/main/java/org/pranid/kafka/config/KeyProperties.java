@@ -0,0 +1,16 @@
+package org.pranid.kafka.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Payload property used as the Kafka record key for each model type.
+ */
+@Data
+@ConfigurationProperties(prefix = "kafka.keys")
+public class KeyProperties {
+
+    private String person = "name";
+
+    private String alien = "name";
+}
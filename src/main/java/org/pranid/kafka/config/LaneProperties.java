@@ -0,0 +1,38 @@
+package org.pranid.kafka.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Per-topic lanes of the multi-topic consumer. Each round, lanes are served in descending priority and each
+ * takes up to {@code weight} records, so higher weights get a larger share while every lane keeps moving.
+ */
+@Data
+@ConfigurationProperties(prefix = "kafka.lanes")
+public class LaneProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Lane settings by topic; topics not listed use {@link #defaults}.
+     */
+    private Map<String, Lane> topics = new HashMap<>();
+
+    private Lane defaults = new Lane();
+
+    @Data
+    public static class Lane {
+
+        private int weight = 1;
+
+        private int priority = 0;
+
+        /**
+         * Queued records at which the lane's partitions are paused; they resume once it is half empty.
+         */
+        private int capacity = 1000;
+    }
+}
@@ -0,0 +1,23 @@
+package org.pranid.kafka.config;
+
+import org.pranid.kafka.model.AlienCodec;
+import org.pranid.kafka.model.PersonCodec;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+
+import java.util.List;
+
+/**
+ * Reads persons and aliens through their hand-written codecs instead of the reflective entity mapping.
+ * Only reading converters are registered: a writing converter would turn the models into simple types and hide
+ * their index annotations and save events, so single writes keep the mapped path and bulk writes use the codecs.
+ */
+@Configuration
+public class MongoCodecConfig {
+
+    @Bean
+    public MongoCustomConversions mongoCustomConversions() {
+        return new MongoCustomConversions(List.of(new PersonCodec.DocumentReader(), new AlienCodec.DocumentReader()));
+    }
+}
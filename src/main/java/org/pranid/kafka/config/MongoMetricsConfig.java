@@ -0,0 +1,28 @@
+package org.pranid.kafka.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.pranid.kafka.metrics.MongoCommandMetricsListener;
+import org.pranid.kafka.metrics.MongoPoolMetricsListener;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Attaches the command and connection pool listeners to the MongoDB client behind {@code ReactiveMongoTemplate}.
+ * Spring Boot's own Mongo meters are switched off in application.yml so commands are not timed twice.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "mongo.metrics", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class MongoMetricsConfig {
+
+    @Bean
+    public MongoClientSettingsBuilderCustomizer mongoMetricsCustomizer(MeterRegistry meterRegistry,
+                                                                       MongoMetricsProperties properties) {
+        MongoCommandMetricsListener commandListener = new MongoCommandMetricsListener(meterRegistry, properties);
+        MongoPoolMetricsListener poolListener = new MongoPoolMetricsListener(meterRegistry);
+        return builder -> builder
+                .addCommandListener(commandListener)
+                .applyToConnectionPoolSettings(pool -> pool.addConnectionPoolListener(poolListener));
+    }
+}
@@ -0,0 +1,28 @@
+package org.pranid.kafka.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Driver-level MongoDB command and connection pool instrumentation.
+ */
+@Data
+@ConfigurationProperties(prefix = "mongo.metrics")
+public class MongoMetricsProperties {
+
+    private boolean enabled = true;
+
+    private Duration slowCommandThreshold = Duration.ofMillis(100);
+
+    /**
+     * Fraction of commands whose shape is captured so it can be logged if they turn out slow.
+     */
+    private double slowCommandSampleRate = 0.1;
+
+    /**
+     * Logged command shapes are cut off after this many characters.
+     */
+    private int maxShapeLength = 512;
+}
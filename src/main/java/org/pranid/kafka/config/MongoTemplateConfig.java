@@ -0,0 +1,28 @@
+package org.pranid.kafka.config;
+
+import org.pranid.kafka.repository.ReadRouter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.ReactiveMongoDatabaseFactory;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+
+/**
+ * Replaces Spring Boot's template so its write concern is set here rather than by the beans using it.
+ */
+@Configuration
+public class MongoTemplateConfig {
+
+    /**
+     * Person and alien writes get {@code mongo.routing.causal-write-concern} while causal sessions are enabled;
+     * everything else keeps the connection string's write concern.
+     */
+    @Bean
+    public ReactiveMongoTemplate reactiveMongoTemplate(ReactiveMongoDatabaseFactory databaseFactory,
+                                                       MongoConverter converter,
+                                                       ReadRoutingProperties readRoutingProperties) {
+        ReactiveMongoTemplate template = new ReactiveMongoTemplate(databaseFactory, converter);
+        template.setWriteConcernResolver(ReadRouter.writeConcernResolver(readRoutingProperties));
+        return template;
+    }
+}
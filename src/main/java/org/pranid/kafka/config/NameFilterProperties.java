@@ -0,0 +1,35 @@
+package org.pranid.kafka.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Bloom filters answering whether a person or alien name exists.
+ */
+@Data
+@ConfigurationProperties(prefix = "names.filter")
+public class NameFilterProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Names the first slice holds before the filter grows.
+     */
+    private long initialCapacity = 100_000;
+
+    /**
+     * Upper bound for the compound false-positive rate, however far the filter grows.
+     */
+    private double falsePositiveRate = 0.01;
+
+    private int growthFactor = 2;
+
+    private double tighteningRatio = 0.8;
+
+    /**
+     * The name consumer starts this far before the seeding scan, so records saved while it ran are not missed.
+     */
+    private Duration replayMargin = Duration.ofMinutes(5);
+}
@@ -0,0 +1,31 @@
+package org.pranid.kafka.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * In-memory prefix search over person and alien names.
+ */
+@Data
+@ConfigurationProperties(prefix = "names.search")
+public class NameSearchProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Names recorded since the last rebuild that trigger merging them into the compact index.
+     */
+    private int mergeThreshold = 10_000;
+
+    /**
+     * Consumer group that saves persons and aliens. Replayed records below its committed offsets are left to the
+     * seeding {@code $group}; later ones are counted as they are read.
+     */
+    private String savingGroup = "multi-topic-group";
+
+    /**
+     * Records read before seeding starts that are held until the group's offsets are known; beyond this they are
+     * not counted.
+     */
+    private int maxPendingRecords = 100_000;
+}
@@ -0,0 +1,39 @@
+package org.pranid.kafka.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Settings for the raw BSON passthrough ingestion path.
+ * Topics listed here are stored as-is without materializing domain objects.
+ */
+@Data
+@ConfigurationProperties(prefix = "kafka.passthrough")
+public class PassthroughProperties {
+
+    private boolean enabled = false;
+
+    private List<String> topics = new ArrayList<>();
+
+    /**
+     * Target MongoDB collection per topic.
+     */
+    private Map<String, String> collections = new HashMap<>();
+
+    /**
+     * Top-level fields that must be present per topic. Topics without an entry are not validated.
+     */
+    private Map<String, List<String>> requiredFields = new HashMap<>();
+
+    /**
+     * How long a polled batch may take to be inserted before the listener fails and the batch is delivered again.
+     * Keep it well below {@code max.poll.interval.ms}.
+     */
+    private Duration writeTimeout = Duration.ofSeconds(30);
+}
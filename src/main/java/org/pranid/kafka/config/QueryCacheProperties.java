@@ -0,0 +1,21 @@
+package org.pranid.kafka.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Result caching for the aggregation query endpoints.
+ */
+@Data
+@ConfigurationProperties(prefix = "queries.cache")
+public class QueryCacheProperties {
+
+    /**
+     * How long a completed result is served before the pipeline runs again.
+     */
+    private Duration ttl = Duration.ofSeconds(10);
+
+    private int maxEntries = 1000;
+}
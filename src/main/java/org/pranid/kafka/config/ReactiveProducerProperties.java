@@ -0,0 +1,24 @@
+package org.pranid.kafka.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Limits for {@code ReactiveKafkaProducer}.
+ */
+@Data
+@ConfigurationProperties(prefix = "kafka.reactive-producer")
+public class ReactiveProducerProperties {
+
+    /**
+     * Records sent but not yet acknowledged. Keep this below what fits in the producer's buffer.memory.
+     */
+    private int maxInFlight = 1000;
+
+    /**
+     * How long a send may wait for an in-flight slot before failing with ProducerSaturatedException.
+     */
+    private Duration acquireTimeout = Duration.ofSeconds(5);
+}
@@ -0,0 +1,49 @@
+package org.pranid.kafka.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Read preference per operation type, and causally consistent sessions for point reads.
+ */
+@Data
+@ConfigurationProperties(prefix = "mongo.routing")
+public class ReadRoutingProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Read preference of collection scans and aggregations.
+     */
+    private String scanReadPreference = "secondaryPreferred";
+
+    /**
+     * Secondaries lagging further behind than this are not used for scans; MongoDB requires at least 90 seconds.
+     */
+    private Duration scanMaxStaleness = Duration.ofSeconds(90);
+
+    private int scanBatchSize = 500;
+
+    /**
+     * Scans running at once per application instance; further scans wait for a slot.
+     */
+    private int maxConcurrentScans = 4;
+
+    /**
+     * Read preference of point reads and index lookups.
+     */
+    private String pointReadPreference = "nearest";
+
+    /**
+     * Run point reads and person/alien writes in causally consistent sessions, so a read
+     * observes every write this instance has completed.
+     */
+    private boolean causalReads = true;
+
+    /**
+     * Write concern of session writes; explicit sessions do not allow unacknowledged writes.
+     */
+    private String causalWriteConcern = "w1";
+}
@@ -0,0 +1,36 @@
+package org.pranid.kafka.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Rebalance behaviour of the {@code multi-topic-group} and {@code alienConsumer} listeners during rolling deploys.
+ */
+@Data
+@ConfigurationProperties(prefix = "kafka.rebalance")
+public class RebalanceProperties {
+
+    /**
+     * Use the cooperative-sticky assignor, so a rebalance only stops the partitions that actually move.
+     */
+    private boolean cooperative = true;
+
+    /**
+     * Stable identity of this instance, used as {@code group.instance.id}. It must survive restarts (e.g. a
+     * StatefulSet pod name) and be unique per instance. When blank, the consumers join as dynamic members.
+     */
+    private String instanceId = "";
+
+    /**
+     * How long a static member may be gone before its partitions are reassigned; must exceed a restart.
+     */
+    private Duration sessionTimeout = Duration.ofSeconds(45);
+
+    /**
+     * How long revocation and shutdown wait for queued records and in-flight MongoDB writes before offsets are
+     * committed. Keep it below the container's shutdown timeout.
+     */
+    private Duration drainTimeout = Duration.ofSeconds(8);
+}
@@ -0,0 +1,21 @@
+package org.pranid.kafka.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Logging of slow index-backed queries together with their query plans.
+ */
+@Data
+@ConfigurationProperties(prefix = "queries.slow")
+public class SlowQueryProperties {
+
+    private Duration threshold = Duration.ofMillis(100);
+
+    /**
+     * Re-run slow queries with {@code explain} and log the plan summary.
+     */
+    private boolean explain = true;
+}
@@ -0,0 +1,24 @@
+package org.pranid.kafka.config;
+
+import org.pranid.kafka.startup.LazyPackagesBeanFactoryPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+/**
+ * Startup tuning. The post processor runs before {@code @ConfigurationProperties} beans exist, so it binds
+ * {@link DeferredBeansProperties} from the environment itself.
+ */
+@Configuration
+public class StartupConfig {
+
+    @Bean
+    @ConditionalOnProperty(prefix = "startup.defer", name = "enabled", havingValue = "true", matchIfMissing = true)
+    static LazyPackagesBeanFactoryPostProcessor lazyPackagesBeanFactoryPostProcessor(Environment environment) {
+        DeferredBeansProperties properties = Binder.get(environment)
+                .bindOrCreate("startup.defer", DeferredBeansProperties.class);
+        return new LazyPackagesBeanFactoryPostProcessor(properties.getPackages());
+    }
+}
@@ -0,0 +1,21 @@
+package org.pranid.kafka.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Location and checkpoint cadence of the local memory-mapped state stores.
+ */
+@Data
+@ConfigurationProperties(prefix = "state")
+public class StateStoreProperties {
+
+    private boolean enabled = true;
+
+    private Path directory = Path.of("state");
+
+    private Duration checkpointInterval = Duration.ofSeconds(30);
+}
@@ -0,0 +1,23 @@
+package org.pranid.kafka.config;
+
+import lombok.Data;
+import org.pranid.kafka.stream.OverflowPolicy;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Live feeds of consumed records served from /person/stream and /alien/stream.
+ */
+@Data
+@ConfigurationProperties(prefix = "streams")
+public class StreamProperties {
+
+    /**
+     * Records kept per feed, rounded up to a power of two. A subscriber further behind than this has overflowed.
+     */
+    private int bufferSize = 1024;
+
+    /**
+     * Policy for subscribers that do not ask for one.
+     */
+    private OverflowPolicy defaultOverflow = OverflowPolicy.DROP_OLDEST;
+}
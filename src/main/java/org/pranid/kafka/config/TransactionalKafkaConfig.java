@@ -0,0 +1,82 @@
+package org.pranid.kafka.config;
+
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.IsolationLevel;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.pranid.kafka.model.Person;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.transaction.KafkaTransactionManager;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Beans for the exactly-once consume-transform-produce path.
+ * The listener container begins a Kafka transaction per polled batch; the {@code person.created}
+ * sends and the consumer offsets are committed atomically when the listener returns.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "kafka.transactional", name = "enabled", havingValue = "true")
+public class TransactionalKafkaConfig {
+
+    @Value("${spring.kafka.bootstrap-servers}")
+    private String bootstrapServers;
+
+    private static final String GROUP_ID = "person-eos-group";
+
+    /**
+     * Transaction manager over a dedicated transactional producer factory.
+     * The factory is deliberately not a bean so Spring Boot keeps its default non-transactional
+     * ProducerFactory and KafkaTemplate for every other sender.
+     */
+    @Bean
+    public KafkaTransactionManager<Object, Object> personKafkaTransactionManager(KafkaProperties kafkaProperties,
+                                                                                TransactionalProperties properties) {
+        DefaultKafkaProducerFactory<Object, Object> producerFactory =
+                new DefaultKafkaProducerFactory<>(kafkaProperties.buildProducerProperties(null));
+        producerFactory.setTransactionIdPrefix(properties.getTransactionIdPrefix());
+        return new KafkaTransactionManager<>(producerFactory);
+    }
+
+    /**
+     * Configures consumer factory for transactional batches of Person records.
+     * Only committed records are read so aborted upstream transactions are never re-published.
+     */
+    @Bean
+    public ConsumerFactory<String, Person> transactionalConsumerFactory(TransactionalProperties properties) {
+        Map<String, Object> config = new HashMap<>();
+        config.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        config.put(ConsumerConfig.GROUP_ID_CONFIG, GROUP_ID);
+        config.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        config.put(ConsumerConfig.ISOLATION_LEVEL_CONFIG, IsolationLevel.READ_COMMITTED.toString().toLowerCase(Locale.ROOT));
+        config.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, properties.getBatchSize());
+        config.put(ConsumerConfig.FETCH_MIN_BYTES_CONFIG, properties.getFetchMinBytes());
+        config.put(ConsumerConfig.FETCH_MAX_WAIT_MS_CONFIG, (int) properties.getFetchMaxWait().toMillis());
+
+        JsonDeserializer<Person> valueDeserializer = new JsonDeserializer<>(Person.class, false);
+        valueDeserializer.addTrustedPackages("org.pranid.kafka.model");
+
+        return new DefaultKafkaConsumerFactory<>(config, new StringDeserializer(), valueDeserializer);
+    }
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, Person> transactionalKafkaListenerContainerFactory(
+            ConsumerFactory<String, Person> transactionalConsumerFactory,
+            KafkaTransactionManager<Object, Object> personKafkaTransactionManager) {
+        ConcurrentKafkaListenerContainerFactory<String, Person> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(transactionalConsumerFactory);
+        factory.setBatchListener(true);
+        factory.getContainerProperties().setKafkaAwareTransactionManager(personKafkaTransactionManager);
+        return factory;
+    }
+}
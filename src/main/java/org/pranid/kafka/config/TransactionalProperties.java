@@ -0,0 +1,31 @@
+package org.pranid.kafka.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for the exactly-once {@code person} to {@code person.created} path.
+ * Larger batches spread the fixed cost of each Kafka transaction over more records.
+ */
+@Data
+@ConfigurationProperties(prefix = "kafka.transactional")
+public class TransactionalProperties {
+
+    private boolean enabled = false;
+
+    private String transactionIdPrefix = "person-eos-";
+
+    /**
+     * Records per poll, and therefore per transaction.
+     */
+    private int batchSize = 500;
+
+    /**
+     * Broker waits up to fetch-max-wait for fetch-min-bytes so transactions are not started for tiny batches.
+     */
+    private int fetchMinBytes = 64 * 1024;
+
+    private Duration fetchMaxWait = Duration.ofMillis(100);
+}
@@ -0,0 +1,29 @@
+package org.pranid.kafka.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Sizing for the in-process aggregate views.
+ */
+@Data
+@ConfigurationProperties(prefix = "views")
+public class ViewProperties {
+
+    /**
+     * Distinct labels (colors, genders) tracked per view; further labels are counted under "__other__".
+     */
+    private int maxLabels = 64;
+
+    private int ageBucketWidth = 10;
+
+    /**
+     * Ages at or above this value fall into the last histogram bucket.
+     */
+    private int maxAge = 120;
+
+    /**
+     * Replay the person and alien topics from the beginning on startup with a replica-private group.
+     */
+    private boolean replay = true;
+}
@@ -0,0 +1,57 @@
+package org.pranid.kafka.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Windowed aggregations computed inside the existing consumers.
+ */
+@Data
+@ConfigurationProperties(prefix = "windows")
+public class WindowProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * When no record arrives for this long, wall-clock time advances the event-time watermark so
+     * windows of an idle topic still close.
+     */
+    private Duration idleTimeout = Duration.ofSeconds(30);
+
+    /**
+     * Maximum window results per MongoDB insert.
+     */
+    private int batchSize = 500;
+
+    private List<Definition> definitions = new ArrayList<>();
+
+    @Data
+    public static class Definition {
+        private String name;
+
+        /**
+         * Source topic, "person" or "alien".
+         */
+        private String topic;
+
+        /**
+         * Payload property whose value is the window key.
+         */
+        private String keyField;
+
+        private Duration size;
+
+        /**
+         * Distance between window starts. Equal to size (the default) for tumbling windows.
+         */
+        private Duration advance;
+
+        private Duration allowedLateness = Duration.ZERO;
+
+        private String outputTopic;
+    }
+}
@@ -0,0 +1,74 @@
+package org.pranid.kafka.consumer;
+
+import org.apache.kafka.common.TopicPartition;
+import org.pranid.kafka.model.Alien;
+import org.pranid.kafka.model.Person;
+import org.pranid.kafka.view.AggregateViews;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaHandler;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.ConsumerSeekAware;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Rebuilds {@link AggregateViews} on each replica by reading the person and alien topics from the
+ * beginning under a replica-private consumer group, then keeps following them so every replica sees
+ * all partitions. Offsets are never committed; the group only lives as long as this instance.
+ * When the views were restored from a checkpoint, each partition is sought to just after the
+ * checkpointed offset so only the tail is replayed.
+ */
+@Component
+@ConditionalOnProperty(prefix = "views", name = "replay", havingValue = "true", matchIfMissing = true)
+@KafkaListener(
+        id = "aggregateViewReplay",
+        topics = {"person", "alien"},
+        groupId = "views-#{T(java.util.UUID).randomUUID().toString()}",
+        containerFactory = "multiTypeKafkaListenerContainerFactory",
+        properties = {"auto.offset.reset=earliest", "enable.auto.commit=false"}
+)
+public class AggregateViewReplayConsumer implements ConsumerSeekAware {
+
+    private final Logger logger = LoggerFactory.getLogger(AggregateViewReplayConsumer.class);
+    private final AggregateViews aggregateViews;
+
+    public AggregateViewReplayConsumer(AggregateViews aggregateViews) {
+        this.aggregateViews = aggregateViews;
+    }
+
+    @Override
+    public void onPartitionsAssigned(Map<TopicPartition, Long> assignments, ConsumerSeekCallback callback) {
+        for (TopicPartition partition : assignments.keySet()) {
+            long applied = aggregateViews.appliedOffset(partition.topic(), partition.partition());
+            if (applied >= 0) {
+                callback.seek(partition.topic(), partition.partition(), applied + 1);
+            } else {
+                callback.seekToBeginning(partition.topic(), partition.partition());
+            }
+        }
+    }
+
+    @KafkaHandler
+    public void person(Person person,
+                       @Header(KafkaHeaders.RECEIVED_PARTITION) int partition,
+                       @Header(KafkaHeaders.OFFSET) long offset) {
+        aggregateViews.onPerson(partition, offset, person, AggregateViews.Source.REPLAY);
+    }
+
+    @KafkaHandler
+    public void alien(Alien alien,
+                      @Header(KafkaHeaders.RECEIVED_PARTITION) int partition,
+                      @Header(KafkaHeaders.OFFSET) long offset) {
+        aggregateViews.onAlien(partition, offset, alien, AggregateViews.Source.REPLAY);
+    }
+
+    @KafkaHandler(isDefault = true)
+    public void unknown(Object object) {
+        logger.debug("Ignoring unknown record in view replay: {}", object);
+    }
+}
@@ -12,19 +12,25 @@ public class AlienKafkaConsumer {
 
     private final Logger logger = LoggerFactory.getLogger(AlienKafkaConsumer.class);
     private final AlienService alienService;
+    private final InFlightPersists inFlightPersists;
 
-    public AlienKafkaConsumer(AlienService alienService) {
+    public AlienKafkaConsumer(AlienService alienService, InFlightPersists inFlightPersists) {
         this.alienService = alienService;
+        this.inFlightPersists = inFlightPersists;
     }
 
-    @KafkaListener(id = "alienConsumer", topics = "alien")
+    /**
+     * Runs on its own multi-type factory for cooperative assignment, static membership, the draining rebalance
+     * listener and the dead-letter error handler; it stays in its own {@code alienConsumer} group.
+     */
+    @KafkaListener(id = "alienConsumer", topics = "alien", containerFactory = "alienKafkaListenerContainerFactory")
     public void listenAlien(Alien alien) {
-        logger.info("👽 Received Alien: {} ({})", alien.getName(), alien.getColor());
+        logger.info("👽 Received Alien: {} ({})", alien.name(), alien.color());
 
-        alienService.createAlien(alien)
+        inFlightPersists.track(alienService.createAlien(alien))
                 .doOnSuccess(saved -> logger.info("✅ Alien saved successfully: {} ({})",
-                        saved.getName(), saved.getColor()))
-                .doOnError(e -> logger.error("❌ Failed to save Alien: {}", alien.getName(), e))
+                        saved.name(), saved.color()))
+                .doOnError(e -> logger.error("❌ Failed to save Alien: {}", alien.name(), e))
                 .subscribe();
     }
 }
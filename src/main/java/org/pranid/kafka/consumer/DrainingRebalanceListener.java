@@ -0,0 +1,106 @@
+package org.pranid.kafka.consumer;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.common.TopicPartition;
+import org.pranid.kafka.config.RebalanceProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.kafka.listener.ConsumerAwareRebalanceListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Before revoked partitions are committed and handed over, waits up to {@code kafka.rebalance.drain-timeout}
+ * for the lanes and the in-flight MongoDB writes. This also runs when a container stops, so a deploy commits
+ * what it has persisted. Records {@code kafka.rebalance.pause}, the time from a revocation until the next
+ * assignment, per group; with cooperative rebalancing, partitions that do not move are never revoked.
+ */
+@Component
+public class DrainingRebalanceListener implements ConsumerAwareRebalanceListener {
+
+    private final Logger logger = LoggerFactory.getLogger(DrainingRebalanceListener.class);
+    private final RebalanceProperties properties;
+    private final InFlightPersists inFlightPersists;
+    private final ObjectProvider<MultiTopicKafkaConsumer> multiTopicConsumer;
+    private final MeterRegistry meterRegistry;
+    private final Map<Consumer<?, ?>, Long> revokedAt = new ConcurrentHashMap<>();
+
+    public DrainingRebalanceListener(RebalanceProperties properties, InFlightPersists inFlightPersists,
+                                     ObjectProvider<MultiTopicKafkaConsumer> multiTopicConsumer,
+                                     MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.inFlightPersists = inFlightPersists;
+        this.multiTopicConsumer = multiTopicConsumer;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void onPartitionsRevokedBeforeCommit(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        if (partitions.isEmpty()) {
+            return;
+        }
+        long start = System.nanoTime();
+        revokedAt.putIfAbsent(consumer, start);
+        String group = group(consumer);
+        Counter.builder("kafka.rebalance.revoked.partitions")
+                .description("Partitions taken away from this instance by rebalances")
+                .tag("group", group)
+                .register(meterRegistry)
+                .increment(partitions.size());
+
+        boolean drained = drain(start + properties.getDrainTimeout().toNanos());
+        Timer.builder("kafka.rebalance.drain")
+                .description("Time spent finishing queued records and in-flight writes before committing")
+                .tag("group", group)
+                .tag("outcome", drained ? "drained" : "timeout")
+                .register(meterRegistry)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        if (!drained) {
+            logger.warn("Revoking {} from {} with work still in flight after {}", partitions, group,
+                    properties.getDrainTimeout());
+        }
+    }
+
+    @Override
+    public void onPartitionsLost(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        // Already owned elsewhere, so nothing is committed; the pause still counts
+        if (!partitions.isEmpty()) {
+            revokedAt.putIfAbsent(consumer, System.nanoTime());
+        }
+    }
+
+    @Override
+    public void onPartitionsAssigned(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        Long start = revokedAt.remove(consumer);
+        if (start != null) {
+            Timer.builder("kafka.rebalance.pause")
+                    .description("Time from losing partitions in a rebalance until the next assignment")
+                    .tag("group", group(consumer))
+                    .publishPercentileHistogram()
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private boolean drain(long deadlineNanos) {
+        try {
+            MultiTopicKafkaConsumer lanes = multiTopicConsumer.getIfAvailable();
+            return (lanes == null || lanes.awaitLanesIdle(deadlineNanos)) && inFlightPersists.awaitIdle(deadlineNanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static String group(Consumer<?, ?> consumer) {
+        return consumer.groupMetadata().groupId();
+    }
+}
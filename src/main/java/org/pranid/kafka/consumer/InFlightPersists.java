@@ -0,0 +1,66 @@
+package org.pranid.kafka.consumer;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Counts the MongoDB writes that listeners start without waiting for them, so a rebalance or shutdown can wait
+ * for them to finish before offsets are committed and partitions handed over.
+ */
+@Component
+public class InFlightPersists {
+
+    private final Object lock = new Object();
+    private int active;
+
+    public InFlightPersists(MeterRegistry meterRegistry) {
+        Gauge.builder("kafka.consumer.persists.in-flight", this, InFlightPersists::active)
+                .description("MongoDB writes started by listeners and not yet finished")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Counts the write from subscription until it completes, fails or is cancelled.
+     */
+    public <T> Mono<T> track(Mono<T> write) {
+        return write
+                .doOnSubscribe(subscription -> {
+                    synchronized (lock) {
+                        active++;
+                    }
+                })
+                .doFinally(signal -> {
+                    synchronized (lock) {
+                        if (--active == 0) {
+                            lock.notifyAll();
+                        }
+                    }
+                });
+    }
+
+    public int active() {
+        synchronized (lock) {
+            return active;
+        }
+    }
+
+    /**
+     * Waits until no write is in flight or {@code deadlineNanos} (as {@link System#nanoTime()}) passes.
+     */
+    public boolean awaitIdle(long deadlineNanos) throws InterruptedException {
+        synchronized (lock) {
+            while (active > 0) {
+                long remaining = deadlineNanos - System.nanoTime();
+                if (remaining <= 0) {
+                    return false;
+                }
+                TimeUnit.NANOSECONDS.timedWait(lock, remaining);
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,329 @@
+package org.pranid.kafka.consumer;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.pranid.kafka.config.LaneProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Queues consumed records per topic and runs them on one dispatcher thread by weighted round robin: each round
+ * visits the lanes in descending priority and takes up to {@code weight} records from each. A single dispatcher
+ * keeps records of one partition in order. A lane at capacity pauses the partitions that fed it, so a flooded
+ * topic is held back at the broker instead of delaying the others.
+ * <p>
+ * A record is acknowledged only once its handler has returned. Since a partition's records are handled in offset
+ * order, each acknowledgment commits exactly the partition's handled prefix. When a handler fails, the record is
+ * not acknowledged, the partition's later queued records are dropped, and the partition is sought back to the
+ * failed record; when it is fetched again, {@link #submit} hands it back to the caller to handle on the listener
+ * thread, where the container's error handler applies.
+ */
+class LaneScheduler {
+
+    /**
+     * Pauses and resumes fetching of one partition.
+     */
+    interface FlowControl {
+        void pause(String topic, int partition);
+
+        void resume(String topic, int partition);
+
+        /**
+         * Moves the partition's position back to {@code offset}, so that record is fetched again.
+         */
+        void seek(String topic, int partition, long offset);
+    }
+
+    private record Task(int partition, long offset, Runnable handler, Runnable acknowledgment, long enqueuedNanos) {
+    }
+
+    /**
+     * A record whose handler failed in its lane, until it has been fetched again.
+     */
+    private static final class Failure {
+        final long offset;
+        boolean fetchedAgain;
+
+        Failure(long offset) {
+            this.offset = offset;
+        }
+    }
+
+    private final class Lane {
+        final String topic;
+        final int weight;
+        final int priority;
+        final int capacity;
+        final ArrayDeque<Task> queue = new ArrayDeque<>();
+        final Set<Integer> paused = new HashSet<>();
+        final Map<Integer, Failure> failures = new HashMap<>();
+        final Timer wait;
+        final Counter failed;
+
+        Lane(String topic, LaneProperties.Lane settings) {
+            this.topic = topic;
+            this.weight = Math.max(1, settings.getWeight());
+            this.priority = settings.getPriority();
+            this.capacity = Math.max(1, settings.getCapacity());
+            this.wait = Timer.builder("kafka.lanes.wait")
+                    .description("Time a consumed record waited in its lane before being handled")
+                    .tag("topic", topic)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry);
+            this.failed = Counter.builder("kafka.lanes.failures")
+                    .description("Records whose handler failed in the lane and that were fetched again")
+                    .tag("topic", topic)
+                    .register(meterRegistry);
+            Gauge.builder("kafka.lanes.depth", this, lane -> depth(lane.topic))
+                    .description("Records queued in the lane")
+                    .tag("topic", topic)
+                    .register(meterRegistry);
+            Gauge.builder("kafka.lanes.paused.partitions", this, lane -> pausedPartitions(lane.topic))
+                    .description("Partitions paused because the lane is full")
+                    .tag("topic", topic)
+                    .register(meterRegistry);
+        }
+    }
+
+    private static final Comparator<Lane> SERVICE_ORDER =
+            Comparator.<Lane>comparingInt(lane -> lane.priority).reversed().thenComparing(lane -> lane.topic);
+
+    private final Logger logger = LoggerFactory.getLogger(LaneScheduler.class);
+    private final LaneProperties properties;
+    private final FlowControl flowControl;
+    private final MeterRegistry meterRegistry;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition idle = lock.newCondition();
+    private final Map<String, Lane> lanes = new HashMap<>();
+    private final List<Lane> serviceOrder = new ArrayList<>();
+    private final Thread dispatcher;
+    private int queued;
+    private boolean running;
+    private boolean closing;
+
+    LaneScheduler(LaneProperties properties, FlowControl flowControl, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.flowControl = flowControl;
+        this.meterRegistry = meterRegistry;
+        this.dispatcher = new Thread(this::dispatch, "lane-dispatcher");
+        this.dispatcher.setDaemon(true);
+        this.dispatcher.start();
+    }
+
+    /**
+     * Queues a record, to be acknowledged through {@code acknowledgment} once {@code handler} has returned.
+     * Returns {@code false} when the caller has to handle and acknowledge the record itself: it was fetched again
+     * after its handler failed in the lane.
+     */
+    boolean submit(String topic, int partition, long offset, Runnable handler, Runnable acknowledgment) {
+        lock.lock();
+        try {
+            if (closing) {
+                throw new IllegalStateException("Lane scheduler is closed");
+            }
+            Lane lane = lanes.get(topic);
+            if (lane == null) {
+                lane = new Lane(topic, properties.getTopics().getOrDefault(topic, properties.getDefaults()));
+                lanes.put(topic, lane);
+                serviceOrder.add(lane);
+                serviceOrder.sort(SERVICE_ORDER);
+            }
+            Failure failure = lane.failures.get(partition);
+            if (failure != null) {
+                if (offset == failure.offset) {
+                    failure.fetchedAgain = true;
+                    return false;
+                }
+                if (offset > failure.offset && !failure.fetchedAgain) {
+                    // Fetched before the seek took effect; it comes again after the failed record
+                    return true;
+                }
+                lane.failures.remove(partition);
+            }
+            lane.queue.add(new Task(partition, offset, handler, acknowledgment, System.nanoTime()));
+            queued++;
+            if (lane.queue.size() >= lane.capacity && lane.paused.add(partition)) {
+                flowControl.pause(topic, partition);
+            }
+            notEmpty.signal();
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Forgets failures on newly assigned partitions; fetching starts from their committed offsets.
+     */
+    void assigned(String topic, int partition) {
+        lock.lock();
+        try {
+            Lane lane = lanes.get(topic);
+            if (lane != null) {
+                lane.failures.remove(partition);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int depth(String topic) {
+        lock.lock();
+        try {
+            Lane lane = lanes.get(topic);
+            return lane == null ? 0 : lane.queue.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int pausedPartitions(String topic) {
+        lock.lock();
+        try {
+            Lane lane = lanes.get(topic);
+            return lane == null ? 0 : lane.paused.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Waits until every queued record has been handled or {@code deadlineNanos} (as {@link System#nanoTime()})
+     * passes. Records may keep arriving, so this only means the lanes were empty at some point.
+     */
+    boolean awaitIdle(long deadlineNanos) throws InterruptedException {
+        lock.lock();
+        try {
+            while (queued > 0 || running) {
+                long remaining = deadlineNanos - System.nanoTime();
+                if (remaining <= 0) {
+                    return false;
+                }
+                idle.awaitNanos(remaining);
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Stops accepting records and waits up to {@code timeout} for the queued ones to be handled.
+     * Returns whether the lanes were emptied.
+     */
+    boolean close(Duration timeout) throws InterruptedException {
+        lock.lock();
+        try {
+            closing = true;
+            notEmpty.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        dispatcher.join(timeout.toMillis());
+        return !dispatcher.isAlive();
+    }
+
+    private void dispatch() {
+        List<Task> round = new ArrayList<>();
+        List<Lane> owners = new ArrayList<>();
+        Map<Lane, Set<Integer>> failedInRound = new HashMap<>();
+        while (true) {
+            lock.lock();
+            try {
+                while (queued == 0 && !closing) {
+                    notEmpty.awaitUninterruptibly();
+                }
+                if (queued == 0) {
+                    return;
+                }
+                takeRound(round, owners);
+                running = true;
+            } finally {
+                lock.unlock();
+            }
+            for (int i = 0; i < round.size(); i++) {
+                Task task = round.get(i);
+                Lane lane = owners.get(i);
+                if (failedInRound.getOrDefault(lane, Set.of()).contains(task.partition())) {
+                    continue;
+                }
+                lane.wait.record(System.nanoTime() - task.enqueuedNanos(), TimeUnit.NANOSECONDS);
+                try {
+                    task.handler().run();
+                } catch (RuntimeException e) {
+                    logger.error("Handler for {}-{} failed at offset {}, fetching it again", lane.topic,
+                            task.partition(), task.offset(), e);
+                    failedInRound.computeIfAbsent(lane, ignored -> new HashSet<>()).add(task.partition());
+                    fail(lane, task);
+                    continue;
+                }
+                task.acknowledgment().run();
+            }
+            round.clear();
+            owners.clear();
+            failedInRound.clear();
+            lock.lock();
+            try {
+                running = false;
+                if (queued == 0) {
+                    idle.signalAll();
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private void takeRound(List<Task> round, List<Lane> owners) {
+        for (Lane lane : serviceOrder) {
+            for (int i = 0; i < lane.weight && !lane.queue.isEmpty(); i++) {
+                round.add(lane.queue.poll());
+                owners.add(lane);
+                queued--;
+            }
+            resumeIfDrained(lane);
+        }
+    }
+
+    /**
+     * Drops the partition's queued records, which must not be handled or acknowledged ahead of the failed one,
+     * and seeks back to the failed record.
+     */
+    private void fail(Lane lane, Task task) {
+        lock.lock();
+        try {
+            lane.failures.put(task.partition(), new Failure(task.offset()));
+            lane.failed.increment();
+            int before = lane.queue.size();
+            lane.queue.removeIf(queuedTask -> queuedTask.partition() == task.partition());
+            queued -= before - lane.queue.size();
+            resumeIfDrained(lane);
+            flowControl.seek(lane.topic, task.partition(), task.offset());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void resumeIfDrained(Lane lane) {
+        if (!lane.paused.isEmpty() && lane.queue.size() <= lane.capacity / 2) {
+            lane.paused.forEach(partition -> flowControl.resume(lane.topic, partition));
+            lane.paused.clear();
+        }
+    }
+}
@@ -1,58 +1,229 @@
 package org.pranid.kafka.consumer;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import org.apache.kafka.common.TopicPartition;
+import org.pranid.kafka.config.LaneProperties;
+import org.pranid.kafka.metrics.HotKeyTracker;
 import org.pranid.kafka.model.Alien;
 import org.pranid.kafka.model.Person;
 import org.pranid.kafka.model.Pet;
 import org.pranid.kafka.service.AlienService;
 import org.pranid.kafka.service.PersonService;
+import org.pranid.kafka.stream.LiveFeeds;
+import org.pranid.kafka.view.AggregateViews;
+import org.pranid.kafka.window.WindowEngine;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.kafka.annotation.KafkaHandler;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.AbstractConsumerSeekAware;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.stereotype.Component;
 
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Handles person, pet and alien records. With {@code kafka.lanes.enabled}, the listener thread only queues each
+ * record in its topic's lane and {@link LaneScheduler} runs the handlers, so a backfill of one topic does not
+ * hold up the others.
+ * <p>
+ * The container acknowledges manually: a record is committed only after its handler has returned, whether it ran
+ * on the listener thread or in a lane. A record whose handler failed in a lane is fetched again and handled on the
+ * listener thread, so the container's error handler retries it like any other failure.
+ * <p>
+ * The JVM uptime at the first consumed record is exposed as {@code application.first.record.time}, next to
+ * Boot's {@code application.ready.time}.
+ */
 @Component
 @KafkaListener(
-        topics = {"person", "pet", "alien"},
-        containerFactory = "multiTypeKafkaListenerContainerFactory"
+        id = MultiTopicKafkaConsumer.LISTENER_ID,
+        idIsGroup = false,
+        topics = "#{'${kafka.multi-topic.topics:person,pet,alien}'.split(',')}",
+        containerFactory = "multiTopicKafkaListenerContainerFactory",
+        containerPostProcessor = "manualAckContainerPostProcessor"
 )
-public class MultiTopicKafkaConsumer {
+public class MultiTopicKafkaConsumer extends AbstractConsumerSeekAware implements DisposableBean {
+
+    static final String LISTENER_ID = "multi-topic";
 
     private final Logger logger = LoggerFactory.getLogger(MultiTopicKafkaConsumer.class);
     private final PersonService personService;
     private final AlienService alienService;
+    private final AggregateViews aggregateViews;
+    private final WindowEngine windowEngine;
+    private final LiveFeeds liveFeeds;
+    private final HotKeyTracker hotKeyTracker;
+    private final InFlightPersists inFlightPersists;
+    private final KafkaListenerEndpointRegistry listenerRegistry;
+    private final LaneScheduler lanes;
+    private final AtomicLong firstRecordUptime = new AtomicLong(-1);
 
-    public MultiTopicKafkaConsumer(PersonService personService, AlienService alienService) {
+    public MultiTopicKafkaConsumer(PersonService personService, AlienService alienService,
+                                   AggregateViews aggregateViews, WindowEngine windowEngine,
+                                   LiveFeeds liveFeeds, HotKeyTracker hotKeyTracker,
+                                   InFlightPersists inFlightPersists, LaneProperties laneProperties,
+                                   KafkaListenerEndpointRegistry listenerRegistry, MeterRegistry meterRegistry) {
         this.personService = personService;
         this.alienService = alienService;
+        this.aggregateViews = aggregateViews;
+        this.windowEngine = windowEngine;
+        this.liveFeeds = liveFeeds;
+        this.hotKeyTracker = hotKeyTracker;
+        this.inFlightPersists = inFlightPersists;
+        this.listenerRegistry = listenerRegistry;
+        this.lanes = laneProperties.isEnabled()
+                ? new LaneScheduler(laneProperties, new ContainerFlowControl(), meterRegistry)
+                : null;
+        TimeGauge.builder("application.first.record.time", firstRecordUptime, TimeUnit.MILLISECONDS,
+                        uptime -> uptime.get() < 0 ? Double.NaN : uptime.get())
+                .description("JVM uptime when the first record was consumed")
+                .register(meterRegistry);
     }
 
     @KafkaHandler
-    public void person(Person person) {
-        logger.info("Received Person: {}", person.getName());
-        personService.createPerson(person)
-                .doOnSuccess(saved -> logger.info("Person saved successfully: {}", saved))
-                .doOnError(e -> logger.error("Failed to save Person: {}", person.getName(), e))
-                .subscribe();
+    public void person(Person person,
+                       @Header(KafkaHeaders.RECEIVED_PARTITION) int partition,
+                       @Header(KafkaHeaders.OFFSET) long offset,
+                       @Header(KafkaHeaders.RECEIVED_TIMESTAMP) long timestamp,
+                       @Header(name = KafkaHeaders.RECEIVED_KEY, required = false) String key,
+                       Acknowledgment acknowledgment) {
+        dispatch("person", partition, offset, acknowledgment,
+                () -> handlePerson(person, partition, offset, timestamp, key));
     }
 
     @KafkaHandler
-    public void pet(Pet pet) {
-        logger.info("Received Pet: {}", pet.getName());
+    public void pet(Pet pet,
+                    @Header(KafkaHeaders.RECEIVED_PARTITION) int partition,
+                    @Header(KafkaHeaders.OFFSET) long offset,
+                    Acknowledgment acknowledgment) {
+        dispatch("pet", partition, offset, acknowledgment, () -> logger.info("Received Pet: {}", pet.name()));
     }
 
     @KafkaHandler
-    public void alien(Alien alien) {
-        logger.info("👽 [Multi] Received Alien: {} ({})", alien.getName(), alien.getColor());
-        alienService.createAlien(alien)
+    public void alien(Alien alien,
+                      @Header(KafkaHeaders.RECEIVED_PARTITION) int partition,
+                      @Header(KafkaHeaders.OFFSET) long offset,
+                      @Header(KafkaHeaders.RECEIVED_TIMESTAMP) long timestamp,
+                      @Header(name = KafkaHeaders.RECEIVED_KEY, required = false) String key,
+                      Acknowledgment acknowledgment) {
+        dispatch("alien", partition, offset, acknowledgment,
+                () -> handleAlien(alien, partition, offset, timestamp, key));
+    }
+
+    @KafkaHandler(isDefault = true)
+    public void unknown(Object object,
+                        @Header(KafkaHeaders.RECEIVED_TOPIC) String topic,
+                        @Header(KafkaHeaders.RECEIVED_PARTITION) int partition,
+                        @Header(KafkaHeaders.OFFSET) long offset,
+                        Acknowledgment acknowledgment) {
+        // Goes through the lane too, so it is not committed ahead of the topic's queued records
+        dispatch(topic, partition, offset, acknowledgment, () -> logger.info("Received unknown: " + object));
+    }
+
+    /**
+     * Waits until the records queued so far have been handled, or the deadline ({@link System#nanoTime()}) passes.
+     */
+    public boolean awaitLanesIdle(long deadlineNanos) throws InterruptedException {
+        return lanes == null || lanes.awaitIdle(deadlineNanos);
+    }
+
+    /**
+     * Clears lane failures of newly assigned partitions, whose records are fetched again from the committed offset.
+     */
+    @Override
+    public void onPartitionsAssigned(Map<TopicPartition, Long> assignments, ConsumerSeekCallback callback) {
+        super.onPartitionsAssigned(assignments, callback);
+        if (lanes != null) {
+            assignments.keySet().forEach(partition -> lanes.assigned(partition.topic(), partition.partition()));
+        }
+    }
+
+    /**
+     * Handles what is still queued; the container has stopped fetching by the time beans are destroyed.
+     */
+    @Override
+    public void destroy() throws InterruptedException {
+        if (lanes != null && !lanes.close(Duration.ofSeconds(30))) {
+            logger.warn("Lanes still had records queued at shutdown");
+        }
+    }
+
+    private void dispatch(String topic, int partition, long offset, Acknowledgment acknowledgment, Runnable handler) {
+        if (firstRecordUptime.get() < 0) {
+            markFirstRecord(topic);
+        }
+        if (lanes == null || !lanes.submit(topic, partition, offset, handler, acknowledgment::acknowledge)) {
+            // A failure here propagates to the container's error handler and the record is not acknowledged
+            handler.run();
+            acknowledgment.acknowledge();
+        }
+    }
+
+    private void markFirstRecord(String topic) {
+        long uptime = ManagementFactory.getRuntimeMXBean().getUptime();
+        if (firstRecordUptime.compareAndSet(-1, uptime)) {
+            logger.info("First record consumed from {} {} ms after JVM start", topic, uptime);
+        }
+    }
+
+    private void handlePerson(Person person, int partition, long offset, long timestamp, String key) {
+        logger.info("Received Person: {}", person.name());
+        aggregateViews.onPerson(partition, offset, person, AggregateViews.Source.LIVE);
+        windowEngine.onRecord("person", person, timestamp);
+        liveFeeds.publish(person);
+        hotKeyTracker.record(HotKeyTracker.Direction.CONSUME, "person", partition, key, person);
+        inFlightPersists.track(personService.createPerson(person))
+                .doOnSuccess(saved -> logger.info("Person saved successfully: {}", saved))
+                .doOnError(e -> logger.error("Failed to save Person: {}", person.name(), e))
+                .subscribe();
+    }
+
+    private void handleAlien(Alien alien, int partition, long offset, long timestamp, String key) {
+        logger.info("👽 [Multi] Received Alien: {} ({})", alien.name(), alien.color());
+        aggregateViews.onAlien(partition, offset, alien, AggregateViews.Source.LIVE);
+        windowEngine.onRecord("alien", alien, timestamp);
+        liveFeeds.publish(alien);
+        hotKeyTracker.record(HotKeyTracker.Direction.CONSUME, "alien", partition, key, alien);
+        inFlightPersists.track(alienService.createAlien(alien))
                 .doOnSuccess(saved -> logger.info("✅ [Multi] Alien saved successfully: {} ({})",
-                        saved.getName(), saved.getColor()))
-                .doOnError(e -> logger.error("❌ [Multi] Failed to save Alien: {}", alien.getName(), e))
+                        saved.name(), saved.color()))
+                .doOnError(e -> logger.error("❌ [Multi] Failed to save Alien: {}", alien.name(), e))
                 .subscribe();
     }
 
-    @KafkaHandler(isDefault = true)
-    public void unknown(Object object) {
-        logger.info("Received unknown: " + object);
+    private final class ContainerFlowControl implements LaneScheduler.FlowControl {
+
+        @Override
+        public void pause(String topic, int partition) {
+            MessageListenerContainer container = listenerRegistry.getListenerContainer(LISTENER_ID);
+            if (container != null) {
+                container.pausePartition(new TopicPartition(topic, partition));
+            }
+        }
+
+        @Override
+        public void resume(String topic, int partition) {
+            MessageListenerContainer container = listenerRegistry.getListenerContainer(LISTENER_ID);
+            if (container != null) {
+                container.resumePartition(new TopicPartition(topic, partition));
+            }
+        }
+
+        @Override
+        public void seek(String topic, int partition, long offset) {
+            // Seeks are queued and applied on the consumer thread
+            getSeekCallbacksFor(new TopicPartition(topic, partition))
+                    .forEach(callback -> callback.seek(topic, partition, offset));
+        }
     }
 }
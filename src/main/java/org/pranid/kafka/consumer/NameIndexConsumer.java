@@ -0,0 +1,70 @@
+package org.pranid.kafka.consumer;
+
+import org.apache.kafka.common.TopicPartition;
+import org.pranid.kafka.index.NameExistenceIndex;
+import org.pranid.kafka.index.NameSearchIndex;
+import org.pranid.kafka.model.Alien;
+import org.pranid.kafka.model.Person;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.kafka.annotation.KafkaHandler;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.ConsumerSeekAware;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Keeps {@link NameExistenceIndex} and {@link NameSearchIndex} current on each replica. Like {@link AggregateViewReplayConsumer} it reads
+ * under a replica-private group, so every replica sees the names of all partitions, not just the ones it saves.
+ * History is covered by the seeding scans; reading starts shortly before them so the two overlap.
+ */
+@Component
+@ConditionalOnExpression("${names.filter.enabled:true} or ${names.search.enabled:true}")
+@KafkaListener(
+        id = "nameIndex",
+        topics = {"person", "alien"},
+        groupId = "names-#{T(java.util.UUID).randomUUID().toString()}",
+        containerFactory = "multiTypeKafkaListenerContainerFactory",
+        properties = {"auto.offset.reset=latest", "enable.auto.commit=false"}
+)
+public class NameIndexConsumer implements ConsumerSeekAware {
+
+    private final Logger logger = LoggerFactory.getLogger(NameIndexConsumer.class);
+    private final NameExistenceIndex nameExistenceIndex;
+    private final NameSearchIndex nameSearchIndex;
+
+    public NameIndexConsumer(NameExistenceIndex nameExistenceIndex, NameSearchIndex nameSearchIndex) {
+        this.nameExistenceIndex = nameExistenceIndex;
+        this.nameSearchIndex = nameSearchIndex;
+    }
+
+    @Override
+    public void onPartitionsAssigned(Map<TopicPartition, Long> assignments, ConsumerSeekCallback callback) {
+        callback.seekToTimestamp(assignments.keySet(), nameExistenceIndex.replayFrom());
+    }
+
+    @KafkaHandler
+    public void person(Person person,
+                       @Header(KafkaHeaders.RECEIVED_PARTITION) int partition,
+                       @Header(KafkaHeaders.OFFSET) long offset) {
+        nameExistenceIndex.addPerson(person.name());
+        nameSearchIndex.recordPerson(person.name(), partition, offset);
+    }
+
+    @KafkaHandler
+    public void alien(Alien alien,
+                      @Header(KafkaHeaders.RECEIVED_PARTITION) int partition,
+                      @Header(KafkaHeaders.OFFSET) long offset) {
+        nameExistenceIndex.addAlien(alien.name());
+        nameSearchIndex.recordAlien(alien.name(), partition, offset);
+    }
+
+    @KafkaHandler(isDefault = true)
+    public void unknown(Object object) {
+        logger.debug("Ignoring unknown record in name index: {}", object);
+    }
+}
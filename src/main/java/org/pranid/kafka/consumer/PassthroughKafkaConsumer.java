@@ -0,0 +1,90 @@
+package org.pranid.kafka.consumer;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.bson.BsonInvalidOperationException;
+import org.bson.RawBsonDocument;
+import org.bson.json.JsonParseException;
+import org.pranid.kafka.config.PassthroughProperties;
+import org.pranid.kafka.converter.JsonRawBsonConverter;
+import org.pranid.kafka.repository.RawDocumentRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Stores records from ingestion-only topics without creating {@code Person}/{@code Alien} instances.
+ * Each polled batch is converted to raw BSON and written with one {@code insertMany} per collection.
+ * The listener waits for the inserts, so the batch is only committed once it is stored and a failed insert
+ * reaches the container's error handler, which delivers the batch again.
+ */
+@Component
+@ConditionalOnProperty(prefix = "kafka.passthrough", name = "enabled", havingValue = "true")
+public class PassthroughKafkaConsumer {
+
+    private final Logger logger = LoggerFactory.getLogger(PassthroughKafkaConsumer.class);
+    private final PassthroughProperties properties;
+    private final JsonRawBsonConverter converter;
+    private final RawDocumentRepository rawDocumentRepository;
+
+    public PassthroughKafkaConsumer(PassthroughProperties properties,
+                                    JsonRawBsonConverter converter,
+                                    RawDocumentRepository rawDocumentRepository) {
+        this.properties = properties;
+        this.converter = converter;
+        this.rawDocumentRepository = rawDocumentRepository;
+    }
+
+    @KafkaListener(
+            id = "passthroughConsumer",
+            topics = "#{'${kafka.passthrough.topics}'.split(',')}",
+            containerFactory = "passthroughKafkaListenerContainerFactory"
+    )
+    public void ingest(List<ConsumerRecord<String, byte[]>> records) {
+        Map<String, List<RawBsonDocument>> batches = new HashMap<>();
+
+        for (ConsumerRecord<String, byte[]> record : records) {
+            String collection = properties.getCollections().get(record.topic());
+            if (collection == null || record.value() == null) {
+                logger.warn("Skipping passthrough record {}-{}@{}: no collection or empty payload",
+                        record.topic(), record.partition(), record.offset());
+                continue;
+            }
+
+            RawBsonDocument document;
+            try {
+                document = converter.convert(record.value());
+            } catch (JsonParseException | BsonInvalidOperationException e) {
+                logger.warn("Skipping malformed passthrough record {}-{}@{}: {}",
+                        record.topic(), record.partition(), record.offset(), e.getMessage());
+                continue;
+            }
+
+            List<String> missing = converter.missingFields(document,
+                    properties.getRequiredFields().getOrDefault(record.topic(), List.of()));
+            if (!missing.isEmpty()) {
+                logger.warn("Skipping passthrough record {}-{}@{}: missing fields {}",
+                        record.topic(), record.partition(), record.offset(), missing);
+                continue;
+            }
+
+            batches.computeIfAbsent(collection, key -> new ArrayList<>()).add(document);
+        }
+
+        Flux.fromIterable(batches.entrySet())
+                .flatMap(batch -> rawDocumentRepository.insertAll(batch.getKey(), batch.getValue())
+                        .doOnSuccess(count -> logger.debug("Passthrough inserted {} documents into {}", count,
+                                batch.getKey()))
+                        .doOnError(e -> logger.error("Failed passthrough insert of {} documents into {}",
+                                batch.getValue().size(), batch.getKey(), e)))
+                .then()
+                .block(properties.getWriteTimeout());
+    }
+}
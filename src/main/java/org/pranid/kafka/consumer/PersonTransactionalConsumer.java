@@ -0,0 +1,74 @@
+package org.pranid.kafka.consumer;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.pranid.kafka.metrics.PartitionSkewProducerListener;
+import org.pranid.kafka.model.Person;
+import org.pranid.kafka.producer.KeyExtractor;
+import org.pranid.kafka.repository.BulkWriteSummary;
+import org.pranid.kafka.repository.PersonRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.transaction.KafkaTransactionManager;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Exactly-once consume-transform-produce for the {@code person} topic.
+ * Each polled batch is upserted into MongoDB, then its {@code person.created} events are sent inside
+ * the container's Kafka transaction, which also commits the consumer offsets.
+ * Mongo is outside the transaction, so documents are keyed by topic-partition-offset and a
+ * redelivered batch after an abort overwrites the same documents instead of duplicating them.
+ */
+@Component
+@ConditionalOnProperty(prefix = "kafka.transactional", name = "enabled", havingValue = "true")
+public class PersonTransactionalConsumer {
+
+    private final Logger logger = LoggerFactory.getLogger(PersonTransactionalConsumer.class);
+    private final PersonRepository personRepository;
+    private final KafkaTemplate<Object, Object> transactionalKafkaTemplate;
+    private final KeyExtractor<Person> keyExtractor;
+
+    public PersonTransactionalConsumer(PersonRepository personRepository,
+                                       KafkaTransactionManager<Object, Object> personKafkaTransactionManager,
+                                       PartitionSkewProducerListener producerListener,
+                                       KeyExtractor<Person> keyExtractor) {
+        this.personRepository = personRepository;
+        // Same producer factory as the container's transaction manager, so sends join its transaction
+        this.transactionalKafkaTemplate = new KafkaTemplate<>(personKafkaTransactionManager.getProducerFactory());
+        this.transactionalKafkaTemplate.setProducerListener(producerListener);
+        this.keyExtractor = keyExtractor;
+    }
+
+    @KafkaListener(
+            id = "personTransactionalConsumer",
+            topics = "person",
+            containerFactory = "transactionalKafkaListenerContainerFactory"
+    )
+    public void process(List<ConsumerRecord<String, Person>> records) {
+        Map<String, Person> personsById = new LinkedHashMap<>();
+        for (ConsumerRecord<String, Person> record : records) {
+            if (record.value() != null) {
+                personsById.put(record.topic() + "-" + record.partition() + "-" + record.offset(), record.value());
+            }
+        }
+
+        // Block so a failed write aborts the transaction and the batch is redelivered
+        BulkWriteSummary summary = personRepository.upsertAll(personsById, BulkOperations.BulkMode.UNORDERED).block();
+        if (summary != null && !summary.isComplete()) {
+            throw new IllegalStateException("Failed to upsert " + summary.failures().size()
+                    + " of " + summary.requested() + " persons, first: " + summary.failures().get(0));
+        }
+
+        for (Person person : personsById.values()) {
+            transactionalKafkaTemplate.send("person.created", keyExtractor.extractKey(person), person);
+        }
+        logger.info("📤 Committed transactional batch of {} persons", personsById.size());
+    }
+}
@@ -9,17 +9,23 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.pranid.kafka.index.NameMatch;
+import org.pranid.kafka.index.NameSearchIndex;
 import org.pranid.kafka.model.Alien;
 import org.pranid.kafka.producer.AlienKafkaProducer;
 import org.pranid.kafka.service.AlienService;
+import org.pranid.kafka.stream.LiveFeeds;
+import org.pranid.kafka.stream.OverflowPolicy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -34,6 +40,8 @@ public class AlienController {
 
     private final AlienKafkaProducer alienKafkaProducer;
     private final AlienService alienService;
+    private final LiveFeeds liveFeeds;
+    private final NameSearchIndex nameSearchIndex;
 
     @Operation(
             summary = "Get all aliens",
@@ -55,6 +63,118 @@ public class AlienController {
         return alienService.getAllAliens();
     }
 
+    @Operation(
+            summary = "Find aliens by name",
+            description = "Retrieves aliens with exactly this name using the name index"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Matching aliens",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = Alien.class)
+                    )
+            )
+    })
+    @GetMapping("/by-name/{name}")
+    public Flux<Alien> getAliensByName(
+            @Parameter(description = "Alien's name", example = "Zorg") @PathVariable String name
+    ) {
+        return alienService.getAliensByName(name);
+    }
+
+    @Operation(
+            summary = "Check whether an alien name exists",
+            description = "Answers names that were never seen from an in-memory Bloom filter without querying MongoDB; "
+                    + "only possible matches are confirmed against the name index"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Whether the name exists",
+                    content = @Content(
+                            mediaType = "application/json",
+                            examples = @ExampleObject(value = "{\"name\": \"Zorg\", \"exists\": true}")
+                    )
+            )
+    })
+    @GetMapping("/exists/{name}")
+    public Mono<Map<String, Object>> nameExists(
+            @Parameter(description = "Alien's name", example = "Zorg") @PathVariable String name
+    ) {
+        return alienService.alienNameExists(name)
+                .map(exists -> Map.of("name", name, "exists", exists));
+    }
+
+    @Operation(
+            summary = "Search alien names by prefix",
+            description = "Typeahead over alien names from an in-memory index, most frequent names first"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Matching names with the number of aliens carrying them",
+                    content = @Content(
+                            mediaType = "application/json",
+                            examples = @ExampleObject(value = "[{\"name\": \"Zorg\", \"count\": 12}]")
+                    )
+            )
+    })
+    @GetMapping("/search")
+    public Flux<NameMatch> searchNames(
+            @Parameter(description = "Case-sensitive name prefix", example = "Zo") @RequestParam(defaultValue = "") String prefix,
+            @Parameter(description = "Maximum names returned (1-100)", example = "10") @RequestParam(defaultValue = "10") int limit
+    ) {
+        return nameSearchIndex.searchAliens(prefix, limit);
+    }
+
+    @Operation(
+            summary = "Find aliens by color",
+            description = "Retrieves aliens of a color ordered by name using the color/name index"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Matching aliens",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = Alien.class)
+                    )
+            )
+    })
+    @GetMapping("/by-color/{color}")
+    public Flux<Alien> getAliensByColor(
+            @Parameter(description = "Alien's color", example = "green") @PathVariable String color
+    ) {
+        return alienService.getAliensByColor(color);
+    }
+
+    @Operation(
+            summary = "Stream consumed aliens",
+            description = "Pushes aliens as the Kafka consumer processes them, as Server-Sent Events or NDJSON. "
+                    + "A subscriber that falls behind the buffer is handled by the overflow policy."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Live alien feed",
+                    content = {
+                            @Content(mediaType = MediaType.TEXT_EVENT_STREAM_VALUE,
+                                    schema = @Schema(implementation = Alien.class)),
+                            @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE,
+                                    schema = @Schema(implementation = Alien.class))
+                    }
+            )
+    })
+    @GetMapping(path = "/stream", produces = {MediaType.TEXT_EVENT_STREAM_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<Alien> stream(
+            @Parameter(description = "DROP_OLDEST, LATEST_ONLY or DISCONNECT; defaults to streams.default-overflow")
+            @RequestParam(required = false) OverflowPolicy overflow
+    ) {
+        return liveFeeds.aliens(overflow);
+    }
+
     @Operation(
             summary = "Send alien message to Kafka",
             description = "Sends an alien creation message to Kafka 'alien' topic. The consumer will save it to MongoDB. Color must be either 'green' or 'purple'."
@@ -92,7 +212,7 @@ public class AlienController {
             )
     })
     @GetMapping("/send/{name}/{color}")
-    public Map<String, Object> sendAlienMessage(
+    public Mono<Map<String, Object>> sendAlienMessage(
             @Parameter(description = "Alien's name", example = "Zorg", required = true) @PathVariable String name,
             @Parameter(description = "Alien's color (must be 'green' or 'purple')", example = "green", required = true) @PathVariable String color
     ) {
@@ -102,22 +222,24 @@ public class AlienController {
         if (!color.equalsIgnoreCase("green") && !color.equalsIgnoreCase("purple")) {
             response.put("message", "Invalid color. Must be 'green' or 'purple'");
             response.put("status", "error");
-            return response;
+            return Mono.just(response);
         }
 
         Alien alien = new Alien(name, color);
 
-        try {
-            alienKafkaProducer.sendAlienMessage(alien);
-            response.put("message", "Alien message sent: " + alien);
-            response.put("status", "success");
-            logger.info("👽 Sent alien message: {} ({})", name, color);
-        } catch (Exception e) {
-            response.put("message", "Failed to send alien message: " + e.getMessage());
-            response.put("status", "failure");
-            logger.error("❌ Failed to send alien message", e);
-        }
-
-        return response;
+        // Success is only reported once the broker has acknowledged the record
+        return Mono.defer(() -> alienKafkaProducer.sendAlienMessage(alien))
+                .map(result -> {
+                    response.put("message", "Alien message sent: " + alien);
+                    response.put("status", "success");
+                    logger.info("👽 Sent alien message: {} ({})", name, color);
+                    return response;
+                })
+                .onErrorResume(e -> {
+                    response.put("message", "Failed to send alien message: " + e.getMessage());
+                    response.put("status", "failure");
+                    logger.error("❌ Failed to send alien message", e);
+                    return Mono.just(response);
+                });
     }
 }
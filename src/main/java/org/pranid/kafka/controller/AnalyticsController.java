@@ -0,0 +1,131 @@
+package org.pranid.kafka.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.ExampleObject;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.pranid.kafka.service.AnalyticsService;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+@Tag(name = "Analytics", description = "Aggregation pipelines run in MongoDB, with short-lived result caching")
+@RequiredArgsConstructor
+@RequestMapping(value = "/analytics", produces = MediaType.APPLICATION_JSON_VALUE)
+@RestController
+public class AnalyticsController {
+
+    private final AnalyticsService analyticsService;
+
+    @Operation(
+            summary = "Stored persons by gender",
+            description = "Counts persons in MongoDB per gender, most frequent first"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Counts per gender",
+                    content = @Content(
+                            mediaType = "application/json",
+                            examples = @ExampleObject(value = "{\"female\": 133, \"male\": 120}")
+                    )
+            )
+    })
+    @GetMapping("/persons/by-gender")
+    public Mono<Map<String, Long>> personsByGender() {
+        return analyticsService.personsByGender();
+    }
+
+    @Operation(
+            summary = "Stored persons by age range",
+            description = "Counts persons in MongoDB per age range; empty ranges are omitted"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Counts per age range",
+                    content = @Content(
+                            mediaType = "application/json",
+                            examples = @ExampleObject(value = "{\"20-29\": 57, \"30-39\": 41, \"120+\": 1}")
+                    )
+            )
+    })
+    @GetMapping("/persons/age-ranges")
+    public Mono<Map<String, Long>> personsByAgeRange(
+            @Parameter(description = "Range width in years", example = "10") @RequestParam(defaultValue = "10") int width
+    ) {
+        return analyticsService.personsByAgeRange(width);
+    }
+
+    @Operation(
+            summary = "Most common person names by prefix",
+            description = "Returns the most frequent person names starting with the case-sensitive prefix"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Counts per name",
+                    content = @Content(
+                            mediaType = "application/json",
+                            examples = @ExampleObject(value = "{\"John\": 12, \"Johanna\": 3}")
+                    )
+            )
+    })
+    @GetMapping("/persons/top-names")
+    public Mono<Map<String, Long>> topPersonNames(
+            @Parameter(description = "Name prefix", example = "Jo") @RequestParam(defaultValue = "") String prefix,
+            @Parameter(description = "Maximum number of names, at most 100", example = "10") @RequestParam(defaultValue = "10") int limit
+    ) {
+        return analyticsService.topPersonNames(prefix, limit);
+    }
+
+    @Operation(
+            summary = "Stored aliens by color",
+            description = "Counts aliens in MongoDB per color, most frequent first"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Counts per color",
+                    content = @Content(
+                            mediaType = "application/json",
+                            examples = @ExampleObject(value = "{\"green\": 42, \"purple\": 17}")
+                    )
+            )
+    })
+    @GetMapping("/aliens/by-color")
+    public Mono<Map<String, Long>> aliensByColor() {
+        return analyticsService.aliensByColor();
+    }
+
+    @Operation(
+            summary = "Most common alien names by prefix",
+            description = "Returns the most frequent alien names starting with the case-sensitive prefix"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Counts per name",
+                    content = @Content(
+                            mediaType = "application/json",
+                            examples = @ExampleObject(value = "{\"Zorg\": 8, \"Zorblax\": 2}")
+                    )
+            )
+    })
+    @GetMapping("/aliens/top-names")
+    public Mono<Map<String, Long>> topAlienNames(
+            @Parameter(description = "Name prefix", example = "Zo") @RequestParam(defaultValue = "") String prefix,
+            @Parameter(description = "Maximum number of names, at most 100", example = "10") @RequestParam(defaultValue = "10") int limit
+    ) {
+        return analyticsService.topAlienNames(prefix, limit);
+    }
+}
@@ -9,22 +9,27 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.pranid.kafka.index.NameMatch;
+import org.pranid.kafka.index.NameSearchIndex;
 import org.pranid.kafka.model.Person;
+import org.pranid.kafka.producer.KeyExtractor;
+import org.pranid.kafka.producer.ReactiveKafkaProducer;
 import org.pranid.kafka.service.PersonService;
+import org.pranid.kafka.stream.LiveFeeds;
+import org.pranid.kafka.stream.OverflowPolicy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.MediaType;
-import org.springframework.kafka.core.KafkaTemplate;
-import org.springframework.kafka.support.SendResult;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import java.util.HashMap;
 import java.util.Map;
-import java.util.concurrent.CompletableFuture;
 
 @Tag(name = "Person Management", description = "APIs for managing persons with Kafka integration")
 @RequiredArgsConstructor
@@ -34,10 +39,15 @@ public class PersonController {
 
     private final Logger logger = LoggerFactory.getLogger(PersonController.class);
 
-    private final KafkaTemplate<Object, Object> template;
+    private final ReactiveKafkaProducer reactiveKafkaProducer;
 
     private final PersonService personService;
 
+    private final KeyExtractor<Person> personKeyExtractor;
+
+    private final LiveFeeds liveFeeds;
+    private final NameSearchIndex nameSearchIndex;
+
     @Operation(
             summary = "Get all persons",
             description = "Retrieves all persons from MongoDB as a reactive stream"
@@ -57,6 +67,120 @@ public class PersonController {
         return personService.getAllPersons();
     }
 
+    @Operation(
+            summary = "Find persons by name",
+            description = "Retrieves persons with exactly this name using the name index"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Matching persons",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = Person.class)
+                    )
+            )
+    })
+    @GetMapping("/by-name/{name}")
+    public Flux<Person> getByName(
+            @Parameter(description = "Person's name", example = "John") @PathVariable String name
+    ) {
+        return personService.getPersonsByName(name);
+    }
+
+    @Operation(
+            summary = "Check whether a person name exists",
+            description = "Answers names that were never seen from an in-memory Bloom filter without querying MongoDB; "
+                    + "only possible matches are confirmed against the name index"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Whether the name exists",
+                    content = @Content(
+                            mediaType = "application/json",
+                            examples = @ExampleObject(value = "{\"name\": \"John\", \"exists\": true}")
+                    )
+            )
+    })
+    @GetMapping("/exists/{name}")
+    public Mono<Map<String, Object>> nameExists(
+            @Parameter(description = "Person's name", example = "John") @PathVariable String name
+    ) {
+        return personService.personNameExists(name)
+                .map(exists -> Map.of("name", name, "exists", exists));
+    }
+
+    @Operation(
+            summary = "Search person names by prefix",
+            description = "Typeahead over person names from an in-memory index, most frequent names first"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Matching names with the number of persons carrying them",
+                    content = @Content(
+                            mediaType = "application/json",
+                            examples = @ExampleObject(value = "[{\"name\": \"John\", \"count\": 12}]")
+                    )
+            )
+    })
+    @GetMapping("/search")
+    public Flux<NameMatch> searchNames(
+            @Parameter(description = "Case-sensitive name prefix", example = "Jo") @RequestParam(defaultValue = "") String prefix,
+            @Parameter(description = "Maximum names returned (1-100)", example = "10") @RequestParam(defaultValue = "10") int limit
+    ) {
+        return nameSearchIndex.searchPersons(prefix, limit);
+    }
+
+    @Operation(
+            summary = "Find persons by gender and age",
+            description = "Retrieves persons of a gender within an inclusive age range, youngest first, using the gender/age index"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Matching persons",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = Person.class)
+                    )
+            )
+    })
+    @GetMapping("/by-gender/{gender}")
+    public Flux<Person> getByGenderAndAge(
+            @Parameter(description = "Person's gender", example = "male") @PathVariable String gender,
+            @Parameter(description = "Minimum age", example = "18") @RequestParam(defaultValue = "0") int minAge,
+            @Parameter(description = "Maximum age", example = "65") @RequestParam(defaultValue = "150") int maxAge
+    ) {
+        return personService.getPersonsByGenderAndAge(gender, minAge, maxAge);
+    }
+
+    @Operation(
+            summary = "Stream consumed persons",
+            description = "Pushes persons as the Kafka consumer processes them, as Server-Sent Events or NDJSON. "
+                    + "A subscriber that falls behind the buffer is handled by the overflow policy."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Live person feed",
+                    content = {
+                            @Content(mediaType = MediaType.TEXT_EVENT_STREAM_VALUE,
+                                    schema = @Schema(implementation = Person.class)),
+                            @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE,
+                                    schema = @Schema(implementation = Person.class))
+                    }
+            )
+    })
+    @GetMapping(path = "/stream", produces = {MediaType.TEXT_EVENT_STREAM_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<Person> stream(
+            @Parameter(description = "DROP_OLDEST, LATEST_ONLY or DISCONNECT; defaults to streams.default-overflow")
+            @RequestParam(required = false) OverflowPolicy overflow
+    ) {
+        return liveFeeds.persons(overflow);
+    }
+
     @Operation(
             summary = "Create person via Kafka",
             description = "Sends a person creation message to Kafka 'person' topic. The consumer will save it to MongoDB."
@@ -84,7 +208,7 @@ public class PersonController {
             )
     })
     @GetMapping(path = "/create-person/{name}/{gender}/{age}")
-    public Map<String, Object> createPerson(
+    public Mono<Map<String, Object>> createPerson(
             @Parameter(description = "Person's name", example = "John") @PathVariable String name,
             @Parameter(description = "Person's gender", example = "male") @PathVariable String gender,
             @Parameter(description = "Person's age", example = "25") @PathVariable int age
@@ -92,18 +216,17 @@ public class PersonController {
         Map<String, Object> response = new HashMap<>();
         Person person = new Person(name, gender, age);
 
-        CompletableFuture<SendResult<Object, Object>> future = template.send("person", person);
-
-        try {
-            SendResult<Object, Object> result = future.get();
-            response.put("message", "Sent: " + person);
-            response.put("status", "success");
-        } catch (Exception e) {
-            response.put("message", "Failed to send message: " + e.getMessage());
-            response.put("status", "failure");
-        }
-
-        return response;
+        return reactiveKafkaProducer.send("person", personKeyExtractor.extractKey(person), person)
+                .map(result -> {
+                    response.put("message", "Sent: " + person);
+                    response.put("status", "success");
+                    return response;
+                })
+                .onErrorResume(e -> {
+                    response.put("message", "Failed to send message: " + e.getMessage());
+                    response.put("status", "failure");
+                    return Mono.just(response);
+                });
     }
 
     @Operation(
@@ -136,7 +259,7 @@ public class PersonController {
             try {
                 personService.createPerson(person)
                         .doOnSuccess(saved -> logger.info("Person saved successfully: {}", saved))
-                        .doOnError(e -> logger.error("Failed to save Person: {}", person.getName(), e))
+                        .doOnError(e -> logger.error("Failed to save Person: {}", person.name(), e))
                         .subscribe();
                 successCount++;
             } catch (Exception e) {
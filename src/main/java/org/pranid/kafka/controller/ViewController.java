@@ -0,0 +1,82 @@
+package org.pranid.kafka.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.ExampleObject;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.pranid.kafka.view.AggregateViews;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+@Tag(name = "Aggregate Views", description = "Counts maintained in memory from the Kafka topics, served without touching MongoDB")
+@RequiredArgsConstructor
+@RequestMapping(value = "/views", produces = MediaType.APPLICATION_JSON_VALUE)
+@RestController
+public class ViewController {
+
+    private final AggregateViews aggregateViews;
+
+    @Operation(
+            summary = "Alien counts by color",
+            description = "Returns the number of aliens consumed per color"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Current counts",
+                    content = @Content(
+                            mediaType = "application/json",
+                            examples = @ExampleObject(value = "{\"green\": 42, \"purple\": 17}")
+                    )
+            )
+    })
+    @GetMapping("/aliens/by-color")
+    public Map<String, Long> aliensByColor() {
+        return aggregateViews.aliensByColor();
+    }
+
+    @Operation(
+            summary = "Person counts by gender",
+            description = "Returns the number of persons consumed per gender"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Current counts",
+                    content = @Content(
+                            mediaType = "application/json",
+                            examples = @ExampleObject(value = "{\"male\": 120, \"female\": 133}")
+                    )
+            )
+    })
+    @GetMapping("/persons/by-gender")
+    public Map<String, Long> personsByGender() {
+        return aggregateViews.personsByGender();
+    }
+
+    @Operation(
+            summary = "Person age histogram",
+            description = "Returns the number of persons consumed per age range"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Current histogram",
+                    content = @Content(
+                            mediaType = "application/json",
+                            examples = @ExampleObject(value = "{\"0-9\": 0, \"10-19\": 4, \"20-29\": 57, \"120+\": 0}")
+                    )
+            )
+    })
+    @GetMapping("/persons/age-histogram")
+    public Map<String, Long> personAgeHistogram() {
+        return aggregateViews.personAgeHistogram();
+    }
+}
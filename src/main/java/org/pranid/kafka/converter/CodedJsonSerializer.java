@@ -0,0 +1,39 @@
+package org.pranid.kafka.converter;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import org.pranid.kafka.model.Alien;
+import org.pranid.kafka.model.AlienCodec;
+import org.pranid.kafka.model.Dictionary;
+import org.pranid.kafka.model.Person;
+import org.pranid.kafka.model.PersonCodec;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.util.Map;
+
+/**
+ * Kafka value serializer that behaves like {@link JsonSerializer}. With {@value #WIRE_CODES_CONFIG} set, it writes
+ * the dictionary-encoded fields ({@code Person.gender}, {@code Alien.color}) as their {@link Dictionary} codes
+ * when the code is stable. The models read both forms, so enable codes only once every consumer runs a
+ * version that does. Raw passthrough ingestion stores payloads unchanged and must stay off while codes are on.
+ */
+public class CodedJsonSerializer<T> extends JsonSerializer<T> {
+
+    public static final String WIRE_CODES_CONFIG = "dictionary.wire-codes";
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        super.configure(configs, isKey);
+        if (!isKey && Boolean.parseBoolean(String.valueOf(configs.get(WIRE_CODES_CONFIG)))) {
+            objectMapper.addMixIn(Person.class, PersonCodes.class);
+            objectMapper.addMixIn(Alien.class, AlienCodes.class);
+        }
+    }
+
+    @JsonSerialize(using = PersonCodec.CodedSerializer.class)
+    abstract static class PersonCodes {
+    }
+
+    @JsonSerialize(using = AlienCodec.CodedSerializer.class)
+    abstract static class AlienCodes {
+    }
+}
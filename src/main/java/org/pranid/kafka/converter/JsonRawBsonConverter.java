@@ -0,0 +1,34 @@
+package org.pranid.kafka.converter;
+
+import org.bson.RawBsonDocument;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Converts JSON record payloads straight into {@link RawBsonDocument}s.
+ * The JSON is piped into a BSON buffer without building a POJO or a {@code Document} tree.
+ */
+@Component
+public class JsonRawBsonConverter {
+
+    public RawBsonDocument convert(byte[] json) {
+        return RawBsonDocument.parse(new String(json, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Returns the required fields that are absent from the document, in the given order.
+     */
+    public List<String> missingFields(RawBsonDocument document, Collection<String> requiredFields) {
+        List<String> missing = new ArrayList<>();
+        for (String field : requiredFields) {
+            if (!document.containsKey(field) || document.isNull(field)) {
+                missing.add(field);
+            }
+        }
+        return missing;
+    }
+}
@@ -0,0 +1,242 @@
+package org.pranid.kafka.index;
+
+import java.util.Arrays;
+import java.util.function.LongSupplier;
+import java.util.function.ObjLongConsumer;
+
+/**
+ * Immutable sorted names with counts, front-coded in blocks of {@value #BLOCK_SIZE}. The first name of a block is
+ * stored in full, every other one as the length of the prefix it shares with its predecessor followed by the rest.
+ * Lengths are stored as single chars, so names are limited to {@link Character#MAX_VALUE} characters.
+ */
+final class FrontCodedNames {
+
+    static final int BLOCK_SIZE = 16;
+    static final FrontCodedNames EMPTY = new Builder().build();
+
+    private final char[] data;
+    private final int[] blockOffsets;
+    private final long[] counts;
+    private final long[] blockMaxCounts;
+
+    private FrontCodedNames(char[] data, int[] blockOffsets, long[] counts, long[] blockMaxCounts) {
+        this.data = data;
+        this.blockOffsets = blockOffsets;
+        this.counts = counts;
+        this.blockMaxCounts = blockMaxCounts;
+    }
+
+    int size() {
+        return counts.length;
+    }
+
+    long memoryBytes() {
+        return 64 + 2L * data.length + 4L * blockOffsets.length + 8L * counts.length + 8L * blockMaxCounts.length;
+    }
+
+    /**
+     * Count stored for exactly this name, or 0 when it is absent.
+     */
+    long count(String name) {
+        int block = lastBlockAtMost(name);
+        if (block < 0) {
+            return 0;
+        }
+        Decoder decoder = new Decoder(block);
+        while (decoder.next()) {
+            int comparison = decoder.compareTo(name);
+            if (comparison == 0) {
+                return counts[decoder.index];
+            }
+            if (comparison > 0) {
+                return 0;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Visits the names starting with {@code prefix} in order. Names whose count plus {@code boost} is below
+     * {@code floor} are skipped, whole blocks at once when their largest count is, without being decoded.
+     */
+    void forEachWithPrefix(String prefix, LongSupplier floor, long boost, ObjLongConsumer<String> consumer) {
+        int first = Math.max(0, lastBlockAtMost(prefix));
+        for (int block = first; block < blockOffsets.length; block++) {
+            if (block > first && !headStartsWith(block, prefix)) {
+                // Heads after the first one sort above the prefix, so this block and all later ones are past it
+                return;
+            }
+            if (blockMaxCounts[block] + boost < floor.getAsLong()) {
+                continue;
+            }
+            Decoder decoder = new Decoder(block);
+            while (decoder.next()) {
+                if (decoder.startsWith(prefix)) {
+                    long count = counts[decoder.index];
+                    if (count + boost >= floor.getAsLong()) {
+                        consumer.accept(decoder.name(), count);
+                    }
+                } else if (decoder.compareTo(prefix) > 0) {
+                    return;
+                }
+            }
+        }
+    }
+
+    void forEach(ObjLongConsumer<String> consumer) {
+        for (int block = 0; block < blockOffsets.length; block++) {
+            Decoder decoder = new Decoder(block);
+            while (decoder.next()) {
+                consumer.accept(decoder.name(), counts[decoder.index]);
+            }
+        }
+    }
+
+    /**
+     * Last block whose head sorts at or before {@code key}, -1 when every head sorts after it.
+     */
+    private int lastBlockAtMost(String key) {
+        int low = 0;
+        int high = blockOffsets.length - 1;
+        int found = -1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            if (compareHead(middle, key) <= 0) {
+                found = middle;
+                low = middle + 1;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return found;
+    }
+
+    private int compareHead(int block, String key) {
+        int offset = blockOffsets[block];
+        int length = data[offset];
+        return compare(data, offset + 1, length, key);
+    }
+
+    private boolean headStartsWith(int block, String prefix) {
+        int offset = blockOffsets[block];
+        return data[offset] >= prefix.length() && compare(data, offset + 1, prefix.length(), prefix) == 0;
+    }
+
+    /**
+     * Compares {@code length} chars of {@code chars} with {@code key} in {@link String#compareTo} order.
+     */
+    private static int compare(char[] chars, int from, int length, String key) {
+        int common = Math.min(length, key.length());
+        for (int i = 0; i < common; i++) {
+            int difference = chars[from + i] - key.charAt(i);
+            if (difference != 0) {
+                return difference;
+            }
+        }
+        return length - key.length();
+    }
+
+    /**
+     * Decodes the names of one block in order into a reused buffer.
+     */
+    private final class Decoder {
+
+        private final int end;
+        private char[] buffer = new char[32];
+        private int length;
+        private int position;
+        private int index;
+
+        Decoder(int block) {
+            this.position = blockOffsets[block];
+            this.index = block * BLOCK_SIZE - 1;
+            this.end = Math.min(counts.length, (block + 1) * BLOCK_SIZE);
+        }
+
+        boolean next() {
+            if (index + 1 >= end) {
+                return false;
+            }
+            index++;
+            int shared = index % BLOCK_SIZE == 0 ? 0 : data[position++];
+            int suffix = data[position++];
+            length = shared + suffix;
+            if (buffer.length < length) {
+                buffer = Arrays.copyOf(buffer, Math.max(length, buffer.length * 2));
+            }
+            System.arraycopy(data, position, buffer, shared, suffix);
+            position += suffix;
+            return true;
+        }
+
+        boolean startsWith(String prefix) {
+            return length >= prefix.length() && compare(buffer, 0, prefix.length(), prefix) == 0;
+        }
+
+        int compareTo(String key) {
+            return compare(buffer, 0, length, key);
+        }
+
+        String name() {
+            return new String(buffer, 0, length);
+        }
+    }
+
+    /**
+     * Accepts names in strictly ascending order.
+     */
+    static final class Builder {
+
+        private final StringBuilder data = new StringBuilder();
+        private int[] blockOffsets = new int[16];
+        private long[] counts = new long[16 * BLOCK_SIZE];
+        private long[] blockMaxCounts = new long[16];
+        private String previous;
+        private int size;
+
+        Builder add(String name, long count) {
+            if (name.length() > Character.MAX_VALUE) {
+                throw new IllegalArgumentException("Name longer than " + (int) Character.MAX_VALUE + " characters");
+            }
+            if (previous != null && previous.compareTo(name) >= 0) {
+                throw new IllegalArgumentException("Names must be added in ascending order: " + previous + ", " + name);
+            }
+            int block = size / BLOCK_SIZE;
+            if (size % BLOCK_SIZE == 0) {
+                if (block == blockOffsets.length) {
+                    blockOffsets = Arrays.copyOf(blockOffsets, block * 2);
+                    blockMaxCounts = Arrays.copyOf(blockMaxCounts, block * 2);
+                }
+                blockOffsets[block] = data.length();
+                data.append((char) name.length()).append(name);
+            } else {
+                int shared = sharedPrefix(previous, name);
+                data.append((char) shared).append((char) (name.length() - shared)).append(name, shared, name.length());
+            }
+            if (size == counts.length) {
+                counts = Arrays.copyOf(counts, size * 2);
+            }
+            counts[size++] = count;
+            blockMaxCounts[block] = Math.max(blockMaxCounts[block], count);
+            previous = name;
+            return this;
+        }
+
+        FrontCodedNames build() {
+            int blocks = (size + BLOCK_SIZE - 1) / BLOCK_SIZE;
+            char[] chars = new char[data.length()];
+            data.getChars(0, chars.length, chars, 0);
+            return new FrontCodedNames(chars, Arrays.copyOf(blockOffsets, blocks), Arrays.copyOf(counts, size),
+                    Arrays.copyOf(blockMaxCounts, blocks));
+        }
+
+        private static int sharedPrefix(String a, String b) {
+            int limit = Math.min(a.length(), b.length());
+            int i = 0;
+            while (i < limit && a.charAt(i) == b.charAt(i)) {
+                i++;
+            }
+            return i;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package org.pranid.kafka.index;
+
+/**
+ * 64-bit string hash shared by the probabilistic structures.
+ */
+public final class Hashing {
+
+    private Hashing() {
+    }
+
+    /**
+     * FNV-1a over the characters followed by the MurmurHash3 finalizer, without encoding the key to bytes.
+     * Both 32-bit halves are well mixed, so they can serve as the two hashes of Kirsch-Mitzenmacher double hashing.
+     */
+    public static long hash64(CharSequence key) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            hash = (hash ^ key.charAt(i)) * 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
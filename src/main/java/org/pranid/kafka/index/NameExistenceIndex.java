@@ -0,0 +1,145 @@
+package org.pranid.kafka.index;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.pranid.kafka.config.NameFilterProperties;
+import org.pranid.kafka.repository.AlienRepository;
+import org.pranid.kafka.repository.PersonRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.function.Function;
+
+/**
+ * In-memory Bloom filters of person and alien names. Each filter is seeded by streaming the names from MongoDB
+ * once the application is ready, and then kept current from {@code NameIndexConsumer} and local writes.
+ * A name the filter has never seen definitely does not exist; only possible hits are checked against the
+ * name index. Until seeding completes, every lookup goes to MongoDB.
+ */
+@Component
+public class NameExistenceIndex {
+
+    private final Logger logger = LoggerFactory.getLogger(NameExistenceIndex.class);
+    private final NameFilterProperties properties;
+    private final PersonRepository personRepository;
+    private final AlienRepository alienRepository;
+    private final NameFilter persons;
+    private final NameFilter aliens;
+    private final long createdAt = System.currentTimeMillis();
+
+    public NameExistenceIndex(NameFilterProperties properties, PersonRepository personRepository,
+                              AlienRepository alienRepository, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.personRepository = personRepository;
+        this.alienRepository = alienRepository;
+        this.persons = new NameFilter("persons", personRepository::existsByName, meterRegistry);
+        this.aliens = new NameFilter("aliens", alienRepository::existsByName, meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        persons.seed(personRepository.findAllNames());
+        aliens.seed(alienRepository.findAllNames());
+    }
+
+    /**
+     * Time before which the name consumer must start reading, so nothing saved during seeding is missed.
+     */
+    public long replayFrom() {
+        return createdAt - properties.getReplayMargin().toMillis();
+    }
+
+    public void addPerson(String name) {
+        persons.add(name);
+    }
+
+    public void addAlien(String name) {
+        aliens.add(name);
+    }
+
+    public Mono<Boolean> personExists(String name) {
+        return persons.exists(name);
+    }
+
+    public Mono<Boolean> alienExists(String name) {
+        return aliens.exists(name);
+    }
+
+    private final class NameFilter {
+
+        private final String collection;
+        private final Function<String, Mono<Boolean>> fallback;
+        private final ScalableBloomFilter filter = new ScalableBloomFilter(properties.getInitialCapacity(),
+                properties.getFalsePositiveRate(), properties.getGrowthFactor(), properties.getTighteningRatio());
+        private final Counter negatives;
+        private final Counter hits;
+        private final Counter falsePositives;
+        private final Counter unseeded;
+        private volatile boolean seeded;
+
+        NameFilter(String collection, Function<String, Mono<Boolean>> fallback, MeterRegistry meterRegistry) {
+            this.collection = collection;
+            this.fallback = fallback;
+            Gauge.builder("names.filter.bits", filter, ScalableBloomFilter::bitSize)
+                    .tag("collection", collection)
+                    .register(meterRegistry);
+            Gauge.builder("names.filter.entries", filter, ScalableBloomFilter::size)
+                    .tag("collection", collection)
+                    .register(meterRegistry);
+            Gauge.builder("names.filter.expected.fpp", filter, ScalableBloomFilter::expectedFalsePositiveRate)
+                    .tag("collection", collection)
+                    .description("False-positive rate expected from the current fill of the filter")
+                    .register(meterRegistry);
+            this.negatives = lookups(meterRegistry, "negative");
+            this.hits = lookups(meterRegistry, "hit");
+            this.falsePositives = lookups(meterRegistry, "false_positive");
+            this.unseeded = lookups(meterRegistry, "unseeded");
+        }
+
+        void seed(Flux<String> names) {
+            long started = System.nanoTime();
+            names.doOnNext(filter::add)
+                    .count()
+                    .subscribe(count -> {
+                        seeded = true;
+                        logger.info("Seeded {} name filter with {} names in {} ms ({} distinct, {} bits)", collection,
+                                count, (System.nanoTime() - started) / 1_000_000, filter.size(), filter.bitSize());
+                    }, e -> logger.error("Failed to seed {} name filter, lookups keep going to MongoDB", collection, e));
+        }
+
+        void add(String name) {
+            if (name != null && properties.isEnabled()) {
+                filter.add(name);
+            }
+        }
+
+        Mono<Boolean> exists(String name) {
+            if (!seeded) {
+                unseeded.increment();
+                return fallback.apply(name);
+            }
+            if (!filter.mightContain(name)) {
+                negatives.increment();
+                return Mono.just(false);
+            }
+            return fallback.apply(name)
+                    .doOnNext(found -> (found ? hits : falsePositives).increment());
+        }
+
+        private Counter lookups(MeterRegistry meterRegistry, String result) {
+            return Counter.builder("names.filter.lookups")
+                    .tag("collection", collection)
+                    .tag("result", result)
+                    .register(meterRegistry);
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package org.pranid.kafka.index;
+
+/**
+ * A name found by prefix search and the number of records carrying it.
+ */
+public record NameMatch(String name, long count) {
+}
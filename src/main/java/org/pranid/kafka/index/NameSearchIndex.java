@@ -0,0 +1,204 @@
+package org.pranid.kafka.index;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.pranid.kafka.config.NameSearchProperties;
+import org.pranid.kafka.repository.AlienRepository;
+import org.pranid.kafka.repository.PersonRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.BiFunction;
+
+/**
+ * Typeahead over person and alien names. Each collection's names and their counts are loaded with one
+ * {@code $group} once the application is ready and then kept current from {@code NameIndexConsumer}.
+ * Until loading completes, searches run as prefix aggregations against MongoDB.
+ * <p>
+ * The consumer replays from shortly before the {@code $group} runs. Just before it runs, the committed offsets of
+ * the group that saves the records are taken: records below them were handled before the {@code $group}, which
+ * reads from the primary and so counts them, and only later records are counted as they are read. A save that
+ * was still in flight when the offsets were taken is missed; a partition the group never committed is counted
+ * from the start of the replay, which may count some names twice.
+ */
+@Component
+public class NameSearchIndex implements DisposableBean {
+
+    static final int MAX_LIMIT = 100;
+
+    private final Logger logger = LoggerFactory.getLogger(NameSearchIndex.class);
+    private final NameSearchProperties properties;
+    private final PersonRepository personRepository;
+    private final AlienRepository alienRepository;
+    private final SavedOffsets savedOffsets;
+    private final ExecutorService merger;
+    private final Catalog persons;
+    private final Catalog aliens;
+
+    public NameSearchIndex(NameSearchProperties properties, PersonRepository personRepository,
+                           AlienRepository alienRepository, SavedOffsets savedOffsets, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.personRepository = personRepository;
+        this.alienRepository = alienRepository;
+        this.savedOffsets = savedOffsets;
+        this.merger = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "name-search-merge");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.persons = new Catalog("persons", "person", personRepository::topNamesByPrefix, meterRegistry);
+        this.aliens = new Catalog("aliens", "alien", alienRepository::topNamesByPrefix, meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        persons.seed(personRepository.countByName());
+        aliens.seed(alienRepository.countByName());
+    }
+
+    /**
+     * Counts the name of the person record at this partition and offset, unless the seeding covers it.
+     */
+    public void recordPerson(String name, int partition, long offset) {
+        persons.record(name, partition, offset);
+    }
+
+    public void recordAlien(String name, int partition, long offset) {
+        aliens.record(name, partition, offset);
+    }
+
+    /**
+     * Person names starting with {@code prefix}, most frequent first, at most {@value #MAX_LIMIT}.
+     */
+    public Flux<NameMatch> searchPersons(String prefix, int limit) {
+        return persons.search(prefix, limit);
+    }
+
+    public Flux<NameMatch> searchAliens(String prefix, int limit) {
+        return aliens.search(prefix, limit);
+    }
+
+    @Override
+    public void destroy() {
+        merger.shutdownNow();
+    }
+
+    private record Pending(String name, int partition, long offset) {
+    }
+
+    private final class Catalog {
+
+        private final String collection;
+        private final String topic;
+        private final BiFunction<String, Integer, Mono<Map<String, Long>>> fallback;
+        private final PrefixIndex index;
+        private volatile boolean loaded;
+        // Records read before the saving group's offsets are known; null once they are, or seeding failed
+        private List<Pending> pending = new ArrayList<>();
+        private boolean pendingOverflowed;
+        // Offset per partition from which records are counted as they are read; null until known
+        private volatile Map<Integer, Long> countFrom;
+
+        Catalog(String collection, String topic, BiFunction<String, Integer, Mono<Map<String, Long>>> fallback,
+                MeterRegistry meterRegistry) {
+            this.collection = collection;
+            this.topic = topic;
+            this.fallback = fallback;
+            this.index = new PrefixIndex(properties.getMergeThreshold(), merger);
+            Gauge.builder("names.search.memory", index, PrefixIndex::memoryBytes)
+                    .tag("collection", collection)
+                    .baseUnit("bytes")
+                    .description("Estimated heap used by the name search index")
+                    .register(meterRegistry);
+            Gauge.builder("names.search.entries", index, PrefixIndex::size)
+                    .tag("collection", collection)
+                    .register(meterRegistry);
+        }
+
+        /**
+         * Takes the saving group's offsets, then runs {@code counts}, so everything below the offsets was handled
+         * before the {@code $group} started.
+         */
+        void seed(Mono<Map<String, Long>> counts) {
+            long started = System.nanoTime();
+            savedOffsets.committed(topic)
+                    .doOnNext(this::countFrom)
+                    .then(counts)
+                    .subscribe(names -> merger.execute(() -> {
+                        index.load(names);
+                        loaded = true;
+                        logger.info("Loaded {} distinct {} names for search in {} ms, about {} KiB", names.size(),
+                                collection, (System.nanoTime() - started) / 1_000_000, index.memoryBytes() / 1024);
+                    }), e -> {
+                        // Searches stay on MongoDB, so stop collecting names that would never be merged
+                        stopRecording();
+                        logger.error("Failed to load {} names for search, searches keep going to MongoDB",
+                                collection, e);
+                    });
+        }
+
+        void record(String name, int partition, long offset) {
+            if (!properties.isEnabled()) {
+                return;
+            }
+            Map<Integer, Long> offsets = countFrom;
+            if (offsets == null) {
+                synchronized (this) {
+                    offsets = countFrom;
+                    if (offsets == null) {
+                        if (pending != null && pending.size() < properties.getMaxPendingRecords()) {
+                            pending.add(new Pending(name, partition, offset));
+                        } else if (pending != null && !pendingOverflowed) {
+                            pendingOverflowed = true;
+                            logger.warn("More than {} {} records read before seeding, further ones are not counted",
+                                    properties.getMaxPendingRecords(), collection);
+                        }
+                        return;
+                    }
+                }
+            }
+            if (offset >= offsets.getOrDefault(partition, 0L)) {
+                index.record(name);
+            }
+        }
+
+        private synchronized void countFrom(Map<Integer, Long> offsets) {
+            countFrom = Map.copyOf(offsets);
+            for (Pending record : pending) {
+                if (record.offset() >= countFrom.getOrDefault(record.partition(), 0L)) {
+                    index.record(record.name());
+                }
+            }
+            pending = null;
+        }
+
+        private synchronized void stopRecording() {
+            pending = null;
+            countFrom = null;
+        }
+
+        Flux<NameMatch> search(String prefix, int limit) {
+            int normalizedLimit = Math.max(1, Math.min(limit, MAX_LIMIT));
+            if (!loaded) {
+                return fallback.apply(prefix, normalizedLimit)
+                        .flatMapIterable(Map::entrySet)
+                        .map(entry -> new NameMatch(entry.getKey(), entry.getValue()));
+            }
+            return Flux.defer(() -> Flux.fromIterable(index.search(prefix, normalizedLimit)));
+        }
+    }
+}
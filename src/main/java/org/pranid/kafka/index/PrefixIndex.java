@@ -0,0 +1,255 @@
+package org.pranid.kafka.index;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Ranked prefix search over names. Loaded names live in a compact {@link FrontCodedNames}; names recorded
+ * afterwards go to a small sorted delta, which is merged into a new front-coded base on {@code mergeExecutor}
+ * once it holds {@code mergeThreshold} names. Searches read one immutable snapshot and never wait.
+ */
+final class PrefixIndex {
+
+    static final int MAX_NAME_LENGTH = 1024;
+
+    /**
+     * Rough heap cost of one delta entry besides its characters: skip-list node and index, String and LongAdder.
+     */
+    private static final long DELTA_ENTRY_BYTES = 120;
+
+    private static final Comparator<NameMatch> RANKING =
+            Comparator.comparingLong(NameMatch::count).reversed().thenComparing(NameMatch::name);
+
+    private final int mergeThreshold;
+    private final Executor mergeExecutor;
+    private final ReadWriteLock swapLock = new ReentrantReadWriteLock();
+    private final AtomicBoolean mergePending = new AtomicBoolean();
+    private volatile boolean loaded;
+    private volatile Snapshot snapshot = new Snapshot(FrontCodedNames.EMPTY, new Delta(), new Delta());
+
+    PrefixIndex(int mergeThreshold, Executor mergeExecutor) {
+        this.mergeThreshold = mergeThreshold;
+        this.mergeExecutor = mergeExecutor;
+    }
+
+    /**
+     * Replaces the base with these counts, keeping the names recorded in the meantime. Merges wait for the first
+     * load, so those names are all still in the deltas rather than in the base being replaced. Runs on the
+     * caller's thread, which must be the merge executor so that loading and merging never overlap.
+     */
+    void load(Map<String, Long> counts) {
+        FrontCodedNames.Builder builder = new FrontCodedNames.Builder();
+        new TreeMap<>(counts).forEach((name, count) -> {
+            if (name.length() <= MAX_NAME_LENGTH) {
+                builder.add(name, count);
+            }
+        });
+        FrontCodedNames base = builder.build();
+        swapLock.writeLock().lock();
+        try {
+            Snapshot current = snapshot;
+            snapshot = new Snapshot(base, current.frozen, current.live);
+            loaded = true;
+        } finally {
+            swapLock.writeLock().unlock();
+        }
+    }
+
+    void record(String name) {
+        if (name == null || name.length() > MAX_NAME_LENGTH) {
+            return;
+        }
+        Delta live;
+        swapLock.readLock().lock();
+        try {
+            live = snapshot.live;
+            live.increment(name);
+        } finally {
+            swapLock.readLock().unlock();
+        }
+        if (loaded && live.size() >= mergeThreshold && mergePending.compareAndSet(false, true)) {
+            mergeExecutor.execute(this::merge);
+        }
+    }
+
+    /**
+     * Names starting with {@code prefix}, most frequent first and alphabetically among equal counts.
+     */
+    List<NameMatch> search(String prefix, int limit) {
+        Snapshot current = snapshot;
+        NavigableMap<String, LongAdder> frozen = current.frozen.withPrefix(prefix);
+        NavigableMap<String, LongAdder> live = current.live.withPrefix(prefix);
+        // Upper bound for what the deltas can add to a base count, used to skip base blocks safely
+        long boost = Delta.max(frozen) + Delta.max(live);
+
+        PriorityQueue<NameMatch> top = new PriorityQueue<>(limit + 1, RANKING.reversed());
+        current.base.forEachWithPrefix(prefix, () -> top.size() < limit ? Long.MIN_VALUE : top.peek().count(), boost,
+                (name, count) -> offer(top, limit, new NameMatch(name, count + Delta.count(frozen, name) + Delta.count(live, name))));
+        frozen.forEach((name, count) -> {
+            if (current.base.count(name) == 0) {
+                offer(top, limit, new NameMatch(name, count.sum() + Delta.count(live, name)));
+            }
+        });
+        live.forEach((name, count) -> {
+            if (current.base.count(name) == 0 && !frozen.containsKey(name)) {
+                offer(top, limit, new NameMatch(name, count.sum()));
+            }
+        });
+
+        List<NameMatch> matches = new ArrayList<>(top);
+        matches.sort(RANKING);
+        return matches;
+    }
+
+    /**
+     * Entries held; a name recorded again since the last merge is counted in both the base and the delta.
+     */
+    long size() {
+        Snapshot current = snapshot;
+        return current.base.size() + current.frozen.size() + current.live.size();
+    }
+
+    long memoryBytes() {
+        Snapshot current = snapshot;
+        return current.base.memoryBytes() + current.frozen.memoryBytes() + current.live.memoryBytes();
+    }
+
+    private void merge() {
+        try {
+            Snapshot freezing;
+            swapLock.writeLock().lock();
+            try {
+                Snapshot current = snapshot;
+                freezing = new Snapshot(current.base, current.live, new Delta());
+                snapshot = freezing;
+            } finally {
+                swapLock.writeLock().unlock();
+            }
+            FrontCodedNames merged = mergeInto(freezing.base, freezing.frozen);
+            swapLock.writeLock().lock();
+            try {
+                snapshot = new Snapshot(merged, new Delta(), snapshot.live);
+            } finally {
+                swapLock.writeLock().unlock();
+            }
+        } finally {
+            mergePending.set(false);
+        }
+    }
+
+    private static FrontCodedNames mergeInto(FrontCodedNames base, Delta delta) {
+        FrontCodedNames.Builder builder = new FrontCodedNames.Builder();
+        DeltaCursor pending = new DeltaCursor(delta.entries().entrySet().iterator());
+        base.forEach((name, count) -> {
+            while (pending.entry != null && pending.entry.getKey().compareTo(name) < 0) {
+                builder.add(pending.entry.getKey(), pending.entry.getValue().sum());
+                pending.advance();
+            }
+            if (pending.entry != null && pending.entry.getKey().equals(name)) {
+                builder.add(name, count + pending.entry.getValue().sum());
+                pending.advance();
+            } else {
+                builder.add(name, count);
+            }
+        });
+        while (pending.entry != null) {
+            builder.add(pending.entry.getKey(), pending.entry.getValue().sum());
+            pending.advance();
+        }
+        return builder.build();
+    }
+
+    private static void offer(PriorityQueue<NameMatch> top, int limit, NameMatch match) {
+        top.offer(match);
+        if (top.size() > limit) {
+            top.poll();
+        }
+    }
+
+    private static final class DeltaCursor {
+
+        private final Iterator<Map.Entry<String, LongAdder>> entries;
+        private Map.Entry<String, LongAdder> entry;
+
+        DeltaCursor(Iterator<Map.Entry<String, LongAdder>> entries) {
+            this.entries = entries;
+            advance();
+        }
+
+        void advance() {
+            entry = entries.hasNext() ? entries.next() : null;
+        }
+    }
+
+    private record Snapshot(FrontCodedNames base, Delta frozen, Delta live) {
+    }
+
+    /**
+     * Names recorded since the last merge, with their counts.
+     */
+    private static final class Delta {
+
+        private final ConcurrentSkipListMap<String, LongAdder> counts = new ConcurrentSkipListMap<>();
+        private final AtomicLong size = new AtomicLong();
+        private final AtomicLong chars = new AtomicLong();
+
+        void increment(String name) {
+            LongAdder count = counts.get(name);
+            if (count == null) {
+                LongAdder created = new LongAdder();
+                count = counts.putIfAbsent(name, created);
+                if (count == null) {
+                    count = created;
+                    size.incrementAndGet();
+                    chars.addAndGet(name.length());
+                }
+            }
+            count.increment();
+        }
+
+        NavigableMap<String, LongAdder> withPrefix(String prefix) {
+            return counts.subMap(prefix, true, prefix + Character.MAX_VALUE, true);
+        }
+
+        NavigableMap<String, LongAdder> entries() {
+            return counts;
+        }
+
+        /**
+         * Distinct names recorded.
+         */
+        long size() {
+            return size.get();
+        }
+
+        long memoryBytes() {
+            return size.get() * DELTA_ENTRY_BYTES + 2 * chars.get();
+        }
+
+        static long count(Map<String, LongAdder> counts, String name) {
+            LongAdder count = counts.get(name);
+            return count == null ? 0 : count.sum();
+        }
+
+        static long max(Map<String, LongAdder> counts) {
+            long max = 0;
+            for (LongAdder count : counts.values()) {
+                max = Math.max(max, count.sum());
+            }
+            return max;
+        }
+    }
+}
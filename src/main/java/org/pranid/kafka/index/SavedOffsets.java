@@ -0,0 +1,63 @@
+package org.pranid.kafka.index;
+
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.pranid.kafka.config.NameSearchProperties;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.kafka.core.KafkaAdmin;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Committed offsets of {@code names.search.saving-group}, the consumer group whose handlers save persons and
+ * aliens. A record below its partition's committed offset has been handled by that group.
+ */
+@Component
+public class SavedOffsets implements DisposableBean {
+
+    private final KafkaAdmin kafkaAdmin;
+    private final String group;
+    private AdminClient adminClient;
+
+    public SavedOffsets(KafkaAdmin kafkaAdmin, NameSearchProperties properties) {
+        this.kafkaAdmin = kafkaAdmin;
+        this.group = properties.getSavingGroup();
+    }
+
+    /**
+     * Committed offset per partition of {@code topic}; partitions the group has not committed are left out.
+     */
+    public Mono<Map<Integer, Long>> committed(String topic) {
+        return Mono.fromCompletionStage(() -> adminClient().listConsumerGroupOffsets(group)
+                        .partitionsToOffsetAndMetadata()
+                        .toCompletionStage())
+                .map(offsets -> {
+                    Map<Integer, Long> committed = new HashMap<>();
+                    for (Map.Entry<TopicPartition, OffsetAndMetadata> entry : offsets.entrySet()) {
+                        if (entry.getKey().topic().equals(topic) && entry.getValue() != null) {
+                            committed.put(entry.getKey().partition(), entry.getValue().offset());
+                        }
+                    }
+                    return committed;
+                });
+    }
+
+    @Override
+    public synchronized void destroy() {
+        if (adminClient != null) {
+            adminClient.close(Duration.ofSeconds(5));
+        }
+    }
+
+    private synchronized AdminClient adminClient() {
+        if (adminClient == null) {
+            adminClient = AdminClient.create(kafkaAdmin.getConfigurationProperties());
+        }
+        return adminClient;
+    }
+}
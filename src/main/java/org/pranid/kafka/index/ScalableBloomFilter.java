@@ -0,0 +1,149 @@
+package org.pranid.kafka.index;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom filter that grows with its content (Almeida et al., "Scalable Bloom Filters"). Keys go into the newest
+ * slice; once it holds its capacity, a slice {@code growthFactor} times larger with a false-positive rate
+ * {@code tighteningRatio} times lower is added. The compound false-positive rate therefore stays below the
+ * configured one however many keys are added. Adds are serialized, lookups are lock-free.
+ */
+public class ScalableBloomFilter {
+
+    private static final double LN2 = Math.log(2);
+
+    private final int growthFactor;
+    private final double tighteningRatio;
+    private volatile Slice[] slices;
+
+    public ScalableBloomFilter(long initialCapacity, double falsePositiveRate, int growthFactor, double tighteningRatio) {
+        if (initialCapacity <= 0 || falsePositiveRate <= 0 || falsePositiveRate >= 1
+                || growthFactor < 1 || tighteningRatio <= 0 || tighteningRatio >= 1) {
+            throw new IllegalArgumentException("Need initialCapacity > 0, 0 < falsePositiveRate < 1, "
+                    + "growthFactor >= 1 and 0 < tighteningRatio < 1");
+        }
+        this.growthFactor = growthFactor;
+        this.tighteningRatio = tighteningRatio;
+        // The slice rates form a geometric series, so the compound rate stays below falsePositiveRate
+        this.slices = new Slice[]{new Slice(initialCapacity, falsePositiveRate * (1 - tighteningRatio))};
+    }
+
+    /**
+     * Adds a key, emitting whether it was new. Keys that already appear present are not added again,
+     * so repeated names do not use up slice capacity.
+     */
+    public synchronized boolean add(String key) {
+        long hash = Hashing.hash64(key);
+        if (mightContain(hash)) {
+            return false;
+        }
+        Slice last = slices[slices.length - 1];
+        if (last.count >= last.capacity) {
+            last = new Slice(last.capacity * growthFactor, last.falsePositiveRate * tighteningRatio);
+            Slice[] grown = Arrays.copyOf(slices, slices.length + 1);
+            grown[grown.length - 1] = last;
+            slices = grown;
+        }
+        last.add(hash);
+        return true;
+    }
+
+    /**
+     * {@code false} means the key was definitely never added; {@code true} means it probably was.
+     */
+    public boolean mightContain(String key) {
+        return mightContain(Hashing.hash64(key));
+    }
+
+    /**
+     * Distinct keys added, not counting those rejected as probably present.
+     */
+    public long size() {
+        long size = 0;
+        for (Slice slice : slices) {
+            size += slice.count;
+        }
+        return size;
+    }
+
+    public long bitSize() {
+        long bits = 0;
+        for (Slice slice : slices) {
+            bits += slice.bits;
+        }
+        return bits;
+    }
+
+    public int sliceCount() {
+        return slices.length;
+    }
+
+    /**
+     * Probability that a key never added is reported as present, given how full the slices are now.
+     */
+    public double expectedFalsePositiveRate() {
+        double allNegative = 1.0;
+        for (Slice slice : slices) {
+            allNegative *= 1 - slice.expectedFalsePositiveRate();
+        }
+        return 1 - allNegative;
+    }
+
+    private boolean mightContain(long hash) {
+        for (Slice slice : slices) {
+            if (slice.mightContain(hash)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static final class Slice {
+
+        private final long capacity;
+        private final double falsePositiveRate;
+        private final long bits;
+        private final int hashes;
+        private final AtomicLongArray words;
+        private volatile long count;
+
+        Slice(long capacity, double falsePositiveRate) {
+            this.capacity = capacity;
+            this.falsePositiveRate = falsePositiveRate;
+            this.bits = Math.max(64, (long) Math.ceil(-capacity * Math.log(falsePositiveRate) / (LN2 * LN2)));
+            this.hashes = Math.max(1, (int) Math.round((double) bits / capacity * LN2));
+            this.words = new AtomicLongArray(Math.toIntExact((bits + 63) / 64));
+        }
+
+        void add(long hash) {
+            for (int i = 0; i < hashes; i++) {
+                long bit = bit(hash, i);
+                int word = (int) (bit >>> 6);
+                long mask = 1L << bit;
+                words.getAndUpdate(word, value -> value | mask);
+            }
+            count++;
+        }
+
+        boolean mightContain(long hash) {
+            for (int i = 0; i < hashes; i++) {
+                long bit = bit(hash, i);
+                if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        double expectedFalsePositiveRate() {
+            return Math.pow(1 - Math.exp(-(double) hashes * count / bits), hashes);
+        }
+
+        private long bit(long hash, int i) {
+            long h1 = hash & 0xffffffffL;
+            long h2 = (hash >>> 32) | 1;
+            return Math.floorMod(h1 + i * h2, bits);
+        }
+    }
+}
@@ -24,6 +24,6 @@ public class PersonMongoListener extends AbstractMongoEventListener<Person> {
         Person person = event.getSource();
         // if (person.getId() == null) return; // skip updates if needed
         kafkaProducer.sendPersonCreatedEvent(person);
-        logger.info("📤 After save message: {}", person.getName());
+        logger.info("📤 After save message: {}", person.name());
     }
 }
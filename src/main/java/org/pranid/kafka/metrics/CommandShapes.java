@@ -0,0 +1,102 @@
+package org.pranid.kafka.metrics;
+
+import org.bson.BsonArray;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+
+import java.util.Set;
+
+/**
+ * Renders MongoDB commands with every value replaced by {@code ?}, keeping field names and operators,
+ * so slow commands can be logged without leaking document contents.
+ */
+public final class CommandShapes {
+
+    /**
+     * Session, cluster-time and transaction bookkeeping that every command carries.
+     */
+    private static final Set<String> IGNORED_FIELDS = Set.of(
+            "lsid", "$db", "$clusterTime", "txnNumber", "autocommit", "startTransaction", "$readPreference");
+
+    private static final int MAX_DEPTH = 6;
+
+    /**
+     * Elements shown for arrays of documents such as pipelines; bulk payloads are cut off with a total.
+     */
+    private static final int MAX_ARRAY_DOCUMENTS = 5;
+
+    private CommandShapes() {
+    }
+
+    public static String shape(BsonDocument command, int maxLength) {
+        StringBuilder out = new StringBuilder();
+        appendDocument(command, out, 0, true);
+        return out.length() > maxLength ? out.substring(0, maxLength) + "…" : out.toString();
+    }
+
+    /**
+     * The collection a command targets, or {@code null} for database-level commands.
+     */
+    public static String collection(BsonDocument command, String commandName) {
+        BsonValue target = "getMore".equals(commandName) ? command.get("collection") : command.get(commandName);
+        return target != null && target.isString() ? target.asString().getValue() : null;
+    }
+
+    private static void appendDocument(BsonDocument document, StringBuilder out, int depth, boolean topLevel) {
+        if (depth >= MAX_DEPTH) {
+            out.append("{…}");
+            return;
+        }
+        out.append('{');
+        boolean first = true;
+        for (var entry : document.entrySet()) {
+            if (topLevel && IGNORED_FIELDS.contains(entry.getKey())) {
+                continue;
+            }
+            // The command name comes first and its value is the collection, which is worth keeping
+            boolean commandName = topLevel && first;
+            if (!first) {
+                out.append(", ");
+            }
+            first = false;
+            out.append(entry.getKey()).append(": ");
+            if (commandName && entry.getValue().isString()) {
+                out.append('"').append(entry.getValue().asString().getValue()).append('"');
+            } else {
+                appendValue(entry.getValue(), out, depth + 1);
+            }
+        }
+        out.append('}');
+    }
+
+    private static void appendValue(BsonValue value, StringBuilder out, int depth) {
+        if (value.isDocument()) {
+            appendDocument(value.asDocument(), out, depth, false);
+        } else if (value.isArray()) {
+            BsonArray array = value.asArray();
+            if (array.isEmpty()) {
+                out.append("[]");
+                return;
+            }
+            // Arrays of documents (pipelines, bulk payloads) show their leading elements; scalar arrays only their size
+            if (array.get(0).isDocument()) {
+                out.append('[');
+                int shown = Math.min(array.size(), MAX_ARRAY_DOCUMENTS);
+                for (int i = 0; i < shown; i++) {
+                    if (i > 0) {
+                        out.append(", ");
+                    }
+                    appendValue(array.get(i), out, depth);
+                }
+                if (array.size() > shown) {
+                    out.append(", … ").append(array.size()).append(" total");
+                }
+                out.append(']');
+            } else {
+                out.append("[? × ").append(array.size()).append(']');
+            }
+        } else {
+            out.append('?');
+        }
+    }
+}
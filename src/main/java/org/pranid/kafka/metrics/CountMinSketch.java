@@ -0,0 +1,74 @@
+package org.pranid.kafka.metrics;
+
+import org.pranid.kafka.index.Hashing;
+
+/**
+ * Count-min sketch over string keys in {@code depth * width} counters. Estimates never undercount and
+ * overcount by at most a small fraction of the total. Uses conservative update: only the counters that hold the
+ * current minimum are raised. Not thread-safe.
+ */
+public class CountMinSketch {
+
+    private final long[][] rows;
+    private final int mask;
+
+    /**
+     * @param width counters per row, rounded up to a power of two
+     * @param depth independent rows, each lowering the chance of a large overcount
+     */
+    public CountMinSketch(int width, int depth) {
+        if (width <= 0 || width > 1 << 24 || depth <= 0) {
+            throw new IllegalArgumentException("width must be in (0, 2^24] and depth positive");
+        }
+        int size = width == 1 ? 1 : Integer.highestOneBit(width - 1) << 1;
+        this.rows = new long[depth][size];
+        this.mask = size - 1;
+    }
+
+    /**
+     * Counts one occurrence and returns the new estimate.
+     */
+    public long add(String key) {
+        long hash = Hashing.hash64(key);
+        long estimate = estimate(hash) + 1;
+        for (int row = 0; row < rows.length; row++) {
+            int index = index(hash, row);
+            if (rows[row][index] < estimate) {
+                rows[row][index] = estimate;
+            }
+        }
+        return estimate;
+    }
+
+    public long estimate(String key) {
+        return estimate(Hashing.hash64(key));
+    }
+
+    /**
+     * Halves every counter.
+     */
+    public void halve() {
+        for (long[] row : rows) {
+            for (int i = 0; i < row.length; i++) {
+                row[i] >>>= 1;
+            }
+        }
+    }
+
+    private long estimate(long hash) {
+        long min = Long.MAX_VALUE;
+        for (int row = 0; row < rows.length; row++) {
+            min = Math.min(min, rows[row][index(hash, row)]);
+        }
+        return min;
+    }
+
+    /**
+     * Row indexes from two 32-bit halves of one hash (Kirsch-Mitzenmacher double hashing).
+     */
+    private int index(long hash, int row) {
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+        return (h1 + row * h2) & mask;
+    }
+}
@@ -0,0 +1,89 @@
+package org.pranid.kafka.metrics;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Approximate most frequent keys in fixed memory. A {@link CountMinSketch} estimates every key, and the
+ * {@code k} keys with the largest estimates are kept as the top.
+ */
+public class HeavyHitters {
+
+    private final CountMinSketch sketch;
+    private final int k;
+    private final Map<String, Long> top;
+    private long total;
+
+    public HeavyHitters(int k, int width, int depth) {
+        if (k <= 0) {
+            throw new IllegalArgumentException("k must be positive: " + k);
+        }
+        this.sketch = new CountMinSketch(width, depth);
+        this.k = k;
+        this.top = new HashMap<>(k * 2);
+    }
+
+    public synchronized void add(String key) {
+        total++;
+        long estimate = sketch.add(key);
+        if (top.size() < k || top.containsKey(key)) {
+            top.put(key, estimate);
+            return;
+        }
+        Map.Entry<String, Long> smallest = null;
+        for (Map.Entry<String, Long> entry : top.entrySet()) {
+            if (smallest == null || entry.getValue() < smallest.getValue()) {
+                smallest = entry;
+            }
+        }
+        if (estimate > smallest.getValue()) {
+            top.remove(smallest.getKey());
+            top.put(key, estimate);
+        }
+    }
+
+    public synchronized long estimate(String key) {
+        return sketch.estimate(key);
+    }
+
+    public synchronized long total() {
+        return total;
+    }
+
+    /**
+     * Top keys, most frequent first, with their share of all counted records.
+     */
+    public synchronized List<Entry> top() {
+        List<Entry> entries = new ArrayList<>(top.size());
+        top.forEach((key, count) -> entries.add(new Entry(key, count, total == 0 ? 0.0 : (double) count / total)));
+        entries.sort(Comparator.comparingLong(Entry::count).reversed());
+        return entries;
+    }
+
+    /**
+     * Share of the most frequent key, 0.0 when nothing was counted.
+     */
+    public synchronized double topShare() {
+        long max = 0;
+        for (long count : top.values()) {
+            max = Math.max(max, count);
+        }
+        return total == 0 ? 0.0 : Math.min(1.0, (double) max / total);
+    }
+
+    /**
+     * Halves all counts, so recent records outweigh older ones.
+     */
+    public synchronized void decay() {
+        sketch.halve();
+        total >>>= 1;
+        top.replaceAll((key, count) -> count >>> 1);
+        top.values().removeIf(count -> count == 0);
+    }
+
+    public record Entry(String key, long count, double share) {
+    }
+}
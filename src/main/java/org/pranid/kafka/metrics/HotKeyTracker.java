@@ -0,0 +1,220 @@
+package org.pranid.kafka.metrics;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.pranid.kafka.config.HotKeyProperties;
+import org.pranid.kafka.model.Alien;
+import org.pranid.kafka.model.Person;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Tracks the most frequent record keys and names per topic and per partition, separately for consumed and
+ * produced records, in memory bounded by {@link HotKeyProperties}. Publishes {@code hotkeys.top.share} (share
+ * of the hottest key or name) and {@code hotkeys.partition.share} (share of the busiest partition); the keys
+ * themselves are served by the {@code hotkeys} actuator endpoint.
+ */
+@Component
+public class HotKeyTracker implements DisposableBean {
+
+    public enum Direction {
+        CONSUME, PRODUCE
+    }
+
+    private final HotKeyProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Map<Direction, Map<String, TopicHotKeys>> topics = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService decayTicker;
+
+    public HotKeyTracker(HotKeyProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        for (Direction direction : Direction.values()) {
+            topics.put(direction, new ConcurrentHashMap<>());
+        }
+        this.decayTicker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "hotkeys-decay");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (properties.isEnabled()) {
+            long interval = properties.getDecayInterval().toMillis();
+            decayTicker.scheduleWithFixedDelay(this::decay, interval, interval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Counts one record. The key and the value's name are tracked separately because the key property is
+     * configurable; a null key only counts towards the partition.
+     */
+    public void record(Direction direction, String topic, int partition, Object key, Object value) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        topics.get(direction)
+                .computeIfAbsent(topic, name -> register(direction, name))
+                .record(partition, key == null ? null : key.toString(), nameOf(value));
+    }
+
+    /**
+     * Top keys and names by direction and topic.
+     */
+    public Map<String, Object> report() {
+        Map<String, Object> report = new LinkedHashMap<>();
+        topics.forEach((direction, byTopic) -> {
+            Map<String, Object> topicReports = new TreeMap<>();
+            byTopic.forEach((topic, hotKeys) -> topicReports.put(topic, hotKeys.report()));
+            report.put(direction.name().toLowerCase(Locale.ROOT), topicReports);
+        });
+        return report;
+    }
+
+    /**
+     * Top keys and names for one topic, or an empty map when it has not been seen.
+     */
+    public Map<String, Object> report(String topic) {
+        Map<String, Object> report = new LinkedHashMap<>();
+        topics.forEach((direction, byTopic) -> {
+            TopicHotKeys hotKeys = byTopic.get(topic);
+            if (hotKeys != null) {
+                report.put(direction.name().toLowerCase(Locale.ROOT), hotKeys.report());
+            }
+        });
+        return report;
+    }
+
+    void decay() {
+        topics.values().forEach(byTopic -> byTopic.values().forEach(TopicHotKeys::decay));
+    }
+
+    @Override
+    public void destroy() {
+        decayTicker.shutdownNow();
+    }
+
+    private static String nameOf(Object value) {
+        if (value instanceof Person person) {
+            return person.name();
+        }
+        if (value instanceof Alien alien) {
+            return alien.name();
+        }
+        return null;
+    }
+
+    private TopicHotKeys register(Direction direction, String topic) {
+        TopicHotKeys hotKeys = new TopicHotKeys();
+        String tag = direction.name().toLowerCase(Locale.ROOT);
+        Gauge.builder("hotkeys.top.share", hotKeys.keys, HeavyHitters::topShare)
+                .tags("direction", tag, "topic", topic, "dimension", "key")
+                .description("Share of recent records carrying the most frequent key")
+                .register(meterRegistry);
+        Gauge.builder("hotkeys.top.share", hotKeys.names, HeavyHitters::topShare)
+                .tags("direction", tag, "topic", topic, "dimension", "name")
+                .description("Share of recent records carrying the most frequent name")
+                .register(meterRegistry);
+        Gauge.builder("hotkeys.partition.share", hotKeys, TopicHotKeys::busiestPartitionShare)
+                .tags("direction", tag, "topic", topic)
+                .description("Share of recent records on the busiest partition")
+                .register(meterRegistry);
+        return hotKeys;
+    }
+
+    private final class TopicHotKeys {
+
+        private final HeavyHitters keys = newHeavyHitters(properties.getSketchWidth());
+        private final HeavyHitters names = newHeavyHitters(properties.getSketchWidth());
+        private final AtomicReferenceArray<HeavyHitters> partitionKeys =
+                new AtomicReferenceArray<>(properties.getMaxPartitions());
+        private final AtomicLongArray partitionCounts = new AtomicLongArray(properties.getMaxPartitions());
+        private final AtomicLong records = new AtomicLong();
+
+        void record(int partition, String key, String name) {
+            records.incrementAndGet();
+            if (key != null) {
+                keys.add(key);
+            }
+            if (name != null) {
+                names.add(name);
+            }
+            if (partition < 0 || partition >= partitionCounts.length()) {
+                return;
+            }
+            partitionCounts.incrementAndGet(partition);
+            if (key != null) {
+                HeavyHitters hitters = partitionKeys.get(partition);
+                if (hitters == null) {
+                    partitionKeys.compareAndSet(partition, null, newHeavyHitters(properties.getPartitionSketchWidth()));
+                    hitters = partitionKeys.get(partition);
+                }
+                hitters.add(key);
+            }
+        }
+
+        double busiestPartitionShare() {
+            long max = 0;
+            long total = 0;
+            for (int i = 0; i < partitionCounts.length(); i++) {
+                long count = partitionCounts.get(i);
+                max = Math.max(max, count);
+                total += count;
+            }
+            return total == 0 ? 0.0 : (double) max / total;
+        }
+
+        void decay() {
+            keys.decay();
+            names.decay();
+            records.getAndUpdate(count -> count >>> 1);
+            for (int i = 0; i < partitionCounts.length(); i++) {
+                partitionCounts.getAndUpdate(i, count -> count >>> 1);
+                HeavyHitters hitters = partitionKeys.get(i);
+                if (hitters != null) {
+                    hitters.decay();
+                }
+            }
+        }
+
+        Map<String, Object> report() {
+            Map<String, Object> partitions = new TreeMap<>();
+            long total = 0;
+            for (int i = 0; i < partitionCounts.length(); i++) {
+                total += partitionCounts.get(i);
+            }
+            for (int i = 0; i < partitionCounts.length(); i++) {
+                long count = partitionCounts.get(i);
+                if (count == 0) {
+                    continue;
+                }
+                HeavyHitters hitters = partitionKeys.get(i);
+                partitions.put(String.valueOf(i), Map.of(
+                        "records", count,
+                        "share", (double) count / total,
+                        "keys", hitters == null ? List.of() : hitters.top()));
+            }
+            Map<String, Object> report = new LinkedHashMap<>();
+            report.put("records", records.get());
+            report.put("keys", keys.top());
+            report.put("names", names.top());
+            report.put("partitions", partitions);
+            return report;
+        }
+
+        private HeavyHitters newHeavyHitters(int width) {
+            return new HeavyHitters(properties.getTopK(), width, properties.getSketchDepth());
+        }
+    }
+}
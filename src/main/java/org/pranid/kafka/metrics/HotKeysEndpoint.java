@@ -0,0 +1,32 @@
+package org.pranid.kafka.metrics;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * {@code /actuator/hotkeys}: the hottest keys and names per topic and partition, for consumed and produced records.
+ */
+@Component
+@Endpoint(id = "hotkeys")
+public class HotKeysEndpoint {
+
+    private final HotKeyTracker hotKeyTracker;
+
+    public HotKeysEndpoint(HotKeyTracker hotKeyTracker) {
+        this.hotKeyTracker = hotKeyTracker;
+    }
+
+    @ReadOperation
+    public Map<String, Object> hotKeys() {
+        return hotKeyTracker.report();
+    }
+
+    @ReadOperation
+    public Map<String, Object> topic(@Selector String topic) {
+        return hotKeyTracker.report(topic);
+    }
+}
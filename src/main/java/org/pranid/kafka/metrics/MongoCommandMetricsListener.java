@@ -0,0 +1,79 @@
+package org.pranid.kafka.metrics;
+
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.pranid.kafka.config.MongoMetricsProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records {@code mongo.commands} latency histograms per command, collection and outcome.
+ * A sample of commands has its shape captured at start, and those that exceed the slow threshold are logged
+ * with their shape and no values.
+ */
+public class MongoCommandMetricsListener implements CommandListener {
+
+    private final Logger logger = LoggerFactory.getLogger(MongoCommandMetricsListener.class);
+    private final MeterRegistry meterRegistry;
+    private final long slowThresholdNanos;
+    private final double sampleRate;
+    private final int maxShapeLength;
+    private final Map<Integer, StartedCommand> started = new ConcurrentHashMap<>();
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    public MongoCommandMetricsListener(MeterRegistry meterRegistry, MongoMetricsProperties properties) {
+        this.meterRegistry = meterRegistry;
+        this.slowThresholdNanos = properties.getSlowCommandThreshold().toNanos();
+        this.sampleRate = properties.getSlowCommandSampleRate();
+        this.maxShapeLength = properties.getMaxShapeLength();
+    }
+
+    @Override
+    public void commandStarted(CommandStartedEvent event) {
+        String collection = CommandShapes.collection(event.getCommand(), event.getCommandName());
+        // The command document is only valid during this callback, so a sampled shape is rendered now
+        String shape = ThreadLocalRandom.current().nextDouble() < sampleRate
+                ? CommandShapes.shape(event.getCommand(), maxShapeLength)
+                : null;
+        started.put(event.getRequestId(), new StartedCommand(collection == null ? "none" : collection, shape));
+    }
+
+    @Override
+    public void commandSucceeded(CommandSucceededEvent event) {
+        complete(event.getRequestId(), event.getCommandName(), event.getElapsedTime(TimeUnit.NANOSECONDS), "success");
+    }
+
+    @Override
+    public void commandFailed(CommandFailedEvent event) {
+        complete(event.getRequestId(), event.getCommandName(), event.getElapsedTime(TimeUnit.NANOSECONDS), "failed");
+    }
+
+    private void complete(int requestId, String commandName, long elapsedNanos, String status) {
+        StartedCommand command = started.remove(requestId);
+        String collection = command == null ? "none" : command.collection();
+        timers.computeIfAbsent(commandName + '|' + collection + '|' + status, key -> Timer.builder("mongo.commands")
+                        .description("MongoDB command latency as seen by the driver")
+                        .tag("command", commandName)
+                        .tag("collection", collection)
+                        .tag("status", status)
+                        .publishPercentileHistogram()
+                        .register(meterRegistry))
+                .record(elapsedNanos, TimeUnit.NANOSECONDS);
+        if (elapsedNanos >= slowThresholdNanos && command != null && command.shape() != null) {
+            logger.warn("Slow MongoDB command {} on {} took {}ms ({}): {}", commandName, collection,
+                    TimeUnit.NANOSECONDS.toMillis(elapsedNanos), status, command.shape());
+        }
+    }
+
+    private record StartedCommand(String collection, String shape) {
+    }
+}
@@ -0,0 +1,117 @@
+package org.pranid.kafka.metrics;
+
+import com.mongodb.connection.ServerId;
+import com.mongodb.event.ConnectionCheckOutFailedEvent;
+import com.mongodb.event.ConnectionCheckOutStartedEvent;
+import com.mongodb.event.ConnectionCheckedInEvent;
+import com.mongodb.event.ConnectionCheckedOutEvent;
+import com.mongodb.event.ConnectionPoolClosedEvent;
+import com.mongodb.event.ConnectionPoolCreatedEvent;
+import com.mongodb.event.ConnectionPoolListener;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Per-server connection pool metrics: {@code mongo.pool.checkout} wait time, connections checked out,
+ * operations waiting for a connection, and {@code mongo.pool.saturation} (checked out / max pool size).
+ */
+public class MongoPoolMetricsListener implements ConnectionPoolListener {
+
+    private final MeterRegistry meterRegistry;
+    private final Map<ServerId, Pool> pools = new ConcurrentHashMap<>();
+
+    public MongoPoolMetricsListener(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void connectionPoolCreated(ConnectionPoolCreatedEvent event) {
+        pools.put(event.getServerId(), new Pool(event.getServerId(), event.getSettings().getMaxSize()));
+    }
+
+    @Override
+    public void connectionPoolClosed(ConnectionPoolClosedEvent event) {
+        Pool pool = pools.remove(event.getServerId());
+        if (pool != null) {
+            pool.meters.forEach(meterRegistry::remove);
+        }
+    }
+
+    @Override
+    public void connectionCheckOutStarted(ConnectionCheckOutStartedEvent event) {
+        Pool pool = pools.get(event.getServerId());
+        if (pool != null) {
+            pool.waiting.incrementAndGet();
+        }
+    }
+
+    @Override
+    public void connectionCheckedOut(ConnectionCheckedOutEvent event) {
+        Pool pool = pools.get(event.getConnectionId().getServerId());
+        if (pool != null) {
+            pool.waiting.decrementAndGet();
+            pool.checkedOut.incrementAndGet();
+            pool.checkoutSucceeded.record(event.getElapsedTime(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public void connectionCheckOutFailed(ConnectionCheckOutFailedEvent event) {
+        Pool pool = pools.get(event.getServerId());
+        if (pool != null) {
+            pool.waiting.decrementAndGet();
+            pool.checkoutFailed.record(event.getElapsedTime(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public void connectionCheckedIn(ConnectionCheckedInEvent event) {
+        Pool pool = pools.get(event.getConnectionId().getServerId());
+        if (pool != null) {
+            pool.checkedOut.decrementAndGet();
+        }
+    }
+
+    private final class Pool {
+        private final AtomicInteger checkedOut = new AtomicInteger();
+        private final AtomicInteger waiting = new AtomicInteger();
+        private final Timer checkoutSucceeded;
+        private final Timer checkoutFailed;
+        private final List<Meter> meters;
+
+        private Pool(ServerId serverId, int maxSize) {
+            Tags tags = Tags.of("server", serverId.getAddress().toString());
+            this.checkoutSucceeded = checkoutTimer(tags.and("status", "success"));
+            this.checkoutFailed = checkoutTimer(tags.and("status", "failed"));
+            this.meters = List.of(checkoutSucceeded, checkoutFailed,
+                    Gauge.builder("mongo.pool.checked.out", checkedOut, AtomicInteger::get)
+                            .tags(tags)
+                            .register(meterRegistry),
+                    Gauge.builder("mongo.pool.waiting", waiting, AtomicInteger::get)
+                            .description("Operations waiting to check out a connection")
+                            .tags(tags)
+                            .register(meterRegistry),
+                    Gauge.builder("mongo.pool.saturation", checkedOut, count -> maxSize == 0 ? 0 : (double) count.get() / maxSize)
+                            .description("Checked out connections divided by the maximum pool size")
+                            .tags(tags)
+                            .register(meterRegistry));
+        }
+
+        private Timer checkoutTimer(Tags tags) {
+            return Timer.builder("mongo.pool.checkout")
+                    .description("Time spent waiting to check out a pooled connection")
+                    .tags(tags)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry);
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package org.pranid.kafka.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.ProducerListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Tracks acknowledged records per partition for every {@code KafkaTemplate} send.
+ * Publishes {@code kafka.producer.partition.records} per partition and
+ * {@code kafka.producer.partition.skew} per topic (busiest partition / mean partition).
+ * Acknowledged records are also fed to {@link HotKeyTracker}.
+ * Replaces Spring Boot's default logging listener, so send failures are logged here.
+ * Partition counts are looked up on a background thread and cached, so neither the producer callback nor a
+ * metrics scrape waits on a metadata fetch.
+ */
+@Component
+public class PartitionSkewProducerListener implements ProducerListener<Object, Object>, DisposableBean {
+
+    private static final int MAX_TRACKED_PARTITIONS = 256;
+
+    private final Logger logger = LoggerFactory.getLogger(PartitionSkewProducerListener.class);
+    private final MeterRegistry meterRegistry;
+    private final ObjectProvider<KafkaTemplate<Object, Object>> kafkaTemplate;
+    private final HotKeyTracker hotKeyTracker;
+    private final Map<String, TopicCounts> topics = new ConcurrentHashMap<>();
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+    private final ExecutorService metadataLookups;
+
+    public PartitionSkewProducerListener(MeterRegistry meterRegistry,
+                                         ObjectProvider<KafkaTemplate<Object, Object>> kafkaTemplate,
+                                         HotKeyTracker hotKeyTracker) {
+        this.meterRegistry = meterRegistry;
+        this.kafkaTemplate = kafkaTemplate;
+        this.hotKeyTracker = hotKeyTracker;
+        this.metadataLookups = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "partition-skew-metadata");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public void onSuccess(ProducerRecord<Object, Object> record, RecordMetadata metadata) {
+        int partition = metadata.partition();
+        hotKeyTracker.record(HotKeyTracker.Direction.PRODUCE, metadata.topic(), partition, record.key(), record.value());
+        if (partition < 0 || partition >= MAX_TRACKED_PARTITIONS) {
+            return;
+        }
+        topics.computeIfAbsent(metadata.topic(), this::registerTopic).increment(partition);
+        counters.computeIfAbsent(metadata.topic() + "-" + partition, key -> Counter
+                        .builder("kafka.producer.partition.records")
+                        .tag("topic", metadata.topic())
+                        .tag("partition", String.valueOf(partition))
+                        .register(meterRegistry))
+                .increment();
+    }
+
+    @Override
+    public void onError(ProducerRecord<Object, Object> record, RecordMetadata metadata, Exception exception) {
+        logger.error("Failed to send record to topic {} with key {}", record.topic(), record.key(), exception);
+    }
+
+    /**
+     * Returns busiest partition count divided by the mean over all partitions of the topic.
+     * 1.0 means perfectly even; 0.0 means nothing was sent yet.
+     */
+    public double skew(String topic) {
+        TopicCounts counts = topics.get(topic);
+        return counts == null ? 0.0 : counts.skew();
+    }
+
+    @Override
+    public void destroy() {
+        metadataLookups.shutdownNow();
+    }
+
+    private TopicCounts registerTopic(String topic) {
+        TopicCounts counts = new TopicCounts(topic);
+        counts.refreshPartitionCount();
+        Gauge.builder("kafka.producer.partition.skew", counts, TopicCounts::skew)
+                .tag("topic", topic)
+                .description("Busiest partition record count divided by the mean partition record count")
+                .register(meterRegistry);
+        return counts;
+    }
+
+    /**
+     * Resolves the topic's partition count from producer metadata, or 0 when it is unavailable.
+     * The template is looked up lazily because it depends on this listener. Only called on
+     * {@link #metadataLookups}, since the lookup may wait on a metadata fetch.
+     */
+    private int partitionCount(String topic) {
+        try {
+            KafkaTemplate<Object, Object> template = kafkaTemplate.getIfAvailable();
+            return template == null ? 0 : template.partitionsFor(topic).size();
+        } catch (RuntimeException e) {
+            logger.debug("Could not resolve partition count for topic {}", topic, e);
+            return 0;
+        }
+    }
+
+    private final class TopicCounts {
+        private final String topic;
+        private final AtomicLongArray counts = new AtomicLongArray(MAX_TRACKED_PARTITIONS);
+        private final AtomicBoolean lookupPending = new AtomicBoolean();
+        private volatile int partitionCount;
+
+        TopicCounts(String topic) {
+            this.topic = topic;
+        }
+
+        void increment(int partition) {
+            counts.incrementAndGet(partition);
+            // A partition beyond the cached count means partitions were added since the last lookup
+            if (partitionCount > 0 && partition >= partitionCount) {
+                refreshPartitionCount();
+            }
+        }
+
+        void refreshPartitionCount() {
+            if (!lookupPending.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                metadataLookups.execute(() -> {
+                    try {
+                        partitionCount = Math.min(partitionCount(topic), MAX_TRACKED_PARTITIONS);
+                    } finally {
+                        lookupPending.set(false);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                lookupPending.set(false);
+            }
+        }
+
+        double skew() {
+            long max = 0;
+            long total = 0;
+            int highest = -1;
+            for (int i = 0; i < counts.length(); i++) {
+                long count = counts.get(i);
+                if (count > 0) {
+                    max = Math.max(max, count);
+                    total += count;
+                    highest = i;
+                }
+            }
+            // Fall back to the highest partition seen until metadata is available
+            int partitions = Math.max(partitionCount, highest + 1);
+            return total == 0 ? 0.0 : (double) max * partitions / total;
+        }
+    }
+}
@@ -1,17 +1,29 @@
 package org.pranid.kafka.model;
 
-import lombok.AllArgsConstructor;
-import lombok.Data;
-import lombok.NoArgsConstructor;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.io.Serializable;
 
-@Data
-@NoArgsConstructor
-@AllArgsConstructor
 @Document(collection = "aliens")
-public class Alien implements Serializable {
-    private String name;
-    private String color;
+@CompoundIndex(name = Alien.COLOR_NAME_INDEX, def = "{'color': 1, 'name': 1}",
+        partialFilter = "{'color': {'$exists': true}}")
+@JsonSerialize(using = AlienCodec.Serializer.class)
+@JsonDeserialize(using = AlienCodec.Deserializer.class)
+public record Alien(@Indexed(name = Alien.NAME_INDEX) String name, String color) implements Serializable {
+    public static final String NAME_INDEX = "name";
+    /**
+     * Partial: aliens without a color are left out of the index.
+     */
+    public static final String COLOR_NAME_INDEX = "color_name";
+
+    /**
+     * Replaces the color by its shared {@link Dictionary} instance.
+     */
+    public Alien {
+        color = Dictionary.ALIEN_COLORS.canonical(color);
+    }
 }
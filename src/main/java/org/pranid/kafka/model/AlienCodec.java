@@ -0,0 +1,121 @@
+package org.pranid.kafka.model;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import org.bson.Document;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.data.convert.ReadingConverter;
+
+import java.io.IOException;
+
+/**
+ * Hand-written JSON and BSON mapping for {@link Alien}. Field names are encoded once and values go straight
+ * through the streaming API and the record constructor, so nothing is looked up by reflection per record.
+ * Unknown JSON fields are skipped, as with the reflective mapping.
+ */
+public final class AlienCodec {
+
+    static final String NAME = "name";
+    static final String COLOR = "color";
+
+    private static final SerializableString NAME_FIELD = new SerializedString(NAME);
+    private static final SerializableString COLOR_FIELD = new SerializedString(COLOR);
+
+    private AlienCodec() {
+    }
+
+    public static Document toDocument(Alien alien) {
+        Document document = new Document();
+        if (alien.name() != null) {
+            document.put(NAME, alien.name());
+        }
+        if (alien.color() != null) {
+            document.put(COLOR, alien.color());
+        }
+        return document;
+    }
+
+    public static Alien fromDocument(Document document) {
+        return new Alien(ModelFields.text(document.get(NAME), null),
+                ModelFields.text(document.get(COLOR), Dictionary.ALIEN_COLORS));
+    }
+
+    public static class Serializer extends StdSerializer<Alien> {
+
+        private final Dictionary colors;
+
+        public Serializer() {
+            this(null);
+        }
+
+        Serializer(Dictionary colors) {
+            super(Alien.class);
+            this.colors = colors;
+        }
+
+        @Override
+        public void serialize(Alien alien, JsonGenerator generator, SerializerProvider provider) throws IOException {
+            generator.writeStartObject(alien);
+            generator.writeFieldName(NAME_FIELD);
+            generator.writeString(alien.name());
+            generator.writeFieldName(COLOR_FIELD);
+            ModelFields.writeText(generator, alien.color(), colors);
+            generator.writeEndObject();
+        }
+    }
+
+    /**
+     * Writes the color as its {@link Dictionary} code when the code is stable.
+     */
+    public static final class CodedSerializer extends Serializer {
+
+        public CodedSerializer() {
+            super(Dictionary.ALIEN_COLORS);
+        }
+    }
+
+    public static final class Deserializer extends StdDeserializer<Alien> {
+
+        public Deserializer() {
+            super(Alien.class);
+        }
+
+        @Override
+        public Alien deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            JsonToken token = parser.currentToken();
+            if (token == JsonToken.START_OBJECT) {
+                token = parser.nextToken();
+            } else if (token != JsonToken.FIELD_NAME) {
+                return (Alien) context.handleUnexpectedToken(Alien.class, parser);
+            }
+            String name = null;
+            String color = null;
+            for (; token == JsonToken.FIELD_NAME; token = parser.nextToken()) {
+                String field = parser.currentName();
+                parser.nextToken();
+                switch (field) {
+                    case NAME -> name = ModelFields.text(parser, context, null);
+                    case COLOR -> color = ModelFields.text(parser, context, Dictionary.ALIEN_COLORS);
+                    default -> parser.skipChildren();
+                }
+            }
+            return new Alien(name, color);
+        }
+    }
+
+    @ReadingConverter
+    public static final class DocumentReader implements Converter<Document, Alien> {
+
+        @Override
+        public Alien convert(Document document) {
+            return fromDocument(document);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package org.pranid.kafka.model;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Canonical instances and small integer codes for the values of one low-cardinality field. Models route these
+ * fields through {@link #canonical}, so a million records share a handful of {@code String}s instead of carrying
+ * one each. The seed values have fixed codes, which makes them safe to send as codes between processes; values
+ * seen later get process-local codes until the dictionary is full, after which they are kept as they come.
+ */
+public final class Dictionary {
+
+    public static final int CAPACITY = 64;
+
+    public static final Dictionary ALIEN_COLORS = new Dictionary("green", "purple");
+    public static final Dictionary PERSON_GENDERS = new Dictionary("male", "female");
+
+    private final Map<String, Integer> codes = new ConcurrentHashMap<>();
+    private final AtomicReferenceArray<String> values = new AtomicReferenceArray<>(CAPACITY);
+    private final int stableSize;
+    private int size;
+
+    Dictionary(String... seeds) {
+        for (String seed : seeds) {
+            add(seed);
+        }
+        this.stableSize = seeds.length;
+    }
+
+    /**
+     * The shared instance equal to {@code value}, adding it while there is room.
+     */
+    public String canonical(String value) {
+        if (value == null) {
+            return null;
+        }
+        Integer code = codes.get(value);
+        if (code == null) {
+            code = add(value);
+        }
+        return code < 0 ? value : values.get(code);
+    }
+
+    /**
+     * Code of the value, or -1 when it is not in the dictionary.
+     */
+    public int code(String value) {
+        Integer code = value == null ? null : codes.get(value);
+        return code == null ? -1 : code;
+    }
+
+    /**
+     * Whether the code means the same value in every process, i.e. belongs to a seed value.
+     */
+    public boolean isStable(int code) {
+        return code >= 0 && code < stableSize;
+    }
+
+    public String value(int code) {
+        if (code < 0 || code >= CAPACITY || values.get(code) == null) {
+            throw new IllegalArgumentException("Unknown dictionary code " + code);
+        }
+        return values.get(code);
+    }
+
+    private synchronized int add(String value) {
+        Integer existing = codes.get(value);
+        if (existing != null) {
+            return existing;
+        }
+        if (size == CAPACITY) {
+            return -1;
+        }
+        // Publish the value before the code, so a code found in the map always resolves
+        values.set(size, value);
+        codes.put(value, size);
+        return size++;
+    }
+}
@@ -0,0 +1,68 @@
+package org.pranid.kafka.model;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+
+import java.io.IOException;
+
+/**
+ * Value conversions shared by the model codecs. Dictionary-encoded fields are read from text or from their code.
+ */
+final class ModelFields {
+
+    private ModelFields() {
+    }
+
+    /**
+     * The current JSON value as text; an integer is taken as a code of {@code dictionary} when one is given.
+     */
+    static String text(JsonParser parser, DeserializationContext context, Dictionary dictionary) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (token == JsonToken.VALUE_NUMBER_INT && dictionary != null) {
+            return dictionary.value(parser.getIntValue());
+        }
+        if (token.isScalarValue()) {
+            return parser.getText();
+        }
+        return (String) context.handleUnexpectedToken(String.class, parser);
+    }
+
+    static int number(JsonParser parser, DeserializationContext context) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token.isScalarValue()) {
+            return parser.getValueAsInt();
+        }
+        return (Integer) context.handleUnexpectedToken(Integer.class, parser);
+    }
+
+    /**
+     * Writes the value, or its code when {@code dictionary} is given and the code is stable.
+     */
+    static void writeText(JsonGenerator generator, String value, Dictionary dictionary) throws IOException {
+        int code = dictionary == null ? -1 : dictionary.code(value);
+        if (dictionary != null && dictionary.isStable(code)) {
+            generator.writeNumber(code);
+        } else {
+            generator.writeString(value);
+        }
+    }
+
+    /**
+     * A BSON value as text; a number is taken as a code of {@code dictionary} when one is given.
+     */
+    static String text(Object value, Dictionary dictionary) {
+        if (value instanceof Number code && dictionary != null) {
+            return dictionary.value(code.intValue());
+        }
+        return value == null ? null : value.toString();
+    }
+
+    static int number(Object value) {
+        return value instanceof Number number ? number.intValue() : 0;
+    }
+}
@@ -1,18 +1,25 @@
 package org.pranid.kafka.model;
 
-import lombok.AllArgsConstructor;
-import lombok.Data;
-import lombok.NoArgsConstructor;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.io.Serializable;
 
-@Data
-@NoArgsConstructor
-@AllArgsConstructor
 @Document(collection = "persons")
-public class Person implements Serializable {
-    private String name;
-    private String gender;
-    private int age;
+@CompoundIndex(name = Person.GENDER_AGE_INDEX, def = "{'gender': 1, 'age': 1}")
+@JsonSerialize(using = PersonCodec.Serializer.class)
+@JsonDeserialize(using = PersonCodec.Deserializer.class)
+public record Person(@Indexed(name = Person.NAME_INDEX) String name, String gender, int age) implements Serializable {
+    public static final String NAME_INDEX = "name";
+    public static final String GENDER_AGE_INDEX = "gender_age";
+
+    /**
+     * Replaces the gender by its shared {@link Dictionary} instance.
+     */
+    public Person {
+        gender = Dictionary.PERSON_GENDERS.canonical(gender);
+    }
 }
@@ -0,0 +1,129 @@
+package org.pranid.kafka.model;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import org.bson.Document;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.data.convert.ReadingConverter;
+
+import java.io.IOException;
+
+/**
+ * Hand-written JSON and BSON mapping for {@link Person}. Field names are encoded once and values go straight
+ * through the streaming API and the record constructor, so nothing is looked up by reflection per record.
+ * Unknown JSON fields are skipped, as with the reflective mapping.
+ */
+public final class PersonCodec {
+
+    static final String NAME = "name";
+    static final String GENDER = "gender";
+    static final String AGE = "age";
+
+    private static final SerializableString NAME_FIELD = new SerializedString(NAME);
+    private static final SerializableString GENDER_FIELD = new SerializedString(GENDER);
+    private static final SerializableString AGE_FIELD = new SerializedString(AGE);
+
+    private PersonCodec() {
+    }
+
+    public static Document toDocument(Person person) {
+        Document document = new Document();
+        if (person.name() != null) {
+            document.put(NAME, person.name());
+        }
+        if (person.gender() != null) {
+            document.put(GENDER, person.gender());
+        }
+        document.put(AGE, person.age());
+        return document;
+    }
+
+    public static Person fromDocument(Document document) {
+        return new Person(ModelFields.text(document.get(NAME), null),
+                ModelFields.text(document.get(GENDER), Dictionary.PERSON_GENDERS),
+                ModelFields.number(document.get(AGE)));
+    }
+
+    public static class Serializer extends StdSerializer<Person> {
+
+        private final Dictionary genders;
+
+        public Serializer() {
+            this(null);
+        }
+
+        Serializer(Dictionary genders) {
+            super(Person.class);
+            this.genders = genders;
+        }
+
+        @Override
+        public void serialize(Person person, JsonGenerator generator, SerializerProvider provider) throws IOException {
+            generator.writeStartObject(person);
+            generator.writeFieldName(NAME_FIELD);
+            generator.writeString(person.name());
+            generator.writeFieldName(GENDER_FIELD);
+            ModelFields.writeText(generator, person.gender(), genders);
+            generator.writeFieldName(AGE_FIELD);
+            generator.writeNumber(person.age());
+            generator.writeEndObject();
+        }
+    }
+
+    /**
+     * Writes the gender as its {@link Dictionary} code when the code is stable.
+     */
+    public static final class CodedSerializer extends Serializer {
+
+        public CodedSerializer() {
+            super(Dictionary.PERSON_GENDERS);
+        }
+    }
+
+    public static final class Deserializer extends StdDeserializer<Person> {
+
+        public Deserializer() {
+            super(Person.class);
+        }
+
+        @Override
+        public Person deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            JsonToken token = parser.currentToken();
+            if (token == JsonToken.START_OBJECT) {
+                token = parser.nextToken();
+            } else if (token != JsonToken.FIELD_NAME) {
+                return (Person) context.handleUnexpectedToken(Person.class, parser);
+            }
+            String name = null;
+            String gender = null;
+            int age = 0;
+            for (; token == JsonToken.FIELD_NAME; token = parser.nextToken()) {
+                String field = parser.currentName();
+                parser.nextToken();
+                switch (field) {
+                    case NAME -> name = ModelFields.text(parser, context, null);
+                    case GENDER -> gender = ModelFields.text(parser, context, Dictionary.PERSON_GENDERS);
+                    case AGE -> age = ModelFields.number(parser, context);
+                    default -> parser.skipChildren();
+                }
+            }
+            return new Person(name, gender, age);
+        }
+    }
+
+    @ReadingConverter
+    public static final class DocumentReader implements Converter<Document, Person> {
+
+        @Override
+        public Person convert(Document document) {
+            return fromDocument(document);
+        }
+    }
+}
@@ -1,15 +1,11 @@
 package org.pranid.kafka.model;
 
-import lombok.AllArgsConstructor;
-import lombok.Data;
-import lombok.NoArgsConstructor;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 
 import java.io.Serializable;
 
-@Data
-@NoArgsConstructor
-@AllArgsConstructor
-public class Pet implements Serializable {
-    private String name;
-    private int age;
+@JsonSerialize(using = PetCodec.Serializer.class)
+@JsonDeserialize(using = PetCodec.Deserializer.class)
+public record Pet(String name, int age) implements Serializable {
 }
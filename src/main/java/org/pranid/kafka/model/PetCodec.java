@@ -0,0 +1,74 @@
+package org.pranid.kafka.model;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+/**
+ * Hand-written JSON mapping for {@link Pet}, written the same way as {@link PersonCodec}.
+ */
+public final class PetCodec {
+
+    static final String NAME = "name";
+    static final String AGE = "age";
+
+    private static final SerializableString NAME_FIELD = new SerializedString(NAME);
+    private static final SerializableString AGE_FIELD = new SerializedString(AGE);
+
+    private PetCodec() {
+    }
+
+    public static final class Serializer extends StdSerializer<Pet> {
+
+        public Serializer() {
+            super(Pet.class);
+        }
+
+        @Override
+        public void serialize(Pet pet, JsonGenerator generator, SerializerProvider provider) throws IOException {
+            generator.writeStartObject(pet);
+            generator.writeFieldName(NAME_FIELD);
+            generator.writeString(pet.name());
+            generator.writeFieldName(AGE_FIELD);
+            generator.writeNumber(pet.age());
+            generator.writeEndObject();
+        }
+    }
+
+    public static final class Deserializer extends StdDeserializer<Pet> {
+
+        public Deserializer() {
+            super(Pet.class);
+        }
+
+        @Override
+        public Pet deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            JsonToken token = parser.currentToken();
+            if (token == JsonToken.START_OBJECT) {
+                token = parser.nextToken();
+            } else if (token != JsonToken.FIELD_NAME) {
+                return (Pet) context.handleUnexpectedToken(Pet.class, parser);
+            }
+            String name = null;
+            int age = 0;
+            for (; token == JsonToken.FIELD_NAME; token = parser.nextToken()) {
+                String field = parser.currentName();
+                parser.nextToken();
+                switch (field) {
+                    case NAME -> name = ModelFields.text(parser, context, null);
+                    case AGE -> age = ModelFields.number(parser, context);
+                    default -> parser.skipChildren();
+                }
+            }
+            return new Pet(name, age);
+        }
+    }
+}
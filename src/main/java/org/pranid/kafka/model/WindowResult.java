@@ -0,0 +1,41 @@
+package org.pranid.kafka.model;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.io.Serializable;
+import java.util.Date;
+
+@Data
+@NoArgsConstructor
+@Document(collection = "window_results")
+@CompoundIndex(name = WindowResult.WINDOW_START_INDEX, def = "{'window': 1, 'windowStart': 1}")
+public class WindowResult implements Serializable {
+    public static final String WINDOW_START_INDEX = "window_start";
+
+    private String window;
+    private String key;
+    private long windowStart;
+    private long windowEnd;
+    private long count;
+
+    /**
+     * When the window closed; results expire from MongoDB seven days later.
+     */
+    @EqualsAndHashCode.Exclude
+    @Indexed(name = "created_at_ttl", expireAfter = "7d")
+    private Date createdAt;
+
+    public WindowResult(String window, String key, long windowStart, long windowEnd, long count) {
+        this.window = window;
+        this.key = key;
+        this.windowStart = windowStart;
+        this.windowEnd = windowEnd;
+        this.count = count;
+        this.createdAt = new Date();
+    }
+}
@@ -3,22 +3,35 @@ package org.pranid.kafka.producer;
 import org.pranid.kafka.model.Alien;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 @Service
 public class AlienKafkaProducer {
 
     private final Logger logger = LoggerFactory.getLogger(AlienKafkaProducer.class);
 
-    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final ReactiveKafkaProducer reactiveKafkaProducer;
 
-    public AlienKafkaProducer(KafkaTemplate<String, Object> kafkaTemplate) {
-        this.kafkaTemplate = kafkaTemplate;
+    private final KeyExtractor<Alien> keyExtractor;
+
+    public AlienKafkaProducer(ReactiveKafkaProducer reactiveKafkaProducer, KeyExtractor<Alien> keyExtractor) {
+        this.reactiveKafkaProducer = reactiveKafkaProducer;
+        this.keyExtractor = keyExtractor;
+    }
+
+    /**
+     * Sends the alien and completes once the broker has acknowledged it.
+     */
+    public Mono<SendResult<String, Object>> sendAlienMessage(Alien alien) {
+        return reactiveKafkaProducer.send("alien", keyExtractor.extractKey(alien), alien)
+                .doOnSuccess(result -> logger.info("👽 Sent Kafka message for alien: {} ({})",
+                        alien.name(), alien.color()));
     }
 
-    public void sendAlienMessage(Alien alien) {
-        kafkaTemplate.send("alien", alien);
-        logger.info("👽 Sent Kafka message for alien: {} ({})", alien.getName(), alien.getColor());
+    public Flux<SendResult<String, Object>> sendAlienMessages(Flux<Alien> aliens) {
+        return reactiveKafkaProducer.sendAll("alien", aliens, keyExtractor);
     }
 }
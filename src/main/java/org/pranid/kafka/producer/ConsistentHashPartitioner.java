@@ -0,0 +1,91 @@
+package org.pranid.kafka.producer;
+
+import org.apache.kafka.clients.producer.Partitioner;
+import org.apache.kafka.common.Cluster;
+import org.apache.kafka.common.utils.Utils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Maps record keys onto partitions through a hash ring with virtual nodes.
+ * Adding partitions only moves the keys that fall into the new partitions' ring segments,
+ * so consumer-side caches partitioned by entity stay mostly warm.
+ * Records without a key are spread round-robin.
+ */
+public class ConsistentHashPartitioner implements Partitioner {
+
+    public static final String VIRTUAL_NODES_CONFIG = "partitioner.consistent-hash.virtual-nodes";
+
+    private static final int DEFAULT_VIRTUAL_NODES = 64;
+
+    private final Map<Integer, Ring> rings = new ConcurrentHashMap<>();
+    private final AtomicInteger unkeyedCounter = new AtomicInteger();
+    private int virtualNodes = DEFAULT_VIRTUAL_NODES;
+
+    @Override
+    public void configure(Map<String, ?> configs) {
+        Object value = configs.get(VIRTUAL_NODES_CONFIG);
+        if (value != null) {
+            virtualNodes = Integer.parseInt(value.toString());
+        }
+    }
+
+    @Override
+    public int partition(String topic, Object key, byte[] keyBytes, Object value, byte[] valueBytes, Cluster cluster) {
+        int partitionCount = cluster.partitionCountForTopic(topic);
+        if (keyBytes == null) {
+            return Utils.toPositive(unkeyedCounter.getAndIncrement()) % partitionCount;
+        }
+        return partitionFor(keyBytes, partitionCount);
+    }
+
+    int partitionFor(byte[] keyBytes, int partitionCount) {
+        return rings.computeIfAbsent(partitionCount, count -> new Ring(count, virtualNodes))
+                .lookup(Utils.murmur2(keyBytes));
+    }
+
+    @Override
+    public void close() {
+        rings.clear();
+    }
+
+    /**
+     * Sorted ring positions with the owning partition at the same index.
+     */
+    private static final class Ring {
+        private final int[] hashes;
+        private final int[] partitions;
+
+        Ring(int partitionCount, int virtualNodes) {
+            int size = partitionCount * virtualNodes;
+            long[] entries = new long[size];
+            int i = 0;
+            for (int partition = 0; partition < partitionCount; partition++) {
+                for (int node = 0; node < virtualNodes; node++) {
+                    int hash = Utils.murmur2((partition + "#" + node).getBytes(StandardCharsets.UTF_8));
+                    // Pack hash (high bits) and partition (low bits) so one sort orders both arrays
+                    entries[i++] = ((long) hash << 32) | partition;
+                }
+            }
+            Arrays.sort(entries);
+            hashes = new int[size];
+            partitions = new int[size];
+            for (int j = 0; j < size; j++) {
+                hashes[j] = (int) (entries[j] >> 32);
+                partitions[j] = (int) entries[j];
+            }
+        }
+
+        int lookup(int hash) {
+            int index = Arrays.binarySearch(hashes, hash);
+            if (index < 0) {
+                index = -index - 1;
+            }
+            return partitions[index == hashes.length ? 0 : index];
+        }
+    }
+}
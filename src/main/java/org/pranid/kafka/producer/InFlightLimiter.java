@@ -0,0 +1,76 @@
+package org.pranid.kafka.producer;
+
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+
+/**
+ * Non-blocking counting semaphore. Callers that find no free slot wait in FIFO order
+ * on a {@link Mono} instead of parking a thread, so event-loop threads are never blocked.
+ */
+public class InFlightLimiter {
+
+    private final int limit;
+    private final Queue<Sinks.One<Void>> waiters = new ArrayDeque<>();
+    private int inFlight;
+
+    public InFlightLimiter(int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("limit must be positive: " + limit);
+        }
+        this.limit = limit;
+    }
+
+    /**
+     * Completes once a slot is held. Cancelling while waiting gives up the place in the queue.
+     */
+    public Mono<Void> acquire() {
+        return Mono.defer(() -> {
+            Sinks.One<Void> waiter;
+            synchronized (this) {
+                if (inFlight < limit) {
+                    inFlight++;
+                    return Mono.empty();
+                }
+                waiter = Sinks.one();
+                waiters.add(waiter);
+            }
+            return waiter.asMono().doOnCancel(() -> abandon(waiter));
+        });
+    }
+
+    /**
+     * Frees a slot, handing it directly to the oldest waiter if there is one.
+     */
+    public void release() {
+        Sinks.One<Void> next;
+        synchronized (this) {
+            next = waiters.poll();
+            if (next == null) {
+                inFlight--;
+                return;
+            }
+        }
+        next.tryEmitEmpty();
+    }
+
+    public synchronized int inFlight() {
+        return inFlight;
+    }
+
+    public synchronized int waiting() {
+        return waiters.size();
+    }
+
+    private void abandon(Sinks.One<Void> waiter) {
+        synchronized (this) {
+            if (waiters.remove(waiter)) {
+                return;
+            }
+        }
+        // The slot was already handed to this waiter; pass it on
+        release();
+    }
+}
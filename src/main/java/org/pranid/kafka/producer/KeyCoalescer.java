@@ -0,0 +1,71 @@
+package org.pranid.kafka.producer;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+
+/**
+ * Holds the latest value per key for a short window and then hands it to the sink. The window starts with the
+ * first value of a key; values arriving before it ends replace the held one, which is counted as coalesced.
+ * Values without a key, and values of new keys while {@code maxPendingKeys} are held, go to the sink at once.
+ */
+class KeyCoalescer<V> {
+
+    private final Map<String, V> pending = new ConcurrentHashMap<>();
+    private final BiConsumer<String, V> sink;
+    private final ScheduledExecutorService scheduler;
+    private final long windowMillis;
+    private final int maxPendingKeys;
+    private final AtomicLong offered = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+
+    KeyCoalescer(BiConsumer<String, V> sink, ScheduledExecutorService scheduler, long windowMillis, int maxPendingKeys) {
+        this.sink = sink;
+        this.scheduler = scheduler;
+        this.windowMillis = windowMillis;
+        this.maxPendingKeys = maxPendingKeys;
+    }
+
+    void offer(String key, V value) {
+        offered.incrementAndGet();
+        if (key == null || (pending.size() >= maxPendingKeys && !pending.containsKey(key))) {
+            sink.accept(key, value);
+            return;
+        }
+        if (pending.put(key, value) != null) {
+            coalesced.incrementAndGet();
+        } else {
+            scheduler.schedule(() -> flush(key), windowMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Sends every held value now, e.g. on shutdown.
+     */
+    void flushAll() {
+        pending.keySet().forEach(this::flush);
+    }
+
+    int pendingKeys() {
+        return pending.size();
+    }
+
+    long offered() {
+        return offered.get();
+    }
+
+    long coalesced() {
+        return coalesced.get();
+    }
+
+    private void flush(String key) {
+        // A value put after this removal finds no entry and schedules its own window
+        V value = pending.remove(key);
+        if (value != null) {
+            sink.accept(key, value);
+        }
+    }
+}
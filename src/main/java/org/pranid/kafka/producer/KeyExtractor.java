@@ -0,0 +1,11 @@
+package org.pranid.kafka.producer;
+
+/**
+ * Derives the Kafka record key for a message payload.
+ * Records sharing a key land on the same partition, which keeps per-entity ordering.
+ */
+@FunctionalInterface
+public interface KeyExtractor<T> {
+
+    String extractKey(T value);
+}
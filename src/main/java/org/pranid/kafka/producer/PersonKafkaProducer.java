@@ -1,24 +1,92 @@
 package org.pranid.kafka.producer;
 
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.pranid.kafka.config.CoalescingProperties;
 import org.pranid.kafka.model.Person;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.stereotype.Service;
 
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+/**
+ * Sends {@code person.created} events. With {@code kafka.coalescing.enabled}, saves of the same person within
+ * the window are coalesced and only the latest state is sent.
+ */
 @Service
-public class PersonKafkaProducer {
+public class PersonKafkaProducer implements DisposableBean {
+
+    static final String TOPIC = "person.created";
 
     private final Logger logger = LoggerFactory.getLogger(PersonKafkaProducer.class);
 
-    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final ReactiveKafkaProducer reactiveKafkaProducer;
+
+    private final KeyExtractor<Person> keyExtractor;
+
+    private final ScheduledExecutorService coalescingTimer;
+
+    private final KeyCoalescer<Person> coalescer;
 
-    public PersonKafkaProducer(KafkaTemplate<String, Object> kafkaTemplate) {
-        this.kafkaTemplate = kafkaTemplate;
+    public PersonKafkaProducer(ReactiveKafkaProducer reactiveKafkaProducer, KeyExtractor<Person> keyExtractor,
+                               CoalescingProperties properties, MeterRegistry meterRegistry) {
+        this.reactiveKafkaProducer = reactiveKafkaProducer;
+        this.keyExtractor = keyExtractor;
+        if (!properties.isEnabled()) {
+            this.coalescingTimer = null;
+            this.coalescer = null;
+            return;
+        }
+        this.coalescingTimer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "person-coalescing");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.coalescer = new KeyCoalescer<>(this::send, coalescingTimer,
+                properties.getWindow().toMillis(), properties.getMaxPendingKeys());
+
+        FunctionCounter.builder("kafka.producer.coalesced", coalescer, KeyCoalescer::coalesced)
+                .description("Updates replaced by a newer one for the same key before being sent")
+                .tag("topic", TOPIC)
+                .register(meterRegistry);
+        FunctionCounter.builder("kafka.producer.coalescing.offered", coalescer, KeyCoalescer::offered)
+                .description("Updates handed to the coalescing stage")
+                .tag("topic", TOPIC)
+                .register(meterRegistry);
+        Gauge.builder("kafka.producer.coalescing.pending", coalescer, KeyCoalescer::pendingKeys)
+                .description("Keys waiting for their coalescing window to end")
+                .tag("topic", TOPIC)
+                .register(meterRegistry);
     }
 
     public void sendPersonCreatedEvent(Person person) {
-        kafkaTemplate.send("person.created", person);
-        logger.info("📤 Sent Kafka message for new person: {}", person.getName());
+        String key = keyExtractor.extractKey(person);
+        if (coalescer != null) {
+            coalescer.offer(key, person);
+        } else {
+            send(key, person);
+        }
+    }
+
+    /**
+     * Sends what is still held back by the coalescing window before the producer shuts down.
+     */
+    @Override
+    public void destroy() {
+        if (coalescer != null) {
+            coalescingTimer.shutdownNow();
+            coalescer.flushAll();
+        }
+    }
+
+    private void send(String key, Person person) {
+        reactiveKafkaProducer.send(TOPIC, key, person)
+                .doOnSuccess(result -> logger.info("📤 Sent Kafka message for new person: {}", person.name()))
+                .doOnError(e -> logger.error("❌ Failed to send Kafka message for person: {}", person.name(), e))
+                .subscribe();
     }
 }
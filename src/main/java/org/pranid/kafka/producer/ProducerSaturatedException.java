@@ -0,0 +1,11 @@
+package org.pranid.kafka.producer;
+
+/**
+ * Signals that no in-flight slot became free within the configured acquire timeout.
+ */
+public class ProducerSaturatedException extends RuntimeException {
+
+    public ProducerSaturatedException(String message) {
+        super(message);
+    }
+}
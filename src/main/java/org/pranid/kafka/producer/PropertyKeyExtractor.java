@@ -0,0 +1,42 @@
+package org.pranid.kafka.producer;
+
+import org.springframework.beans.BeanUtils;
+import org.springframework.util.ReflectionUtils;
+
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.Method;
+import java.lang.reflect.RecordComponent;
+
+/**
+ * Uses a configured bean property or record component of the payload as the record key.
+ * The accessor is resolved once at startup so sends only pay for a direct method call.
+ */
+public class PropertyKeyExtractor<T> implements KeyExtractor<T> {
+
+    private final Method getter;
+
+    public PropertyKeyExtractor(Class<T> type, String property) {
+        this.getter = accessor(type, property);
+    }
+
+    private static Method accessor(Class<?> type, String property) {
+        if (type.isRecord()) {
+            for (RecordComponent component : type.getRecordComponents()) {
+                if (component.getName().equals(property)) {
+                    return component.getAccessor();
+                }
+            }
+        }
+        PropertyDescriptor descriptor = BeanUtils.getPropertyDescriptor(type, property);
+        if (descriptor == null || descriptor.getReadMethod() == null) {
+            throw new IllegalArgumentException("No readable property '" + property + "' on " + type.getName());
+        }
+        return descriptor.getReadMethod();
+    }
+
+    @Override
+    public String extractKey(T value) {
+        Object key = ReflectionUtils.invokeMethod(getter, value);
+        return key == null ? null : key.toString();
+    }
+}
@@ -0,0 +1,75 @@
+package org.pranid.kafka.producer;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.pranid.kafka.config.ReactiveProducerProperties;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Reactive facade over {@link KafkaTemplate} that completes only when the broker acknowledges a record.
+ * At most {@code kafka.reactive-producer.max-in-flight} records are outstanding; further sends wait
+ * without blocking, which backpressures WebFlux handlers instead of blocking in {@code send()}
+ * or failing with {@code BufferExhaustedException}.
+ */
+@Service
+public class ReactiveKafkaProducer {
+
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final ReactiveProducerProperties properties;
+    private final InFlightLimiter limiter;
+
+    public ReactiveKafkaProducer(KafkaTemplate<String, Object> kafkaTemplate,
+                                 ReactiveProducerProperties properties,
+                                 MeterRegistry meterRegistry) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.properties = properties;
+        this.limiter = new InFlightLimiter(properties.getMaxInFlight());
+
+        Gauge.builder("kafka.producer.in-flight", limiter, InFlightLimiter::inFlight)
+                .description("Records sent but not yet acknowledged")
+                .register(meterRegistry);
+        Gauge.builder("kafka.producer.waiting", limiter, InFlightLimiter::waiting)
+                .description("Sends waiting for an in-flight slot")
+                .register(meterRegistry);
+    }
+
+    public Mono<SendResult<String, Object>> send(String topic, String key, Object value) {
+        return limiter.acquire()
+                .timeout(properties.getAcquireTimeout(), Mono.error(() -> new ProducerSaturatedException(
+                        "No in-flight slot for topic " + topic + " within " + properties.getAcquireTimeout())))
+                .then(Mono.defer(() -> {
+                    CompletableFuture<SendResult<String, Object>> future;
+                    try {
+                        future = kafkaTemplate.send(topic, key, value);
+                    } catch (RuntimeException e) {
+                        limiter.release();
+                        return Mono.error(e);
+                    }
+                    // Hold the slot until the broker answers, even if the subscriber goes away
+                    future.whenComplete((result, error) -> limiter.release());
+                    return Mono.fromFuture(future, true);
+                }));
+    }
+
+    /**
+     * Sends every value and emits the send results in input order.
+     */
+    public <V> Flux<SendResult<String, Object>> sendAll(String topic, Flux<V> values, KeyExtractor<V> keyExtractor) {
+        return values.flatMapSequential(value -> send(topic, keyExtractor.extractKey(value), value),
+                properties.getMaxInFlight());
+    }
+
+    public int inFlight() {
+        return limiter.inFlight();
+    }
+
+    public int waiting() {
+        return limiter.waiting();
+    }
+}
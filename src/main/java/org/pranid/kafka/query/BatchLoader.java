@@ -0,0 +1,120 @@
+package org.pranid.kafka.query;
+
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Collects keys requested within one tick, or until {@code maxBatchSize} distinct keys are waiting,
+ * and resolves them with a single batch lookup. Requests for a key that is already pending or in flight
+ * share that lookup. A batch holding one key uses the single-key lookup instead.
+ */
+public class BatchLoader<K, V> {
+
+    private final Function<K, Mono<V>> singleLookup;
+    private final Function<Set<K>, Mono<Map<K, V>>> batchLookup;
+    private final long tickNanos;
+    private final int maxBatchSize;
+    private final Scheduler scheduler;
+    private final Map<K, Sinks.One<V>> waiting = new HashMap<>();
+    private Set<K> pending = new LinkedHashSet<>();
+    private Disposable scheduledFlush;
+
+    public BatchLoader(Function<K, Mono<V>> singleLookup, Function<Set<K>, Mono<Map<K, V>>> batchLookup,
+                       Duration tick, int maxBatchSize) {
+        this(singleLookup, batchLookup, tick, maxBatchSize, Schedulers.parallel());
+    }
+
+    BatchLoader(Function<K, Mono<V>> singleLookup, Function<Set<K>, Mono<Map<K, V>>> batchLookup,
+                Duration tick, int maxBatchSize, Scheduler scheduler) {
+        this.singleLookup = singleLookup;
+        this.batchLookup = batchLookup;
+        this.tickNanos = tick.toNanos();
+        this.maxBatchSize = maxBatchSize;
+        this.scheduler = scheduler;
+    }
+
+    public Mono<V> load(K key) {
+        return Mono.defer(() -> {
+            Sinks.One<V> sink;
+            Set<K> fullBatch = null;
+            synchronized (this) {
+                Sinks.One<V> existing = waiting.get(key);
+                if (existing != null) {
+                    return existing.asMono();
+                }
+                sink = Sinks.one();
+                waiting.put(key, sink);
+                pending.add(key);
+                if (pending.size() >= maxBatchSize) {
+                    fullBatch = takePending();
+                } else if (pending.size() == 1) {
+                    scheduledFlush = scheduler.schedule(this::flush, tickNanos, TimeUnit.NANOSECONDS);
+                }
+            }
+            if (fullBatch != null) {
+                dispatch(fullBatch);
+            }
+            return sink.asMono();
+        });
+    }
+
+    private synchronized Set<K> takePending() {
+        if (scheduledFlush != null) {
+            scheduledFlush.dispose();
+            scheduledFlush = null;
+        }
+        Set<K> batch = pending;
+        pending = new LinkedHashSet<>();
+        return batch;
+    }
+
+    private void flush() {
+        Set<K> batch = takePending();
+        if (!batch.isEmpty()) {
+            dispatch(batch);
+        }
+    }
+
+    private void dispatch(Set<K> batch) {
+        Mono<Map<K, V>> results = Mono.defer(() -> {
+            if (batch.size() == 1) {
+                K key = batch.iterator().next();
+                return singleLookup.apply(key).map(value -> Map.of(key, value));
+            }
+            return batchLookup.apply(batch);
+        });
+        results.defaultIfEmpty(Map.of())
+                .subscribe(found -> complete(batch, found, null), e -> complete(batch, Map.of(), e));
+    }
+
+    private void complete(Set<K> batch, Map<K, V> found, Throwable error) {
+        for (K key : batch) {
+            Sinks.One<V> sink;
+            synchronized (this) {
+                sink = waiting.remove(key);
+            }
+            if (sink == null) {
+                continue;
+            }
+            V value = found.get(key);
+            if (error != null) {
+                sink.tryEmitError(error);
+            } else if (value != null) {
+                sink.tryEmitValue(value);
+            } else {
+                sink.tryEmitEmpty();
+            }
+        }
+    }
+}
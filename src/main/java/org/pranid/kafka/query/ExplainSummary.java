@@ -0,0 +1,61 @@
+package org.pranid.kafka.query;
+
+import org.bson.Document;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The parts of a MongoDB {@code explain} result worth logging: the winning plan's stages and how much work it did.
+ */
+public record ExplainSummary(List<String> stages, long keysExamined, long docsExamined, long returned) {
+
+    public static ExplainSummary of(Document explain) {
+        List<String> stages = new ArrayList<>();
+        Document queryPlanner = explain.get("queryPlanner", Document.class);
+        if (queryPlanner != null) {
+            Document winningPlan = queryPlanner.get("winningPlan", Document.class);
+            if (winningPlan != null) {
+                // 7.0+ slot-based plans nest the classic tree under queryPlan
+                Document queryPlan = winningPlan.get("queryPlan", Document.class);
+                collectStages(queryPlan != null ? queryPlan : winningPlan, stages);
+            }
+        }
+        Document stats = explain.get("executionStats", Document.class);
+        if (stats == null) {
+            return new ExplainSummary(stages, -1, -1, -1);
+        }
+        return new ExplainSummary(stages, longValue(stats, "totalKeysExamined"),
+                longValue(stats, "totalDocsExamined"), longValue(stats, "nReturned"));
+    }
+
+    public boolean isCollectionScan() {
+        return stages.contains("COLLSCAN");
+    }
+
+    /**
+     * Stages from the leaves up, e.g. {@code IXSCAN(name) > FETCH > LIMIT}.
+     */
+    public String plan() {
+        return String.join(" > ", stages);
+    }
+
+    private static void collectStages(Document stage, List<String> stages) {
+        Document input = stage.get("inputStage", Document.class);
+        if (input != null) {
+            collectStages(input, stages);
+        }
+        List<Document> inputs = stage.getList("inputStages", Document.class);
+        if (inputs != null) {
+            inputs.forEach(child -> collectStages(child, stages));
+        }
+        String name = stage.getString("stage");
+        String indexName = stage.getString("indexName");
+        stages.add(indexName == null ? name : name + "(" + indexName + ")");
+    }
+
+    private static long longValue(Document document, String key) {
+        Object value = document.get(key);
+        return value instanceof Number number ? number.longValue() : -1;
+    }
+}
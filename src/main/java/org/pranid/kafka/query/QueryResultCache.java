@@ -0,0 +1,91 @@
+package org.pranid.kafka.query;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.pranid.kafka.config.QueryCacheProperties;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Short-lived cache of query results keyed by normalized query.
+ * Requests arriving while a query is still running share that execution instead of starting another.
+ * Failed executions are dropped so the next request retries.
+ */
+@Component
+public class QueryResultCache {
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final long ttlNanos;
+    private final int maxEntries;
+    private final LongSupplier nanoClock;
+    private final Counter hits;
+    private final Counter misses;
+
+    @Autowired
+    public QueryResultCache(QueryCacheProperties properties, MeterRegistry meterRegistry) {
+        this(properties, meterRegistry, System::nanoTime);
+    }
+
+    QueryResultCache(QueryCacheProperties properties, MeterRegistry meterRegistry, LongSupplier nanoClock) {
+        this.ttlNanos = properties.getTtl().toNanos();
+        this.maxEntries = properties.getMaxEntries();
+        this.nanoClock = nanoClock;
+        this.hits = Counter.builder("queries.cache").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("queries.cache").tag("result", "miss").register(meterRegistry);
+    }
+
+    /**
+     * Returns the cached or in-flight result for {@code key}, running {@code loader} only when there is neither.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Mono<T> get(String key, Supplier<Mono<T>> loader) {
+        return Mono.defer(() -> {
+            long now = nanoClock.getAsLong();
+            Entry entry = entries.get(key);
+            if (entry != null && entry.isFresh(now)) {
+                hits.increment();
+                return (Mono<T>) entry.result;
+            }
+            misses.increment();
+            if (entry == null && entries.size() >= maxEntries) {
+                entries.values().removeIf(existing -> !existing.isFresh(now));
+                if (entries.size() >= maxEntries) {
+                    return loader.get();
+                }
+            }
+            Entry created = new Entry();
+            created.result = loader.get()
+                    .doOnSuccess(value -> created.complete(nanoClock.getAsLong()))
+                    .doOnError(e -> entries.remove(key, created))
+                    .cache();
+            Entry winner = entries.compute(key, (k, existing) ->
+                    existing != null && existing != entry && existing.isFresh(now) ? existing : created);
+            return (Mono<T>) winner.result;
+        });
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private final class Entry {
+        private Mono<?> result;
+        private volatile boolean completed;
+        private volatile long completedAt;
+
+        private void complete(long at) {
+            completedAt = at;
+            completed = true;
+        }
+
+        private boolean isFresh(long now) {
+            return !completed || now - completedAt < ttlNanos;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package org.pranid.kafka.query;
+
+import com.mongodb.ExplainVerbosity;
+import com.mongodb.reactivestreams.client.FindPublisher;
+import org.bson.Document;
+import org.pranid.kafka.config.SlowQueryProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Runs finds through {@link ReactiveMongoTemplate} and, when one is slower than the threshold,
+ * re-runs it with {@code explain} in the background and logs the plan summary.
+ */
+@Component
+public class SlowQueryLogger {
+
+    private final Logger logger = LoggerFactory.getLogger(SlowQueryLogger.class);
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final SlowQueryProperties properties;
+
+    public SlowQueryLogger(ReactiveMongoTemplate mongoTemplate, SlowQueryProperties properties) {
+        this.mongoTemplate = mongoTemplate;
+        this.properties = properties;
+    }
+
+    public <T> Flux<T> find(Query query, Class<T> type, String collection) {
+        return Flux.defer(() -> {
+            long start = System.nanoTime();
+            return mongoTemplate.find(query, type, collection)
+                    .doOnComplete(() -> {
+                        long elapsedNanos = System.nanoTime() - start;
+                        if (elapsedNanos >= properties.getThreshold().toNanos()) {
+                            onSlowQuery(query, collection, elapsedNanos / 1_000_000);
+                        }
+                    });
+        });
+    }
+
+    private void onSlowQuery(Query query, String collection, long elapsedMillis) {
+        if (!properties.isExplain()) {
+            logger.warn("Slow query on {} took {}ms: {}", collection, elapsedMillis, query);
+            return;
+        }
+        explain(query, collection).subscribe(
+                summary -> {
+                    if (summary.isCollectionScan()) {
+                        logger.warn("Slow query on {} took {}ms with a collection scan: {} plan={} docsExamined={} returned={}",
+                                collection, elapsedMillis, query, summary.plan(), summary.docsExamined(), summary.returned());
+                    } else {
+                        logger.warn("Slow query on {} took {}ms: {} plan={} keysExamined={} docsExamined={} returned={}",
+                                collection, elapsedMillis, query, summary.plan(), summary.keysExamined(),
+                                summary.docsExamined(), summary.returned());
+                    }
+                },
+                e -> logger.warn("Slow query on {} took {}ms: {} (explain failed: {})",
+                        collection, elapsedMillis, query, e.getMessage()));
+    }
+
+    Mono<ExplainSummary> explain(Query query, String collection) {
+        return mongoTemplate.getCollection(collection)
+                .flatMap(mongoCollection -> {
+                    FindPublisher<Document> find = mongoCollection.find(query.getQueryObject())
+                            .projection(query.getFieldsObject())
+                            .sort(query.getSortObject());
+                    if (query.getLimit() > 0) {
+                        find = find.limit(query.getLimit());
+                    }
+                    if (query.getHint() != null) {
+                        find = find.hintString(query.getHint());
+                    }
+                    return Mono.from(find.explain(Document.class, ExplainVerbosity.EXECUTION_STATS));
+                })
+                .map(ExplainSummary::of);
+    }
+}
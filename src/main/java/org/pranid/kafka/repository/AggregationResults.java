@@ -0,0 +1,41 @@
+package org.pranid.kafka.repository;
+
+import org.bson.Document;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+/**
+ * Helpers shared by the repositories' aggregation pipelines.
+ */
+final class AggregationResults {
+
+    private static final Pattern REGEX_META = Pattern.compile("[\\\\^$.|?*+()\\[\\]{}]");
+
+    private AggregationResults() {
+    }
+
+    /**
+     * Collects {@code {_id, count}} documents into a map that keeps the pipeline's sort order.
+     */
+    static Mono<Map<String, Long>> toCounts(Flux<Document> results, Function<Object, String> label) {
+        return results.collect(LinkedHashMap::new,
+                (counts, document) -> counts.put(label.apply(document.get("_id")),
+                        ((Number) document.get("count")).longValue()));
+    }
+
+    static Mono<Map<String, Long>> toCounts(Flux<Document> results) {
+        return toCounts(results, String::valueOf);
+    }
+
+    /**
+     * Anchored, case-sensitive prefix regex, the only regex form MongoDB can answer with index bounds.
+     */
+    static String prefixRegex(String prefix) {
+        return "^" + REGEX_META.matcher(prefix).replaceAll("\\\\$0");
+    }
+}
@@ -1,39 +1,102 @@
 package org.pranid.kafka.repository;
 
-import lombok.RequiredArgsConstructor;
 import lombok.extern.log4j.Log4j2;
+import org.bson.Document;
+import org.pranid.kafka.config.BulkWriteProperties;
 import org.pranid.kafka.model.Alien;
+import org.pranid.kafka.model.AlienCodec;
+import org.pranid.kafka.query.SlowQueryLogger;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.stereotype.Repository;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.Map;
+import java.util.Set;
+
 @Repository
-@RequiredArgsConstructor
 @Log4j2
-public class AlienRepository {
+public class AlienRepository extends ReactiveBulkRepository<Alien> {
     private static final String COLLECTION = "aliens";
-    private final ReactiveMongoTemplate mongoTemplate;
+    private static final Set<String> FIELDS = Set.of("name", "color");
+    private final SlowQueryLogger slowQueryLogger;
+
+    public AlienRepository(ReactiveMongoTemplate mongoTemplate, BulkWriteProperties bulkWriteProperties,
+                           ReadRouter readRouter, SlowQueryLogger slowQueryLogger) {
+        super(mongoTemplate, bulkWriteProperties, readRouter, COLLECTION, Alien.class, FIELDS);
+        this.slowQueryLogger = slowQueryLogger;
+    }
+
+    /**
+     * Counts aliens per color, most frequent first.
+     */
+    public Mono<Map<String, Long>> countByColor() {
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.group("color").count().as("count"),
+                Aggregation.sort(Sort.Direction.DESC, "count"));
+        return AggregationResults.toCounts(readRouter.limitScan(
+                mongoTemplate.aggregate(readRouter.scan(aggregation), COLLECTION, Document.class)));
+    }
+
+    /**
+     * Most frequent names starting with {@code prefix}. The anchored match can use an index on {@code name}.
+     */
+    public Mono<Map<String, Long>> topNamesByPrefix(String prefix, int limit) {
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("name").regex(AggregationResults.prefixRegex(prefix))),
+                Aggregation.group("name").count().as("count"),
+                Aggregation.sort(Sort.by(Sort.Order.desc("count"), Sort.Order.asc("_id"))),
+                Aggregation.limit(limit));
+        return AggregationResults.toCounts(readRouter.limitScan(
+                mongoTemplate.aggregate(readRouter.scan(aggregation), COLLECTION, Document.class)));
+    }
+
+    /**
+     * Aliens with exactly this name, answered from the {@value Alien#NAME_INDEX} index.
+     */
+    public Flux<Alien> findByName(String name) {
+        Query query = Query.query(Criteria.where("name").is(name))
+                .withHint(Alien.NAME_INDEX);
+        return slowQueryLogger.find(readRouter.point(query), Alien.class, COLLECTION);
+    }
 
-    public Mono<Alien> insertAlien(Alien alien) {
-        return mongoTemplate.insert(alien, COLLECTION);
+    /**
+     * Aliens of a color ordered by name. Equality on color implies the partial filter of
+     * {@value Alien#COLOR_NAME_INDEX}, which also supplies the sort order.
+     */
+    public Flux<Alien> findByColor(String color) {
+        Query query = Query.query(Criteria.where("color").is(color))
+                .with(Sort.by(Sort.Direction.ASC, "name"))
+                .withHint(Alien.COLOR_NAME_INDEX);
+        return slowQueryLogger.find(readRouter.point(query), Alien.class, COLLECTION);
     }
 
-    public Mono<Alien> findById(String id) {
-        return mongoTemplate.findById(id, Alien.class, COLLECTION);
+    /**
+     * Whether any alien has this name, answered from the {@value Alien#NAME_INDEX} index alone.
+     */
+    public Mono<Boolean> existsByName(String name) {
+        Query query = Query.query(Criteria.where("name").is(name))
+                .withHint(Alien.NAME_INDEX);
+        return readRouter.read(operations -> operations.exists(readRouter.point(query), Alien.class, COLLECTION));
     }
 
-    public Flux<Alien> findAll() {
-        return mongoTemplate.findAll(Alien.class, COLLECTION);
+    public Flux<String> findAllNames() {
+        return scanValues("name");
     }
 
-    public Mono<Alien> updateAlien(Alien alien) {
-        return mongoTemplate.save(alien, COLLECTION);
+    /**
+     * Count per distinct name, read from the primary so it includes every saved record.
+     */
+    public Mono<Map<String, Long>> countByName() {
+        return countValuesOnPrimary("name");
     }
 
-    public Mono<Void> deleteById(String id) {
-        return mongoTemplate.remove(
-                mongoTemplate.findById(id, Alien.class, COLLECTION)
-        ).then();
+    @Override
+    protected Document toDocument(Alien alien) {
+        return AlienCodec.toDocument(alien);
     }
 }
@@ -0,0 +1,26 @@
+package org.pranid.kafka.repository;
+
+import java.util.List;
+
+/**
+ * Outcome of a chunked bulk write. Failure indexes refer to the operation's position in the submitted list.
+ */
+public record BulkWriteSummary(int requested, int retries, List<Failure> failures) {
+
+    /**
+     * Code of operations skipped because an earlier operation of an ordered write failed,
+     * or that failed without a server error code.
+     */
+    public static final int NOT_ATTEMPTED = 0;
+
+    public int succeeded() {
+        return requested - failures.size();
+    }
+
+    public boolean isComplete() {
+        return failures.isEmpty();
+    }
+
+    public record Failure(int index, int code, String message) {
+    }
+}
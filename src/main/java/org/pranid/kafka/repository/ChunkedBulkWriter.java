@@ -0,0 +1,208 @@
+package org.pranid.kafka.repository;
+
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.MongoException;
+import com.mongodb.MongoSocketException;
+import com.mongodb.MongoTimeoutException;
+import com.mongodb.WriteConcern;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.bulk.WriteConcernError;
+import com.mongodb.client.model.InsertOneModel;
+import com.mongodb.client.model.WriteModel;
+import org.bson.Document;
+import org.pranid.kafka.config.BulkWriteProperties;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+import java.util.stream.IntStream;
+
+/**
+ * Splits bulk writes into chunks and retries only the operations of a chunk that failed transiently.
+ * Permanent per-operation errors such as duplicate keys are reported, not retried. A write concern error
+ * fails every operation of the attempt that did not already fail on its own.
+ */
+final class ChunkedBulkWriter {
+
+    private static final int DUPLICATE_KEY = 11000;
+
+    /**
+     * Server error codes that mean the operation did not apply and may succeed when sent again:
+     * network errors, primary step-downs, shutdowns, time limits and write conflicts.
+     */
+    private static final Set<Integer> RETRYABLE_CODES = Set.of(
+            6, 7, 89, 91, 112, 189, 262, 9001, 10107, 11600, 11602, 13435, 13436);
+
+    private static final String RETRYABLE_WRITE_ERROR_LABEL = "RetryableWriteError";
+
+    private final int chunkSize;
+    private final int concurrency;
+    private final int maxRetries;
+    private final Duration retryBackoff;
+    private final WriteConcern writeConcern;
+
+    ChunkedBulkWriter(BulkWriteProperties properties) {
+        this.chunkSize = properties.getChunkSize();
+        this.concurrency = properties.getConcurrency();
+        this.maxRetries = properties.getMaxRetries();
+        this.retryBackoff = properties.getRetryBackoff();
+        this.writeConcern = WriteConcern.valueOf(properties.getWriteConcern());
+        if (writeConcern == null || !writeConcern.isAcknowledged()) {
+            throw new IllegalArgumentException("mongo.bulk.write-concern must be an acknowledged write concern, not "
+                    + properties.getWriteConcern());
+        }
+    }
+
+    /**
+     * The write concern every {@code bulkWrite} must be sent with, so its outcome can be inspected.
+     */
+    WriteConcern writeConcern() {
+        return writeConcern;
+    }
+
+    /**
+     * @param executor sends one {@code bulkWrite} with the given operations and ordering
+     */
+    Mono<BulkWriteSummary> write(List<WriteModel<Document>> operations, boolean ordered,
+                                 BiFunction<List<WriteModel<Document>>, Boolean, Publisher<BulkWriteResult>> executor) {
+        if (operations.isEmpty()) {
+            return Mono.just(new BulkWriteSummary(0, 0, List.of()));
+        }
+        AtomicInteger retries = new AtomicInteger();
+        Flux<Chunk> chunks = Flux.range(0, (operations.size() + chunkSize - 1) / chunkSize)
+                .map(i -> new Chunk(i * chunkSize, operations.subList(i * chunkSize,
+                        Math.min(operations.size(), (i + 1) * chunkSize))));
+        Flux<List<BulkWriteSummary.Failure>> results;
+        if (ordered) {
+            // Once a chunk fails, later chunks of an ordered write are skipped
+            AtomicBoolean stopped = new AtomicBoolean();
+            results = chunks.concatMap(chunk -> stopped.get()
+                    ? Mono.just(skipped(chunk, allIndexes(chunk)))
+                    : attempt(chunk, allIndexes(chunk), true, 0, retries, executor)
+                            .doOnNext(failures -> stopped.set(!failures.isEmpty())));
+        } else {
+            results = chunks.flatMap(chunk -> attempt(chunk, allIndexes(chunk), false, 0, retries, executor),
+                    concurrency);
+        }
+        return results.collect(ArrayList<BulkWriteSummary.Failure>::new, List::addAll)
+                .map(failures -> {
+                    failures.sort((a, b) -> Integer.compare(a.index(), b.index()));
+                    return new BulkWriteSummary(operations.size(), retries.get(), List.copyOf(failures));
+                });
+    }
+
+    private Mono<List<BulkWriteSummary.Failure>> attempt(
+            Chunk chunk, List<Integer> pending, boolean ordered, int attempt, AtomicInteger retries,
+            BiFunction<List<WriteModel<Document>>, Boolean, Publisher<BulkWriteResult>> executor) {
+        List<WriteModel<Document>> batch = pending.stream().map(chunk.operations()::get).toList();
+        return Mono.from(executor.apply(batch, ordered))
+                .map(result -> List.<BulkWriteSummary.Failure>of())
+                .onErrorResume(e -> {
+                    List<BulkWriteSummary.Failure> failed = new ArrayList<>();
+                    // Operations to send again, with the failure to report if the retries run out
+                    Map<Integer, BulkWriteSummary.Failure> retry = new LinkedHashMap<>();
+                    if (e instanceof MongoBulkWriteException bulk) {
+                        for (BulkWriteError error : bulk.getWriteErrors()) {
+                            int index = pending.get(error.getIndex());
+                            if (attempt > 0 && error.getCode() == DUPLICATE_KEY
+                                    && chunk.operations().get(index) instanceof InsertOneModel) {
+                                // An earlier attempt already applied this insert before failing
+                                continue;
+                            }
+                            BulkWriteSummary.Failure failure = new BulkWriteSummary.Failure(
+                                    chunk.offset() + index, error.getCode(), error.getMessage());
+                            if (RETRYABLE_CODES.contains(error.getCode())) {
+                                retry.put(index, failure);
+                            } else {
+                                failed.add(failure);
+                            }
+                        }
+                        if (ordered && !bulk.getWriteErrors().isEmpty()) {
+                            // An ordered write stops at its first error; everything after it never ran
+                            int stoppedAt = bulk.getWriteErrors().get(0).getIndex();
+                            List<Integer> rest = pending.subList(stoppedAt + 1, pending.size());
+                            if (failed.isEmpty()) {
+                                skipped(chunk, rest).forEach(failure ->
+                                        retry.put(failure.index() - chunk.offset(), failure));
+                            } else {
+                                failed.addAll(skipped(chunk, rest));
+                            }
+                        }
+                        WriteConcernError concernError = bulk.getWriteConcernError();
+                        if (concernError != null) {
+                            // The remaining operations were applied but not acknowledged at the requested concern
+                            boolean retryable = RETRYABLE_CODES.contains(concernError.getCode())
+                                    || bulk.hasErrorLabel(RETRYABLE_WRITE_ERROR_LABEL);
+                            Set<Integer> reported = new HashSet<>(retry.keySet());
+                            failed.forEach(failure -> reported.add(failure.index() - chunk.offset()));
+                            for (int index : pending) {
+                                if (!reported.contains(index)) {
+                                    BulkWriteSummary.Failure failure = new BulkWriteSummary.Failure(
+                                            chunk.offset() + index, concernError.getCode(), concernError.getMessage());
+                                    if (retryable) {
+                                        retry.put(index, failure);
+                                    } else {
+                                        failed.add(failure);
+                                    }
+                                }
+                            }
+                        }
+                    } else if (isTransient(e)) {
+                        int code = e instanceof MongoException mongo ? mongo.getCode() : BulkWriteSummary.NOT_ATTEMPTED;
+                        pending.forEach(index -> retry.put(index,
+                                new BulkWriteSummary.Failure(chunk.offset() + index, code, e.getMessage())));
+                    } else {
+                        return Mono.error(e);
+                    }
+                    if (retry.isEmpty()) {
+                        return Mono.just(failed);
+                    }
+                    if (attempt >= maxRetries) {
+                        failed.addAll(retry.values());
+                        return Mono.just(failed);
+                    }
+                    retries.incrementAndGet();
+                    return Mono.delay(retryBackoff.multipliedBy(1L << attempt))
+                            .then(attempt(chunk, List.copyOf(retry.keySet()), ordered, attempt + 1, retries, executor))
+                            .map(more -> {
+                                List<BulkWriteSummary.Failure> all = new ArrayList<>(failed);
+                                all.addAll(more);
+                                return all;
+                            });
+                });
+    }
+
+    static boolean isTransient(Throwable e) {
+        if (e instanceof MongoSocketException || e instanceof MongoTimeoutException) {
+            return true;
+        }
+        return e instanceof MongoException mongo && (mongo.hasErrorLabel(RETRYABLE_WRITE_ERROR_LABEL)
+                || mongo.hasErrorLabel(MongoException.TRANSIENT_TRANSACTION_ERROR_LABEL)
+                || RETRYABLE_CODES.contains(mongo.getCode()));
+    }
+
+    private static List<Integer> allIndexes(Chunk chunk) {
+        return IntStream.range(0, chunk.operations().size()).boxed().toList();
+    }
+
+    private static List<BulkWriteSummary.Failure> skipped(Chunk chunk, List<Integer> indexes) {
+        return indexes.stream()
+                .map(index -> new BulkWriteSummary.Failure(chunk.offset() + index, BulkWriteSummary.NOT_ATTEMPTED,
+                        "Not attempted after an earlier failure in an ordered write"))
+                .toList();
+    }
+
+    private record Chunk(int offset, List<WriteModel<Document>> operations) {
+    }
+}
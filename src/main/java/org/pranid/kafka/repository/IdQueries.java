@@ -0,0 +1,62 @@
+package org.pranid.kafka.repository;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import com.mongodb.WriteConcern;
+import org.springframework.data.mongodb.core.ReactiveMongoOperations;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.UnaryOperator;
+
+/**
+ * Multi-id lookups for models that do not map their {@code _id}.
+ */
+final class IdQueries {
+
+    private IdQueries() {
+    }
+
+    /**
+     * The stored form of an id: valid hex strings are ObjectIds, anything else is kept as a string.
+     */
+    static Object idValue(String id) {
+        return ObjectId.isValid(id) ? new ObjectId(id) : id;
+    }
+
+    /**
+     * Deletes the document with the given id with a single {@code deleteOne}, emitting whether one was removed.
+     */
+    static Mono<Boolean> deleteById(ReactiveMongoOperations mongoOperations, String collection, String id,
+                                    UnaryOperator<WriteConcern> writeConcern) {
+        return mongoOperations.getCollection(collection)
+                .map(mongoCollection -> mongoCollection.withWriteConcern(writeConcern.apply(mongoCollection.getWriteConcern())))
+                .flatMap(mongoCollection -> Mono.from(mongoCollection.deleteOne(new Document("_id", idValue(id)))))
+                .map(result -> result.getDeletedCount() > 0);
+    }
+
+    /**
+     * Loads the documents with the given ids in one {@code $in} query, keyed by the id as requested.
+     * Ids are converted the same way {@code findById} converts them: valid hex strings become ObjectIds.
+     */
+    static <T> Mono<Map<String, T>> findAllById(ReactiveMongoOperations mongoOperations, String collection,
+                                                Class<T> type, Collection<String> ids, UnaryOperator<Query> route) {
+        if (ids.isEmpty()) {
+            return Mono.just(Map.of());
+        }
+        Map<Object, String> requested = new HashMap<>();
+        for (String id : ids) {
+            requested.put(idValue(id), id);
+        }
+        Query query = route.apply(Query.query(Criteria.where("_id").in(requested.keySet())));
+        return mongoOperations.find(query, Document.class, collection)
+                .collect(LinkedHashMap::new, (found, document) -> found.put(
+                        requested.get(document.get("_id")),
+                        mongoOperations.getConverter().read(type, document)));
+    }
+}
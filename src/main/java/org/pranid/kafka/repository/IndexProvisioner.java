@@ -0,0 +1,55 @@
+package org.pranid.kafka.repository;
+
+import org.pranid.kafka.config.IndexProperties;
+import org.pranid.kafka.model.Alien;
+import org.pranid.kafka.model.Person;
+import org.pranid.kafka.model.WindowResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+
+/**
+ * Creates the indexes declared with {@code @Indexed} and {@code @CompoundIndex} on the models once the
+ * application is ready. Creation runs in the background so startup is not held up by large collections.
+ */
+@Component
+public class IndexProvisioner {
+
+    private static final List<Class<?>> INDEXED_TYPES = List.of(Person.class, Alien.class, WindowResult.class);
+
+    private final Logger logger = LoggerFactory.getLogger(IndexProvisioner.class);
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final IndexProperties properties;
+
+    public IndexProvisioner(ReactiveMongoTemplate mongoTemplate, IndexProperties properties) {
+        this.mongoTemplate = mongoTemplate;
+        this.properties = properties;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void provision() {
+        if (!properties.isProvision()) {
+            return;
+        }
+        MongoPersistentEntityIndexResolver resolver = new MongoPersistentEntityIndexResolver(
+                (MongoMappingContext) mongoTemplate.getConverter().getMappingContext());
+        Flux.fromIterable(INDEXED_TYPES)
+                .concatMap(type -> Flux.fromIterable(resolver.resolveIndexFor(type))
+                        .concatMap(index -> mongoTemplate.indexOps(type).createIndex(index))
+                        .doOnNext(name -> logger.info("Ensured index {} on {}", name,
+                                mongoTemplate.getCollectionName(type)))
+                        .onErrorResume(e -> {
+                            logger.error("Failed to ensure indexes on {}", mongoTemplate.getCollectionName(type), e);
+                            return Flux.empty();
+                        }))
+                .subscribe();
+    }
+}
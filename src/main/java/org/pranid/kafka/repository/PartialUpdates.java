@@ -0,0 +1,47 @@
+package org.pranid.kafka.repository;
+
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Builds {@code $set} updates and equality filters from field maps, restricted to a model's known fields.
+ */
+final class PartialUpdates {
+
+    private PartialUpdates() {
+    }
+
+    /**
+     * A {@code $set} of exactly the given fields, so unchanged fields are neither sent nor rewritten.
+     */
+    static Update set(Map<String, ?> changes, Set<String> fields) {
+        if (changes.isEmpty()) {
+            throw new IllegalArgumentException("No fields to update");
+        }
+        Update update = new Update();
+        changes.forEach((field, value) -> update.set(checkField(field, fields), value));
+        return update;
+    }
+
+    /**
+     * Equality on every given field. An empty filter is rejected so a bulk call cannot touch the whole collection.
+     */
+    static Criteria where(Map<String, ?> filter, Set<String> fields) {
+        if (filter.isEmpty()) {
+            throw new IllegalArgumentException("Bulk operations need at least one filter field");
+        }
+        Criteria criteria = new Criteria();
+        filter.forEach((field, value) -> criteria.and(checkField(field, fields)).is(value));
+        return criteria;
+    }
+
+    private static String checkField(String field, Set<String> fields) {
+        if (!fields.contains(field)) {
+            throw new IllegalArgumentException("Unknown field " + field + ", expected one of " + fields);
+        }
+        return field;
+    }
+}
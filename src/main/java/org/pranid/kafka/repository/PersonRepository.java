@@ -1,39 +1,126 @@
 package org.pranid.kafka.repository;
 
-import lombok.RequiredArgsConstructor;
 import lombok.extern.log4j.Log4j2;
+import org.bson.Document;
+import org.pranid.kafka.config.BulkWriteProperties;
 import org.pranid.kafka.model.Person;
+import org.pranid.kafka.model.PersonCodec;
+import org.pranid.kafka.query.SlowQueryLogger;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.stereotype.Repository;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.Map;
+import java.util.Set;
+
 @Repository
-@RequiredArgsConstructor
 @Log4j2
-public class PersonRepository {
+public class PersonRepository extends ReactiveBulkRepository<Person> {
     private static final String COLLECTION = "persons";
-    private final ReactiveMongoTemplate mongoTemplate;
+    private static final Set<String> FIELDS = Set.of("name", "gender", "age");
+    private final SlowQueryLogger slowQueryLogger;
+
+    public PersonRepository(ReactiveMongoTemplate mongoTemplate, BulkWriteProperties bulkWriteProperties,
+                            ReadRouter readRouter, SlowQueryLogger slowQueryLogger) {
+        super(mongoTemplate, bulkWriteProperties, readRouter, COLLECTION, Person.class, FIELDS);
+        this.slowQueryLogger = slowQueryLogger;
+    }
+
+    /**
+     * Counts persons per gender, most frequent first.
+     */
+    public Mono<Map<String, Long>> countByGender() {
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.group("gender").count().as("count"),
+                Aggregation.sort(Sort.Direction.DESC, "count"));
+        return AggregationResults.toCounts(readRouter.limitScan(
+                mongoTemplate.aggregate(readRouter.scan(aggregation), COLLECTION, Document.class)));
+    }
+
+    /**
+     * Most frequent names starting with {@code prefix}. The anchored match can use an index on {@code name}.
+     */
+    public Mono<Map<String, Long>> topNamesByPrefix(String prefix, int limit) {
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("name").regex(AggregationResults.prefixRegex(prefix))),
+                Aggregation.group("name").count().as("count"),
+                Aggregation.sort(Sort.by(Sort.Order.desc("count"), Sort.Order.asc("_id"))),
+                Aggregation.limit(limit));
+        return AggregationResults.toCounts(readRouter.limitScan(
+                mongoTemplate.aggregate(readRouter.scan(aggregation), COLLECTION, Document.class)));
+    }
+
+    /**
+     * Counts persons per age range of {@code width} years; ages at or above {@code maxAge} share one bucket.
+     * Negative and non-numeric ages are left out rather than falling into that bucket.
+     */
+    public Mono<Map<String, Long>> countByAgeRange(int width, int maxAge) {
+        int bucketCount = (maxAge + width - 1) / width;
+        Object[] boundaries = new Object[bucketCount + 1];
+        for (int i = 0; i < bucketCount; i++) {
+            boundaries[i] = i * width;
+        }
+        boundaries[bucketCount] = maxAge;
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("age").gte(0)),
+                Aggregation.bucket("age")
+                        .withBoundaries(boundaries)
+                        .withDefaultBucket("other")
+                        .andOutputCount().as("count"));
+        return AggregationResults.toCounts(readRouter.limitScan(
+                mongoTemplate.aggregate(readRouter.scan(aggregation), COLLECTION, Document.class)),
+                lower -> lower instanceof Number start
+                        ? start + "-" + (Math.min(start.intValue() + width, maxAge) - 1)
+                        : maxAge + "+");
+    }
+
+    /**
+     * Persons with exactly this name, answered from the {@value Person#NAME_INDEX} index.
+     */
+    public Flux<Person> findByName(String name) {
+        Query query = Query.query(Criteria.where("name").is(name))
+                .withHint(Person.NAME_INDEX);
+        return slowQueryLogger.find(readRouter.point(query), Person.class, COLLECTION);
+    }
 
-    public Mono<Person> insertPerson(Person person) {
-        return mongoTemplate.insert(person, COLLECTION);
+    /**
+     * Persons of a gender within an inclusive age range, youngest first. The equality-then-range shape
+     * matches {@value Person#GENDER_AGE_INDEX}, so the sort needs no in-memory stage.
+     */
+    public Flux<Person> findByGenderAndAgeBetween(String gender, int minAge, int maxAge) {
+        Query query = Query.query(Criteria.where("gender").is(gender).and("age").gte(minAge).lte(maxAge))
+                .with(Sort.by(Sort.Direction.ASC, "age"))
+                .withHint(Person.GENDER_AGE_INDEX);
+        return slowQueryLogger.find(readRouter.point(query), Person.class, COLLECTION);
     }
 
-    public Mono<Person> findById(String id) {
-        return mongoTemplate.findById(id, Person.class, COLLECTION);
+    /**
+     * Whether any person has this name, answered from the {@value Person#NAME_INDEX} index alone.
+     */
+    public Mono<Boolean> existsByName(String name) {
+        Query query = Query.query(Criteria.where("name").is(name))
+                .withHint(Person.NAME_INDEX);
+        return readRouter.read(operations -> operations.exists(readRouter.point(query), Person.class, COLLECTION));
     }
 
-    public Flux<Person> findAll() {
-        return mongoTemplate.findAll(Person.class, COLLECTION);
+    public Flux<String> findAllNames() {
+        return scanValues("name");
     }
 
-    public Mono<Person> updatePerson(Person person) {
-        return mongoTemplate.save(person, COLLECTION);
+    /**
+     * Count per distinct name, read from the primary so it includes every saved record.
+     */
+    public Mono<Map<String, Long>> countByName() {
+        return countValuesOnPrimary("name");
     }
 
-    public Mono<Void> deleteById(String id) {
-        return mongoTemplate.remove(
-                mongoTemplate.findById(id, Person.class, COLLECTION)
-        ).then();
+    @Override
+    protected Document toDocument(Person person) {
+        return PersonCodec.toDocument(person);
     }
 }
@@ -0,0 +1,35 @@
+package org.pranid.kafka.repository;
+
+import com.mongodb.client.model.InsertManyOptions;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.bson.RawBsonDocument;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Writes pre-encoded BSON through the reactive driver, bypassing {@code MappingMongoConverter}.
+ */
+@Repository
+@RequiredArgsConstructor
+@Log4j2
+public class RawDocumentRepository {
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    /**
+     * Inserts the documents in a single unordered {@code insertMany} and emits the number of documents sent.
+     */
+    public Mono<Integer> insertAll(String collection, List<RawBsonDocument> documents) {
+        if (documents.isEmpty()) {
+            return Mono.just(0);
+        }
+        return mongoTemplate.getCollection(collection)
+                .map(mongoCollection -> mongoCollection.withDocumentClass(RawBsonDocument.class))
+                .flatMap(mongoCollection -> Mono.from(
+                        mongoCollection.insertMany(documents, new InsertManyOptions().ordered(false))))
+                .thenReturn(documents.size());
+    }
+}
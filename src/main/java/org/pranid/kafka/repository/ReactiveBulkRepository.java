@@ -0,0 +1,217 @@
+package org.pranid.kafka.repository;
+
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.DeleteOneModel;
+import com.mongodb.client.model.InsertOneModel;
+import com.mongodb.client.model.ReplaceOneModel;
+import com.mongodb.client.model.ReplaceOptions;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.WriteModel;
+import com.mongodb.client.result.DeleteResult;
+import com.mongodb.client.result.UpdateResult;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.pranid.kafka.config.BulkWriteProperties;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.mongodb.core.schema.JsonSchemaObject;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.UnaryOperator;
+
+/**
+ * CRUD, partial updates and chunked bulk writes for one model stored in one collection.
+ * Bulk writes go through the driver's {@code bulkWrite} in chunks, retrying only the transiently failed operations.
+ * Reads and single writes are routed through {@link ReadRouter}; bulk writes run outside sessions with
+ * {@code mongo.bulk.write-concern}, so their failures are seen whatever the connection string's write concern.
+ */
+public abstract class ReactiveBulkRepository<T> {
+
+    protected final ReactiveMongoTemplate mongoTemplate;
+    protected final ReadRouter readRouter;
+    private final String collection;
+    private final Class<T> type;
+    private final Set<String> fields;
+    private final ChunkedBulkWriter bulkWriter;
+
+    protected ReactiveBulkRepository(ReactiveMongoTemplate mongoTemplate, BulkWriteProperties bulkWriteProperties,
+                                     ReadRouter readRouter, String collection, Class<T> type, Set<String> fields) {
+        this.mongoTemplate = mongoTemplate;
+        this.readRouter = readRouter;
+        this.collection = collection;
+        this.type = type;
+        this.fields = fields;
+        this.bulkWriter = new ChunkedBulkWriter(bulkWriteProperties);
+    }
+
+    public Mono<T> insert(T entity) {
+        return readRouter.write(operations -> operations.insert(entity, collection));
+    }
+
+    /**
+     * Point read in a causally consistent session, so it observes this instance's completed writes.
+     */
+    public Mono<T> findById(String id) {
+        Query query = readRouter.point(Query.query(Criteria.where("_id").is(id)));
+        return readRouter.read(operations -> operations.findOne(query, type, collection));
+    }
+
+    /**
+     * Loads several entities in one round trip, keyed by the requested id; missing ids are absent.
+     */
+    public Mono<Map<String, T>> findAllById(Collection<String> ids) {
+        return readRouter.read(operations -> IdQueries.findAllById(operations, collection, type, ids, readRouter::point));
+    }
+
+    /**
+     * Full scan, routed to secondaries and limited in concurrency.
+     */
+    public Flux<T> findAll() {
+        return readRouter.limitScan(mongoTemplate.find(readRouter.scan(new Query()), type, collection));
+    }
+
+    /**
+     * Values of one string field over the whole collection, projected so only that field is transferred.
+     */
+    protected Flux<String> scanValues(String field) {
+        Query query = new Query();
+        query.fields().include(field).exclude("_id");
+        return readRouter.limitScan(mongoTemplate.find(readRouter.scan(query), Document.class, collection))
+                .mapNotNull(document -> document.getString(field));
+    }
+
+    /**
+     * Number of entities per value of one string field, unsorted.
+     */
+    protected Mono<Map<String, Long>> countValues(String field) {
+        return countValues(field, readRouter::scan);
+    }
+
+    /**
+     * Like {@link #countValues(String)}, but read from the primary, so no acknowledged write is missing.
+     */
+    protected Mono<Map<String, Long>> countValuesOnPrimary(String field) {
+        return countValues(field, readRouter::primary);
+    }
+
+    private Mono<Map<String, Long>> countValues(String field, UnaryOperator<Aggregation> routing) {
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where(field).type(JsonSchemaObject.Type.STRING)),
+                Aggregation.group(field).count().as("count"));
+        return AggregationResults.toCounts(readRouter.limitScan(
+                mongoTemplate.aggregate(routing.apply(aggregation), collection, Document.class)));
+    }
+
+    public Mono<T> save(T entity) {
+        return readRouter.write(operations -> operations.save(entity, collection));
+    }
+
+    /**
+     * Sets only the given fields on one entity with a single {@code updateOne}, emitting whether it matched.
+     */
+    public Mono<Boolean> updateFields(String id, Map<String, ?> changes) {
+        return Mono.defer(() -> {
+            Query query = Query.query(Criteria.where("_id").is(IdQueries.idValue(id)));
+            Update update = PartialUpdates.set(changes, fields);
+            return readRouter.write(operations -> operations.updateFirst(query, update, type, collection));
+        }).map(result -> result.getMatchedCount() > 0);
+    }
+
+    public Mono<Void> deleteById(String id) {
+        return readRouter.write(operations -> IdQueries.deleteById(operations, collection, id, readRouter::writeConcern))
+                .then();
+    }
+
+    /**
+     * Sets the given fields on every entity matching all filter fields, emitting the number modified.
+     * An invalid filter or change is emitted as an error rather than thrown.
+     */
+    public Mono<Long> updateWhere(Map<String, ?> filter, Map<String, ?> changes) {
+        return Mono.defer(() -> {
+            Query query = Query.query(PartialUpdates.where(filter, fields));
+            Update update = PartialUpdates.set(changes, fields);
+            return readRouter.write(operations -> operations.updateMulti(query, update, type, collection));
+        }).map(UpdateResult::getModifiedCount);
+    }
+
+    /**
+     * Deletes every entity matching all filter fields, emitting the number deleted.
+     * An invalid filter is emitted as an error rather than thrown.
+     */
+    public Mono<Long> deleteWhere(Map<String, ?> filter) {
+        return Mono.defer(() -> {
+            Query query = Query.query(PartialUpdates.where(filter, fields));
+            return readRouter.write(operations -> operations.remove(query, type, collection));
+        }).map(DeleteResult::getDeletedCount);
+    }
+
+    /**
+     * Inserts the entities in chunks. Ids are assigned before the first attempt,
+     * so a retried insert that already landed is recognized instead of duplicated.
+     */
+    public Mono<BulkWriteSummary> insertAll(List<T> entities, BulkOperations.BulkMode mode) {
+        return bulkWrite(entities.stream().map(this::insertOperation).toList(), mode);
+    }
+
+    /**
+     * Replaces or inserts every entity under the given id. Re-running with the same ids overwrites instead of duplicating.
+     */
+    public Mono<BulkWriteSummary> upsertAll(Map<String, T> entitiesById, BulkOperations.BulkMode mode) {
+        return bulkWrite(entitiesById.entrySet().stream()
+                .map(entry -> upsertOperation(entry.getKey(), entry.getValue()))
+                .toList(), mode);
+    }
+
+    /**
+     * Sends the operations in chunks of {@code mongo.bulk.chunk-size}. An ordered write stops at the first
+     * permanent failure and reports the remaining operations as not attempted.
+     */
+    public Mono<BulkWriteSummary> bulkWrite(List<WriteModel<Document>> operations, BulkOperations.BulkMode mode) {
+        boolean ordered = mode == BulkOperations.BulkMode.ORDERED;
+        return mongoTemplate.getCollection(collection)
+                .map(mongoCollection -> mongoCollection.withWriteConcern(bulkWriter.writeConcern()))
+                .flatMap(mongoCollection -> bulkWriter.write(operations, ordered,
+                        (batch, batchOrdered) -> mongoCollection.bulkWrite(batch,
+                                new BulkWriteOptions().ordered(batchOrdered))));
+    }
+
+    public WriteModel<Document> insertOperation(T entity) {
+        Document document = toDocument(entity);
+        document.putIfAbsent("_id", new ObjectId());
+        return new InsertOneModel<>(document);
+    }
+
+    public WriteModel<Document> upsertOperation(String id, T entity) {
+        Document document = toDocument(entity);
+        document.put("_id", IdQueries.idValue(id));
+        return new ReplaceOneModel<>(new Document("_id", IdQueries.idValue(id)), document,
+                new ReplaceOptions().upsert(true));
+    }
+
+    public WriteModel<Document> updateFieldsOperation(String id, Map<String, ?> changes) {
+        return new UpdateOneModel<>(new Document("_id", IdQueries.idValue(id)),
+                PartialUpdates.set(changes, fields).getUpdateObject());
+    }
+
+    public WriteModel<Document> deleteOperation(String id) {
+        return new DeleteOneModel<>(new Document("_id", IdQueries.idValue(id)));
+    }
+
+    /**
+     * Maps an entity for the bulk operations; repositories with a hand-written codec override this.
+     */
+    protected Document toDocument(T entity) {
+        Document document = new Document();
+        mongoTemplate.getConverter().write(entity, document);
+        return document;
+    }
+}
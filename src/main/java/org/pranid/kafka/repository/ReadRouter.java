@@ -0,0 +1,184 @@
+package org.pranid.kafka.repository;
+
+import com.mongodb.ClientSessionOptions;
+import com.mongodb.ReadPreference;
+import com.mongodb.WriteConcern;
+import com.mongodb.reactivestreams.client.ClientSession;
+import org.bson.BsonDocument;
+import org.bson.BsonTimestamp;
+import org.pranid.kafka.config.ReadRoutingProperties;
+import org.pranid.kafka.model.Alien;
+import org.pranid.kafka.model.Person;
+import org.pranid.kafka.producer.InFlightLimiter;
+import org.springframework.data.mongodb.core.MongoAction;
+import org.springframework.data.mongodb.core.ReactiveMongoOperations;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.WriteConcernResolver;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOptions;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Routes reads by operation type. Scans and aggregations go to secondaries within a staleness bound and
+ * are limited in number, so they do not compete with point reads on the primary. Point reads and writes
+ * run in causally consistent sessions that carry the latest operation time of this instance's writes,
+ * so a read after a write sees it even when served by a secondary.
+ */
+@Component
+public class ReadRouter {
+
+    private static final ClientSessionOptions CAUSAL = ClientSessionOptions.builder().causallyConsistent(true).build();
+    private static final Set<Class<?>> SESSION_WRITTEN_TYPES = Set.of(Person.class, Alien.class);
+
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final boolean enabled;
+    private final boolean causal;
+    private final ReadPreference scanReadPreference;
+    private final ReadPreference pointReadPreference;
+    private final WriteConcern writeConcern;
+    private final int scanBatchSize;
+    private final InFlightLimiter scanLimiter;
+    private BsonDocument clusterTime;
+    private BsonTimestamp operationTime;
+
+    public ReadRouter(ReactiveMongoTemplate mongoTemplate, ReadRoutingProperties properties) {
+        this.mongoTemplate = mongoTemplate;
+        this.enabled = properties.isEnabled();
+        this.causal = properties.isEnabled() && properties.isCausalReads();
+        this.scanReadPreference = readPreference(properties.getScanReadPreference(),
+                properties.getScanMaxStaleness().toSeconds());
+        this.pointReadPreference = ReadPreference.valueOf(properties.getPointReadPreference());
+        this.writeConcern = WriteConcern.valueOf(properties.getCausalWriteConcern());
+        this.scanBatchSize = properties.getScanBatchSize();
+        this.scanLimiter = new InFlightLimiter(properties.getMaxConcurrentScans());
+    }
+
+    /**
+     * Write concern of person and alien writes through the template. They run in causal sessions, which do not
+     * allow unacknowledged writes. Installed where the template bean is defined.
+     */
+    public static WriteConcernResolver writeConcernResolver(ReadRoutingProperties properties) {
+        WriteConcern writeConcern = WriteConcern.valueOf(properties.getCausalWriteConcern());
+        if (!properties.isEnabled() || !properties.isCausalReads()) {
+            return MongoAction::getDefaultWriteConcern;
+        }
+        return action -> SESSION_WRITTEN_TYPES.contains(action.getEntityType())
+                ? writeConcern
+                : action.getDefaultWriteConcern();
+    }
+
+    /**
+     * Sends the query to the scan read preference in batches of {@code mongo.routing.scan-batch-size}.
+     */
+    public Query scan(Query query) {
+        return enabled ? query.withReadPreference(scanReadPreference).cursorBatchSize(scanBatchSize) : query;
+    }
+
+    public Aggregation scan(Aggregation aggregation) {
+        return enabled
+                ? aggregation.withOptions(AggregationOptions.builder()
+                .readPreference(scanReadPreference)
+                .cursorBatchSize(scanBatchSize)
+                .build())
+                : aggregation;
+    }
+
+    /**
+     * Sends the aggregation to the primary, whatever the routing settings or the connection string say, for scans
+     * that must see every acknowledged write.
+     */
+    public Aggregation primary(Aggregation aggregation) {
+        return aggregation.withOptions(AggregationOptions.builder()
+                .readPreference(ReadPreference.primary())
+                .cursorBatchSize(scanBatchSize)
+                .build());
+    }
+
+    public Query point(Query query) {
+        return enabled ? query.withReadPreference(pointReadPreference) : query;
+    }
+
+    /**
+     * Runs the scan once one of the {@code mongo.routing.max-concurrent-scans} slots is free.
+     */
+    public <T> Flux<T> limitScan(Flux<T> scan) {
+        if (!enabled) {
+            return scan;
+        }
+        return Flux.usingWhen(scanLimiter.acquire().thenReturn(scanLimiter), limiter -> scan,
+                limiter -> Mono.fromRunnable(limiter::release));
+    }
+
+    /**
+     * Runs a read in a session that has caught up with this instance's writes.
+     */
+    public <T> Mono<T> read(Function<ReactiveMongoOperations, Mono<T>> read) {
+        if (!causal) {
+            return read.apply(mongoTemplate);
+        }
+        return Mono.usingWhen(startSession().doOnNext(this::catchUp),
+                session -> read.apply(mongoTemplate.withSession(session)),
+                session -> Mono.fromRunnable(session::close));
+    }
+
+    /**
+     * Runs a write in a session and records its operation time before the result is emitted.
+     */
+    public <T> Mono<T> write(Function<ReactiveMongoOperations, Mono<T>> write) {
+        if (!causal) {
+            return write.apply(mongoTemplate);
+        }
+        return Mono.usingWhen(startSession(),
+                session -> write.apply(mongoTemplate.withSession(session))
+                        .doOnTerminate(() -> advance(session)),
+                session -> Mono.fromRunnable(session::close));
+    }
+
+    /**
+     * Write concern for writes that go to the driver collection directly instead of through the template.
+     */
+    public WriteConcern writeConcern(WriteConcern defaultWriteConcern) {
+        return causal ? writeConcern : defaultWriteConcern;
+    }
+
+    private Mono<ClientSession> startSession() {
+        return mongoTemplate.getMongoDatabaseFactory().getSession(CAUSAL);
+    }
+
+    private synchronized void catchUp(ClientSession session) {
+        if (clusterTime != null) {
+            session.advanceClusterTime(clusterTime);
+        }
+        if (operationTime != null) {
+            session.advanceOperationTime(operationTime);
+        }
+    }
+
+    private synchronized void advance(ClientSession session) {
+        BsonTimestamp sessionOperationTime = session.getOperationTime();
+        if (sessionOperationTime != null && (operationTime == null || sessionOperationTime.compareTo(operationTime) > 0)) {
+            operationTime = sessionOperationTime;
+        }
+        BsonDocument sessionClusterTime = session.getClusterTime();
+        if (sessionClusterTime != null && (clusterTime == null
+                || sessionClusterTime.getTimestamp("clusterTime").compareTo(clusterTime.getTimestamp("clusterTime")) > 0)) {
+            clusterTime = sessionClusterTime;
+        }
+    }
+
+    private static ReadPreference readPreference(String name, long maxStalenessSeconds) {
+        ReadPreference readPreference = ReadPreference.valueOf(name);
+        // primary reads cannot carry a staleness bound
+        return readPreference.equals(ReadPreference.primary())
+                ? readPreference
+                : ReadPreference.valueOf(name, List.of(), maxStalenessSeconds, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,42 @@
+package org.pranid.kafka.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.pranid.kafka.model.WindowResult;
+import org.pranid.kafka.query.SlowQueryLogger;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+@Repository
+@RequiredArgsConstructor
+public class WindowResultRepository {
+    private static final String COLLECTION = "window_results";
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final SlowQueryLogger slowQueryLogger;
+
+    /**
+     * Inserts the results in batches of at most {@code batchSize} documents and emits the number inserted.
+     */
+    public Mono<Long> insertAll(List<WindowResult> results, int batchSize) {
+        return Flux.fromIterable(results)
+                .buffer(batchSize)
+                .concatMap(batch -> mongoTemplate.insert(batch, COLLECTION))
+                .count();
+    }
+
+    /**
+     * Results of one window definition for windows starting at or after {@code fromStart}, oldest first.
+     */
+    public Flux<WindowResult> findByWindow(String window, long fromStart) {
+        Query query = Query.query(Criteria.where("window").is(window).and("windowStart").gte(fromStart))
+                .with(Sort.by(Sort.Direction.ASC, "windowStart"))
+                .withHint(WindowResult.WINDOW_START_INDEX);
+        return slowQueryLogger.find(query, WindowResult.class, COLLECTION);
+    }
+}
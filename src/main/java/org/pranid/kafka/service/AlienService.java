@@ -1,23 +1,40 @@
 package org.pranid.kafka.service;
 
-import lombok.RequiredArgsConstructor;
+import org.pranid.kafka.config.BatchLoaderProperties;
+import org.pranid.kafka.index.NameExistenceIndex;
 import org.pranid.kafka.model.Alien;
+import org.pranid.kafka.query.BatchLoader;
 import org.pranid.kafka.repository.AlienRepository;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.Map;
+
 @Service
-@RequiredArgsConstructor
 public class AlienService {
     private final AlienRepository alienRepository;
+    private final BatchLoader<String, Alien> alienByIdLoader;
+    private final NameExistenceIndex nameExistenceIndex;
+
+    public AlienService(AlienRepository alienRepository, BatchLoaderProperties batchLoaderProperties,
+                        NameExistenceIndex nameExistenceIndex) {
+        this.alienRepository = alienRepository;
+        this.nameExistenceIndex = nameExistenceIndex;
+        // A batch size of one dispatches every id immediately, keeping only the in-flight deduplication
+        int maxBatchSize = batchLoaderProperties.isEnabled() ? batchLoaderProperties.getMaxBatchSize() : 1;
+        this.alienByIdLoader = new BatchLoader<>(alienRepository::findById, alienRepository::findAllById,
+                batchLoaderProperties.getTick(), maxBatchSize);
+    }
 
     public Mono<Alien> createAlien(Alien alien) {
-        return alienRepository.insertAlien(alien);
+        // Added before the write, so a concurrent exists check can at worst fall back to MongoDB
+        nameExistenceIndex.addAlien(alien.name());
+        return alienRepository.insert(alien);
     }
 
     public Mono<Alien> getAlienById(String id) {
-        return alienRepository.findById(id);
+        return alienByIdLoader.load(id);
     }
 
     public Flux<Alien> getAllAliens() {
@@ -25,10 +42,55 @@ public class AlienService {
     }
 
     public Mono<Alien> updateAlien(Alien alien) {
-        return alienRepository.updateAlien(alien);
+        nameExistenceIndex.addAlien(alien.name());
+        return alienRepository.save(alien);
+    }
+
+    /**
+     * Updates only the given fields of one alien, emitting whether the alien exists.
+     */
+    public Mono<Boolean> updateAlienFields(String id, Map<String, ?> changes) {
+        addRenamed(changes);
+        return alienRepository.updateFields(id, changes);
+    }
+
+    /**
+     * Updates the given fields of every alien whose fields equal the filter values, emitting the number modified.
+     */
+    public Mono<Long> updateAliensWhere(Map<String, ?> filter, Map<String, ?> changes) {
+        addRenamed(changes);
+        return alienRepository.updateWhere(filter, changes);
+    }
+
+    /**
+     * Deletes every alien whose fields equal the filter values, emitting the number deleted.
+     */
+    public Mono<Long> deleteAliensWhere(Map<String, ?> filter) {
+        return alienRepository.deleteWhere(filter);
     }
 
     public Mono<Void> deleteAlienById(String id) {
         return alienRepository.deleteById(id);
     }
+
+    public Flux<Alien> getAliensByName(String name) {
+        return alienRepository.findByName(name);
+    }
+
+    public Flux<Alien> getAliensByColor(String color) {
+        return alienRepository.findByColor(color);
+    }
+
+    /**
+     * Whether any alien has this name. Names never seen are answered in memory without querying MongoDB.
+     */
+    public Mono<Boolean> alienNameExists(String name) {
+        return nameExistenceIndex.alienExists(name);
+    }
+
+    private void addRenamed(Map<String, ?> changes) {
+        if (changes.get("name") instanceof String name) {
+            nameExistenceIndex.addAlien(name);
+        }
+    }
 }
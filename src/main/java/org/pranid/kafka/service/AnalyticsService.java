@@ -0,0 +1,60 @@
+package org.pranid.kafka.service;
+
+import lombok.RequiredArgsConstructor;
+import org.pranid.kafka.config.ViewProperties;
+import org.pranid.kafka.query.QueryResultCache;
+import org.pranid.kafka.repository.AlienRepository;
+import org.pranid.kafka.repository.PersonRepository;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+/**
+ * Aggregation queries pushed down to MongoDB. Parameters are normalized before they form the cache key,
+ * so equivalent requests share one cached or in-flight result.
+ */
+@Service
+@RequiredArgsConstructor
+public class AnalyticsService {
+
+    static final int MAX_LIMIT = 100;
+
+    private final PersonRepository personRepository;
+    private final AlienRepository alienRepository;
+    private final QueryResultCache queryResultCache;
+    private final ViewProperties viewProperties;
+
+    public Mono<Map<String, Long>> personsByGender() {
+        return queryResultCache.get("persons:by-gender", personRepository::countByGender);
+    }
+
+    public Mono<Map<String, Long>> personsByAgeRange(int width) {
+        int maxAge = viewProperties.getMaxAge();
+        int normalizedWidth = Math.max(1, Math.min(width, maxAge));
+        return queryResultCache.get("persons:age-ranges:" + normalizedWidth + ":" + maxAge,
+                () -> personRepository.countByAgeRange(normalizedWidth, maxAge));
+    }
+
+    public Mono<Map<String, Long>> topPersonNames(String prefix, int limit) {
+        String normalizedPrefix = normalizePrefix(prefix);
+        int normalizedLimit = Math.max(1, Math.min(limit, MAX_LIMIT));
+        return queryResultCache.get("persons:top-names:" + normalizedLimit + ":" + normalizedPrefix,
+                () -> personRepository.topNamesByPrefix(normalizedPrefix, normalizedLimit));
+    }
+
+    public Mono<Map<String, Long>> aliensByColor() {
+        return queryResultCache.get("aliens:by-color", alienRepository::countByColor);
+    }
+
+    public Mono<Map<String, Long>> topAlienNames(String prefix, int limit) {
+        String normalizedPrefix = normalizePrefix(prefix);
+        int normalizedLimit = Math.max(1, Math.min(limit, MAX_LIMIT));
+        return queryResultCache.get("aliens:top-names:" + normalizedLimit + ":" + normalizedPrefix,
+                () -> alienRepository.topNamesByPrefix(normalizedPrefix, normalizedLimit));
+    }
+
+    private static String normalizePrefix(String prefix) {
+        return prefix == null ? "" : prefix.strip();
+    }
+}
@@ -1,23 +1,40 @@
 package org.pranid.kafka.service;
 
-import lombok.RequiredArgsConstructor;
+import org.pranid.kafka.config.BatchLoaderProperties;
+import org.pranid.kafka.index.NameExistenceIndex;
 import org.pranid.kafka.model.Person;
+import org.pranid.kafka.query.BatchLoader;
 import org.pranid.kafka.repository.PersonRepository;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.Map;
+
 @Service
-@RequiredArgsConstructor
 public class PersonService {
     private final PersonRepository personRepository;
+    private final BatchLoader<String, Person> personByIdLoader;
+    private final NameExistenceIndex nameExistenceIndex;
+
+    public PersonService(PersonRepository personRepository, BatchLoaderProperties batchLoaderProperties,
+                         NameExistenceIndex nameExistenceIndex) {
+        this.personRepository = personRepository;
+        this.nameExistenceIndex = nameExistenceIndex;
+        // A batch size of one dispatches every id immediately, keeping only the in-flight deduplication
+        int maxBatchSize = batchLoaderProperties.isEnabled() ? batchLoaderProperties.getMaxBatchSize() : 1;
+        this.personByIdLoader = new BatchLoader<>(personRepository::findById, personRepository::findAllById,
+                batchLoaderProperties.getTick(), maxBatchSize);
+    }
 
     public Mono<Person> createPerson(Person person) {
-        return personRepository.insertPerson(person);
+        // Added before the write, so a concurrent exists check can at worst fall back to MongoDB
+        nameExistenceIndex.addPerson(person.name());
+        return personRepository.insert(person);
     }
 
     public Mono<Person> getPersonById(String id) {
-        return personRepository.findById(id);
+        return personByIdLoader.load(id);
     }
 
     public Flux<Person> getAllPersons() {
@@ -25,10 +42,55 @@ public class PersonService {
     }
 
     public Mono<Person> updatePerson(Person person) {
-        return personRepository.updatePerson(person);
+        nameExistenceIndex.addPerson(person.name());
+        return personRepository.save(person);
+    }
+
+    /**
+     * Updates only the given fields of one person, emitting whether the person exists.
+     */
+    public Mono<Boolean> updatePersonFields(String id, Map<String, ?> changes) {
+        addRenamed(changes);
+        return personRepository.updateFields(id, changes);
+    }
+
+    /**
+     * Updates the given fields of every person whose fields equal the filter values, emitting the number modified.
+     */
+    public Mono<Long> updatePersonsWhere(Map<String, ?> filter, Map<String, ?> changes) {
+        addRenamed(changes);
+        return personRepository.updateWhere(filter, changes);
+    }
+
+    /**
+     * Deletes every person whose fields equal the filter values, emitting the number deleted.
+     */
+    public Mono<Long> deletePersonsWhere(Map<String, ?> filter) {
+        return personRepository.deleteWhere(filter);
     }
 
     public Mono<Void> deletePersonById(String id) {
         return personRepository.deleteById(id);
     }
+
+    public Flux<Person> getPersonsByName(String name) {
+        return personRepository.findByName(name);
+    }
+
+    public Flux<Person> getPersonsByGenderAndAge(String gender, int minAge, int maxAge) {
+        return personRepository.findByGenderAndAgeBetween(gender, minAge, maxAge);
+    }
+
+    /**
+     * Whether any person has this name. Names never seen are answered in memory without querying MongoDB.
+     */
+    public Mono<Boolean> personNameExists(String name) {
+        return nameExistenceIndex.personExists(name);
+    }
+
+    private void addRenamed(Map<String, ?> changes) {
+        if (changes.get("name") instanceof String name) {
+            nameExistenceIndex.addPerson(name);
+        }
+    }
 }
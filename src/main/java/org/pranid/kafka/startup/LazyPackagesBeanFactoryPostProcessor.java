@@ -0,0 +1,58 @@
+package org.pranid.kafka.startup;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.core.type.MethodMetadata;
+
+import java.util.List;
+
+/**
+ * Marks the beans of non-critical packages lazy, so they are created on their first request instead of before
+ * the listeners start. Beans another bean needs at startup (web configurers, router functions) are still created
+ * then; handler beans and everything behind them wait for the first call.
+ * <p>
+ * Under Spring AOT the lazy flags are decided once at build time, together with the rest of the bean definitions.
+ */
+public class LazyPackagesBeanFactoryPostProcessor implements BeanFactoryPostProcessor {
+
+    private final Logger logger = LoggerFactory.getLogger(LazyPackagesBeanFactoryPostProcessor.class);
+    private final List<String> packages;
+
+    public LazyPackagesBeanFactoryPostProcessor(List<String> packages) {
+        this.packages = packages.stream().map(p -> p.endsWith(".") ? p : p + ".").toList();
+    }
+
+    @Override
+    public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) {
+        int deferred = 0;
+        for (String name : beanFactory.getBeanDefinitionNames()) {
+            BeanDefinition definition = beanFactory.getBeanDefinition(name);
+            if (definition.getRole() == BeanDefinition.ROLE_INFRASTRUCTURE || definition.isLazyInit()) {
+                continue;
+            }
+            String origin = origin(definition);
+            if (origin != null && packages.stream().anyMatch(origin::startsWith)) {
+                definition.setLazyInit(true);
+                deferred++;
+            }
+        }
+        logger.debug("Deferred {} beans under {}", deferred, packages);
+    }
+
+    /**
+     * The bean's class, or for {@code @Bean} methods the class declaring the method.
+     */
+    private static String origin(BeanDefinition definition) {
+        if (definition instanceof AnnotatedBeanDefinition annotated) {
+            MethodMetadata factoryMethod = annotated.getFactoryMethodMetadata();
+            if (factoryMethod != null) {
+                return factoryMethod.getDeclaringClassName();
+            }
+        }
+        return definition.getBeanClassName();
+    }
+}
@@ -0,0 +1,393 @@
+package org.pranid.kafka.store;
+
+import org.apache.kafka.common.TopicPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.function.BiConsumer;
+import java.util.stream.Stream;
+
+/**
+ * Key/value store for consumer state backed by a memory-mapped, append-only log.
+ * <p>
+ * Every put or delete appends an entry {@code [keyLength][valueLength or -1][key][value]} to
+ * {@code log.<generation>}. A compact open-addressing index holds only the log position of each live
+ * key (8 bytes per key); keys are compared against the log itself. {@link #checkpoint(Map)} forces the
+ * log and atomically records the log end position together with the Kafka offsets the state reflects.
+ * On open, the log is scanned up to the checkpointed position and anything written after it is dropped,
+ * so the caller only has to replay Kafka from the restored offsets. When more than half of the log is
+ * superseded entries, a checkpoint first rewrites live entries into a new log generation.
+ * <p>
+ * Not thread-safe; callers serialize access.
+ */
+public class MappedStateStore implements Closeable {
+
+    private static final int ENTRY_HEADER = 8;
+    private static final int TOMBSTONE = -1;
+    private static final int INITIAL_LOG_SIZE = 1 << 20;
+    private static final String CHECKPOINT_FILE = "checkpoint";
+    private static final String LOG_PREFIX = "log.";
+
+    private final Logger logger = LoggerFactory.getLogger(MappedStateStore.class);
+    private final Path directory;
+
+    private long generation;
+    private FileChannel channel;
+    private MappedByteBuffer log;
+    private int writePosition;
+    private int liveBytes;
+
+    private long[] slots = new long[64];
+    private int size;
+
+    private Map<TopicPartition, Long> restoredOffsets = Map.of();
+
+    public MappedStateStore(Path directory) {
+        this.directory = directory;
+        try {
+            Files.createDirectories(directory);
+            restore();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open state store in " + directory, e);
+        }
+    }
+
+    public byte[] get(String key) {
+        int slot = findSlot(bytes(key));
+        if (slot < 0) {
+            return null;
+        }
+        int position = (int) (slots[slot] - 1);
+        byte[] value = new byte[log.getInt(position + 4)];
+        log.get(position + ENTRY_HEADER + log.getInt(position), value);
+        return value;
+    }
+
+    public void put(String key, byte[] value) {
+        byte[] keyBytes = bytes(key);
+        int position = append(keyBytes, value);
+        int slot = findSlot(keyBytes);
+        if (slot >= 0) {
+            liveBytes -= entryLength((int) (slots[slot] - 1));
+            slots[slot] = position + 1L;
+        } else {
+            slots[-slot - 1] = position + 1L;
+            if (++size * 2 > slots.length) {
+                resizeIndex();
+            }
+        }
+        liveBytes += entryLength(position);
+    }
+
+    public void delete(String key) {
+        byte[] keyBytes = bytes(key);
+        int slot = findSlot(keyBytes);
+        if (slot < 0) {
+            return;
+        }
+        append(keyBytes, null);
+        liveBytes -= entryLength((int) (slots[slot] - 1));
+        removeSlot(slot);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void forEach(BiConsumer<String, byte[]> action) {
+        for (long slot : slots) {
+            if (slot != 0) {
+                int position = (int) (slot - 1);
+                int keyLength = log.getInt(position);
+                byte[] key = new byte[keyLength];
+                byte[] value = new byte[log.getInt(position + 4)];
+                log.get(position + ENTRY_HEADER, key);
+                log.get(position + ENTRY_HEADER + keyLength, value);
+                action.accept(new String(key, StandardCharsets.UTF_8), value);
+            }
+        }
+    }
+
+    /**
+     * Kafka offsets recorded with the checkpoint the store was restored from; empty on a fresh store.
+     */
+    public Map<TopicPartition, Long> restoredOffsets() {
+        return restoredOffsets;
+    }
+
+    /**
+     * Makes the current state durable together with the offsets it reflects.
+     */
+    public void checkpoint(Map<TopicPartition, Long> offsets) {
+        try {
+            if (writePosition > INITIAL_LOG_SIZE && liveBytes * 2 < writePosition) {
+                compact();
+            }
+            log.force();
+
+            Properties checkpoint = new Properties();
+            checkpoint.setProperty("generation", Long.toString(generation));
+            checkpoint.setProperty("position", Integer.toString(writePosition));
+            offsets.forEach((partition, offset) -> checkpoint.setProperty(
+                    "offset." + partition.topic() + "." + partition.partition(), Long.toString(offset)));
+
+            Path temp = directory.resolve(CHECKPOINT_FILE + ".tmp");
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                checkpoint.store(out, "state store checkpoint");
+            }
+            try (FileChannel tempChannel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                tempChannel.force(true);
+            }
+            Files.move(temp, directory.resolve(CHECKPOINT_FILE),
+                    StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            deleteOtherGenerations();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to checkpoint state store in " + directory, e);
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            if (channel != null) {
+                log.force();
+                channel.close();
+            }
+        } catch (IOException e) {
+            logger.warn("Failed to close state store in {}", directory, e);
+        }
+    }
+
+    private void restore() throws IOException {
+        Path checkpointPath = directory.resolve(CHECKPOINT_FILE);
+        int position = 0;
+        if (Files.exists(checkpointPath)) {
+            Properties checkpoint = new Properties();
+            try (InputStream in = Files.newInputStream(checkpointPath)) {
+                checkpoint.load(in);
+            }
+            generation = Long.parseLong(checkpoint.getProperty("generation"));
+            position = Integer.parseInt(checkpoint.getProperty("position"));
+            restoredOffsets = parseOffsets(checkpoint);
+        }
+        deleteOtherGenerations();
+        openLog(Math.max(INITIAL_LOG_SIZE, position));
+
+        // Rebuild the index from the checkpointed prefix; later entries are overwritten by new appends
+        while (writePosition < position) {
+            int entry = writePosition;
+            int keyLength = log.getInt(entry);
+            int valueLength = log.getInt(entry + 4);
+            byte[] key = new byte[keyLength];
+            log.get(entry + ENTRY_HEADER, key);
+            writePosition += entryLength(entry);
+
+            int slot = findSlot(key);
+            if (slot >= 0) {
+                liveBytes -= entryLength((int) (slots[slot] - 1));
+                if (valueLength == TOMBSTONE) {
+                    removeSlot(slot);
+                } else {
+                    slots[slot] = entry + 1L;
+                    liveBytes += entryLength(entry);
+                }
+            } else if (valueLength != TOMBSTONE) {
+                slots[-slot - 1] = entry + 1L;
+                liveBytes += entryLength(entry);
+                if (++size * 2 > slots.length) {
+                    resizeIndex();
+                }
+            }
+        }
+        logger.info("Restored state store {} with {} keys and offsets {}", directory, size, restoredOffsets);
+    }
+
+    private static Map<TopicPartition, Long> parseOffsets(Properties checkpoint) {
+        Map<TopicPartition, Long> offsets = new HashMap<>();
+        for (String name : checkpoint.stringPropertyNames()) {
+            if (name.startsWith("offset.")) {
+                int lastDot = name.lastIndexOf('.');
+                String topic = name.substring("offset.".length(), lastDot);
+                int partition = Integer.parseInt(name.substring(lastDot + 1));
+                offsets.put(new TopicPartition(topic, partition), Long.parseLong(checkpoint.getProperty(name)));
+            }
+        }
+        return Collections.unmodifiableMap(offsets);
+    }
+
+    private void openLog(int mappedSize) throws IOException {
+        channel = FileChannel.open(directory.resolve(LOG_PREFIX + generation),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        log = channel.map(FileChannel.MapMode.READ_WRITE, 0, mappedSize);
+        writePosition = 0;
+    }
+
+    private int append(byte[] key, byte[] value) {
+        int length = ENTRY_HEADER + key.length + (value == null ? 0 : value.length);
+        ensureCapacity(length);
+        int position = writePosition;
+        log.putInt(position, key.length);
+        log.putInt(position + 4, value == null ? TOMBSTONE : value.length);
+        log.put(position + ENTRY_HEADER, key);
+        if (value != null) {
+            log.put(position + ENTRY_HEADER + key.length, value);
+        }
+        writePosition += length;
+        return position;
+    }
+
+    private void ensureCapacity(int length) {
+        if ((long) writePosition + length <= log.capacity()) {
+            return;
+        }
+        long newSize = Math.max((long) log.capacity() * 2, (long) writePosition + length);
+        if (newSize > Integer.MAX_VALUE) {
+            throw new IllegalStateException("State store log exceeds 2 GiB in " + directory);
+        }
+        try {
+            log.force();
+            log = channel.map(FileChannel.MapMode.READ_WRITE, 0, newSize);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to grow state store log in " + directory, e);
+        }
+    }
+
+    /**
+     * Rewrites live entries into the next log generation. The old generation stays on disk until the
+     * following checkpoint references the new one.
+     */
+    private void compact() throws IOException {
+        MappedByteBuffer oldLog = log;
+        FileChannel oldChannel = channel;
+        long[] oldSlots = slots.clone();
+
+        generation++;
+        openLog(Math.max(INITIAL_LOG_SIZE, liveBytes));
+        Arrays.fill(slots, 0);
+        size = 0;
+        liveBytes = 0;
+        for (long slot : oldSlots) {
+            if (slot != 0) {
+                int position = (int) (slot - 1);
+                int keyLength = oldLog.getInt(position);
+                byte[] key = new byte[keyLength];
+                byte[] value = new byte[oldLog.getInt(position + 4)];
+                oldLog.get(position + ENTRY_HEADER, key);
+                oldLog.get(position + ENTRY_HEADER + keyLength, value);
+                put(new String(key, StandardCharsets.UTF_8), value);
+            }
+        }
+        oldChannel.close();
+        logger.info("Compacted state store {} into generation {} ({} keys)", directory, generation, size);
+    }
+
+    private void deleteOtherGenerations() throws IOException {
+        String current = LOG_PREFIX + generation;
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                String name = file.getFileName().toString();
+                if (name.startsWith(LOG_PREFIX) && !name.equals(current)) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+    }
+
+    private int entryLength(int position) {
+        int valueLength = log.getInt(position + 4);
+        return ENTRY_HEADER + log.getInt(position) + (valueLength == TOMBSTONE ? 0 : valueLength);
+    }
+
+    /**
+     * Returns the slot holding the key, or {@code -(insertionSlot + 1)} when the key is absent.
+     */
+    private int findSlot(byte[] key) {
+        int mask = slots.length - 1;
+        for (int i = hash(key) & mask; ; i = (i + 1) & mask) {
+            long slot = slots[i];
+            if (slot == 0) {
+                return -i - 1;
+            }
+            if (keyEquals((int) (slot - 1), key)) {
+                return i;
+            }
+        }
+    }
+
+    private boolean keyEquals(int position, byte[] key) {
+        if (log.getInt(position) != key.length) {
+            return false;
+        }
+        for (int i = 0; i < key.length; i++) {
+            if (log.get(position + ENTRY_HEADER + i) != key[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int keyHashAt(int position) {
+        byte[] key = new byte[log.getInt(position)];
+        log.get(position + ENTRY_HEADER, key);
+        return hash(key);
+    }
+
+    /**
+     * Linear-probing deletion: shifts later entries of the probe chain back so lookups stay correct.
+     */
+    private void removeSlot(int slot) {
+        int mask = slots.length - 1;
+        int hole = slot;
+        for (int i = (slot + 1) & mask; slots[i] != 0; i = (i + 1) & mask) {
+            int home = keyHashAt((int) (slots[i] - 1)) & mask;
+            // Move the entry if the hole lies cyclically between its home slot and its current slot
+            if (((i - home) & mask) >= ((i - hole) & mask)) {
+                slots[hole] = slots[i];
+                hole = i;
+            }
+        }
+        slots[hole] = 0;
+        size--;
+    }
+
+    private void resizeIndex() {
+        long[] old = slots;
+        slots = new long[old.length * 2];
+        int mask = slots.length - 1;
+        for (long slot : old) {
+            if (slot != 0) {
+                int i = keyHashAt((int) (slot - 1)) & mask;
+                while (slots[i] != 0) {
+                    i = (i + 1) & mask;
+                }
+                slots[i] = slot;
+            }
+        }
+    }
+
+    private static int hash(byte[] key) {
+        int h = Arrays.hashCode(key);
+        return h ^ (h >>> 16);
+    }
+
+    private static byte[] bytes(String key) {
+        return key.getBytes(StandardCharsets.UTF_8);
+    }
+}
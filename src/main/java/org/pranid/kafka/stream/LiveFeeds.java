@@ -0,0 +1,59 @@
+package org.pranid.kafka.stream;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.pranid.kafka.config.StreamProperties;
+import org.pranid.kafka.model.Alien;
+import org.pranid.kafka.model.Person;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+
+/**
+ * Live person and alien feeds, filled by the consumers and served by the stream endpoints.
+ */
+@Component
+public class LiveFeeds {
+
+    private final RecordBroadcaster<Person> persons;
+    private final RecordBroadcaster<Alien> aliens;
+    private final OverflowPolicy defaultOverflow;
+
+    public LiveFeeds(StreamProperties properties, MeterRegistry meterRegistry) {
+        this.persons = register("person", properties, meterRegistry);
+        this.aliens = register("alien", properties, meterRegistry);
+        this.defaultOverflow = properties.getDefaultOverflow();
+    }
+
+    public void publish(Person person) {
+        persons.publish(person);
+    }
+
+    public void publish(Alien alien) {
+        aliens.publish(alien);
+    }
+
+    public Flux<Person> persons(OverflowPolicy overflow) {
+        return persons.subscribe(overflow != null ? overflow : defaultOverflow);
+    }
+
+    public Flux<Alien> aliens(OverflowPolicy overflow) {
+        return aliens.subscribe(overflow != null ? overflow : defaultOverflow);
+    }
+
+    private static <T> RecordBroadcaster<T> register(String name, StreamProperties properties,
+                                                     MeterRegistry meterRegistry) {
+        RecordBroadcaster<T> feed = new RecordBroadcaster<>(name, properties.getBufferSize());
+        Gauge.builder("streams.subscribers", feed, RecordBroadcaster::subscriberCount)
+                .tag("feed", name)
+                .register(meterRegistry);
+        FunctionCounter.builder("streams.dropped", feed, RecordBroadcaster::dropped)
+                .tag("feed", name)
+                .description("Records skipped for subscribers that could not keep up")
+                .register(meterRegistry);
+        FunctionCounter.builder("streams.disconnected", feed, RecordBroadcaster::disconnected)
+                .tag("feed", name)
+                .register(meterRegistry);
+        return feed;
+    }
+}
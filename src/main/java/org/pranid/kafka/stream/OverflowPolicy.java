@@ -0,0 +1,22 @@
+package org.pranid.kafka.stream;
+
+/**
+ * What a live feed does with a subscriber that cannot keep up.
+ */
+public enum OverflowPolicy {
+
+    /**
+     * Skip the records that were overwritten and continue with the oldest one still buffered.
+     */
+    DROP_OLDEST,
+
+    /**
+     * Skip straight to the newest record whenever more records are waiting than the subscriber requested.
+     */
+    LATEST_ONLY,
+
+    /**
+     * End the subscription with a {@link SlowSubscriberException} once records were overwritten.
+     */
+    DISCONNECT
+}
@@ -0,0 +1,170 @@
+package org.pranid.kafka.stream;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded broadcast ring buffer. {@link #publish} writes one slot and wakes the subscribers but never runs
+ * subscriber code, so a slow client cannot delay the publishing thread. Each subscriber keeps its own cursor
+ * into the ring and drains it on its own worker, as fast as its demand allows.
+ */
+public class RecordBroadcaster<T> {
+
+    private final String name;
+    private final AtomicReferenceArray<Slot<T>> ring;
+    private final int mask;
+    private final Scheduler scheduler;
+    private final Set<Cursor> cursors = ConcurrentHashMap.newKeySet();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder disconnected = new LongAdder();
+    private volatile long head = -1;
+
+    public RecordBroadcaster(String name, int bufferSize) {
+        this(name, bufferSize, Schedulers.parallel());
+    }
+
+    RecordBroadcaster(String name, int bufferSize, Scheduler scheduler) {
+        if (bufferSize <= 0 || bufferSize > 1 << 30) {
+            throw new IllegalArgumentException("bufferSize must be between 1 and 2^30: " + bufferSize);
+        }
+        int capacity = bufferSize == 1 ? 1 : Integer.highestOneBit(bufferSize - 1) << 1;
+        this.name = name;
+        this.ring = new AtomicReferenceArray<>(capacity);
+        this.mask = capacity - 1;
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Appends a record, overwriting the oldest one when the ring is full.
+     */
+    public void publish(T value) {
+        synchronized (this) {
+            long sequence = head + 1;
+            ring.set(index(sequence), new Slot<>(sequence, value));
+            head = sequence;
+        }
+        for (Cursor cursor : cursors) {
+            cursor.signal();
+        }
+    }
+
+    /**
+     * Records published from now on. The ring is the only buffer, so a subscriber that falls further behind
+     * than its capacity is handled according to {@code policy}.
+     */
+    public Flux<T> subscribe(OverflowPolicy policy) {
+        return Flux.create(sink -> {
+            Cursor cursor = new Cursor(sink, policy, scheduler.createWorker());
+            cursors.add(cursor);
+            sink.onRequest(n -> cursor.signal());
+            sink.onDispose(cursor::close);
+        }, FluxSink.OverflowStrategy.IGNORE);
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+
+    public int subscriberCount() {
+        return cursors.size();
+    }
+
+    /**
+     * Records skipped by subscribers that could not keep up, summed over all subscribers.
+     */
+    public long dropped() {
+        return dropped.sum();
+    }
+
+    public long disconnected() {
+        return disconnected.sum();
+    }
+
+    private int index(long sequence) {
+        return (int) (sequence & mask);
+    }
+
+    private record Slot<T>(long sequence, T value) {
+    }
+
+    private final class Cursor {
+
+        private final FluxSink<T> sink;
+        private final OverflowPolicy policy;
+        private final Scheduler.Worker worker;
+        private final AtomicInteger wip = new AtomicInteger();
+        private long next = head + 1;
+
+        private Cursor(FluxSink<T> sink, OverflowPolicy policy, Scheduler.Worker worker) {
+            this.sink = sink;
+            this.policy = policy;
+            this.worker = worker;
+        }
+
+        private void signal() {
+            if (wip.getAndIncrement() == 0) {
+                try {
+                    worker.schedule(this::drain);
+                } catch (RejectedExecutionException e) {
+                    // Cancelled in the meantime
+                }
+            }
+        }
+
+        private void drain() {
+            int missed = 1;
+            do {
+                emit();
+                missed = wip.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        private void emit() {
+            while (!sink.isCancelled()) {
+                long newest = head;
+                long waiting = newest - next + 1;
+                long demand = sink.requestedFromDownstream();
+                if (waiting <= 0 || demand <= 0) {
+                    return;
+                }
+                if (waiting > capacity()) {
+                    if (policy == OverflowPolicy.DISCONNECT) {
+                        disconnected.increment();
+                        sink.error(new SlowSubscriberException(name, waiting - capacity()));
+                        return;
+                    }
+                    skipTo(newest - capacity() + 1);
+                }
+                if (policy == OverflowPolicy.LATEST_ONLY && newest - next + 1 > demand) {
+                    skipTo(newest);
+                }
+                Slot<T> slot = ring.get(index(next));
+                if (slot.sequence() != next) {
+                    // Overwritten while we were looking, re-evaluate against the new head
+                    continue;
+                }
+                next++;
+                sink.next(slot.value());
+            }
+        }
+
+        private void skipTo(long sequence) {
+            dropped.add(sequence - next);
+            next = sequence;
+        }
+
+        private void close() {
+            cursors.remove(this);
+            worker.dispose();
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package org.pranid.kafka.stream;
+
+/**
+ * Ends a {@link OverflowPolicy#DISCONNECT} subscription that fell further behind than the buffer.
+ */
+public class SlowSubscriberException extends RuntimeException {
+
+    public SlowSubscriberException(String feed, long missed) {
+        super("Subscriber to " + feed + " fell " + missed + " records behind and was disconnected");
+    }
+}
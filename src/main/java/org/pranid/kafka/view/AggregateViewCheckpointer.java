@@ -0,0 +1,57 @@
+package org.pranid.kafka.view;
+
+import org.pranid.kafka.config.StateStoreProperties;
+import org.pranid.kafka.store.MappedStateStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Persists {@link AggregateViews} to a local {@link MappedStateStore}.
+ * The views are restored while the context starts, before any listener container is running, so the
+ * replay listener only needs to read the tail after the checkpointed offsets.
+ */
+@Component
+@ConditionalOnProperty(prefix = "state", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class AggregateViewCheckpointer implements DisposableBean {
+
+    private final Logger logger = LoggerFactory.getLogger(AggregateViewCheckpointer.class);
+    private final AggregateViews aggregateViews;
+    private final MappedStateStore store;
+    private final ScheduledExecutorService scheduler;
+
+    public AggregateViewCheckpointer(AggregateViews aggregateViews, StateStoreProperties properties) {
+        this.aggregateViews = aggregateViews;
+        this.store = new MappedStateStore(properties.getDirectory().resolve("aggregate-views"));
+        aggregateViews.restore(store);
+
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "aggregate-view-checkpoint");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = properties.getCheckpointInterval().toMillis();
+        scheduler.scheduleWithFixedDelay(this::checkpoint, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    public void checkpoint() {
+        try {
+            aggregateViews.checkpoint(store);
+        } catch (RuntimeException e) {
+            logger.error("Failed to checkpoint aggregate views", e);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdown();
+        checkpoint();
+        store.close();
+    }
+}
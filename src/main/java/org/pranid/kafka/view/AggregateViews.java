@@ -0,0 +1,183 @@
+package org.pranid.kafka.view;
+
+import org.apache.kafka.common.TopicPartition;
+import org.pranid.kafka.config.ViewProperties;
+import org.pranid.kafka.model.Alien;
+import org.pranid.kafka.model.Person;
+import org.pranid.kafka.store.MappedStateStore;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Aggregates over the person and alien topics, maintained incrementally as records are consumed.
+ * <p>
+ * Two sources feed the views: the live {@code MultiTopicKafkaConsumer} and a replica-private replay
+ * listener that reads the topics from the beginning. Each record must be applied exactly once, so the
+ * views remember the last applied offset per partition. The replay source is authoritative and may
+ * skip offset gaps (transaction markers, compaction); the live source only applies the next contiguous
+ * offset and leaves everything else to the replay. With replay disabled the live source is authoritative.
+ * <p>
+ * Updates and checkpoints are serialized on this object so a checkpoint always pairs counts with the
+ * offsets they reflect.
+ */
+@Component
+public class AggregateViews {
+
+    public enum Source { LIVE, REPLAY }
+
+    private static final String PERSON_TOPIC = "person";
+    private static final String ALIEN_TOPIC = "alien";
+    private static final String ALIEN_COLOR_KEY = "alien.color.";
+    private static final String PERSON_GENDER_KEY = "person.gender.";
+    private static final String PERSON_AGE_KEY = "person.age.";
+
+    private final LabelCounts aliensByColor;
+    private final LabelCounts personsByGender;
+    private final Histogram personAges;
+    private final PartitionOffsets personOffsets;
+    private final PartitionOffsets alienOffsets;
+
+    public AggregateViews(ViewProperties properties) {
+        this.personOffsets = new PartitionOffsets(!properties.isReplay());
+        this.alienOffsets = new PartitionOffsets(!properties.isReplay());
+        this.aliensByColor = new LabelCounts(properties.getMaxLabels());
+        this.personsByGender = new LabelCounts(properties.getMaxLabels());
+        this.personAges = new Histogram(properties.getAgeBucketWidth(), properties.getMaxAge());
+    }
+
+    public synchronized void onPerson(int partition, long offset, Person person, Source source) {
+        if (personOffsets.advance(partition, offset, source)) {
+            personsByGender.increment(person.gender());
+            personAges.record(person.age());
+        }
+    }
+
+    public synchronized void onAlien(int partition, long offset, Alien alien, Source source) {
+        if (alienOffsets.advance(partition, offset, source)) {
+            aliensByColor.increment(alien.color());
+        }
+    }
+
+    public Map<String, Long> aliensByColor() {
+        return aliensByColor.snapshot();
+    }
+
+    public Map<String, Long> personsByGender() {
+        return personsByGender.snapshot();
+    }
+
+    public Map<String, Long> personAgeHistogram() {
+        return personAges.snapshot();
+    }
+
+    /**
+     * Last offset applied for the partition, or -1 when nothing was applied yet.
+     */
+    public synchronized long appliedOffset(String topic, int partition) {
+        return switch (topic) {
+            case PERSON_TOPIC -> personOffsets.get(partition);
+            case ALIEN_TOPIC -> alienOffsets.get(partition);
+            default -> -1L;
+        };
+    }
+
+    /**
+     * Writes the current counts to the store and checkpoints them with the applied offsets.
+     */
+    public synchronized void checkpoint(MappedStateStore store) {
+        aliensByColor.forEach((label, count) -> store.put(ALIEN_COLOR_KEY + label, encode(count)));
+        personsByGender.forEach((label, count) -> store.put(PERSON_GENDER_KEY + label, encode(count)));
+        for (int bucket = 0; bucket < personAges.bucketCount(); bucket++) {
+            store.put(PERSON_AGE_KEY + bucket, encode(personAges.get(bucket)));
+        }
+
+        Map<TopicPartition, Long> offsets = new HashMap<>();
+        personOffsets.forEach((partition, offset) -> offsets.put(new TopicPartition(PERSON_TOPIC, partition), offset));
+        alienOffsets.forEach((partition, offset) -> offsets.put(new TopicPartition(ALIEN_TOPIC, partition), offset));
+        store.checkpoint(offsets);
+    }
+
+    /**
+     * Loads counts and applied offsets from a restored store.
+     */
+    public synchronized void restore(MappedStateStore store) {
+        store.forEach((key, value) -> {
+            long count = ByteBuffer.wrap(value).getLong();
+            if (key.startsWith(ALIEN_COLOR_KEY)) {
+                aliensByColor.set(key.substring(ALIEN_COLOR_KEY.length()), count);
+            } else if (key.startsWith(PERSON_GENDER_KEY)) {
+                personsByGender.set(key.substring(PERSON_GENDER_KEY.length()), count);
+            } else if (key.startsWith(PERSON_AGE_KEY)) {
+                personAges.set(Integer.parseInt(key.substring(PERSON_AGE_KEY.length())), count);
+            }
+        });
+        store.restoredOffsets().forEach((partition, offset) -> {
+            switch (partition.topic()) {
+                case PERSON_TOPIC -> personOffsets.set(partition.partition(), offset);
+                case ALIEN_TOPIC -> alienOffsets.set(partition.partition(), offset);
+                default -> { }
+            }
+        });
+    }
+
+    private static byte[] encode(long count) {
+        return ByteBuffer.allocate(Long.BYTES).putLong(count).array();
+    }
+
+    /**
+     * Last applied offset per partition of one topic, -1 when nothing was applied yet.
+     */
+    private static final class PartitionOffsets {
+        private final boolean liveAuthoritative;
+        private long[] applied = new long[0];
+
+        PartitionOffsets(boolean liveAuthoritative) {
+            this.liveAuthoritative = liveAuthoritative;
+        }
+
+        boolean advance(int partition, long offset, Source source) {
+            ensurePartition(partition);
+            long last = applied[partition];
+            boolean authoritative = source == Source.REPLAY || liveAuthoritative;
+            boolean apply = authoritative ? offset > last : offset == last + 1;
+            if (apply) {
+                applied[partition] = offset;
+            }
+            return apply;
+        }
+
+        long get(int partition) {
+            return partition < applied.length ? applied[partition] : -1L;
+        }
+
+        void set(int partition, long offset) {
+            ensurePartition(partition);
+            applied[partition] = offset;
+        }
+
+        void forEach(PartitionOffsetConsumer action) {
+            for (int partition = 0; partition < applied.length; partition++) {
+                if (applied[partition] >= 0) {
+                    action.accept(partition, applied[partition]);
+                }
+            }
+        }
+
+        private void ensurePartition(int partition) {
+            if (partition >= applied.length) {
+                int oldLength = applied.length;
+                applied = Arrays.copyOf(applied, partition + 1);
+                Arrays.fill(applied, oldLength, applied.length, -1L);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface PartitionOffsetConsumer {
+        void accept(int partition, long offset);
+    }
+}
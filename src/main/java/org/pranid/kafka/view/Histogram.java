@@ -0,0 +1,57 @@
+package org.pranid.kafka.view;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Fixed-width histogram over non-negative integers backed by a {@code long[]}.
+ * Values below zero go into the first bucket and values at or above the maximum into the last.
+ */
+public class Histogram {
+
+    private final int bucketWidth;
+    private final long[] buckets;
+
+    public Histogram(int bucketWidth, int maxValue) {
+        if (bucketWidth <= 0 || maxValue <= 0) {
+            throw new IllegalArgumentException("bucketWidth and maxValue must be positive");
+        }
+        this.bucketWidth = bucketWidth;
+        this.buckets = new long[(maxValue + bucketWidth - 1) / bucketWidth + 1];
+    }
+
+    public synchronized void record(int value) {
+        int index = Math.max(0, Math.min(value / bucketWidth, buckets.length - 1));
+        buckets[index]++;
+    }
+
+    /**
+     * Copies the buckets into a map keyed by range label ("20-29", ..., "120+").
+     */
+    public synchronized Map<String, Long> snapshot() {
+        Map<String, Long> snapshot = new LinkedHashMap<>();
+        for (int i = 0; i < buckets.length; i++) {
+            int from = i * bucketWidth;
+            String label = i == buckets.length - 1 ? from + "+" : from + "-" + (from + bucketWidth - 1);
+            snapshot.put(label, buckets[i]);
+        }
+        return snapshot;
+    }
+
+    public int bucketCount() {
+        return buckets.length;
+    }
+
+    public synchronized long get(int bucket) {
+        return buckets[bucket];
+    }
+
+    /**
+     * Overwrites a bucket, used when restoring from a checkpoint.
+     */
+    public synchronized void set(int bucket, long count) {
+        if (bucket >= 0 && bucket < buckets.length) {
+            buckets[bucket] = count;
+        }
+    }
+}
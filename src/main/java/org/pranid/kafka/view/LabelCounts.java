@@ -0,0 +1,102 @@
+package org.pranid.kafka.view;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.ObjLongConsumer;
+
+/**
+ * Counts per string label for low-cardinality fields, kept in parallel primitive arrays.
+ * Lookup is a linear scan, which beats hashing for the handful of labels these fields have.
+ * Labels beyond the capacity, and null labels, are folded into {@link #OTHER}.
+ */
+public class LabelCounts {
+
+    /**
+     * Key of the overflow count. It is reserved so that it cannot collide with a real label such as "other";
+     * a label equal to it is counted as overflow.
+     */
+    public static final String OTHER = "__other__";
+
+    private final String[] labels;
+    private final long[] counts;
+    private int size;
+    private long other;
+
+    public LabelCounts(int capacity) {
+        this.labels = new String[capacity];
+        this.counts = new long[capacity];
+    }
+
+    public synchronized void increment(String label) {
+        if (label == null || OTHER.equals(label)) {
+            other++;
+            return;
+        }
+        for (int i = 0; i < size; i++) {
+            if (labels[i].equals(label)) {
+                counts[i]++;
+                return;
+            }
+        }
+        if (size < labels.length) {
+            labels[size] = label;
+            counts[size++] = 1;
+        } else {
+            other++;
+        }
+    }
+
+    public synchronized long count(String label) {
+        for (int i = 0; i < size; i++) {
+            if (labels[i].equals(label)) {
+                return counts[i];
+            }
+        }
+        return OTHER.equals(label) ? other : 0;
+    }
+
+    /**
+     * Copies the counts into a map for serialization, in first-seen order.
+     */
+    public synchronized Map<String, Long> snapshot() {
+        Map<String, Long> snapshot = new LinkedHashMap<>();
+        for (int i = 0; i < size; i++) {
+            snapshot.put(labels[i], counts[i]);
+        }
+        if (other > 0) {
+            snapshot.put(OTHER, other);
+        }
+        return snapshot;
+    }
+
+    /**
+     * Overwrites the count of a label, used when restoring from a checkpoint.
+     */
+    public synchronized void set(String label, long count) {
+        if (OTHER.equals(label)) {
+            other = count;
+            return;
+        }
+        for (int i = 0; i < size; i++) {
+            if (labels[i].equals(label)) {
+                counts[i] = count;
+                return;
+            }
+        }
+        if (size < labels.length) {
+            labels[size] = label;
+            counts[size++] = count;
+        } else {
+            other += count;
+        }
+    }
+
+    public synchronized void forEach(ObjLongConsumer<String> action) {
+        for (int i = 0; i < size; i++) {
+            action.accept(labels[i], counts[i]);
+        }
+        if (other > 0) {
+            action.accept(OTHER, other);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package org.pranid.kafka.window;
+
+import org.pranid.kafka.model.WindowResult;
+import org.pranid.kafka.view.LabelCounts;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Event-time tumbling or hopping window counts per key for one window definition.
+ * <p>
+ * The watermark is the highest event timestamp seen minus the allowed lateness. A window
+ * {@code [start, start + size)} closes once the watermark reaches its end; records for
+ * closed windows are counted as late and dropped.
+ */
+public class WindowAggregator {
+
+    private static final int MAX_KEYS_PER_WINDOW = 1024;
+
+    private final String name;
+    private final long size;
+    private final long advance;
+    private final long allowedLateness;
+    private final TreeMap<Long, LabelCounts> openWindows = new TreeMap<>();
+    private long maxTimestamp = Long.MIN_VALUE;
+    private long lateRecords;
+
+    public WindowAggregator(String name, long sizeMillis, long advanceMillis, long allowedLatenessMillis) {
+        if (sizeMillis <= 0 || advanceMillis <= 0 || advanceMillis > sizeMillis) {
+            throw new IllegalArgumentException("Window " + name + " needs 0 < advance <= size");
+        }
+        this.name = name;
+        this.size = sizeMillis;
+        this.advance = advanceMillis;
+        this.allowedLateness = allowedLatenessMillis;
+    }
+
+    /**
+     * Adds one record and returns the results of every window the record's timestamp closed.
+     */
+    public synchronized List<WindowResult> add(String key, long timestamp) {
+        long watermark = watermark();
+        long lastStart = timestamp - Math.floorMod(timestamp, advance);
+        boolean counted = false;
+        for (long start = lastStart; start > timestamp - size; start -= advance) {
+            if (start + size > watermark) {
+                openWindows.computeIfAbsent(start, s -> new LabelCounts(MAX_KEYS_PER_WINDOW)).increment(key);
+                counted = true;
+            }
+        }
+        if (!counted) {
+            lateRecords++;
+        }
+        return advanceTo(timestamp);
+    }
+
+    /**
+     * Moves event time forward without a record, e.g. when the topic is idle.
+     */
+    public synchronized List<WindowResult> advanceTo(long timestamp) {
+        maxTimestamp = Math.max(maxTimestamp, timestamp);
+        long watermark = watermark();
+        List<WindowResult> results = new ArrayList<>();
+        Iterator<Map.Entry<Long, LabelCounts>> windows = openWindows.entrySet().iterator();
+        while (windows.hasNext()) {
+            Map.Entry<Long, LabelCounts> window = windows.next();
+            long end = window.getKey() + size;
+            if (end > watermark) {
+                break;
+            }
+            window.getValue().forEach((key, count) ->
+                    results.add(new WindowResult(name, key, window.getKey(), end, count)));
+            windows.remove();
+        }
+        return results;
+    }
+
+    private long watermark() {
+        return maxTimestamp == Long.MIN_VALUE ? Long.MIN_VALUE : maxTimestamp - allowedLateness;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public synchronized long lateRecords() {
+        return lateRecords;
+    }
+
+    public synchronized int openWindowCount() {
+        return openWindows.size();
+    }
+}
@@ -0,0 +1,170 @@
+package org.pranid.kafka.window;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.pranid.kafka.config.WindowProperties;
+import org.pranid.kafka.model.Alien;
+import org.pranid.kafka.model.Person;
+import org.pranid.kafka.model.WindowResult;
+import org.pranid.kafka.producer.KeyExtractor;
+import org.pranid.kafka.producer.PropertyKeyExtractor;
+import org.pranid.kafka.producer.ReactiveKafkaProducer;
+import org.pranid.kafka.repository.WindowResultRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Runs the configured window definitions over records handled by the existing consumers.
+ * Closed windows are written to MongoDB in batches and, when configured, to an output topic.
+ * Each replica only sees the partitions assigned to it, so downstream readers sum results per window and key.
+ * Windows of a topic that has received nothing for {@code windows.idle-timeout} are advanced by wall-clock time,
+ * regardless of traffic on other topics.
+ */
+@Component
+public class WindowEngine implements DisposableBean {
+
+    private static final Map<String, Class<?>> TOPIC_TYPES = Map.of("person", Person.class, "alien", Alien.class);
+
+    private final Logger logger = LoggerFactory.getLogger(WindowEngine.class);
+    private final WindowProperties properties;
+    private final WindowResultRepository windowResultRepository;
+    private final ReactiveKafkaProducer reactiveKafkaProducer;
+    private final List<Binding<?>> bindings = new ArrayList<>();
+    private final ScheduledExecutorService idleTicker;
+    private final Map<String, AtomicLong> lastRecordAt = new HashMap<>();
+    private final LongSupplier clock;
+
+    @Autowired
+    public WindowEngine(WindowProperties properties,
+                        WindowResultRepository windowResultRepository,
+                        ReactiveKafkaProducer reactiveKafkaProducer,
+                        MeterRegistry meterRegistry) {
+        this(properties, windowResultRepository, reactiveKafkaProducer, meterRegistry, System::currentTimeMillis);
+    }
+
+    WindowEngine(WindowProperties properties,
+                 WindowResultRepository windowResultRepository,
+                 ReactiveKafkaProducer reactiveKafkaProducer,
+                 MeterRegistry meterRegistry,
+                 LongSupplier clock) {
+        this.properties = properties;
+        this.clock = clock;
+        this.windowResultRepository = windowResultRepository;
+        this.reactiveKafkaProducer = reactiveKafkaProducer;
+
+        if (properties.isEnabled()) {
+            for (WindowProperties.Definition definition : properties.getDefinitions()) {
+                Binding<?> binding = bind(definition);
+                bindings.add(binding);
+                lastRecordAt.putIfAbsent(binding.topic(), new AtomicLong(clock.getAsLong()));
+                WindowAggregator aggregator = binding.aggregator();
+                FunctionCounter.builder("windows.late.records", aggregator, WindowAggregator::lateRecords)
+                        .tag("window", aggregator.name())
+                        .description("Records dropped because their windows had already closed")
+                        .register(meterRegistry);
+                Gauge.builder("windows.open", aggregator, WindowAggregator::openWindowCount)
+                        .tag("window", aggregator.name())
+                        .register(meterRegistry);
+            }
+        }
+
+        this.idleTicker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "window-idle-ticker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (!bindings.isEmpty()) {
+            idleTicker.scheduleWithFixedDelay(this::tickIdle, 1, 1, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * Feeds one consumed record, using the record timestamp as event time.
+     */
+    public void onRecord(String topic, Object value, long timestamp) {
+        AtomicLong topicLastRecordAt = lastRecordAt.get(topic);
+        if (topicLastRecordAt == null) {
+            return;
+        }
+        topicLastRecordAt.set(clock.getAsLong());
+        for (Binding<?> binding : bindings) {
+            if (binding.topic().equals(topic) && binding.type().isInstance(value)) {
+                emit(binding, binding.add(value, timestamp));
+            }
+        }
+    }
+
+    void tickIdle() {
+        long idleTimeout = properties.getIdleTimeout().toMillis();
+        long now = clock.getAsLong();
+        for (Binding<?> binding : bindings) {
+            if (now - lastRecordAt.get(binding.topic()).get() < idleTimeout) {
+                continue;
+            }
+            try {
+                emit(binding, binding.aggregator().advanceTo(now - idleTimeout));
+            } catch (RuntimeException e) {
+                logger.error("Failed to close idle windows for {}", binding.aggregator().name(), e);
+            }
+        }
+    }
+
+    private void emit(Binding<?> binding, List<WindowResult> results) {
+        if (results.isEmpty()) {
+            return;
+        }
+        String window = binding.aggregator().name();
+        windowResultRepository.insertAll(results, properties.getBatchSize())
+                .doOnSuccess(count -> logger.debug("Stored {} results for window {}", count, window))
+                .doOnError(e -> logger.error("Failed to store results for window {}", window, e))
+                .subscribe();
+        if (binding.outputTopic() != null) {
+            reactiveKafkaProducer.sendAll(binding.outputTopic(), Flux.fromIterable(results), WindowResult::getKey)
+                    .doOnError(e -> logger.error("Failed to publish results for window {}", window, e))
+                    .subscribe();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Binding<T> bind(WindowProperties.Definition definition) {
+        Class<T> type = (Class<T>) TOPIC_TYPES.get(definition.getTopic());
+        if (type == null) {
+            throw new IllegalArgumentException("Window " + definition.getName()
+                    + " uses unsupported topic " + definition.getTopic());
+        }
+        Duration advance = definition.getAdvance() == null ? definition.getSize() : definition.getAdvance();
+        WindowAggregator aggregator = new WindowAggregator(definition.getName(), definition.getSize().toMillis(),
+                advance.toMillis(), definition.getAllowedLateness().toMillis());
+        return new Binding<>(type, definition.getTopic(),
+                new PropertyKeyExtractor<>(type, definition.getKeyField()), aggregator, definition.getOutputTopic());
+    }
+
+    @Override
+    public void destroy() {
+        idleTicker.shutdownNow();
+    }
+
+    private record Binding<T>(Class<T> type, String topic, KeyExtractor<T> keyExtractor,
+                              WindowAggregator aggregator, String outputTopic) {
+
+        List<WindowResult> add(Object value, long timestamp) {
+            return aggregator.add(keyExtractor.extractKey(type.cast(value)), timestamp);
+        }
+    }
+}
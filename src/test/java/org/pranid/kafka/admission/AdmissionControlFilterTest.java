@@ -0,0 +1,78 @@
+package org.pranid.kafka.admission;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.pranid.kafka.config.AdmissionProperties;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+@DisplayName("AdmissionControlFilter Unit Tests")
+class AdmissionControlFilterTest {
+
+    @Test
+    @DisplayName("Should ignore X-Forwarded-For from callers that are not trusted proxies")
+    void testIgnoresUntrustedForwardedFor() {
+        // Given
+        AdmissionControlFilter filter = filter(new AdmissionProperties());
+
+        // When
+        String clientId = filter.clientId(request("198.51.100.4", "203.0.113.9"));
+
+        // Then
+        assertEquals("198.51.100.4", clientId);
+    }
+
+    @Test
+    @DisplayName("Should take the nearest untrusted hop behind trusted proxies")
+    void testHonoursTrustedProxies() {
+        // Given
+        AdmissionProperties properties = new AdmissionProperties();
+        properties.setTrustedProxies(List.of("10.0.0.1", "10.0.0.2"));
+        AdmissionControlFilter filter = filter(properties);
+
+        // When
+        String clientId = filter.clientId(request("10.0.0.1", "1.2.3.4, 203.0.113.7, 10.0.0.2"));
+
+        // Then - the left-most hop was written by the client and is not trusted
+        assertEquals("203.0.113.7", clientId);
+    }
+
+    @Test
+    @DisplayName("Should keep only the most recently used client buckets")
+    void testBoundsClientBuckets() {
+        // Given
+        AdmissionProperties properties = new AdmissionProperties();
+        properties.setMaxTrackedClients(2);
+        AdmissionControlFilter filter = filter(properties);
+
+        // When
+        for (String client : List.of("198.51.100.1", "198.51.100.2", "198.51.100.3")) {
+            MockServerWebExchange exchange = MockServerWebExchange.from(request(client, null));
+            filter.filter(exchange, ignored -> Mono.empty()).block();
+        }
+
+        // Then
+        assertEquals(2, filter.trackedClients());
+    }
+
+    private static AdmissionControlFilter filter(AdmissionProperties properties) {
+        return new AdmissionControlFilter(properties, mock(PipelinePressureMonitor.class), new SimpleMeterRegistry());
+    }
+
+    private static MockServerHttpRequest request(String remoteAddress, String forwardedFor) {
+        MockServerHttpRequest.BaseBuilder<?> request = MockServerHttpRequest.post("/person/create-person/test")
+                .remoteAddress(new InetSocketAddress(remoteAddress, 40000));
+        if (forwardedFor != null) {
+            request.header("X-Forwarded-For", forwardedFor);
+        }
+        return request.build();
+    }
+}
@@ -0,0 +1,47 @@
+package org.pranid.kafka.admission;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("TokenBucket Unit Tests")
+class TokenBucketTest {
+
+    private final AtomicLong clock = new AtomicLong();
+
+    @Test
+    @DisplayName("Should allow the burst and then report the wait for the next token")
+    void testBurstThenWait() {
+        // Given
+        TokenBucket bucket = new TokenBucket(10, 3, clock::get);
+
+        // When & Then
+        assertEquals(0, bucket.tryAcquire());
+        assertEquals(0, bucket.tryAcquire());
+        assertEquals(0, bucket.tryAcquire());
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(100), bucket.tryAcquire(), TimeUnit.MICROSECONDS.toNanos(1));
+    }
+
+    @Test
+    @DisplayName("Should refill over time up to the burst capacity")
+    void testRefill() {
+        // Given
+        TokenBucket bucket = new TokenBucket(10, 2, clock::get);
+        bucket.tryAcquire();
+        bucket.tryAcquire();
+        assertFalse(bucket.isFull());
+
+        // When
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(5));
+
+        // Then
+        assertTrue(bucket.isFull());
+        assertEquals(0, bucket.tryAcquire());
+        assertEquals(0, bucket.tryAcquire());
+        assertTrue(bucket.tryAcquire() > 0);
+    }
+}
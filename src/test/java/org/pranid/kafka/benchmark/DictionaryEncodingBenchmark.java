@@ -0,0 +1,100 @@
+package org.pranid.kafka.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.pranid.kafka.converter.CodedJsonSerializer;
+import org.pranid.kafka.model.Person;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Measures what dictionary encoding saves when a million persons are held in memory: retained heap and the
+ * collections needed to build the cache, with {@code gender} deserialized as its own String per record versus
+ * the shared {@link org.pranid.kafka.model.Dictionary} instance, plus the bytes per record on the wire.
+ * Run with {@code ./gradlew benchmark --tests DictionaryEncodingBenchmark}.
+ */
+@Tag("benchmark")
+@DisplayName("Dictionary Encoding Benchmark")
+class DictionaryEncodingBenchmark {
+
+    private static final int RECORDS = 1_000_000;
+
+    /** Same shape as {@link Person} without dictionary encoding. */
+    static class PlainPerson {
+        public String name;
+        public String gender;
+        public int age;
+    }
+
+    @Test
+    @DisplayName("Compare heap, GC and wire size of plain and dictionary-encoded records")
+    void benchmarkCachedRecords() throws Exception {
+        ObjectMapper mapper = new ObjectMapper();
+        byte[][] payloads = new byte[RECORDS][];
+        for (int i = 0; i < RECORDS; i++) {
+            String gender = i % 2 == 0 ? "male" : "female";
+            payloads[i] = ("{\"name\":\"p" + i + "\",\"gender\":\"" + gender + "\",\"age\":" + (i % 90) + "}")
+                    .getBytes(StandardCharsets.UTF_8);
+        }
+
+        System.out.printf("%-12s %15s %10s %12s%n", "model", "retained MB", "gc count", "gc time ms");
+        measure("plain", payloads, mapper, PlainPerson.class);
+        measure("dictionary", payloads, mapper, Person.class);
+
+        CodedJsonSerializer<Person> plain = new CodedJsonSerializer<>();
+        plain.configure(Map.of(), false);
+        CodedJsonSerializer<Person> coded = new CodedJsonSerializer<>();
+        coded.configure(Map.of(CodedJsonSerializer.WIRE_CODES_CONFIG, "true"), false);
+        long plainBytes = 0;
+        long codedBytes = 0;
+        for (int i = 0; i < RECORDS; i += 100) {
+            Person person = mapper.readValue(payloads[i], Person.class);
+            plainBytes += plain.serialize("person", person).length;
+            codedBytes += coded.serialize("person", person).length;
+        }
+        System.out.printf("wire bytes/record: text %.1f, codes %.1f%n",
+                plainBytes / (RECORDS / 100.0), codedBytes / (RECORDS / 100.0));
+    }
+
+    private static void measure(String label, byte[][] payloads, ObjectMapper mapper, Class<?> type) throws Exception {
+        long before = retainedHeap();
+        long[] gcBefore = gcTotals();
+        List<Object> cache = new ArrayList<>(RECORDS);
+        for (byte[] payload : payloads) {
+            cache.add(mapper.readValue(payload, type));
+        }
+        long[] gcAfter = gcTotals();
+        long retained = retainedHeap() - before;
+        System.out.printf("%-12s %15.1f %10d %12d%n", label, retained / (1024.0 * 1024.0),
+                gcAfter[0] - gcBefore[0], gcAfter[1] - gcBefore[1]);
+        if (cache.size() != payloads.length) {
+            throw new IllegalStateException("cache lost records");
+        }
+    }
+
+    private static long retainedHeap() throws InterruptedException {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(100);
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static long[] gcTotals() {
+        long count = 0;
+        long time = 0;
+        for (GarbageCollectorMXBean bean : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(0, bean.getCollectionCount());
+            time += Math.max(0, bean.getCollectionTime());
+        }
+        return new long[]{count, time};
+    }
+}
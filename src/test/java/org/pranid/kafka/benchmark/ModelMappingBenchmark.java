@@ -0,0 +1,119 @@
+package org.pranid.kafka.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.bson.Document;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.pranid.kafka.model.Person;
+import org.pranid.kafka.model.PersonCodec;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Compares the hand-written {@link PersonCodec} with reflective mapping of an equivalent mutable bean, for JSON
+ * in both directions and for BSON documents. Reports records per second and bytes allocated per record.
+ * Run with {@code ./gradlew benchmark --tests ModelMappingBenchmark}.
+ */
+@Tag("benchmark")
+@DisplayName("Model Mapping Benchmark")
+class ModelMappingBenchmark {
+
+    private static final int RECORDS = 1_000_000;
+    private static final int ROUNDS = 3;
+
+    /** The previous model shape: no-arg constructor and setters, populated by reflection. */
+    public static class MutablePerson {
+        private String name;
+        private String gender;
+        private int age;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public String getGender() {
+            return gender;
+        }
+
+        public void setGender(String gender) {
+            this.gender = gender;
+        }
+
+        public int getAge() {
+            return age;
+        }
+
+        public void setAge(int age) {
+            this.age = age;
+        }
+    }
+
+    @FunctionalInterface
+    private interface Mapping {
+        Object apply(int i) throws Exception;
+    }
+
+    @Test
+    @DisplayName("Compare codec and reflective mapping throughput and allocations")
+    void benchmarkMapping() throws Exception {
+        ObjectMapper mapper = new ObjectMapper();
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        MappingMongoConverter converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.afterPropertiesSet();
+
+        byte[][] payloads = new byte[1024][];
+        Person[] persons = new Person[payloads.length];
+        MutablePerson[] beans = new MutablePerson[payloads.length];
+        Document[] documents = new Document[payloads.length];
+        for (int i = 0; i < payloads.length; i++) {
+            payloads[i] = ("{\"name\":\"Person_" + i + "\",\"gender\":\"" + (i % 2 == 0 ? "male" : "female")
+                    + "\",\"age\":" + (20 + i % 50) + "}").getBytes(StandardCharsets.UTF_8);
+            persons[i] = mapper.readValue(payloads[i], Person.class);
+            beans[i] = mapper.readValue(payloads[i], MutablePerson.class);
+            documents[i] = PersonCodec.toDocument(persons[i]);
+        }
+        int mask = payloads.length - 1;
+
+        System.out.printf("%-28s %15s %15s%n", "mapping", "rec/s", "bytes/rec");
+        run("json read, reflective bean", i -> mapper.readValue(payloads[i & mask], MutablePerson.class));
+        run("json read, record codec", i -> mapper.readValue(payloads[i & mask], Person.class));
+        run("json write, reflective bean", i -> mapper.writeValueAsBytes(beans[i & mask]));
+        run("json write, record codec", i -> mapper.writeValueAsBytes(persons[i & mask]));
+        run("bson read, mapped bean", i -> converter.read(MutablePerson.class, documents[i & mask]));
+        run("bson read, record codec", i -> PersonCodec.fromDocument(documents[i & mask]));
+        run("bson write, mapped bean", i -> {
+            Document document = new Document();
+            converter.write(beans[i & mask], document);
+            return document;
+        });
+        run("bson write, record codec", i -> PersonCodec.toDocument(persons[i & mask]));
+    }
+
+    private static void run(String label, Mapping mapping) throws Exception {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().threadId();
+        double best = 0;
+        long allocated = 0;
+        int sink = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            long allocatedBefore = threads.getThreadAllocatedBytes(thread);
+            long start = System.nanoTime();
+            for (int i = 0; i < RECORDS; i++) {
+                sink += System.identityHashCode(mapping.apply(i)) & 1;
+            }
+            long elapsed = System.nanoTime() - start;
+            allocated = threads.getThreadAllocatedBytes(thread) - allocatedBefore;
+            best = Math.max(best, RECORDS * 1e9 / elapsed);
+        }
+        System.out.printf("%-28s %15.0f %15.1f%s%n", label, best, (double) allocated / RECORDS, sink < 0 ? "!" : "");
+    }
+}
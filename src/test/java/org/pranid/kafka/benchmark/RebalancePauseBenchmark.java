@@ -0,0 +1,158 @@
+package org.pranid.kafka.benchmark;
+
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.admin.AdminClientConfig;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.CooperativeStickyAssignor;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.consumer.RangeAssignor;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.containers.KafkaContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Measures what a rolling restart of one group member costs the member that stays up. Two consumers share a
+ * topic while a producer keeps writing; the second one is closed and started again as a deploy would. The
+ * longest gap in the surviving consumer's processing is reported for eager range assignment with dynamic
+ * members, and for cooperative-sticky assignment with static membership ({@code kafka.rebalance}).
+ * Run with {@code ./gradlew benchmark --tests RebalancePauseBenchmark}.
+ */
+@Tag("benchmark")
+@Testcontainers
+@DisplayName("Rebalance Pause Benchmark")
+class RebalancePauseBenchmark {
+
+    private static final int PARTITIONS = 6;
+    private static final Duration RESTART_TIME = Duration.ofSeconds(3);
+    private static final Duration SETTLE_TIME = Duration.ofSeconds(10);
+
+    @Container
+    static KafkaContainer kafkaContainer = new KafkaContainer(DockerImageName.parse("confluentinc/cp-kafka:7.5.0"))
+            .withKraft();
+
+    @Test
+    @DisplayName("Compare the surviving member's pause during a restart of its peer")
+    void benchmarkRollingRestart() throws Exception {
+        System.out.printf("%-30s %15s%n", "mode", "max pause ms");
+        System.out.printf("%-30s %15d%n", "eager, dynamic members", run("eager", false));
+        System.out.printf("%-30s %15d%n", "cooperative, static members", run("cooperative", true));
+    }
+
+    private long run(String mode, boolean cooperativeStatic) throws Exception {
+        String topic = "rebalance-" + mode;
+        try (AdminClient admin = AdminClient.create(Map.of(
+                AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, kafkaContainer.getBootstrapServers()))) {
+            admin.createTopics(List.of(new NewTopic(topic, PARTITIONS, (short) 1))).all().get();
+        }
+
+        AtomicBoolean running = new AtomicBoolean(true);
+        Thread producer = new Thread(() -> produce(topic, running), "bench-producer");
+        producer.start();
+
+        Map<String, Object> survivorConfig = consumerConfig(topic, cooperativeStatic ? "a" : null, cooperativeStatic);
+        Map<String, Object> restartedConfig = consumerConfig(topic, cooperativeStatic ? "b" : null, cooperativeStatic);
+        PollingMember survivor = new PollingMember(survivorConfig, topic);
+        PollingMember restarted = new PollingMember(restartedConfig, topic);
+        Thread.sleep(SETTLE_TIME.toMillis());
+
+        survivor.maxGapNanos.set(0);
+        restarted.stop();
+        Thread.sleep(RESTART_TIME.toMillis());
+        restarted = new PollingMember(restartedConfig, topic);
+        Thread.sleep(SETTLE_TIME.toMillis());
+
+        long maxGap = survivor.maxGapNanos.get();
+        restarted.stop();
+        survivor.stop();
+        running.set(false);
+        producer.join();
+        return Duration.ofNanos(maxGap).toMillis();
+    }
+
+    private void produce(String topic, AtomicBoolean running) {
+        Map<String, Object> config = new HashMap<>();
+        config.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, kafkaContainer.getBootstrapServers());
+        config.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        config.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        try (KafkaProducer<String, String> producer = new KafkaProducer<>(config)) {
+            for (int i = 0; running.get(); i++) {
+                producer.send(new ProducerRecord<>(topic, i % PARTITIONS, "Person_" + i, "{}"));
+                if (i % PARTITIONS == 0) {
+                    Thread.sleep(1);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private Map<String, Object> consumerConfig(String topic, String instanceId, boolean cooperative) {
+        Map<String, Object> config = new HashMap<>();
+        config.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, kafkaContainer.getBootstrapServers());
+        config.put(ConsumerConfig.GROUP_ID_CONFIG, "bench-" + topic);
+        config.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        config.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        config.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "latest");
+        config.put(ConsumerConfig.PARTITION_ASSIGNMENT_STRATEGY_CONFIG,
+                (cooperative ? CooperativeStickyAssignor.class : RangeAssignor.class).getName());
+        if (instanceId != null) {
+            config.put(ConsumerConfig.GROUP_INSTANCE_ID_CONFIG, instanceId);
+            config.put(ConsumerConfig.SESSION_TIMEOUT_MS_CONFIG, 45_000);
+        }
+        return config;
+    }
+
+    /**
+     * Polls on its own thread and tracks the longest time between two polls that returned records.
+     */
+    private static final class PollingMember {
+
+        private final AtomicBoolean running = new AtomicBoolean(true);
+        private final AtomicLong maxGapNanos = new AtomicLong();
+        private final Thread thread;
+
+        PollingMember(Map<String, Object> config, String topic) {
+            this.thread = new Thread(() -> {
+                try (KafkaConsumer<String, String> consumer = new KafkaConsumer<>(config)) {
+                    consumer.subscribe(List.of(topic));
+                    long last = 0;
+                    while (running.get()) {
+                        ConsumerRecords<String, String> records = consumer.poll(Duration.ofMillis(100));
+                        if (records.isEmpty()) {
+                            continue;
+                        }
+                        long now = System.nanoTime();
+                        if (last != 0) {
+                            maxGapNanos.accumulateAndGet(now - last, Math::max);
+                        }
+                        last = now;
+                    }
+                }
+            }, "bench-member");
+            this.thread.start();
+        }
+
+        void stop() throws InterruptedException {
+            running.set(false);
+            thread.join();
+        }
+    }
+}
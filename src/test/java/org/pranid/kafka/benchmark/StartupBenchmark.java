@@ -0,0 +1,145 @@
+package org.pranid.kafka.benchmark;
+
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.pranid.kafka.model.Person;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+import org.testcontainers.containers.KafkaContainer;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Starts the packaged application as a separate JVM against real Kafka and MongoDB, and reports the time from
+ * JVM start to ready ({@code Started Application ... process running for}) and to the first consumed record.
+ * Compared: the extracted jar as is, with the Spring AOT initializers, and with AOT plus the CDS archive.
+ * Needs the fast-start build: run with {@code ./gradlew -PfastStart benchmark --tests StartupBenchmark}.
+ */
+@Tag("benchmark")
+@Testcontainers
+@DisplayName("Startup Benchmark")
+class StartupBenchmark {
+
+    private static final int RUNS = 3;
+    private static final long START_TIMEOUT_SECONDS = 120;
+    private static final Pattern READY = Pattern.compile("Started Application in .* \\(process running for ([0-9.]+)\\)");
+    private static final Pattern FIRST_RECORD = Pattern.compile("First record consumed from \\S+ ([0-9]+) ms after JVM start");
+
+    @Container
+    static MongoDBContainer mongoDBContainer = new MongoDBContainer(DockerImageName.parse("mongo:7.0.14"));
+
+    @Container
+    static KafkaContainer kafkaContainer = new KafkaContainer(DockerImageName.parse("confluentinc/cp-kafka:7.5.0"))
+            .withKraft();
+
+    @Test
+    @DisplayName("Compare time to ready and to the first consumed record")
+    void benchmarkStartup() throws Exception {
+        String dir = System.getProperty("fastStart.dir");
+        assumeTrue(dir != null && Files.exists(Path.of(dir, "application.jsa")),
+                "Run with -PfastStart so the AOT build and CDS archive exist");
+
+        System.out.printf("%-12s %15s %20s%n", "mode", "ready ms", "first record ms");
+        run(dir, "jar");
+        run(dir, "aot", "-Dspring.aot.enabled=true");
+        run(dir, "aot + cds", "-Dspring.aot.enabled=true", "-XX:SharedArchiveFile=application.jsa");
+    }
+
+    /**
+     * Reports the median of {@link #RUNS} starts. Each start finds one new person record waiting on the topic.
+     */
+    private void run(String dir, String mode, String... jvmArgs) throws Exception {
+        long[] ready = new long[RUNS];
+        long[] firstRecord = new long[RUNS];
+        for (int i = 0; i < RUNS; i++) {
+            produce("Startup_" + mode + "_" + i);
+            long[] timings = start(dir, jvmArgs);
+            ready[i] = timings[0];
+            firstRecord[i] = timings[1];
+        }
+        System.out.printf("%-12s %15d %20d%n", mode, median(ready), median(firstRecord));
+    }
+
+    private long[] start(String dir, String... jvmArgs) throws Exception {
+        List<String> command = new ArrayList<>();
+        command.add(ProcessHandle.current().info().command().orElse("java"));
+        command.addAll(Arrays.asList(jvmArgs));
+        command.addAll(List.of(
+                "-jar", System.getProperty("fastStart.jar"),
+                "--server.port=0",
+                "--spring.kafka.bootstrap-servers=" + kafkaContainer.getBootstrapServers(),
+                "--spring.data.mongodb.uri=" + mongoDBContainer.getReplicaSetUrl(),
+                "--state.directory=" + Files.createTempDirectory("startup-state")));
+        Process process = new ProcessBuilder(command)
+                .directory(Path.of(dir).toFile())
+                .redirectErrorStream(true)
+                .start();
+        try {
+            return CompletableFuture.supplyAsync(() -> readTimings(process))
+                    .get(START_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        }
+    }
+
+    private long[] readTimings(Process process) {
+        long ready = -1;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                Matcher matcher = READY.matcher(line);
+                if (matcher.find()) {
+                    ready = Math.round(Double.parseDouble(matcher.group(1)) * 1000);
+                }
+                matcher = FIRST_RECORD.matcher(line);
+                if (matcher.find()) {
+                    return new long[] {ready, Long.parseLong(matcher.group(1))};
+                }
+            }
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+        throw new IllegalStateException("Application exited before consuming a record");
+    }
+
+    private void produce(String name) throws Exception {
+        Map<String, Object> config = Map.of(
+                ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, kafkaContainer.getBootstrapServers(),
+                ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class,
+                ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class,
+                JsonSerializer.TYPE_MAPPINGS, "person:org.pranid.kafka.model.Person");
+        try (KafkaProducer<String, Object> producer = new KafkaProducer<>(config)) {
+            producer.send(new ProducerRecord<>("person", name, new Person(name, "male", 30))).get();
+        }
+    }
+
+    private static long median(long[] values) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+}
@@ -0,0 +1,132 @@
+package org.pranid.kafka.benchmark;
+
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.containers.KafkaContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Measures what exactly-once costs on the person -> person.created path.
+ * For each batch size the same consume-transform-produce loop runs once with a Kafka transaction
+ * per batch and once with plain sends plus a synchronous offset commit per batch.
+ * Run with {@code ./gradlew benchmark --tests TransactionalThroughputBenchmark}.
+ */
+@Tag("benchmark")
+@Testcontainers
+@DisplayName("Transactional Throughput Benchmark")
+class TransactionalThroughputBenchmark {
+
+    private static final int RECORDS = 20_000;
+    private static final List<Integer> BATCH_SIZES = List.of(1, 10, 100, 500, 1000);
+    private static final String PAYLOAD = "{\"name\":\"Person\",\"gender\":\"male\",\"age\":30}";
+
+    @Container
+    static KafkaContainer kafkaContainer = new KafkaContainer(DockerImageName.parse("confluentinc/cp-kafka:7.5.0"))
+            .withKraft();
+
+    @Test
+    @DisplayName("Compare transactional and at-least-once throughput per batch size")
+    void benchmarkBatchSizes() {
+        System.out.printf("%-10s %15s %15s %10s%n", "batch", "eos rec/s", "alo rec/s", "cost");
+        for (int batchSize : BATCH_SIZES) {
+            double transactional = run(batchSize, true);
+            double atLeastOnce = run(batchSize, false);
+            System.out.printf("%-10d %15.0f %15.0f %9.1f%%%n", batchSize, transactional, atLeastOnce,
+                    100.0 * (atLeastOnce - transactional) / atLeastOnce);
+        }
+    }
+
+    private double run(int batchSize, boolean transactional) {
+        String suffix = (transactional ? "eos-" : "alo-") + batchSize;
+        String input = "bench-in-" + suffix;
+        String output = "bench-out-" + suffix;
+        preload(input);
+
+        try (KafkaConsumer<String, String> consumer = new KafkaConsumer<>(consumerConfig(suffix, batchSize));
+             KafkaProducer<String, String> producer = new KafkaProducer<>(producerConfig(transactional ? suffix : null))) {
+            consumer.subscribe(List.of(input));
+            if (transactional) {
+                producer.initTransactions();
+            }
+
+            int processed = 0;
+            long start = System.nanoTime();
+            while (processed < RECORDS) {
+                ConsumerRecords<String, String> records = consumer.poll(Duration.ofMillis(500));
+                if (records.isEmpty()) {
+                    continue;
+                }
+                Map<TopicPartition, OffsetAndMetadata> offsets = new HashMap<>();
+                if (transactional) {
+                    producer.beginTransaction();
+                }
+                for (ConsumerRecord<String, String> record : records) {
+                    producer.send(new ProducerRecord<>(output, record.key(), record.value()));
+                    offsets.put(new TopicPartition(record.topic(), record.partition()),
+                            new OffsetAndMetadata(record.offset() + 1));
+                }
+                if (transactional) {
+                    producer.sendOffsetsToTransaction(offsets, consumer.groupMetadata());
+                    producer.commitTransaction();
+                } else {
+                    producer.flush();
+                    consumer.commitSync(offsets);
+                }
+                processed += records.count();
+            }
+            return processed / ((System.nanoTime() - start) / 1e9);
+        }
+    }
+
+    private void preload(String topic) {
+        try (KafkaProducer<String, String> producer = new KafkaProducer<>(producerConfig(null))) {
+            for (int i = 0; i < RECORDS; i++) {
+                producer.send(new ProducerRecord<>(topic, "Person_" + i, PAYLOAD));
+            }
+            producer.flush();
+        }
+    }
+
+    private Map<String, Object> producerConfig(String transactionalId) {
+        Map<String, Object> config = new HashMap<>();
+        config.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, kafkaContainer.getBootstrapServers());
+        config.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        config.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        if (transactionalId != null) {
+            config.put(ProducerConfig.TRANSACTIONAL_ID_CONFIG, "bench-" + transactionalId);
+        }
+        return config;
+    }
+
+    private Map<String, Object> consumerConfig(String groupSuffix, int batchSize) {
+        Map<String, Object> config = new HashMap<>();
+        config.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, kafkaContainer.getBootstrapServers());
+        config.put(ConsumerConfig.GROUP_ID_CONFIG, "bench-" + groupSuffix);
+        config.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        config.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        config.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        config.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        config.put(ConsumerConfig.ISOLATION_LEVEL_CONFIG, "read_committed");
+        config.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, batchSize);
+        return config;
+    }
+}
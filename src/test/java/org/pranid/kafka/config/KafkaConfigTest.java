@@ -0,0 +1,79 @@
+package org.pranid.kafka.config;
+
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.pranid.kafka.consumer.DrainingRebalanceListener;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.listener.CommonErrorHandler;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+@DisplayName("KafkaConfig Unit Tests")
+class KafkaConfigTest {
+
+    private final KafkaConfig config = new KafkaConfig();
+    private final DrainingRebalanceListener rebalanceListener = mock(DrainingRebalanceListener.class);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(config, "bootstrapServers", "localhost:9092");
+    }
+
+    @Test
+    @DisplayName("Should keep the drain listener and static membership off the shared multi-type factory")
+    void testSharedFactoryKeepsDefaults() {
+        // When
+        ConcurrentKafkaListenerContainerFactory<String, Object> factory =
+                config.multiTypeKafkaListenerContainerFactory(config.multiTypeConsumerFactory());
+
+        // Then
+        assertNull(factory.getContainerProperties().getConsumerRebalanceListener());
+        assertFalse(consumerConfig(factory).containsKey(ConsumerConfig.GROUP_INSTANCE_ID_CONFIG));
+    }
+
+    @Test
+    @DisplayName("Should give alienConsumer static membership, the error handler and the earliest offset reset")
+    void testAlienFactory() {
+        // Given
+        CommonErrorHandler errorHandler = mock(CommonErrorHandler.class);
+
+        // When
+        ConcurrentKafkaListenerContainerFactory<String, Object> factory =
+                config.alienKafkaListenerContainerFactory(rebalanceListener, rebalance(), errorHandler);
+
+        // Then
+        Map<String, Object> consumerConfig = consumerConfig(factory);
+        assertSame(rebalanceListener, factory.getContainerProperties().getConsumerRebalanceListener());
+        assertEquals("pod-0", consumerConfig.get(ConsumerConfig.GROUP_INSTANCE_ID_CONFIG));
+        assertEquals("earliest", consumerConfig.get(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG));
+        assertSame(errorHandler, factory.createContainer("alien").getCommonErrorHandler());
+    }
+
+    @Test
+    @DisplayName("Should give the multi-topic listener static membership and the drain listener")
+    void testMultiTopicFactory() {
+        // When
+        ConcurrentKafkaListenerContainerFactory<String, Object> factory =
+                config.multiTopicKafkaListenerContainerFactory(rebalanceListener, rebalance());
+
+        // Then
+        assertSame(rebalanceListener, factory.getContainerProperties().getConsumerRebalanceListener());
+        assertEquals("pod-0", consumerConfig(factory).get(ConsumerConfig.GROUP_INSTANCE_ID_CONFIG));
+    }
+
+    private static RebalanceProperties rebalance() {
+        RebalanceProperties rebalance = new RebalanceProperties();
+        rebalance.setInstanceId("pod-0");
+        return rebalance;
+    }
+
+    private static Map<String, Object> consumerConfig(ConcurrentKafkaListenerContainerFactory<String, Object> factory) {
+        return factory.getConsumerFactory().getConfigurationProperties();
+    }
+}
@@ -0,0 +1,56 @@
+package org.pranid.kafka.consumer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("InFlightPersists Unit Tests")
+class InFlightPersistsTest {
+
+    private final InFlightPersists inFlightPersists = new InFlightPersists(new SimpleMeterRegistry());
+
+    @Test
+    @DisplayName("Should count writes until they complete, fail or are cancelled")
+    void testTracking() {
+        // Given
+        Sinks.One<String> first = Sinks.one();
+        Sinks.One<String> second = Sinks.one();
+
+        // When
+        inFlightPersists.track(first.asMono()).subscribe();
+        inFlightPersists.track(second.asMono()).subscribe(v -> { }, e -> { });
+        Disposable third = inFlightPersists.track(Mono.never()).subscribe();
+
+        // Then
+        assertEquals(3, inFlightPersists.active());
+        first.tryEmitValue("saved");
+        second.tryEmitError(new IllegalStateException("write failed"));
+        third.dispose();
+        assertEquals(0, inFlightPersists.active());
+    }
+
+    @Test
+    @DisplayName("Should wait for in-flight writes up to the deadline")
+    void testAwaitIdle() throws InterruptedException {
+        // Given
+        Sinks.One<String> pending = Sinks.one();
+        inFlightPersists.track(pending.asMono()).subscribe();
+
+        // When
+        boolean timedOut = inFlightPersists.awaitIdle(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(20));
+        Mono.delay(Duration.ofMillis(20)).subscribe(tick -> pending.tryEmitValue("saved"));
+        boolean drained = inFlightPersists.awaitIdle(System.nanoTime() + TimeUnit.SECONDS.toNanos(5));
+
+        // Then
+        assertFalse(timedOut);
+        assertTrue(drained);
+    }
+}
@@ -0,0 +1,201 @@
+package org.pranid.kafka.consumer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.pranid.kafka.config.LaneProperties;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("LaneScheduler Unit Tests")
+class LaneSchedulerTest {
+
+    private final List<String> flow = new CopyOnWriteArrayList<>();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private LaneScheduler scheduler;
+
+    @AfterEach
+    void close() throws InterruptedException {
+        scheduler.close(Duration.ofSeconds(5));
+    }
+
+    @Test
+    @DisplayName("Should serve lanes by priority and weight while every lane makes progress")
+    void testWeightedRounds() throws InterruptedException {
+        // Given
+        scheduler = new LaneScheduler(properties(), recordingFlowControl(), meterRegistry);
+        List<String> handled = new CopyOnWriteArrayList<>();
+        CountDownLatch gate = blockDispatcher();
+
+        // When
+        for (int i = 0; i < 4; i++) {
+            int n = i;
+            scheduler.submit("bulk", 0, n, () -> handled.add("bulk" + n), () -> { });
+        }
+        for (int i = 0; i < 6; i++) {
+            int n = i;
+            scheduler.submit("person", 0, n, () -> handled.add("person" + n), () -> { });
+        }
+        gate.countDown();
+
+        // Then
+        assertTrue(scheduler.close(Duration.ofSeconds(5)));
+        assertEquals(List.of(
+                "person0", "person1", "person2", "bulk0",
+                "person3", "person4", "person5", "bulk1",
+                "bulk2", "bulk3"), handled);
+        assertEquals(4, meterRegistry.get("kafka.lanes.wait").tag("topic", "bulk").timer().count());
+    }
+
+    @Test
+    @DisplayName("Should pause a full lane's partition and resume it once half empty")
+    void testPauseAndResume() throws InterruptedException {
+        // Given
+        scheduler = new LaneScheduler(properties(), recordingFlowControl(), meterRegistry);
+        CountDownLatch gate = blockDispatcher();
+
+        // When
+        for (int i = 0; i < 4; i++) {
+            scheduler.submit("bulk", 2, i, () -> { }, () -> { });
+        }
+
+        // Then
+        assertEquals(List.of("pause bulk-2"), flow);
+        assertEquals(1, scheduler.pausedPartitions("bulk"));
+        assertEquals(4, scheduler.depth("bulk"));
+
+        gate.countDown();
+        assertTrue(scheduler.close(Duration.ofSeconds(5)));
+        assertEquals(List.of("pause bulk-2", "resume bulk-2"), flow);
+        assertEquals(0, scheduler.depth("bulk"));
+    }
+
+    @Test
+    @DisplayName("Should report idle only once queued and running records are handled")
+    void testAwaitIdle() throws InterruptedException {
+        // Given
+        scheduler = new LaneScheduler(properties(), recordingFlowControl(), meterRegistry);
+        CountDownLatch gate = blockDispatcher();
+        scheduler.submit("person", 0, 0, () -> { }, () -> { });
+
+        // When
+        boolean busy = scheduler.awaitIdle(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(20));
+        gate.countDown();
+        boolean idle = scheduler.awaitIdle(System.nanoTime() + TimeUnit.SECONDS.toNanos(5));
+
+        // Then
+        assertFalse(busy);
+        assertTrue(idle);
+        assertEquals(0, scheduler.depth("person"));
+    }
+
+    @Test
+    @DisplayName("Should acknowledge records only after their handler returned")
+    void testAcknowledgeAfterHandling() throws InterruptedException {
+        // Given
+        scheduler = new LaneScheduler(properties(), recordingFlowControl(), meterRegistry);
+        List<String> events = new CopyOnWriteArrayList<>();
+        CountDownLatch gate = blockDispatcher();
+
+        // When
+        for (int i = 0; i < 2; i++) {
+            int n = i;
+            scheduler.submit("person", 0, n, () -> events.add("handle " + n), () -> events.add("ack " + n));
+        }
+
+        // Then - nothing is acknowledged while the records wait in the lane
+        assertTrue(events.isEmpty());
+        gate.countDown();
+        assertTrue(scheduler.close(Duration.ofSeconds(5)));
+        assertEquals(List.of("handle 0", "ack 0", "handle 1", "ack 1"), events);
+    }
+
+    @Test
+    @DisplayName("Should hand a failed record back through a seek without acknowledging it or its successors")
+    void testFailedRecordFetchedAgain() throws InterruptedException {
+        // Given
+        scheduler = new LaneScheduler(properties(), recordingFlowControl(), meterRegistry);
+        List<String> acks = new CopyOnWriteArrayList<>();
+        CountDownLatch gate = blockDispatcher();
+        scheduler.submit("person", 0, 5, () -> acks.add("handle 5"), () -> acks.add("ack 5"));
+        scheduler.submit("person", 0, 6, () -> {
+            throw new IllegalStateException("boom");
+        }, () -> acks.add("ack 6"));
+        scheduler.submit("person", 0, 7, () -> acks.add("handle 7"), () -> acks.add("ack 7"));
+        scheduler.submit("person", 1, 3, () -> acks.add("handle 1/3"), () -> acks.add("ack 1/3"));
+
+        // When
+        gate.countDown();
+        assertTrue(scheduler.awaitIdle(System.nanoTime() + TimeUnit.SECONDS.toNanos(5)));
+
+        // Then - the other partition is unaffected
+        assertEquals(List.of("handle 5", "ack 5", "handle 1/3", "ack 1/3"), acks);
+        assertEquals(List.of("seek person-0@6"), flow);
+        assertEquals(1, meterRegistry.get("kafka.lanes.failures").tag("topic", "person").counter().count());
+
+        // Fetched before the seek took effect, dropped
+        assertTrue(scheduler.submit("person", 0, 8, () -> acks.add("handle 8"), () -> acks.add("ack 8")));
+        // Fetched again, left to the caller
+        assertFalse(scheduler.submit("person", 0, 6, () -> { }, () -> { }));
+        // Successors are queued again once the failed record was handed back
+        assertTrue(scheduler.submit("person", 0, 7, () -> acks.add("handle 7"), () -> acks.add("ack 7")));
+        assertTrue(scheduler.close(Duration.ofSeconds(5)));
+        assertEquals(List.of("handle 5", "ack 5", "handle 1/3", "ack 1/3", "handle 7", "ack 7"), acks);
+    }
+
+    private LaneProperties properties() {
+        LaneProperties properties = new LaneProperties();
+        LaneProperties.Lane person = new LaneProperties.Lane();
+        person.setWeight(3);
+        person.setPriority(1);
+        LaneProperties.Lane bulk = new LaneProperties.Lane();
+        bulk.setCapacity(4);
+        properties.getTopics().put("person", person);
+        properties.getTopics().put("bulk", bulk);
+        return properties;
+    }
+
+    private LaneScheduler.FlowControl recordingFlowControl() {
+        return new LaneScheduler.FlowControl() {
+            @Override
+            public void pause(String topic, int partition) {
+                flow.add("pause " + topic + "-" + partition);
+            }
+
+            @Override
+            public void resume(String topic, int partition) {
+                flow.add("resume " + topic + "-" + partition);
+            }
+
+            @Override
+            public void seek(String topic, int partition, long offset) {
+                flow.add("seek " + topic + "-" + partition + "@" + offset);
+            }
+        };
+    }
+
+    /**
+     * Occupies the dispatcher until the returned latch is released, so records can be queued deterministically.
+     */
+    private CountDownLatch blockDispatcher() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch gate = new CountDownLatch(1);
+        scheduler.submit("gate", 0, 0, () -> {
+            started.countDown();
+            try {
+                gate.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, () -> { });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        return gate;
+    }
+}
@@ -0,0 +1,65 @@
+package org.pranid.kafka.consumer;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.pranid.kafka.config.PassthroughProperties;
+import org.pranid.kafka.converter.JsonRawBsonConverter;
+import org.pranid.kafka.repository.RawDocumentRepository;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@DisplayName("PassthroughKafkaConsumer Unit Tests")
+class PassthroughKafkaConsumerTest {
+
+    private final RawDocumentRepository repository = mock(RawDocumentRepository.class);
+    private final PassthroughKafkaConsumer consumer =
+            new PassthroughKafkaConsumer(properties(), new JsonRawBsonConverter(), repository);
+
+    @Test
+    @DisplayName("Should return only after the batch is inserted")
+    void testWaitsForInsert() {
+        // Given
+        AtomicBoolean inserted = new AtomicBoolean();
+        when(repository.insertAll(eq("persons"), anyList())).thenReturn(
+                Mono.delay(Duration.ofMillis(50)).doOnNext(ignored -> inserted.set(true)).thenReturn(1));
+
+        // When
+        consumer.ingest(List.of(record("{\"name\":\"Ada\"}")));
+
+        // Then
+        assertTrue(inserted.get());
+    }
+
+    @Test
+    @DisplayName("Should fail the batch when an insert fails, so it is not committed")
+    void testInsertFailurePropagates() {
+        // Given
+        when(repository.insertAll(eq("persons"), anyList()))
+                .thenReturn(Mono.error(new IllegalStateException("primary stepped down")));
+
+        // When / Then
+        assertThrows(IllegalStateException.class, () -> consumer.ingest(List.of(record("{\"name\":\"Ada\"}"))));
+    }
+
+    private static PassthroughProperties properties() {
+        PassthroughProperties properties = new PassthroughProperties();
+        properties.setCollections(Map.of("person", "persons"));
+        return properties;
+    }
+
+    private static ConsumerRecord<String, byte[]> record(String json) {
+        return new ConsumerRecord<>("person", 0, 0, null, json.getBytes(StandardCharsets.UTF_8));
+    }
+}
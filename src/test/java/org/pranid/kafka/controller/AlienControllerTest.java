@@ -10,8 +10,10 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.pranid.kafka.model.Alien;
 import org.pranid.kafka.producer.AlienKafkaProducer;
 import org.pranid.kafka.service.AlienService;
+import org.springframework.kafka.support.SendResult;
 import org.springframework.test.web.reactive.server.WebTestClient;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
@@ -61,7 +63,8 @@ class AlienControllerTest {
     @DisplayName("Should send alien message with valid green color")
     void testSendAlienMessageGreen() {
         // Given
-        doNothing().when(alienKafkaProducer).sendAlienMessage(any(Alien.class));
+        SendResult<String, Object> sendResult = mock(SendResult.class);
+        when(alienKafkaProducer.sendAlienMessage(any(Alien.class))).thenReturn(Mono.just(sendResult));
 
         // When & Then
         webTestClient.get()
@@ -79,7 +82,8 @@ class AlienControllerTest {
     @DisplayName("Should send alien message with valid purple color")
     void testSendAlienMessagePurple() {
         // Given
-        doNothing().when(alienKafkaProducer).sendAlienMessage(any(Alien.class));
+        SendResult<String, Object> sendResult = mock(SendResult.class);
+        when(alienKafkaProducer.sendAlienMessage(any(Alien.class))).thenReturn(Mono.just(sendResult));
 
         // When & Then
         webTestClient.get()
@@ -111,8 +115,8 @@ class AlienControllerTest {
     @DisplayName("Should handle error when sending message")
     void testSendAlienMessageError() {
         // Given
-        doThrow(new RuntimeException("Kafka error"))
-                .when(alienKafkaProducer).sendAlienMessage(any(Alien.class));
+        when(alienKafkaProducer.sendAlienMessage(any(Alien.class)))
+                .thenReturn(Mono.error(new RuntimeException("Kafka error")));
 
         // When & Then
         webTestClient.get()
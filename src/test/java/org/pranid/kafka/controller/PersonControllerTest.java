@@ -8,13 +8,16 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.pranid.kafka.model.Person;
+import org.pranid.kafka.producer.KeyExtractor;
+import org.pranid.kafka.producer.ReactiveKafkaProducer;
 import org.pranid.kafka.service.PersonService;
-import org.springframework.kafka.core.KafkaTemplate;
+import org.pranid.kafka.stream.LiveFeeds;
+import org.pranid.kafka.stream.OverflowPolicy;
+import org.springframework.http.MediaType;
 import org.springframework.kafka.support.SendResult;
 import org.springframework.test.web.reactive.server.WebTestClient;
 import reactor.core.publisher.Flux;
-
-import java.util.concurrent.CompletableFuture;
+import reactor.core.publisher.Mono;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
@@ -25,11 +28,17 @@ import static org.mockito.Mockito.*;
 class PersonControllerTest {
 
     @Mock
-    private KafkaTemplate<Object, Object> kafkaTemplate;
+    private ReactiveKafkaProducer reactiveKafkaProducer;
 
     @Mock
     private PersonService personService;
 
+    @Mock
+    private KeyExtractor<Person> personKeyExtractor;
+
+    @Mock
+    private LiveFeeds liveFeeds;
+
     @InjectMocks
     private PersonController personController;
 
@@ -61,13 +70,31 @@ class PersonControllerTest {
         verify(personService, times(1)).getAllPersons();
     }
 
+    @Test
+    @DisplayName("Should stream consumed persons as NDJSON with the requested overflow policy")
+    void testStreamPersons() {
+        // Given
+        Person person2 = new Person("Jane", "female", 30);
+        when(liveFeeds.persons(OverflowPolicy.LATEST_ONLY)).thenReturn(Flux.just(testPerson, person2));
+
+        // When & Then
+        webTestClient.get()
+                .uri("/person/stream?overflow=LATEST_ONLY")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .expectBodyList(Person.class)
+                .contains(testPerson, person2);
+    }
+
     @Test
     @DisplayName("Should create person via Kafka successfully")
     void testCreatePerson() {
         // Given
-        SendResult<Object, Object> sendResult = mock(SendResult.class);
-        CompletableFuture<SendResult<Object, Object>> future = CompletableFuture.completedFuture(sendResult);
-        when(kafkaTemplate.send(anyString(), any())).thenReturn(future);
+        SendResult<String, Object> sendResult = mock(SendResult.class);
+        when(personKeyExtractor.extractKey(any(Person.class))).thenReturn("John");
+        when(reactiveKafkaProducer.send(anyString(), any(), any())).thenReturn(Mono.just(sendResult));
 
         // When & Then
         webTestClient.get()
@@ -78,16 +105,16 @@ class PersonControllerTest {
                 .jsonPath("$.status").isEqualTo("success")
                 .jsonPath("$.message").exists();
 
-        verify(kafkaTemplate, times(1)).send(eq("person"), any(Person.class));
+        verify(reactiveKafkaProducer, times(1)).send(eq("person"), eq("John"), any(Person.class));
     }
 
     @Test
     @DisplayName("Should handle Kafka error when creating person")
     void testCreatePersonError() {
         // Given
-        CompletableFuture<SendResult<Object, Object>> future = new CompletableFuture<>();
-        future.completeExceptionally(new RuntimeException("Kafka error"));
-        when(kafkaTemplate.send(anyString(), any())).thenReturn(future);
+        when(personKeyExtractor.extractKey(any(Person.class))).thenReturn("John");
+        when(reactiveKafkaProducer.send(anyString(), any(), any()))
+                .thenReturn(Mono.error(new RuntimeException("Kafka error")));
 
         // When & Then
         webTestClient.get()
@@ -98,6 +125,6 @@ class PersonControllerTest {
                 .jsonPath("$.status").isEqualTo("failure")
                 .jsonPath("$.message").value(msg -> msg.toString().contains("Failed to send message"));
 
-        verify(kafkaTemplate, times(1)).send(eq("person"), any(Person.class));
+        verify(reactiveKafkaProducer, times(1)).send(eq("person"), eq("John"), any(Person.class));
     }
 }
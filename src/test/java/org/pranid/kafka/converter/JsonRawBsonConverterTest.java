@@ -0,0 +1,52 @@
+package org.pranid.kafka.converter;
+
+import org.bson.RawBsonDocument;
+import org.bson.json.JsonParseException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("JsonRawBsonConverter Unit Tests")
+class JsonRawBsonConverterTest {
+
+    private final JsonRawBsonConverter converter = new JsonRawBsonConverter();
+
+    @Test
+    @DisplayName("Should convert JSON bytes into raw BSON")
+    void testConvert() {
+        // Given
+        byte[] json = "{\"name\":\"John\",\"gender\":\"male\",\"age\":25}".getBytes(StandardCharsets.UTF_8);
+
+        // When
+        RawBsonDocument document = converter.convert(json);
+
+        // Then
+        assertEquals("John", document.getString("name").getValue());
+        assertEquals(25, document.getInt32("age").getValue());
+    }
+
+    @Test
+    @DisplayName("Should report missing and null required fields")
+    void testMissingFields() {
+        // Given
+        RawBsonDocument document = converter.convert(
+                "{\"name\":\"Zorg\",\"color\":null}".getBytes(StandardCharsets.UTF_8));
+
+        // When
+        List<String> missing = converter.missingFields(document, List.of("name", "color", "planet"));
+
+        // Then
+        assertEquals(List.of("color", "planet"), missing);
+    }
+
+    @Test
+    @DisplayName("Should reject malformed JSON")
+    void testMalformedJson() {
+        assertThrows(JsonParseException.class,
+                () -> converter.convert("{\"name\":".getBytes(StandardCharsets.UTF_8)));
+    }
+}
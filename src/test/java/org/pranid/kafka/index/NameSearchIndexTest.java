@@ -0,0 +1,82 @@
+package org.pranid.kafka.index;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.pranid.kafka.config.NameSearchProperties;
+import org.pranid.kafka.repository.AlienRepository;
+import org.pranid.kafka.repository.PersonRepository;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@DisplayName("NameSearchIndex Unit Tests")
+class NameSearchIndexTest {
+
+    private NameSearchIndex index;
+
+    @AfterEach
+    void close() {
+        index.destroy();
+    }
+
+    @Test
+    @DisplayName("Should leave replayed records below the saving group's offsets to the seeded counts")
+    void testReplayOverlapCountedOnce() {
+        // Given - the saving group has handled person-0 up to offset 10, and the $group counts one Ada
+        PersonRepository personRepository = mock(PersonRepository.class);
+        when(personRepository.countByName()).thenReturn(Mono.just(Map.of("Ada", 1L)));
+        AlienRepository alienRepository = mock(AlienRepository.class);
+        when(alienRepository.countByName()).thenReturn(Mono.just(Map.of()));
+        SavedOffsets savedOffsets = mock(SavedOffsets.class);
+        when(savedOffsets.committed("person")).thenReturn(Mono.just(Map.of(0, 10L)));
+        when(savedOffsets.committed("alien")).thenReturn(Mono.just(Map.of()));
+        index = new NameSearchIndex(new NameSearchProperties(), personRepository, alienRepository, savedOffsets,
+                new SimpleMeterRegistry());
+
+        // When - read before seeding: the saved Ada, and one the group has not handled yet
+        index.recordPerson("Ada", 0, 4);
+        index.recordPerson("Ada", 0, 10);
+        index.seed();
+        // Read after seeding: a replayed record the $group covers, a new one, and one of an uncommitted partition
+        index.recordPerson("Ada", 0, 7);
+        index.recordPerson("Ada", 0, 11);
+        index.recordPerson("Alan", 1, 0);
+
+        // Then
+        await().atMost(Duration.ofSeconds(5)).untilAsserted(() -> assertEquals(
+                List.of(new NameMatch("Ada", 3), new NameMatch("Alan", 1)),
+                index.searchPersons("A", 10).collectList().block()));
+    }
+
+    @Test
+    @DisplayName("Should keep searching MongoDB and stop counting when the offsets cannot be read")
+    void testSeedFailure() {
+        // Given
+        PersonRepository personRepository = mock(PersonRepository.class);
+        when(personRepository.countByName()).thenReturn(Mono.just(Map.of("Ada", 1L)));
+        when(personRepository.topNamesByPrefix("A", 10)).thenReturn(Mono.just(Map.of("Ada", 5L)));
+        AlienRepository alienRepository = mock(AlienRepository.class);
+        when(alienRepository.countByName()).thenReturn(Mono.just(Map.of()));
+        SavedOffsets savedOffsets = mock(SavedOffsets.class);
+        when(savedOffsets.committed("person")).thenReturn(Mono.error(new IllegalStateException("no broker")));
+        when(savedOffsets.committed("alien")).thenReturn(Mono.just(Map.of()));
+        index = new NameSearchIndex(new NameSearchProperties(), personRepository, alienRepository, savedOffsets,
+                new SimpleMeterRegistry());
+
+        // When
+        index.seed();
+        index.recordPerson("Ada", 0, 11);
+
+        // Then
+        assertEquals(List.of(new NameMatch("Ada", 5)), index.searchPersons("A", 10).collectList().block());
+    }
+}
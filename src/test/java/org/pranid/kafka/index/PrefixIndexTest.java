@@ -0,0 +1,106 @@
+package org.pranid.kafka.index;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("PrefixIndex Unit Tests")
+class PrefixIndexTest {
+
+    @Test
+    @DisplayName("Should rank matches by count, then alphabetically, within the limit")
+    void testRanking() {
+        // Given
+        PrefixIndex index = new PrefixIndex(100, Runnable::run);
+        index.load(Map.of("John", 5L, "Joan", 5L, "Joe", 9L, "Jim", 20L, "Johanna", 1L));
+
+        // When
+        List<NameMatch> matches = index.search("Jo", 3);
+
+        // Then
+        assertEquals(List.of(new NameMatch("Joe", 9), new NameMatch("Joan", 5), new NameMatch("John", 5)), matches);
+    }
+
+    @Test
+    @DisplayName("Should keep names recorded before loading until the load replaces the base")
+    void testNoMergeBeforeLoad() {
+        // Given
+        PrefixIndex index = new PrefixIndex(2, Runnable::run);
+
+        // When - enough records to reach the merge threshold arrive before loading
+        index.record("Zorg");
+        index.record("Zap");
+        index.record("Zap");
+        index.load(Map.of("Zorg", 4L));
+
+        // Then
+        assertEquals(List.of(new NameMatch("Zorg", 5), new NameMatch("Zap", 2)), index.search("Z", 10));
+    }
+
+    @Test
+    @DisplayName("Should combine recorded names with loaded ones before and after merging")
+    void testRecordAndMerge() {
+        // Given
+        PrefixIndex index = new PrefixIndex(3, Runnable::run);
+        index.load(Map.of("Zorg", 2L, "Zap", 1L));
+
+        // When - two records stay in the delta
+        index.record("Zap");
+        index.record("Zed");
+
+        // Then
+        assertEquals(List.of(new NameMatch("Zap", 2), new NameMatch("Zorg", 2), new NameMatch("Zed", 1)),
+                index.search("Z", 10));
+
+        // When - the third distinct name triggers a merge into the front-coded base
+        index.record("Zed");
+        index.record("Zyx");
+
+        // Then
+        assertEquals(List.of(new NameMatch("Zap", 2), new NameMatch("Zed", 2), new NameMatch("Zorg", 2),
+                new NameMatch("Zyx", 1)), index.search("Z", 10));
+        assertEquals(4, index.size());
+    }
+
+    @Test
+    @DisplayName("Should match a brute-force search across many front-coded blocks")
+    void testAgainstBruteForce() {
+        // Given - names sharing long prefixes, with skewed counts so block skipping kicks in
+        Random random = new Random(42);
+        Map<String, Long> loaded = new HashMap<>();
+        for (int i = 0; i < 5000; i++) {
+            loaded.merge("Person_" + random.nextInt(3000), (long) random.nextInt(50) + 1, Long::sum);
+        }
+        PrefixIndex index = new PrefixIndex(1000, Runnable::run);
+        index.load(loaded);
+        Map<String, Long> expected = new HashMap<>(loaded);
+        for (int i = 0; i < 200; i++) {
+            String name = "Person_" + random.nextInt(4000);
+            index.record(name);
+            expected.merge(name, 1L, Long::sum);
+        }
+
+        for (String prefix : List.of("", "P", "Person_1", "Person_29", "Person_3999", "Q")) {
+            // When
+            List<NameMatch> matches = index.search(prefix, 10);
+
+            // Then
+            List<NameMatch> bruteForce = expected.entrySet().stream()
+                    .filter(entry -> entry.getKey().startsWith(prefix))
+                    .map(entry -> new NameMatch(entry.getKey(), entry.getValue()))
+                    .sorted(Comparator.comparingLong(NameMatch::count).reversed().thenComparing(NameMatch::name))
+                    .limit(10)
+                    .toList();
+            assertEquals(bruteForce, matches, "prefix " + prefix);
+        }
+        assertTrue(index.memoryBytes() > 0);
+    }
+}
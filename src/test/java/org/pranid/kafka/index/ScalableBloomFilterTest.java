@@ -0,0 +1,74 @@
+package org.pranid.kafka.index;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("ScalableBloomFilter Unit Tests")
+class ScalableBloomFilterTest {
+
+    @Test
+    @DisplayName("Should never report an added name as missing, even after growing")
+    void testNoFalseNegatives() {
+        // Given - far more names than the first slice holds
+        ScalableBloomFilter filter = new ScalableBloomFilter(1000, 0.01, 2, 0.8);
+
+        // When
+        for (int i = 0; i < 20_000; i++) {
+            filter.add("name-" + i);
+        }
+
+        // Then
+        for (int i = 0; i < 20_000; i++) {
+            assertTrue(filter.mightContain("name-" + i));
+        }
+        assertTrue(filter.sliceCount() > 1);
+    }
+
+    @Test
+    @DisplayName("Should keep the false-positive rate below the target after growing")
+    void testFalsePositiveRate() {
+        // Given
+        ScalableBloomFilter filter = new ScalableBloomFilter(1000, 0.01, 2, 0.8);
+        for (int i = 0; i < 20_000; i++) {
+            filter.add("name-" + i);
+        }
+
+        // When
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain("other-" + i)) {
+                falsePositives++;
+            }
+        }
+
+        // Then
+        assertTrue(falsePositives < 1000, "observed " + falsePositives + " false positives in 100000");
+        assertTrue(filter.expectedFalsePositiveRate() < 0.01);
+    }
+
+    @Test
+    @DisplayName("Should not count a repeated name twice")
+    void testRepeatedNames() {
+        // Given
+        ScalableBloomFilter filter = new ScalableBloomFilter(100, 0.01, 2, 0.8);
+
+        // When
+        assertTrue(filter.add("Zorg"));
+        assertFalse(filter.add("Zorg"));
+
+        // Then
+        assertEquals(1, filter.size());
+        assertFalse(filter.mightContain("Blorp"));
+    }
+
+    @Test
+    @DisplayName("Should reject a false-positive rate outside (0, 1)")
+    void testInvalidRate() {
+        assertThrows(IllegalArgumentException.class, () -> new ScalableBloomFilter(100, 1.0, 2, 0.8));
+    }
+}
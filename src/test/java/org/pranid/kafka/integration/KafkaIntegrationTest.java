@@ -52,7 +52,7 @@ class KafkaIntegrationTest extends AbstractIntegrationTest {
         await().atMost(Duration.ofSeconds(5))
                 .untilAsserted(() -> {
                     StepVerifier.create(personService.getAllPersons()
-                                    .filter(p -> p.getName().equals("Integration Test Person")))
+                                    .filter(p -> p.name().equals("Integration Test Person")))
                             .expectNextCount(1)
                             .verifyComplete();
                 });
@@ -66,13 +66,13 @@ class KafkaIntegrationTest extends AbstractIntegrationTest {
         Alien alien = new Alien("Test Alien", "green");
 
         // When - Send message to Kafka
-        alienKafkaProducer.sendAlienMessage(alien);
+        alienKafkaProducer.sendAlienMessage(alien).block();
 
         // Then - Wait for message to be consumed and saved to MongoDB
         await().atMost(Duration.ofSeconds(5))
                 .untilAsserted(() -> {
                     StepVerifier.create(alienService.getAllAliens()
-                                    .filter(a -> a.getName().equals("Test Alien")))
+                                    .filter(a -> a.name().equals("Test Alien")))
                             .expectNextCount(1)
                             .verifyComplete();
                 });
@@ -96,7 +96,7 @@ class KafkaIntegrationTest extends AbstractIntegrationTest {
         await().atMost(Duration.ofSeconds(8))
                 .untilAsserted(() -> {
                     StepVerifier.create(personService.getAllPersons()
-                                    .filter(p -> p.getName().startsWith("Bulk Test")))
+                                    .filter(p -> p.name().startsWith("Bulk Test")))
                             .expectNextCount(3)
                             .verifyComplete();
                 });
@@ -111,16 +111,16 @@ class KafkaIntegrationTest extends AbstractIntegrationTest {
         Alien purpleAlien = new Alien("Purple Alien", "purple");
 
         // When
-        alienKafkaProducer.sendAlienMessage(greenAlien);
-        alienKafkaProducer.sendAlienMessage(purpleAlien);
+        alienKafkaProducer.sendAlienMessage(greenAlien).block();
+        alienKafkaProducer.sendAlienMessage(purpleAlien).block();
 
         // Then
         await().atMost(Duration.ofSeconds(8))
                 .untilAsserted(() -> {
                     StepVerifier.create(alienService.getAllAliens()
-                                    .filter(a -> a.getName().contains("Alien")))
-                            .expectNextMatches(a -> a.getColor().equals("green") || a.getColor().equals("purple"))
-                            .expectNextMatches(a -> a.getColor().equals("green") || a.getColor().equals("purple"))
+                                    .filter(a -> a.name().contains("Alien")))
+                            .expectNextMatches(a -> a.color().equals("green") || a.color().equals("purple"))
+                            .expectNextMatches(a -> a.color().equals("green") || a.color().equals("purple"))
                             .verifyComplete();
                 });
     }
@@ -9,10 +9,13 @@ import org.pranid.kafka.model.Person;
 import org.pranid.kafka.repository.AlienRepository;
 import org.pranid.kafka.repository.PersonRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.BulkOperations;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
+import java.util.Map;
+
 /**
  * Integration tests for MongoDB repository operations.
  * Tests CRUD operations with actual MongoDB container.
@@ -45,21 +48,21 @@ class MongoDBIntegrationTest extends AbstractIntegrationTest {
         Person person = new Person("MongoDB Test Person", "male", 40);
 
         // When
-        Mono<Person> insertedPerson = personRepository.insertPerson(person);
+        Mono<Person> insertedPerson = personRepository.insert(person);
 
         // Then
         StepVerifier.create(insertedPerson)
                 .expectNextMatches(p ->
-                        p.getName().equals("MongoDB Test Person") &&
-                        p.getGender().equals("male") &&
-                        p.getAge() == 40
+                        p.name().equals("MongoDB Test Person") &&
+                        p.gender().equals("male") &&
+                        p.age() == 40
                 )
                 .verifyComplete();
 
         // Verify retrieval
         Flux<Person> allPersons = personRepository.findAll();
         StepVerifier.create(allPersons)
-                .expectNextMatches(p -> p.getName().equals("MongoDB Test Person"))
+                .expectNextMatches(p -> p.name().equals("MongoDB Test Person"))
                 .thenCancel()
                 .verify();
     }
@@ -71,38 +74,75 @@ class MongoDBIntegrationTest extends AbstractIntegrationTest {
         Alien alien = new Alien("MongoDB Test Alien", "purple");
 
         // When
-        Mono<Alien> insertedAlien = alienRepository.insertAlien(alien);
+        Mono<Alien> insertedAlien = alienRepository.insert(alien);
 
         // Then
         StepVerifier.create(insertedAlien)
                 .expectNextMatches(a ->
-                        a.getName().equals("MongoDB Test Alien") &&
-                        a.getColor().equals("purple")
+                        a.name().equals("MongoDB Test Alien") &&
+                        a.color().equals("purple")
                 )
                 .verifyComplete();
 
         // Verify retrieval
         Flux<Alien> allAliens = alienRepository.findAll();
         StepVerifier.create(allAliens)
-                .expectNextMatches(a -> a.getName().equals("MongoDB Test Alien"))
+                .expectNextMatches(a -> a.name().equals("MongoDB Test Alien"))
                 .thenCancel()
                 .verify();
     }
 
+    @Test
+    @DisplayName("Should read a person's own writes through causally consistent sessions")
+    void testReadYourWrites() {
+        // Given - the Testcontainers MongoDB is a single-node replica set, so sessions are available
+        personRepository.upsertAll(Map.of("causal-1", new Person("Causal", "female", 30)),
+                BulkOperations.BulkMode.UNORDERED).block();
+
+        // When
+        Mono<Person> updatedThenRead = personRepository.updateFields("causal-1", Map.of("age", 31))
+                .then(personRepository.findById("causal-1"));
+
+        // Then
+        StepVerifier.create(updatedThenRead)
+                .expectNextMatches(p -> p.age() == 31)
+                .verifyComplete();
+
+        StepVerifier.create(personRepository.deleteById("causal-1").then(personRepository.findById("causal-1")))
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Should leave negative ages out of the top age range")
+    void testNegativeAgeNotInTopRange() {
+        // Given
+        long before = personRepository.countByAgeRange(10, 120).block().getOrDefault("120+", 0L);
+
+        // When
+        personRepository.upsertAll(Map.of("negative-age-1", new Person("Negative Age", "female", -5)),
+                BulkOperations.BulkMode.UNORDERED).block();
+
+        // Then
+        StepVerifier.create(personRepository.countByAgeRange(10, 120))
+                .expectNextMatches(counts -> counts.getOrDefault("120+", 0L) == before)
+                .verifyComplete();
+
+        personRepository.deleteById("negative-age-1").block();
+    }
+
     @Test
     @DisplayName("Should update Person in MongoDB")
     void testPersonUpdate() {
         // Given
         Person person = new Person("Update Test", "male", 25);
-        Person savedPerson = personRepository.insertPerson(person).block();
+        Person savedPerson = personRepository.insert(person).block();
 
         // When - Update age
-        savedPerson.setAge(30);
-        Mono<Person> updatedPerson = personRepository.updatePerson(savedPerson);
+        Mono<Person> updatedPerson = personRepository.save(new Person(savedPerson.name(), savedPerson.gender(), 30));
 
         // Then
         StepVerifier.create(updatedPerson)
-                .expectNextMatches(p -> p.getAge() == 30)
+                .expectNextMatches(p -> p.age() == 30)
                 .verifyComplete();
     }
 
@@ -111,15 +151,14 @@ class MongoDBIntegrationTest extends AbstractIntegrationTest {
     void testAlienUpdate() {
         // Given
         Alien alien = new Alien("Update Alien", "green");
-        Alien savedAlien = alienRepository.insertAlien(alien).block();
+        Alien savedAlien = alienRepository.insert(alien).block();
 
         // When - Update color
-        savedAlien.setColor("purple");
-        Mono<Alien> updatedAlien = alienRepository.updateAlien(savedAlien);
+        Mono<Alien> updatedAlien = alienRepository.save(new Alien(savedAlien.name(), "purple"));
 
         // Then
         StepVerifier.create(updatedAlien)
-                .expectNextMatches(a -> a.getColor().equals("purple"))
+                .expectNextMatches(a -> a.color().equals("purple"))
                 .verifyComplete();
     }
 
@@ -133,9 +172,9 @@ class MongoDBIntegrationTest extends AbstractIntegrationTest {
 
         // When
         Flux<Person> insertedPersons = Flux.concat(
-                personRepository.insertPerson(person1),
-                personRepository.insertPerson(person2),
-                personRepository.insertPerson(person3)
+                personRepository.insert(person1),
+                personRepository.insert(person2),
+                personRepository.insert(person3)
         );
 
         // Then
@@ -145,7 +184,7 @@ class MongoDBIntegrationTest extends AbstractIntegrationTest {
 
         // Verify all are in database
         Flux<Person> allPersons = personRepository.findAll()
-                .filter(p -> p.getName().startsWith("Batch"));
+                .filter(p -> p.name().startsWith("Batch"));
 
         StepVerifier.create(allPersons)
                 .expectNextCount(3)
@@ -161,8 +200,8 @@ class MongoDBIntegrationTest extends AbstractIntegrationTest {
 
         // When
         Flux<Alien> insertedAliens = Flux.concat(
-                alienRepository.insertAlien(alien1),
-                alienRepository.insertAlien(alien2)
+                alienRepository.insert(alien1),
+                alienRepository.insert(alien2)
         );
 
         // Then
@@ -172,7 +211,7 @@ class MongoDBIntegrationTest extends AbstractIntegrationTest {
 
         // Verify all are in database
         Flux<Alien> allAliens = alienRepository.findAll()
-                .filter(a -> a.getName().startsWith("Batch Alien"));
+                .filter(a -> a.name().startsWith("Batch Alien"));
 
         StepVerifier.create(allAliens)
                 .expectNextCount(2)
@@ -184,7 +223,7 @@ class MongoDBIntegrationTest extends AbstractIntegrationTest {
     void testEmptyResults() {
         // When - Query for non-existent data
         Flux<Person> persons = personRepository.findAll()
-                .filter(p -> p.getName().equals("NonExistent"));
+                .filter(p -> p.name().equals("NonExistent"));
 
         // Then
         StepVerifier.create(persons)
@@ -0,0 +1,54 @@
+package org.pranid.kafka.metrics;
+
+import org.bson.BsonDocument;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("CommandShapes Unit Tests")
+class CommandShapesTest {
+
+    @Test
+    @DisplayName("Should replace values and drop session bookkeeping")
+    void testFindShape() {
+        // Given
+        BsonDocument command = BsonDocument.parse("""
+                {"find": "persons", "filter": {"name": "John", "age": {"$gte": 18}}, "limit": 10,
+                 "lsid": {"id": "abc"}, "$db": "java-springboot-kafka"}
+                """);
+
+        // When
+        String shape = CommandShapes.shape(command, 512);
+
+        // Then
+        assertEquals("{find: \"persons\", filter: {name: ?, age: {$gte: ?}}, limit: ?}", shape);
+        assertEquals("persons", CommandShapes.collection(command, "find"));
+    }
+
+    @Test
+    @DisplayName("Should collapse bulk payloads and scalar arrays")
+    void testBulkShape() {
+        // Given
+        BsonDocument command = BsonDocument.parse("""
+                {"insert": "aliens", "ordered": false, "documents": [
+                    {"name": "a"}, {"name": "b"}, {"name": "c"}, {"name": "d"}, {"name": "e"}, {"name": "f"}],
+                 "tags": ["x", "y"]}
+                """);
+
+        // When
+        String shape = CommandShapes.shape(command, 512);
+
+        // Then
+        assertEquals("{insert: \"aliens\", ordered: ?, documents: [{name: ?}, {name: ?}, {name: ?}, {name: ?}, "
+                + "{name: ?}, … 6 total], tags: [? × 2]}", shape);
+    }
+
+    @Test
+    @DisplayName("Should resolve the collection of getMore and ignore database commands")
+    void testCollection() {
+        assertEquals("persons", CommandShapes.collection(
+                BsonDocument.parse("{\"getMore\": 1, \"collection\": \"persons\"}"), "getMore"));
+        assertNull(CommandShapes.collection(BsonDocument.parse("{\"aggregate\": 1}"), "aggregate"));
+    }
+}
@@ -0,0 +1,78 @@
+package org.pranid.kafka.metrics;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("HeavyHitters Unit Tests")
+class HeavyHittersTest {
+
+    @Test
+    @DisplayName("Should report the hottest keys first among many cold ones")
+    void testFindsHotKeys() {
+        // Given
+        HeavyHitters hitters = new HeavyHitters(3, 1024, 4);
+
+        // When - two hot keys interleaved with 5000 distinct cold keys
+        for (int i = 0; i < 5000; i++) {
+            hitters.add("cold-" + i);
+            if (i % 5 == 0) {
+                hitters.add("hot");
+            }
+            if (i % 10 == 0) {
+                hitters.add("warm");
+            }
+        }
+
+        // Then
+        List<HeavyHitters.Entry> top = hitters.top();
+        assertEquals("hot", top.get(0).key());
+        assertEquals("warm", top.get(1).key());
+        assertTrue(top.get(0).count() >= 1000, "count-min never undercounts");
+        assertEquals(6500, hitters.total());
+    }
+
+    @Test
+    @DisplayName("Should never estimate below the true count")
+    void testNeverUndercounts() {
+        // Given - a sketch far too small for the keys, so collisions are certain
+        CountMinSketch sketch = new CountMinSketch(16, 2);
+
+        // When
+        for (int i = 0; i < 100; i++) {
+            for (int j = 0; j <= i % 7; j++) {
+                sketch.add("key-" + i);
+            }
+        }
+
+        // Then
+        for (int i = 0; i < 100; i++) {
+            assertTrue(sketch.estimate("key-" + i) >= i % 7 + 1);
+        }
+    }
+
+    @Test
+    @DisplayName("Should let a key that cooled down fall out after decay")
+    void testDecay() {
+        // Given
+        HeavyHitters hitters = new HeavyHitters(1, 256, 4);
+        for (int i = 0; i < 8; i++) {
+            hitters.add("old");
+        }
+
+        // When
+        for (int i = 0; i < 3; i++) {
+            hitters.decay();
+        }
+        hitters.add("new");
+        hitters.add("new");
+
+        // Then
+        assertEquals("new", hitters.top().get(0).key());
+        assertEquals(1, hitters.top().size());
+    }
+}
@@ -0,0 +1,70 @@
+package org.pranid.kafka.metrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.pranid.kafka.config.HotKeyProperties;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@DisplayName("PartitionSkewProducerListener Unit Tests")
+class PartitionSkewProducerListenerTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final HotKeyTracker hotKeyTracker = new HotKeyTracker(new HotKeyProperties(), meterRegistry);
+    private final CountDownLatch metadataAvailable = new CountDownLatch(1);
+    private PartitionSkewProducerListener listener;
+
+    @AfterEach
+    void close() {
+        metadataAvailable.countDown();
+        listener.destroy();
+        hotKeyTracker.destroy();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    @DisplayName("Should serve the skew gauge from cached partition counts while metadata is still being fetched")
+    void testScrapeDoesNotWaitOnMetadata() {
+        // Given
+        KafkaTemplate<Object, Object> template = mock(KafkaTemplate.class);
+        when(template.partitionsFor("t")).thenAnswer(invocation -> {
+            metadataAvailable.await();
+            return Collections.nCopies(4, new PartitionInfo("t", 0, null, null, null));
+        });
+        ObjectProvider<KafkaTemplate<Object, Object>> provider = mock(ObjectProvider.class);
+        when(provider.getIfAvailable()).thenReturn(template);
+        listener = new PartitionSkewProducerListener(meterRegistry, provider, hotKeyTracker);
+
+        // When
+        for (int partition : List.of(0, 0, 1)) {
+            listener.onSuccess(new ProducerRecord<>("t", "key", "value"), metadata(partition));
+        }
+
+        // Then - the highest partition seen stands in for the count until the lookup completes
+        double gauge = meterRegistry.get("kafka.producer.partition.skew").tag("topic", "t").gauge().value();
+        assertEquals(4.0 / 3, gauge, 1e-9);
+
+        metadataAvailable.countDown();
+        await().atMost(Duration.ofSeconds(5)).until(() -> Math.abs(listener.skew("t") - 8.0 / 3) < 1e-9);
+    }
+
+    private static RecordMetadata metadata(int partition) {
+        return new RecordMetadata(new TopicPartition("t", partition), 0, 0, 0, 0, 0);
+    }
+}
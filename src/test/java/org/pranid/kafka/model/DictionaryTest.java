@@ -0,0 +1,78 @@
+package org.pranid.kafka.model;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.pranid.kafka.converter.CodedJsonSerializer;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Dictionary Tests")
+class DictionaryTest {
+
+    @Test
+    @DisplayName("Should share one instance per value and stop adding when full")
+    void testCanonicalInstances() {
+        // Given
+        Dictionary dictionary = new Dictionary("a");
+
+        // When
+        String first = dictionary.canonical(new String("b"));
+        String second = dictionary.canonical(new String("b"));
+        for (int i = 0; i < Dictionary.CAPACITY; i++) {
+            dictionary.canonical("v" + i);
+        }
+        String overflow = new String("overflow");
+
+        // Then
+        assertSame(first, second);
+        assertTrue(dictionary.isStable(dictionary.code("a")));
+        assertFalse(dictionary.isStable(dictionary.code("b")));
+        assertSame(overflow, dictionary.canonical(overflow));
+        assertEquals(-1, dictionary.code("overflow"));
+        assertNull(dictionary.canonical(null));
+    }
+
+    @Test
+    @DisplayName("Should canonicalize fields set through constructors and JSON")
+    void testModelsUseCanonicalInstances() {
+        // Given
+        JsonDeserializer<Person> deserializer = new JsonDeserializer<>(Person.class, false);
+        byte[] json = "{\"name\":\"Ann\",\"gender\":\"female\",\"age\":30}".getBytes(StandardCharsets.UTF_8);
+
+        // When
+        Person fromJson = deserializer.deserialize("person", json);
+        Person constructed = new Person("Bob", new String("female"), 40);
+
+        // Then
+        assertSame(fromJson.gender(), constructed.gender());
+        assertSame(Dictionary.PERSON_GENDERS.canonical("female"), fromJson.gender());
+    }
+
+    @Test
+    @DisplayName("Should write stable codes on the wire only when enabled and read both forms")
+    void testWireCodes() {
+        // Given
+        Alien alien = new Alien("Zorg", "purple");
+        Alien custom = new Alien("Blip", "teal");
+        CodedJsonSerializer<Alien> plain = new CodedJsonSerializer<>();
+        plain.configure(Map.of(), false);
+        CodedJsonSerializer<Alien> coded = new CodedJsonSerializer<>();
+        coded.configure(Map.of(CodedJsonSerializer.WIRE_CODES_CONFIG, "true"), false);
+        JsonDeserializer<Alien> deserializer = new JsonDeserializer<>(Alien.class, false);
+
+        // When
+        String plainJson = new String(plain.serialize("alien", alien), StandardCharsets.UTF_8);
+        byte[] codedBytes = coded.serialize("alien", alien);
+        String customJson = new String(coded.serialize("alien", custom), StandardCharsets.UTF_8);
+
+        // Then
+        assertTrue(plainJson.contains("\"color\":\"purple\""));
+        assertTrue(new String(codedBytes, StandardCharsets.UTF_8).contains("\"color\":1"));
+        assertTrue(customJson.contains("\"color\":\"teal\""));
+        assertSame(alien.color(), deserializer.deserialize("alien", codedBytes).color());
+    }
+}
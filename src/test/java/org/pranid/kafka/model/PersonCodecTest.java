@@ -0,0 +1,70 @@
+package org.pranid.kafka.model;
+
+import org.bson.Document;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Model Codec Tests")
+class PersonCodecTest {
+
+    @Test
+    @DisplayName("Should round-trip persons, aliens and pets through the Kafka JSON serializers")
+    void testJsonRoundTrip() {
+        // Given
+        JsonSerializer<Object> serializer = new JsonSerializer<>();
+        Person person = new Person("Ann", "female", 30);
+        Alien alien = new Alien("Zorg", null);
+        Pet pet = new Pet("Rex", 3);
+
+        // When
+        byte[] personJson = serializer.serialize("person", person);
+        byte[] alienJson = serializer.serialize("alien", alien);
+        byte[] petJson = serializer.serialize("pet", pet);
+
+        // Then
+        assertEquals("{\"name\":\"Ann\",\"gender\":\"female\",\"age\":30}",
+                new String(personJson, StandardCharsets.UTF_8));
+        assertEquals(person, new JsonDeserializer<>(Person.class, false).deserialize("person", personJson));
+        assertEquals(alien, new JsonDeserializer<>(Alien.class, false).deserialize("alien", alienJson));
+        assertEquals(pet, new JsonDeserializer<>(Pet.class, false).deserialize("pet", petJson));
+    }
+
+    @Test
+    @DisplayName("Should skip unknown fields and accept numbers as text")
+    void testLenientJson() {
+        // Given
+        JsonDeserializer<Person> deserializer = new JsonDeserializer<>(Person.class, false);
+        byte[] json = ("{\"id\":{\"$oid\":\"1\"},\"name\":\"Bob\",\"tags\":[1,[2]],\"age\":\"41\",\"gender\":null}")
+                .getBytes(StandardCharsets.UTF_8);
+
+        // When
+        Person person = deserializer.deserialize("person", json);
+
+        // Then
+        assertEquals(new Person("Bob", null, 41), person);
+    }
+
+    @Test
+    @DisplayName("Should map persons and aliens to documents and back")
+    void testDocumentRoundTrip() {
+        // Given
+        Person person = new Person("Ann", "female", 30);
+        Document stored = new Document("_id", "x").append("_class", "org.pranid.kafka.model.Alien")
+                .append("name", "Zorg").append("color", 1);
+
+        // When
+        Document document = PersonCodec.toDocument(person);
+
+        // Then
+        assertEquals(new Document("name", "Ann").append("gender", "female").append("age", 30), document);
+        assertEquals(person, new PersonCodec.DocumentReader().convert(document));
+        assertEquals(new Alien("Zorg", "purple"), AlienCodec.fromDocument(stored));
+        assertFalse(AlienCodec.toDocument(new Alien("Blip", null)).containsKey("color"));
+    }
+}
@@ -0,0 +1,55 @@
+package org.pranid.kafka.producer;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ConsistentHashPartitioner Unit Tests")
+class ConsistentHashPartitionerTest {
+
+    private final ConsistentHashPartitioner partitioner = new ConsistentHashPartitioner();
+
+    private static byte[] key(int i) {
+        return ("Person_" + i).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    @DisplayName("Should map the same key to the same partition")
+    void testStableMapping() {
+        // Given
+        partitioner.configure(Map.of());
+
+        // When & Then
+        for (int i = 0; i < 100; i++) {
+            int partition = partitioner.partitionFor(key(i), 6);
+            assertTrue(partition >= 0 && partition < 6);
+            assertEquals(partition, partitioner.partitionFor(key(i), 6));
+        }
+    }
+
+    @Test
+    @DisplayName("Should only move keys onto the new partition when partitions are added")
+    void testMinimalMovement() {
+        // Given
+        partitioner.configure(Map.of(ConsistentHashPartitioner.VIRTUAL_NODES_CONFIG, "128"));
+        int keys = 10_000;
+        int moved = 0;
+
+        // When
+        for (int i = 0; i < keys; i++) {
+            int before = partitioner.partitionFor(key(i), 4);
+            int after = partitioner.partitionFor(key(i), 5);
+            if (before != after) {
+                assertEquals(4, after);
+                moved++;
+            }
+        }
+
+        // Then - roughly 1/5 of the keys move, not the ~4/5 a modulo hash would move
+        assertTrue(moved < keys * 0.3, "moved " + moved);
+    }
+}
@@ -0,0 +1,69 @@
+package org.pranid.kafka.producer;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("InFlightLimiter Unit Tests")
+class InFlightLimiterTest {
+
+    @Test
+    @DisplayName("Should grant slots up to the limit and queue the rest")
+    void testAcquireAndRelease() {
+        // Given
+        InFlightLimiter limiter = new InFlightLimiter(2);
+        StepVerifier.create(limiter.acquire()).verifyComplete();
+        StepVerifier.create(limiter.acquire()).verifyComplete();
+
+        // When
+        AtomicBoolean granted = new AtomicBoolean();
+        limiter.acquire().doOnSuccess(v -> granted.set(true)).subscribe();
+
+        // Then
+        assertFalse(granted.get());
+        assertEquals(1, limiter.waiting());
+
+        limiter.release();
+        assertTrue(granted.get());
+        assertEquals(2, limiter.inFlight());
+        assertEquals(0, limiter.waiting());
+    }
+
+    @Test
+    @DisplayName("Should drop cancelled waiters without leaking slots")
+    void testCancelledWaiter() {
+        // Given
+        InFlightLimiter limiter = new InFlightLimiter(1);
+        limiter.acquire().block();
+        Disposable waiter = limiter.acquire().subscribe();
+
+        // When
+        waiter.dispose();
+        limiter.release();
+
+        // Then
+        assertEquals(0, limiter.waiting());
+        assertEquals(0, limiter.inFlight());
+    }
+
+    @Test
+    @DisplayName("Should time out when no slot is freed")
+    void testTimeout() {
+        // Given
+        InFlightLimiter limiter = new InFlightLimiter(1);
+        limiter.acquire().block();
+
+        // When & Then
+        StepVerifier.create(limiter.acquire().timeout(Duration.ofMillis(50)))
+                .expectError(TimeoutException.class)
+                .verify();
+        assertEquals(0, limiter.waiting());
+    }
+}
@@ -0,0 +1,89 @@
+package org.pranid.kafka.producer;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("KeyCoalescer Unit Tests")
+class KeyCoalescerTest {
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+
+    @AfterEach
+    void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Should send only the latest value per key within the window")
+    void testLatestValueWins() {
+        // Given
+        Map<String, String> sent = new ConcurrentHashMap<>();
+        KeyCoalescer<String> coalescer = new KeyCoalescer<>(sent::put, scheduler, 60_000, 100);
+
+        // When
+        coalescer.offer("ann", "v1");
+        coalescer.offer("ann", "v2");
+        coalescer.offer("bob", "v1");
+        coalescer.offer("ann", "v3");
+        coalescer.flushAll();
+
+        // Then
+        assertEquals(Map.of("ann", "v3", "bob", "v1"), sent);
+        assertEquals(4, coalescer.offered());
+        assertEquals(2, coalescer.coalesced());
+        assertEquals(0, coalescer.pendingKeys());
+    }
+
+    @Test
+    @DisplayName("Should pass through keyless values and new keys beyond the pending limit")
+    void testPassThrough() {
+        // Given
+        List<String> sent = new CopyOnWriteArrayList<>();
+        KeyCoalescer<String> coalescer = new KeyCoalescer<>((key, value) -> sent.add(value), scheduler, 60_000, 1);
+
+        // When
+        coalescer.offer("ann", "held");
+        coalescer.offer(null, "keyless");
+        coalescer.offer("bob", "overflow");
+        coalescer.offer("ann", "replaced");
+
+        // Then
+        assertEquals(List.of("keyless", "overflow"), sent);
+        assertEquals(1, coalescer.pendingKeys());
+        assertEquals(1, coalescer.coalesced());
+    }
+
+    @Test
+    @DisplayName("Should send when the window ends and start a new window afterwards")
+    void testWindowExpiry() throws InterruptedException {
+        // Given
+        List<String> sent = new CopyOnWriteArrayList<>();
+        CountDownLatch twoSends = new CountDownLatch(2);
+        KeyCoalescer<String> coalescer = new KeyCoalescer<>((key, value) -> {
+            sent.add(value);
+            twoSends.countDown();
+        }, scheduler, 20, 100);
+
+        // When
+        coalescer.offer("ann", "v1");
+        coalescer.offer("ann", "v2");
+        Thread.sleep(200);
+        coalescer.offer("ann", "v3");
+
+        // Then
+        assertTrue(twoSends.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of("v2", "v3"), sent);
+    }
+}
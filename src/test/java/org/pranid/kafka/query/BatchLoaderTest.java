@@ -0,0 +1,92 @@
+package org.pranid.kafka.query;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("BatchLoader Unit Tests")
+class BatchLoaderTest {
+
+    private final List<Set<String>> batches = new ArrayList<>();
+
+    private final Function<Set<String>, Mono<Map<String, String>>> batchLookup = keys -> {
+        synchronized (batches) {
+            batches.add(Set.copyOf(keys));
+        }
+        return Mono.just(keys.stream()
+                .filter(key -> !key.startsWith("missing"))
+                .collect(Collectors.toMap(key -> key, key -> "value-" + key)));
+    };
+
+    private final Function<String, Mono<String>> singleLookup = key -> batchLookup.apply(Set.of(key))
+            .flatMap(found -> Mono.justOrEmpty(found.get(key)));
+
+    @Test
+    @DisplayName("Should resolve ids requested within one tick with a single batch")
+    void testBatchesWithinTick() {
+        // Given
+        BatchLoader<String, String> loader = new BatchLoader<>(singleLookup, batchLookup, Duration.ofMillis(50), 100);
+
+        // When
+        List<String> values = Flux.merge(loader.load("a"), loader.load("b"), loader.load("a"), loader.load("c"))
+                .collectList()
+                .block(Duration.ofSeconds(1));
+
+        // Then
+        assertEquals(List.of(Set.of("a", "b", "c")), batches);
+        assertEquals(4, values.size());
+        assertEquals(2, values.stream().filter("value-a"::equals).count());
+    }
+
+    @Test
+    @DisplayName("Should dispatch as soon as the batch is full")
+    void testDispatchesFullBatch() {
+        // Given
+        BatchLoader<String, String> loader = new BatchLoader<>(singleLookup, batchLookup, Duration.ofMinutes(1), 2);
+
+        // When / Then - the one-minute tick never has to fire
+        StepVerifier.create(Flux.merge(loader.load("a"), loader.load("b")))
+                .expectNextCount(2)
+                .expectComplete()
+                .verify(Duration.ofSeconds(1));
+        assertEquals(List.of(Set.of("a", "b")), batches);
+    }
+
+    @Test
+    @DisplayName("Should complete empty for ids the batch did not find")
+    void testMissingIds() {
+        // Given
+        BatchLoader<String, String> loader = new BatchLoader<>(singleLookup, batchLookup, Duration.ofMillis(10), 100);
+
+        // When / Then
+        StepVerifier.create(Flux.merge(loader.load("missing"), loader.load("a")))
+                .expectNext("value-a")
+                .expectComplete()
+                .verify(Duration.ofSeconds(1));
+    }
+
+    @Test
+    @DisplayName("Should fail every waiting request when the batch fails")
+    void testPropagatesErrors() {
+        // Given
+        BatchLoader<String, String> loader = new BatchLoader<>(singleLookup,
+                keys -> Mono.error(new IllegalStateException("down")), Duration.ofMillis(10), 100);
+
+        // When / Then
+        StepVerifier.create(Mono.zip(loader.load("a"), loader.load("b")))
+                .expectError(IllegalStateException.class)
+                .verify(Duration.ofSeconds(1));
+    }
+}
@@ -0,0 +1,51 @@
+package org.pranid.kafka.query;
+
+import org.bson.Document;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ExplainSummary Unit Tests")
+class ExplainSummaryTest {
+
+    @Test
+    @DisplayName("Should summarize an index scan plan from the leaves up")
+    void testIndexScan() {
+        // Given
+        Document explain = Document.parse("""
+                {"queryPlanner": {"winningPlan": {"stage": "LIMIT", "inputStage": {"stage": "FETCH",
+                    "inputStage": {"stage": "IXSCAN", "indexName": "name"}}}},
+                 "executionStats": {"nReturned": 3, "totalKeysExamined": 3, "totalDocsExamined": 3}}
+                """);
+
+        // When
+        ExplainSummary summary = ExplainSummary.of(explain);
+
+        // Then
+        assertEquals(List.of("IXSCAN(name)", "FETCH", "LIMIT"), summary.stages());
+        assertEquals("IXSCAN(name) > FETCH > LIMIT", summary.plan());
+        assertFalse(summary.isCollectionScan());
+        assertEquals(3, summary.keysExamined());
+        assertEquals(3, summary.returned());
+    }
+
+    @Test
+    @DisplayName("Should flag collection scans in slot-based plans")
+    void testCollectionScan() {
+        // Given
+        Document explain = Document.parse("""
+                {"queryPlanner": {"winningPlan": {"queryPlan": {"stage": "COLLSCAN"}, "slotBasedPlan": {}}},
+                 "executionStats": {"nReturned": 1, "totalKeysExamined": 0, "totalDocsExamined": 50000}}
+                """);
+
+        // When
+        ExplainSummary summary = ExplainSummary.of(explain);
+
+        // Then
+        assertTrue(summary.isCollectionScan());
+        assertEquals(50000, summary.docsExamined());
+    }
+}
@@ -0,0 +1,123 @@
+package org.pranid.kafka.query;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.pranid.kafka.config.QueryCacheProperties;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.context.annotation.Import;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("QueryResultCache Unit Tests")
+class QueryResultCacheTest {
+
+    private final AtomicLong clock = new AtomicLong();
+    private final AtomicInteger executions = new AtomicInteger();
+    private QueryResultCache cache;
+
+    @BeforeEach
+    void setUp() {
+        QueryCacheProperties properties = new QueryCacheProperties();
+        properties.setTtl(Duration.ofSeconds(10));
+        properties.setMaxEntries(2);
+        cache = new QueryResultCache(properties, new SimpleMeterRegistry(), clock::get);
+    }
+
+    @Test
+    @DisplayName("Should share one execution between concurrent identical requests")
+    void testCoalescesInFlightRequests() {
+        // Given
+        Sinks.One<String> pending = Sinks.one();
+        Mono<String> first = cache.get("q", () -> load(pending.asMono()));
+        Mono<String> second = cache.get("q", () -> load(pending.asMono()));
+
+        // When
+        StepVerifier firstVerifier = StepVerifier.create(first).expectNext("result").expectComplete().verifyLater();
+        StepVerifier secondVerifier = StepVerifier.create(second).expectNext("result").expectComplete().verifyLater();
+        pending.tryEmitValue("result");
+
+        // Then
+        firstVerifier.verify(Duration.ofSeconds(1));
+        secondVerifier.verify(Duration.ofSeconds(1));
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    @DisplayName("Should serve cached results until the TTL passes")
+    void testExpiresAfterTtl() {
+        // Given
+        StepVerifier.create(cache.get("q", () -> load(Mono.just("a")))).expectNext("a").verifyComplete();
+
+        // When
+        clock.addAndGet(Duration.ofSeconds(9).toNanos());
+        StepVerifier.create(cache.get("q", () -> load(Mono.just("b")))).expectNext("a").verifyComplete();
+        clock.addAndGet(Duration.ofSeconds(2).toNanos());
+
+        // Then
+        StepVerifier.create(cache.get("q", () -> load(Mono.just("c")))).expectNext("c").verifyComplete();
+        assertEquals(2, executions.get());
+    }
+
+    @Test
+    @DisplayName("Should not cache failed executions")
+    void testDoesNotCacheErrors() {
+        // Given
+        StepVerifier.create(cache.get("q", () -> load(Mono.<String>error(new IllegalStateException("down")))))
+                .verifyError(IllegalStateException.class);
+
+        // When / Then
+        StepVerifier.create(cache.get("q", () -> load(Mono.just("ok")))).expectNext("ok").verifyComplete();
+        assertEquals(2, executions.get());
+    }
+
+    @Test
+    @DisplayName("Should bypass the cache once it holds the maximum number of live entries")
+    void testBoundedEntries() {
+        // Given
+        cache.get("a", () -> load(Mono.just("a"))).block();
+        cache.get("b", () -> load(Mono.just("b"))).block();
+
+        // When
+        cache.get("c", () -> load(Mono.just("c"))).block();
+
+        // Then
+        assertEquals(2, cache.size());
+        clock.addAndGet(Duration.ofSeconds(11).toNanos());
+        cache.get("c", () -> load(Mono.just("c"))).block();
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    @DisplayName("Should be created by the application context like a scanned component")
+    void testContextCreatesCache() {
+        new ApplicationContextRunner()
+                .withBean(QueryCacheProperties.class)
+                .withBean(MeterRegistry.class, SimpleMeterRegistry::new)
+                .withUserConfiguration(CacheSlice.class)
+                .run(context -> {
+                    assertNull(context.getStartupFailure());
+                    assertNotNull(context.getBean(QueryResultCache.class));
+                });
+    }
+
+    private <T> Mono<T> load(Mono<T> source) {
+        return Mono.defer(() -> {
+            executions.incrementAndGet();
+            return source;
+        });
+    }
+
+    @Import(QueryResultCache.class)
+    static class CacheSlice {
+    }
+}
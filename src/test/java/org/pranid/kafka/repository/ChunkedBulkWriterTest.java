@@ -0,0 +1,191 @@
+package org.pranid.kafka.repository;
+
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.ServerAddress;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.bulk.WriteConcernError;
+import com.mongodb.client.model.InsertOneModel;
+import com.mongodb.client.model.WriteModel;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.pranid.kafka.config.BulkWriteProperties;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ChunkedBulkWriter Unit Tests")
+class ChunkedBulkWriterTest {
+
+    private static final int PRIMARY_STEPPED_DOWN = 189;
+    private static final int DUPLICATE_KEY = 11000;
+    private static final int WRITE_CONCERN_FAILED = 64;
+
+    private final List<List<Integer>> sent = new ArrayList<>();
+
+    @Test
+    @DisplayName("Should split operations into chunks")
+    void testChunks() {
+        // Given
+        ChunkedBulkWriter writer = new ChunkedBulkWriter(properties(2));
+
+        // When
+        BulkWriteSummary summary = writer.write(operations(5), true, (batch, ordered) -> {
+            sent.add(numbers(batch));
+            return Mono.just(BulkWriteResult.unacknowledged());
+        }).block();
+
+        // Then
+        assertEquals(List.of(List.of(0, 1), List.of(2, 3), List.of(4)), sent);
+        assertTrue(summary.isComplete());
+        assertEquals(5, summary.succeeded());
+    }
+
+    @Test
+    @DisplayName("Should retry only the transiently failed operations and report permanent failures")
+    void testRetriesOnlyFailedOperations() {
+        // Given
+        ChunkedBulkWriter writer = new ChunkedBulkWriter(properties(10));
+
+        // When - operation 1 hits a step-down, operation 3 a duplicate key
+        BulkWriteSummary summary = writer.write(operations(4), false, (batch, ordered) -> {
+            sent.add(numbers(batch));
+            if (sent.size() == 1) {
+                return Mono.error(bulkError(batch, new BulkWriteError(PRIMARY_STEPPED_DOWN, "stepped down", new BsonDocument(), 1),
+                        new BulkWriteError(DUPLICATE_KEY, "duplicate key", new BsonDocument(), 3)));
+            }
+            return Mono.just(BulkWriteResult.unacknowledged());
+        }).block();
+
+        // Then
+        assertEquals(List.of(List.of(0, 1, 2, 3), List.of(1)), sent);
+        assertEquals(1, summary.retries());
+        assertEquals(List.of(new BulkWriteSummary.Failure(3, DUPLICATE_KEY, "duplicate key")), summary.failures());
+    }
+
+    @Test
+    @DisplayName("Should stop an ordered write at a permanent failure")
+    void testOrderedStopsAtPermanentFailure() {
+        // Given
+        ChunkedBulkWriter writer = new ChunkedBulkWriter(properties(2));
+
+        // When - the second operation of the first chunk fails
+        BulkWriteSummary summary = writer.write(operations(4), true, (batch, ordered) -> {
+            sent.add(numbers(batch));
+            return Mono.error(bulkError(batch, new BulkWriteError(DUPLICATE_KEY, "duplicate key", new BsonDocument(), 1)));
+        }).block();
+
+        // Then - the second chunk is never sent
+        assertEquals(List.of(List.of(0, 1)), sent);
+        assertEquals(3, summary.failures().size());
+        assertEquals(List.of(DUPLICATE_KEY, BulkWriteSummary.NOT_ATTEMPTED, BulkWriteSummary.NOT_ATTEMPTED),
+                summary.failures().stream().map(BulkWriteSummary.Failure::code).toList());
+    }
+
+    @Test
+    @DisplayName("Should give up after the configured number of retries")
+    void testGivesUp() {
+        // Given
+        ChunkedBulkWriter writer = new ChunkedBulkWriter(properties(10));
+
+        // When
+        BulkWriteSummary summary = writer.write(operations(2), false, (batch, ordered) -> {
+            sent.add(numbers(batch));
+            return Mono.error(bulkError(batch, new BulkWriteError(PRIMARY_STEPPED_DOWN, "stepped down", new BsonDocument(), 0)));
+        }).block();
+
+        // Then - one attempt plus two retries
+        assertEquals(3, sent.size());
+        assertEquals(2, summary.retries());
+        assertEquals(List.of(0), summary.failures().stream().map(BulkWriteSummary.Failure::index).toList());
+    }
+
+    @Test
+    @DisplayName("Should report a chunk whose write concern failed instead of counting it as written")
+    void testReportsWriteConcernFailure() {
+        // Given
+        ChunkedBulkWriter writer = new ChunkedBulkWriter(properties(2));
+
+        // When - the second chunk is applied on the primary but not acknowledged by a majority
+        BulkWriteSummary summary = writer.write(operations(4), false, (batch, ordered) -> {
+            sent.add(numbers(batch));
+            return numbers(batch).contains(2)
+                    ? Mono.error(concernError(batch, WRITE_CONCERN_FAILED))
+                    : Mono.just(BulkWriteResult.acknowledged(batch.size(), 0, 0, 0, List.of(), List.of()));
+        }).block();
+
+        // Then
+        assertFalse(summary.isComplete());
+        assertEquals(0, summary.retries());
+        assertEquals(List.of(2, 3), summary.failures().stream().map(BulkWriteSummary.Failure::index).toList());
+        assertEquals(Set.of(WRITE_CONCERN_FAILED),
+                Set.copyOf(summary.failures().stream().map(BulkWriteSummary.Failure::code).toList()));
+    }
+
+    @Test
+    @DisplayName("Should retry a chunk whose write concern failed because the primary stepped down")
+    void testRetriesRetryableWriteConcernFailure() {
+        // Given
+        ChunkedBulkWriter writer = new ChunkedBulkWriter(properties(10));
+
+        // When
+        BulkWriteSummary summary = writer.write(operations(2), false, (batch, ordered) -> {
+            sent.add(numbers(batch));
+            return sent.size() == 1
+                    ? Mono.error(concernError(batch, PRIMARY_STEPPED_DOWN))
+                    : Mono.just(BulkWriteResult.acknowledged(batch.size(), 0, 0, 0, List.of(), List.of()));
+        }).block();
+
+        // Then
+        assertEquals(List.of(List.of(0, 1), List.of(0, 1)), sent);
+        assertTrue(summary.isComplete());
+    }
+
+    @Test
+    @DisplayName("Should refuse an unacknowledged write concern for bulk writes")
+    void testRejectsUnacknowledgedWriteConcern() {
+        // Given
+        BulkWriteProperties properties = properties(10);
+        properties.setWriteConcern("unacknowledged");
+
+        // When / Then
+        assertThrows(IllegalArgumentException.class, () -> new ChunkedBulkWriter(properties));
+    }
+
+    private static BulkWriteProperties properties(int chunkSize) {
+        BulkWriteProperties properties = new BulkWriteProperties();
+        properties.setChunkSize(chunkSize);
+        properties.setMaxRetries(2);
+        properties.setRetryBackoff(Duration.ofMillis(1));
+        return properties;
+    }
+
+    private static List<WriteModel<Document>> operations(int count) {
+        return IntStream.range(0, count)
+                .<WriteModel<Document>>mapToObj(i -> new InsertOneModel<>(new Document("n", i)))
+                .toList();
+    }
+
+    private static List<Integer> numbers(List<WriteModel<Document>> batch) {
+        return batch.stream().map(operation -> ((InsertOneModel<Document>) operation).getDocument().getInteger("n")).toList();
+    }
+
+    private static MongoBulkWriteException bulkError(List<WriteModel<Document>> batch, BulkWriteError... errors) {
+        return new MongoBulkWriteException(BulkWriteResult.acknowledged(batch.size() - errors.length, 0, 0, 0, List.of(), List.of()),
+                List.of(errors), null, new ServerAddress(), Set.of());
+    }
+
+    private static MongoBulkWriteException concernError(List<WriteModel<Document>> batch, int code) {
+        return new MongoBulkWriteException(BulkWriteResult.acknowledged(batch.size(), 0, 0, 0, List.of(), List.of()),
+                List.of(), new WriteConcernError(code, "", "write concern error", new BsonDocument()),
+                new ServerAddress(), Set.of());
+    }
+}
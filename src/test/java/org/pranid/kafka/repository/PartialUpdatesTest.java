@@ -0,0 +1,50 @@
+package org.pranid.kafka.repository;
+
+import org.bson.Document;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("PartialUpdates Unit Tests")
+class PartialUpdatesTest {
+
+    private static final Set<String> FIELDS = Set.of("name", "gender", "age");
+
+    @Test
+    @DisplayName("Should set only the changed fields")
+    void testSetsChangedFields() {
+        // Given
+        Map<String, Object> changes = new LinkedHashMap<>();
+        changes.put("age", 31);
+        changes.put("gender", "female");
+
+        // When
+        Document update = PartialUpdates.set(changes, FIELDS).getUpdateObject();
+
+        // Then
+        assertEquals(new Document("$set", new Document("age", 31).append("gender", "female")), update);
+    }
+
+    @Test
+    @DisplayName("Should reject unknown fields and empty bulk filters")
+    void testRejectsInvalidInput() {
+        assertThrows(IllegalArgumentException.class, () -> PartialUpdates.set(Map.of("salary", 1), FIELDS));
+        assertThrows(IllegalArgumentException.class, () -> PartialUpdates.set(Map.of(), FIELDS));
+        assertThrows(IllegalArgumentException.class, () -> PartialUpdates.where(Map.of(), FIELDS));
+    }
+
+    @Test
+    @DisplayName("Should build an equality filter on every given field")
+    void testBuildsFilter() {
+        // When
+        Document filter = PartialUpdates.where(Map.of("gender", "male"), FIELDS).getCriteriaObject();
+
+        // Then
+        assertEquals(new Document("gender", "male"), filter);
+    }
+}
@@ -0,0 +1,72 @@
+package org.pranid.kafka.repository;
+
+import org.bson.Document;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.pranid.kafka.config.BulkWriteProperties;
+import org.pranid.kafka.config.ReadRoutingProperties;
+import org.pranid.kafka.query.SlowQueryLogger;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@DisplayName("PersonRepository Unit Tests")
+class PersonRepositoryTest {
+
+    @Test
+    @DisplayName("Should filter out negative ages before bucketing, so only ages from maxAge up are labelled maxAge+")
+    void testNegativeAgesNotInTopBucket() {
+        // Given - the server answers as MongoDB would for ages -5, 25 and 130
+        ReactiveMongoTemplate mongoTemplate = mock(ReactiveMongoTemplate.class);
+        List<Aggregation> aggregations = new ArrayList<>();
+        when(mongoTemplate.aggregate(any(Aggregation.class), eq("persons"), eq(Document.class)))
+                .thenAnswer(invocation -> {
+                    Aggregation aggregation = invocation.getArgument(0);
+                    aggregations.add(aggregation);
+                    Document match = aggregation.toPipeline(Aggregation.DEFAULT_CONTEXT).get(0);
+                    boolean negativeExcluded = match.equals(
+                            new Document("$match", new Document("age", new Document("$gte", 0))));
+                    return Flux.just(
+                            new Document("_id", 20).append("count", 1),
+                            new Document("_id", "other").append("count", negativeExcluded ? 1 : 2));
+                });
+        PersonRepository repository = new PersonRepository(mongoTemplate, new BulkWriteProperties(),
+                new ReadRouter(mongoTemplate, new ReadRoutingProperties()), mock(SlowQueryLogger.class));
+
+        // When
+        Map<String, Long> counts = repository.countByAgeRange(10, 120).block();
+
+        // Then
+        assertEquals(1, aggregations.size());
+        assertEquals(Map.of("20-29", 1L, "120+", 1L), counts);
+    }
+
+    @Test
+    @DisplayName("Should emit an invalid filter as an error signal instead of throwing")
+    void testInvalidFilterEmittedAsError() {
+        // Given
+        ReactiveMongoTemplate mongoTemplate = mock(ReactiveMongoTemplate.class);
+        PersonRepository repository = new PersonRepository(mongoTemplate, new BulkWriteProperties(),
+                new ReadRouter(mongoTemplate, new ReadRoutingProperties()), mock(SlowQueryLogger.class));
+
+        // When
+        Mono<Long> updated = repository.updateWhere(Map.of(), Map.of("age", 30));
+        Mono<Long> deleted = repository.deleteWhere(Map.of("unknown", 1));
+
+        // Then
+        StepVerifier.create(updated).expectError(IllegalArgumentException.class).verify();
+        StepVerifier.create(deleted).expectError(IllegalArgumentException.class).verify();
+    }
+}
@@ -0,0 +1,107 @@
+package org.pranid.kafka.repository;
+
+import com.mongodb.ReadPreference;
+import com.mongodb.WriteConcern;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.pranid.kafka.config.ReadRoutingProperties;
+import org.pranid.kafka.model.Person;
+import org.pranid.kafka.model.WindowResult;
+import org.springframework.data.mongodb.core.MongoAction;
+import org.springframework.data.mongodb.core.MongoActionOperation;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.WriteConcernResolver;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Query;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+@DisplayName("ReadRouter Unit Tests")
+class ReadRouterTest {
+
+    @Test
+    @DisplayName("Should route scans to secondaries with a staleness bound and point reads to the point preference")
+    void testReadPreferences() {
+        // Given
+        ReadRouter router = new ReadRouter(mock(ReactiveMongoTemplate.class), new ReadRoutingProperties());
+
+        // When
+        Query scan = router.scan(new Query());
+        Query point = router.point(new Query());
+
+        // Then
+        assertEquals(ReadPreference.secondaryPreferred(90, TimeUnit.SECONDS), scan.getReadPreference());
+        assertEquals(500, scan.getMeta().getCursorBatchSize());
+        assertEquals(ReadPreference.nearest(), point.getReadPreference());
+    }
+
+    @Test
+    @DisplayName("Should leave queries untouched when routing is disabled")
+    void testDisabled() {
+        // Given
+        ReadRoutingProperties properties = new ReadRoutingProperties();
+        properties.setEnabled(false);
+        ReadRouter router = new ReadRouter(mock(ReactiveMongoTemplate.class), properties);
+
+        // When / Then
+        assertFalse(router.scan(new Query()).hasReadPreference());
+        assertFalse(router.point(new Query()).hasReadPreference());
+        assertEquals(ReadPreference.primary(),
+                router.primary(Aggregation.newAggregation(Aggregation.count().as("n"))).getOptions()
+                        .getReadPreference());
+    }
+
+    @Test
+    @DisplayName("Should hold scans beyond the concurrency limit until a running scan finishes")
+    void testLimitsConcurrentScans() {
+        // Given
+        ReadRoutingProperties properties = new ReadRoutingProperties();
+        properties.setMaxConcurrentScans(1);
+        ReadRouter router = new ReadRouter(mock(ReactiveMongoTemplate.class), properties);
+        Sinks.Many<String> firstScan = Sinks.many().unicast().onBackpressureBuffer();
+        AtomicInteger secondSubscribed = new AtomicInteger();
+
+        // When
+        List<String> received = new CopyOnWriteArrayList<>();
+        router.limitScan(firstScan.asFlux()).subscribe(received::add);
+        router.limitScan(Flux.defer(() -> {
+            secondSubscribed.incrementAndGet();
+            return Flux.just("second");
+        })).subscribe(received::add);
+
+        // Then
+        assertEquals(0, secondSubscribed.get());
+        firstScan.tryEmitNext("first");
+        firstScan.tryEmitComplete();
+        assertEquals(1, secondSubscribed.get());
+        assertEquals(List.of("first", "second"), received);
+    }
+
+    @Test
+    @DisplayName("Should give session writes of persons and aliens the causal write concern only")
+    void testWriteConcernResolver() {
+        // Given
+        WriteConcernResolver resolver = ReadRouter.writeConcernResolver(new ReadRoutingProperties());
+
+        // When
+        WriteConcern person = resolver.resolve(action(Person.class));
+        WriteConcern windowResult = resolver.resolve(action(WindowResult.class));
+
+        // Then
+        assertEquals(WriteConcern.W1, person);
+        assertEquals(WriteConcern.UNACKNOWLEDGED, windowResult);
+    }
+
+    private static MongoAction action(Class<?> entityType) {
+        return new MongoAction(WriteConcern.UNACKNOWLEDGED, MongoActionOperation.INSERT, "collection", entityType,
+                null, null);
+    }
+}
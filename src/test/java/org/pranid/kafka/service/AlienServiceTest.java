@@ -6,7 +6,10 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.pranid.kafka.config.BatchLoaderProperties;
+import org.pranid.kafka.index.NameExistenceIndex;
 import org.pranid.kafka.model.Alien;
 import org.pranid.kafka.repository.AlienRepository;
 import reactor.core.publisher.Flux;
@@ -24,6 +27,12 @@ class AlienServiceTest {
     @Mock
     private AlienRepository alienRepository;
 
+    @Spy
+    private BatchLoaderProperties batchLoaderProperties = new BatchLoaderProperties();
+
+    @Mock
+    private NameExistenceIndex nameExistenceIndex;
+
     @InjectMocks
     private AlienService alienService;
 
@@ -38,7 +47,7 @@ class AlienServiceTest {
     @DisplayName("Should create alien successfully")
     void testCreateAlien() {
         // Given
-        when(alienRepository.insertAlien(any(Alien.class)))
+        when(alienRepository.insert(any(Alien.class)))
                 .thenReturn(Mono.just(testAlien));
 
         // When
@@ -49,7 +58,7 @@ class AlienServiceTest {
                 .expectNext(testAlien)
                 .verifyComplete();
 
-        verify(alienRepository, times(1)).insertAlien(testAlien);
+        verify(alienRepository, times(1)).insert(testAlien);
     }
 
     @Test
@@ -6,13 +6,18 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.pranid.kafka.config.BatchLoaderProperties;
+import org.pranid.kafka.index.NameExistenceIndex;
 import org.pranid.kafka.model.Person;
 import org.pranid.kafka.repository.PersonRepository;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
+import java.util.Map;
+
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
@@ -24,6 +29,12 @@ class PersonServiceTest {
     @Mock
     private PersonRepository personRepository;
 
+    @Spy
+    private BatchLoaderProperties batchLoaderProperties = new BatchLoaderProperties();
+
+    @Mock
+    private NameExistenceIndex nameExistenceIndex;
+
     @InjectMocks
     private PersonService personService;
 
@@ -38,7 +49,7 @@ class PersonServiceTest {
     @DisplayName("Should create person successfully")
     void testCreatePerson() {
         // Given
-        when(personRepository.insertPerson(any(Person.class)))
+        when(personRepository.insert(any(Person.class)))
                 .thenReturn(Mono.just(testPerson));
 
         // When
@@ -49,7 +60,7 @@ class PersonServiceTest {
                 .expectNext(testPerson)
                 .verifyComplete();
 
-        verify(personRepository, times(1)).insertPerson(testPerson);
+        verify(personRepository, times(1)).insert(testPerson);
     }
 
     @Test
@@ -95,7 +106,7 @@ class PersonServiceTest {
     @DisplayName("Should update person successfully")
     void testUpdatePerson() {
         // Given
-        when(personRepository.updatePerson(any(Person.class)))
+        when(personRepository.save(any(Person.class)))
                 .thenReturn(Mono.just(testPerson));
 
         // When
@@ -106,7 +117,7 @@ class PersonServiceTest {
                 .expectNext(testPerson)
                 .verifyComplete();
 
-        verify(personRepository, times(1)).updatePerson(testPerson);
+        verify(personRepository, times(1)).save(testPerson);
     }
 
     @Test
@@ -127,6 +138,43 @@ class PersonServiceTest {
         verify(personRepository, times(1)).deleteById(personId);
     }
 
+    @Test
+    @DisplayName("Should update only the given person fields")
+    void testUpdatePersonFields() {
+        // Given
+        String personId = "123";
+        Map<String, Object> changes = Map.of("age", 31);
+        when(personRepository.updateFields(personId, changes))
+                .thenReturn(Mono.just(true));
+
+        // When
+        Mono<Boolean> result = personService.updatePersonFields(personId, changes);
+
+        // Then
+        StepVerifier.create(result)
+                .expectNext(true)
+                .verifyComplete();
+
+        verify(personRepository, times(1)).updateFields(personId, changes);
+    }
+
+    @Test
+    @DisplayName("Should delete persons matching a filter")
+    void testDeletePersonsWhere() {
+        // Given
+        Map<String, Object> filter = Map.of("gender", "unknown");
+        when(personRepository.deleteWhere(filter))
+                .thenReturn(Mono.just(4L));
+
+        // When
+        Mono<Long> result = personService.deletePersonsWhere(filter);
+
+        // Then
+        StepVerifier.create(result)
+                .expectNext(4L)
+                .verifyComplete();
+    }
+
     @Test
     @DisplayName("Should handle error when person not found")
     void testGetPersonByIdNotFound() {
@@ -0,0 +1,79 @@
+package org.pranid.kafka.startup;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.beans.factory.support.GenericBeanDefinition;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("LazyPackagesBeanFactoryPostProcessor Unit Tests")
+class LazyPackagesBeanFactoryPostProcessorTest {
+
+    private static final AtomicInteger created = new AtomicInteger();
+
+    @Test
+    @DisplayName("Should mark only application beans under the configured packages lazy")
+    void testMarksMatchingBeansLazy() {
+        // Given
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerBeanDefinition("swaggerWelcome", definition("org.springdoc.webflux.ui.SwaggerWelcome"));
+        beanFactory.registerBeanDefinition("springdocLike", definition("org.springdocs.Other"));
+        beanFactory.registerBeanDefinition("consumer", definition("org.pranid.kafka.consumer.PersonKafkaConsumer"));
+        BeanDefinition infrastructure = definition("org.springdoc.core.SpringdocBeanFactoryConfigurer");
+        infrastructure.setRole(BeanDefinition.ROLE_INFRASTRUCTURE);
+        beanFactory.registerBeanDefinition("infrastructure", infrastructure);
+
+        // When
+        new LazyPackagesBeanFactoryPostProcessor(List.of("org.springdoc")).postProcessBeanFactory(beanFactory);
+
+        // Then
+        assertTrue(beanFactory.getBeanDefinition("swaggerWelcome").isLazyInit());
+        assertFalse(beanFactory.getBeanDefinition("springdocLike").isLazyInit());
+        assertFalse(beanFactory.getBeanDefinition("consumer").isLazyInit());
+        assertFalse(beanFactory.getBeanDefinition("infrastructure").isLazyInit());
+    }
+
+    @Test
+    @DisplayName("Should defer @Bean methods by the package of their configuration class")
+    void testDefersFactoryMethods() {
+        // Given
+        created.set(0);
+        try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext()) {
+            context.register(DocsConfig.class);
+            context.addBeanFactoryPostProcessor(
+                    new LazyPackagesBeanFactoryPostProcessor(List.of("org.pranid.kafka.startup")));
+
+            // When
+            context.refresh();
+
+            // Then
+            assertEquals(0, created.get());
+            assertNotNull(context.getBean("docs"));
+            assertEquals(1, created.get());
+        }
+    }
+
+    private static BeanDefinition definition(String className) {
+        GenericBeanDefinition definition = new GenericBeanDefinition();
+        definition.setBeanClassName(className);
+        return definition;
+    }
+
+    @Configuration
+    static class DocsConfig {
+
+        @Bean
+        StringBuilder docs() {
+            created.incrementAndGet();
+            return new StringBuilder("docs");
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package org.pranid.kafka.store;
+
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("MappedStateStore Unit Tests")
+class MappedStateStoreTest {
+
+    @TempDir
+    Path directory;
+
+    private static byte[] value(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    @DisplayName("Should put, overwrite and delete keys")
+    void testPutGetDelete() {
+        try (MappedStateStore store = new MappedStateStore(directory)) {
+            // When
+            for (int i = 0; i < 1000; i++) {
+                store.put("key-" + i, value("v" + i));
+            }
+            store.put("key-7", value("updated"));
+            store.delete("key-8");
+
+            // Then
+            assertEquals(999, store.size());
+            assertArrayEquals(value("updated"), store.get("key-7"));
+            assertNull(store.get("key-8"));
+            for (int i = 9; i < 1000; i++) {
+                assertArrayEquals(value("v" + i), store.get("key-" + i));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should restore the checkpointed state and offsets and drop later writes")
+    void testRestoreFromCheckpoint() {
+        // Given
+        TopicPartition partition = new TopicPartition("alien", 0);
+        try (MappedStateStore store = new MappedStateStore(directory)) {
+            store.put("alien.color.green", value("2"));
+            store.put("alien.color.purple", value("1"));
+            store.checkpoint(Map.of(partition, 41L));
+            store.put("alien.color.green", value("3"));
+            store.delete("alien.color.purple");
+        }
+
+        // When
+        try (MappedStateStore restored = new MappedStateStore(directory)) {
+            // Then
+            assertEquals(Map.of(partition, 41L), restored.restoredOffsets());
+            assertArrayEquals(value("2"), restored.get("alien.color.green"));
+            assertArrayEquals(value("1"), restored.get("alien.color.purple"));
+        }
+    }
+
+    @Test
+    @DisplayName("Should compact superseded entries and stay restorable")
+    void testCompaction() {
+        // Given
+        byte[] payload = new byte[1024];
+        try (MappedStateStore store = new MappedStateStore(directory)) {
+            for (int round = 0; round < 20; round++) {
+                for (int i = 0; i < 100; i++) {
+                    store.put("key-" + i, payload);
+                }
+            }
+            store.put("marker", value("last"));
+
+            // When
+            store.checkpoint(Map.of());
+        }
+
+        // Then
+        try (MappedStateStore restored = new MappedStateStore(directory)) {
+            assertEquals(101, restored.size());
+            assertArrayEquals(value("last"), restored.get("marker"));
+            assertEquals(1024, restored.get("key-42").length);
+        }
+    }
+}
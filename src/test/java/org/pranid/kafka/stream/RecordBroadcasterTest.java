@@ -0,0 +1,92 @@
+package org.pranid.kafka.stream;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DisplayName("RecordBroadcaster Unit Tests")
+class RecordBroadcasterTest {
+
+    private final RecordBroadcaster<Integer> broadcaster = new RecordBroadcaster<>("test", 4, Schedulers.immediate());
+
+    @Test
+    @DisplayName("Should deliver records published after subscribing, in order")
+    void testDeliversInOrder() {
+        // Given
+        broadcaster.publish(0);
+
+        // When & Then
+        StepVerifier.create(broadcaster.subscribe(OverflowPolicy.DROP_OLDEST))
+                .then(() -> publish(1, 3))
+                .expectNext(1, 2, 3)
+                .thenCancel()
+                .verify();
+        assertEquals(0, broadcaster.subscriberCount());
+    }
+
+    @Test
+    @DisplayName("Should skip overwritten records for drop-oldest subscribers")
+    void testDropOldest() {
+        // Given - a subscriber without demand while six records pass through a ring of four
+        StepVerifier.create(broadcaster.subscribe(OverflowPolicy.DROP_OLDEST), 0)
+                .then(() -> publish(1, 6))
+                // When
+                .thenRequest(10)
+                // Then
+                .expectNext(3, 4, 5, 6)
+                .thenCancel()
+                .verify();
+        assertEquals(2, broadcaster.dropped());
+    }
+
+    @Test
+    @DisplayName("Should jump to the newest record for latest-only subscribers")
+    void testLatestOnly() {
+        StepVerifier.create(broadcaster.subscribe(OverflowPolicy.LATEST_ONLY), 0)
+                .then(() -> publish(1, 3))
+                .thenRequest(1)
+                .expectNext(3)
+                .then(() -> publish(4, 4))
+                .thenRequest(1)
+                .expectNext(4)
+                .thenCancel()
+                .verify();
+        assertEquals(2, broadcaster.dropped());
+    }
+
+    @Test
+    @DisplayName("Should disconnect a slow subscriber without affecting the others")
+    void testDisconnect() {
+        // Given
+        StepVerifier.create(broadcaster.subscribe(OverflowPolicy.DISCONNECT), 0)
+                .then(() -> publish(1, 5))
+                // When
+                .thenRequest(1)
+                // Then
+                .expectError(SlowSubscriberException.class)
+                .verify();
+        assertEquals(1, broadcaster.disconnected());
+
+        StepVerifier.create(broadcaster.subscribe(OverflowPolicy.DISCONNECT))
+                .then(() -> publish(6, 7))
+                .expectNext(6, 7)
+                .thenCancel()
+                .verify();
+    }
+
+    @Test
+    @DisplayName("Should round the buffer up to a power of two")
+    void testCapacity() {
+        assertEquals(8, new RecordBroadcaster<>("test", 5).capacity());
+        assertEquals(1, new RecordBroadcaster<>("test", 1).capacity());
+    }
+
+    private void publish(int from, int to) {
+        IntStream.rangeClosed(from, to).forEach(broadcaster::publish);
+    }
+}
@@ -0,0 +1,58 @@
+package org.pranid.kafka.view;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.pranid.kafka.config.ViewProperties;
+import org.pranid.kafka.model.Alien;
+import org.pranid.kafka.model.Person;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("AggregateViews Unit Tests")
+class AggregateViewsTest {
+
+    private AggregateViews aggregateViews;
+
+    @BeforeEach
+    void setUp() {
+        aggregateViews = new AggregateViews(new ViewProperties());
+    }
+
+    @Test
+    @DisplayName("Should count each record once when live and replay sources overlap")
+    void testLiveAndReplayOverlap() {
+        // Given - live consumer starts mid-topic, replay starts from the beginning
+        Alien green = new Alien("Zorg", "green");
+        Alien purple = new Alien("Klaatu", "purple");
+
+        // When
+        aggregateViews.onAlien(0, 2, green, AggregateViews.Source.LIVE);
+        aggregateViews.onAlien(0, 0, purple, AggregateViews.Source.REPLAY);
+        aggregateViews.onAlien(0, 1, green, AggregateViews.Source.LIVE);
+        aggregateViews.onAlien(0, 1, green, AggregateViews.Source.REPLAY);
+        aggregateViews.onAlien(0, 2, green, AggregateViews.Source.REPLAY);
+        aggregateViews.onAlien(0, 3, purple, AggregateViews.Source.LIVE);
+        aggregateViews.onAlien(0, 3, purple, AggregateViews.Source.REPLAY);
+
+        // Then
+        assertEquals(Map.of("green", 2L, "purple", 2L), aggregateViews.aliensByColor());
+    }
+
+    @Test
+    @DisplayName("Should bucket person ages and count genders")
+    void testPersonViews() {
+        // When
+        aggregateViews.onPerson(0, 0, new Person("John", "male", 25), AggregateViews.Source.REPLAY);
+        aggregateViews.onPerson(0, 1, new Person("Jane", "female", 29), AggregateViews.Source.REPLAY);
+        aggregateViews.onPerson(0, 2, new Person("Old", "male", 150), AggregateViews.Source.LIVE);
+
+        // Then
+        assertEquals(Map.of("male", 2L, "female", 1L), aggregateViews.personsByGender());
+        Map<String, Long> histogram = aggregateViews.personAgeHistogram();
+        assertEquals(2L, histogram.get("20-29"));
+        assertEquals(1L, histogram.get("120+"));
+    }
+}
@@ -0,0 +1,39 @@
+package org.pranid.kafka.view;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("LabelCounts Unit Tests")
+class LabelCountsTest {
+
+    @Test
+    @DisplayName("Should keep a real \"other\" label apart from the overflow through a checkpoint restore")
+    void testRealOtherLabelNextToOverflow() {
+        // Given
+        LabelCounts counts = new LabelCounts(2);
+        counts.increment("other");
+        counts.increment("other");
+        counts.increment("female");
+        counts.increment("male");
+        counts.increment(null);
+
+        // When
+        Map<String, Long> snapshot = counts.snapshot();
+        LabelCounts restored = new LabelCounts(2);
+        snapshot.forEach(restored::set);
+
+        // Then
+        assertEquals(Map.of("other", 2L, "female", 1L, LabelCounts.OTHER, 2L), snapshot);
+        assertEquals(2, counts.count("other"));
+        assertEquals(2, counts.count(LabelCounts.OTHER));
+        Map<String, Long> visited = new LinkedHashMap<>();
+        restored.forEach(visited::put);
+        assertEquals(snapshot, visited);
+        assertEquals(2, restored.count("other"));
+    }
+}
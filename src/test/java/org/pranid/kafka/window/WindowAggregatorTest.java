@@ -0,0 +1,64 @@
+package org.pranid.kafka.window;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.pranid.kafka.model.WindowResult;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("WindowAggregator Unit Tests")
+class WindowAggregatorTest {
+
+    @Test
+    @DisplayName("Should close tumbling windows once the watermark passes their end")
+    void testTumblingWindows() {
+        // Given
+        WindowAggregator aggregator = new WindowAggregator("per-color", 60_000, 60_000, 10_000);
+
+        // When
+        aggregator.add("green", 1_000);
+        aggregator.add("green", 59_000);
+        aggregator.add("purple", 30_000);
+        List<WindowResult> beforeLateness = aggregator.add("green", 65_000);
+        List<WindowResult> closed = aggregator.add("green", 70_000);
+
+        // Then
+        assertTrue(beforeLateness.isEmpty());
+        assertEquals(List.of(
+                new WindowResult("per-color", "green", 0, 60_000, 2),
+                new WindowResult("per-color", "purple", 0, 60_000, 1)), closed);
+    }
+
+    @Test
+    @DisplayName("Should count a record in every overlapping hopping window")
+    void testHoppingWindows() {
+        // Given
+        WindowAggregator aggregator = new WindowAggregator("per-gender", 300_000, 60_000, 0);
+
+        // When
+        aggregator.add("male", 250_000);
+        List<WindowResult> closed = aggregator.advanceTo(600_000);
+
+        // Then - windows starting at 0, 60s, 120s, 180s and 240s all contain 250s
+        assertEquals(5, closed.size());
+        assertTrue(closed.stream().allMatch(result -> result.getCount() == 1));
+    }
+
+    @Test
+    @DisplayName("Should drop records for windows that already closed")
+    void testLateRecords() {
+        // Given
+        WindowAggregator aggregator = new WindowAggregator("per-color", 60_000, 60_000, 0);
+        aggregator.add("green", 130_000);
+
+        // When
+        List<WindowResult> results = aggregator.add("green", 10_000);
+
+        // Then
+        assertTrue(results.isEmpty());
+        assertEquals(1, aggregator.lateRecords());
+        assertEquals(1, aggregator.openWindowCount());
+    }
+}
@@ -0,0 +1,106 @@
+package org.pranid.kafka.window;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.pranid.kafka.config.WindowProperties;
+import org.pranid.kafka.model.Alien;
+import org.pranid.kafka.model.Person;
+import org.pranid.kafka.model.WindowResult;
+import org.pranid.kafka.producer.ReactiveKafkaProducer;
+import org.pranid.kafka.repository.WindowResultRepository;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.context.annotation.Import;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@DisplayName("WindowEngine Unit Tests")
+class WindowEngineTest {
+
+    private final AtomicLong clock = new AtomicLong();
+    private final List<String> stored = new CopyOnWriteArrayList<>();
+    private WindowEngine engine;
+
+    @AfterEach
+    void close() {
+        engine.destroy();
+    }
+
+    @Test
+    @DisplayName("Should close a quiet topic's windows on the idle timeout while another topic is busy")
+    void testIdleTimeoutPerTopic() {
+        // Given
+        engine = new WindowEngine(properties(), repository(), mock(ReactiveKafkaProducer.class),
+                new SimpleMeterRegistry(), clock::get);
+        engine.onRecord("alien", new Alien("Zorg", "green"), 0);
+        engine.onRecord("person", new Person("Ada", "female", 36), 0);
+
+        // When - only person keeps receiving records
+        clock.set(100_000);
+        engine.onRecord("person", new Person("Alan", "male", 41), 100_000);
+        stored.clear();
+        engine.tickIdle();
+
+        // Then
+        assertEquals(List.of("aliens-1m/green"), stored);
+    }
+
+    @Test
+    @DisplayName("Should be created by the application context like a scanned component")
+    void testContextCreatesEngine() {
+        new ApplicationContextRunner()
+                .withBean(WindowProperties.class)
+                .withBean(WindowResultRepository.class, () -> mock(WindowResultRepository.class))
+                .withBean(ReactiveKafkaProducer.class, () -> mock(ReactiveKafkaProducer.class))
+                .withBean(MeterRegistry.class, SimpleMeterRegistry::new)
+                .withUserConfiguration(EngineSlice.class)
+                .run(context -> {
+                    assertNull(context.getStartupFailure());
+                    engine = context.getBean(WindowEngine.class);
+                });
+    }
+
+    private WindowProperties properties() {
+        WindowProperties properties = new WindowProperties();
+        properties.setIdleTimeout(Duration.ofSeconds(30));
+        properties.getDefinitions().add(definition("aliens-1m", "alien", "color"));
+        properties.getDefinitions().add(definition("persons-1m", "person", "gender"));
+        return properties;
+    }
+
+    private static WindowProperties.Definition definition(String name, String topic, String keyField) {
+        WindowProperties.Definition definition = new WindowProperties.Definition();
+        definition.setName(name);
+        definition.setTopic(topic);
+        definition.setKeyField(keyField);
+        definition.setSize(Duration.ofMinutes(1));
+        return definition;
+    }
+
+    @SuppressWarnings("unchecked")
+    private WindowResultRepository repository() {
+        WindowResultRepository repository = mock(WindowResultRepository.class);
+        when(repository.insertAll(anyList(), anyInt())).thenAnswer(invocation -> {
+            List<WindowResult> results = invocation.getArgument(0);
+            results.forEach(result -> stored.add(result.getWindow() + "/" + result.getKey()));
+            return Mono.just((long) results.size());
+        });
+        return repository;
+    }
+
+    @Import(WindowEngine.class)
+    static class EngineSlice {
+    }
+}